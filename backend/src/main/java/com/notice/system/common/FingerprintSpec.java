@@ -0,0 +1,285 @@
+package com.notice.system.common;
+
+import com.notice.system.entity.*;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncEntityType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 行指纹定义：每个实体参与比对的业务字段只在这里定义一次，
+ * 既在 Java 端拼规范串（{@link SnapshotUtil#buildFingerprint}），也渲染成三种方言的 SHA-256 表达式在库内计算，
+ * 两边得到相同的小写 hex，快照/对账只需要从库里取 (id, hash)。
+ *
+ * <p>规范串：label=value 以 | 连接，排除 createTime/updateTime 这类“自然会变”的字段。value 规则：</p>
+ * <ul>
+ *   <li>TEXT：与 String.trim() 一致去掉首尾 ≤ U+0020 的字符（空格、制表符、换行等），再把 \r\n、\r 统一为 \n</li>
+ *   <li>NUMBER：十进制字符串</li>
+ *   <li>TIME：截断到秒，yyyy-MM-dd HH:mm:ss，避免不同库精度差异</li>
+ *   <li>null 一律为空串，不会产生 "null"</li>
+ * </ul>
+ */
+public final class FingerprintSpec {
+
+    public enum Kind { TEXT, NUMBER, TIME }
+
+    /** SHA256：与库内表达式一致（默认）；MURMUR3_128：非加密 128 位 hash，更快，但只能在纯 Java 计算时使用 */
+    public enum Algorithm { SHA256, MURMUR3_128 }
+
+    private record Field(String label, String column, Kind kind, Function<Object, Object> getter) {
+    }
+
+    private static final DateTimeFormatter DT_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** SQL Server 的 TRIM 字符集：NCHAR(1) + ... + NCHAR(32) */
+    private static final String SQLSERVER_TRIM_CHARS = sqlserverTrimChars();
+
+    private static final Map<SyncEntityType, FingerprintSpec> SPECS = new EnumMap<>(SyncEntityType.class);
+
+    /** 未单独定义的实体（系统表）只比较主键 */
+    private static final FingerprintSpec ID_ONLY = new Builder<>()
+            .text("id", "id", FingerprintSpec::extractIdGeneric)
+            .build();
+
+    static {
+        SPECS.put(SyncEntityType.USER, new Builder<User>()
+                .text("username", "username", User::getUsername)
+                .text("roleId", "role_id", User::getRoleId)
+                .text("deptId", "dept_id", User::getDeptId)
+                .text("nickname", "nickname", User::getNickname)
+                .text("email", "email", User::getEmail)
+                .text("phone", "phone", User::getPhone)
+                .number("status", "status", User::getStatus)
+                .build());
+        SPECS.put(SyncEntityType.ROLE, new Builder<Role>()
+                .text("name", "name", Role::getName)
+                .build());
+        SPECS.put(SyncEntityType.DEPT, new Builder<Dept>()
+                .text("name", "name", Dept::getName)
+                .text("parentId", "parent_id", Dept::getParentId)
+                .text("description", "description", Dept::getDescription)
+                .number("sortOrder", "sort_order", Dept::getSortOrder)
+                .number("status", "status", Dept::getStatus)
+                .build());
+        SPECS.put(SyncEntityType.NOTICE, new Builder<Notice>()
+                .text("title", "title", Notice::getTitle)
+                .text("content", "content", Notice::getContent)
+                .text("publisherId", "publisher_id", Notice::getPublisherId)
+                .text("level", "level", Notice::getLevel)
+                .text("status", "status", Notice::getStatus)
+                .time("publishTime", "publish_time", Notice::getPublishTime)
+                .time("expireTime", "expire_time", Notice::getExpireTime)
+                .build());
+        SPECS.put(SyncEntityType.NOTICE_TARGET_DEPT, new Builder<NoticeTargetDept>()
+                .text("noticeId", "notice_id", NoticeTargetDept::getNoticeId)
+                .text("deptId", "dept_id", NoticeTargetDept::getDeptId)
+                .build());
+        SPECS.put(SyncEntityType.NOTICE_READ, new Builder<NoticeRead>()
+                .text("noticeId", "notice_id", NoticeRead::getNoticeId)
+                .text("userId", "user_id", NoticeRead::getUserId)
+                .time("readTime", "read_time", NoticeRead::getReadTime)
+                .text("deviceType", "device_type", NoticeRead::getDeviceType)
+                .build());
+    }
+
+    private final List<Field> fields;
+    /** 每个字段前缀（"|label="，首个字段无 "|"）的 UTF-8 字节，流式计算时直接写入 */
+    private final byte[][] prefixes;
+    private final Map<DatabaseType, String> sqlByDb = new EnumMap<>(DatabaseType.class);
+
+    private FingerprintSpec(List<Field> fields) {
+        this.fields = List.copyOf(fields);
+        this.prefixes = new byte[this.fields.size()][];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = ((i > 0 ? "|" : "") + this.fields.get(i).label() + "=").getBytes(StandardCharsets.UTF_8);
+        }
+        for (DatabaseType db : DatabaseType.values()) {
+            sqlByDb.put(db, render(db));
+        }
+    }
+
+    public static FingerprintSpec of(SyncEntityType type) {
+        return SPECS.getOrDefault(type, ID_ONLY);
+    }
+
+    /** Java 端规范串（与 {@link #hashSql} 在库内拼出的串逐字节一致）。 */
+    public String fingerprint(Object row) {
+        if (row == null) return "";
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            if (i > 0) sb.append('|');
+            sb.append(f.label()).append('=').append(javaValue(f.kind(), f.getter().apply(row)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 流式计算行指纹（小写 hex）：规范化字段直接写入当前线程复用的摘要器，不拼中间串。
+     * SHA256 下与 sha256({@link #fingerprint}) 逐字节一致；row 为 null 时等同空串的 hash。
+     */
+    public String hash(Object row, Algorithm algorithm) {
+        RowFingerprinter f = RowFingerprinter.begin(algorithm);
+        if (row != null) {
+            for (int i = 0; i < prefixes.length; i++) {
+                Field field = fields.get(i);
+                f.putBytes(prefixes[i]);
+                putValue(f, field.kind(), field.getter().apply(row));
+            }
+        }
+        return f.finishHex();
+    }
+
+    /** 该库方言下计算行指纹（SHA-256 小写 hex）的 SQL 表达式，列名已按方言加引号。 */
+    public String hashSql(DatabaseType db) {
+        return sqlByDb.get(db == null ? DatabaseType.MYSQL : db);
+    }
+
+    /* ======================== Java 端取值 ======================== */
+
+    private static String javaValue(Kind kind, Object v) {
+        if (v == null) return "";
+        return switch (kind) {
+            case TEXT -> normText(String.valueOf(v));
+            case NUMBER -> String.valueOf(v);
+            case TIME -> DT_FMT.format(((LocalDateTime) v).truncatedTo(ChronoUnit.SECONDS));
+        };
+    }
+
+    private static void putValue(RowFingerprinter f, Kind kind, Object v) {
+        if (v == null) return;
+        switch (kind) {
+            case TEXT -> f.putText(String.valueOf(v));
+            case NUMBER -> {
+                if (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte) {
+                    f.putLong(((Number) v).longValue());
+                } else {
+                    f.putText(String.valueOf(v));
+                }
+            }
+            case TIME -> {
+                LocalDateTime t = (LocalDateTime) v;
+                if (t.getYear() >= 0 && t.getYear() <= 9999) {
+                    f.putTime(t);
+                } else {
+                    f.putText(DT_FMT.format(t.truncatedTo(ChronoUnit.SECONDS)));
+                }
+            }
+        }
+    }
+
+    /** 文本标准化：trim + 统一换行，避免 \r\n / \r 造成假 mismatch */
+    private static String normText(String s) {
+        return s.trim().replace("\r\n", "\n").replace("\r", "\n");
+    }
+
+    private static Object extractIdGeneric(Object row) {
+        try {
+            return row.getClass().getMethod("getId").invoke(row);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /* ======================== SQL 渲染 ======================== */
+
+    private String render(DatabaseType db) {
+        List<String> parts = new ArrayList<>(fields.size() * 2);
+        for (int i = 0; i < fields.size(); i++) {
+            Field f = fields.get(i);
+            parts.add(literal(db, (i > 0 ? "|" : "") + f.label() + "="));
+            parts.add(sqlValue(db, f));
+        }
+
+        return switch (db) {
+            case MYSQL -> "SHA2(CONCAT(" + String.join(", ", parts) + "), 256)";
+            case PG -> "encode(sha256(convert_to(" + String.join(" || ", parts) + ", 'UTF8')), 'hex')";
+            // HASHBYTES 按字节计算：先转成 UTF-8 的 VARCHAR（2019+ 的 UTF-8 排序规则），与另外两库一致
+            case SQLSERVER -> "LOWER(CONVERT(VARCHAR(64), HASHBYTES('SHA2_256', CAST(CONCAT("
+                    + String.join(", ", parts)
+                    + ") COLLATE Latin1_General_100_CI_AS_SC_UTF8 AS VARCHAR(MAX))), 2))";
+        };
+    }
+
+    private static String literal(DatabaseType db, String text) {
+        return (db == DatabaseType.SQLSERVER ? "N'" : "'") + text + "'";
+    }
+
+    private static String sqlValue(DatabaseType db, Field f) {
+        String col = quote(db, f.column());
+        return switch (db) {
+            // TEXT 的首尾裁剪按 String.trim()：去掉 U+0000..U+0020，而不只是空格（MySQL 字面量里的反斜杠要再转义一次）
+            case MYSQL -> switch (f.kind()) {
+                case TEXT -> "REGEXP_REPLACE(REPLACE(REPLACE(COALESCE(" + col + ", ''), "
+                        + "CHAR(13, 10 USING utf8mb4), CHAR(10 USING utf8mb4)), "
+                        + "CHAR(13 USING utf8mb4), CHAR(10 USING utf8mb4)), '^[\\\\x00-\\\\x20]+|[\\\\x00-\\\\x20]+$', '')";
+                case NUMBER -> "COALESCE(CAST(" + col + " AS CHAR), '')";
+                case TIME -> "COALESCE(DATE_FORMAT(" + col + ", '%Y-%m-%d %H:%i:%s'), '')";
+            };
+            case PG -> switch (f.kind()) {
+                // PG 的 text 不能含 U+0000
+                case TEXT -> "regexp_replace(replace(replace(COALESCE(" + col + "::text, ''), "
+                        + "chr(13) || chr(10), chr(10)), chr(13), chr(10)), '^[\\x01-\\x20]+|[\\x01-\\x20]+$', '', 'g')";
+                case NUMBER -> "COALESCE(" + col + "::text, '')";
+                case TIME -> "COALESCE(to_char(" + col + ", 'YYYY-MM-DD HH24:MI:SS'), '')";
+            };
+            case SQLSERVER -> switch (f.kind()) {
+                // TRIM(chars FROM ...) 需 SQL Server 2022+；按二进制排序规则比较，控制字符不会被排序规则忽略
+                case TEXT -> "TRIM(" + SQLSERVER_TRIM_CHARS + " FROM REPLACE(REPLACE(COALESCE(CAST(" + col + " AS NVARCHAR(MAX)), N''), "
+                        + "NCHAR(13) + NCHAR(10), NCHAR(10)), NCHAR(13), NCHAR(10)) COLLATE Latin1_General_100_BIN2)";
+                case NUMBER -> "COALESCE(CAST(" + col + " AS NVARCHAR(40)), N'')";
+                case TIME -> "COALESCE(CONVERT(NVARCHAR(19), " + col + ", 120), N'')";
+            };
+        };
+    }
+
+    private static String sqlserverTrimChars() {
+        StringJoiner sj = new StringJoiner(" + ", "(", ")");
+        for (int c = 1; c <= 0x20; c++) {
+            sj.add("NCHAR(" + c + ")");
+        }
+        return sj.toString();
+    }
+
+    private static String quote(DatabaseType db, String column) {
+        return switch (db) {
+            case MYSQL -> "`" + column + "`";
+            case PG -> "\"" + column + "\"";
+            case SQLSERVER -> "[" + column + "]";
+        };
+    }
+
+    /* ======================== Builder ======================== */
+
+    private static final class Builder<T> {
+        private final List<Field> fields = new ArrayList<>();
+
+        Builder<T> text(String label, String column, Function<T, ?> getter) {
+            return add(label, column, Kind.TEXT, getter);
+        }
+
+        Builder<T> number(String label, String column, Function<T, ?> getter) {
+            return add(label, column, Kind.NUMBER, getter);
+        }
+
+        Builder<T> time(String label, String column, Function<T, LocalDateTime> getter) {
+            return add(label, column, Kind.TIME, getter);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Builder<T> add(String label, String column, Kind kind, Function<T, ?> getter) {
+            fields.add(new Field(label, column, kind, (Function<Object, Object>) (Function<?, ?>) getter));
+            return this;
+        }
+
+        FingerprintSpec build() {
+            return new FingerprintSpec(fields);
+        }
+    }
+}
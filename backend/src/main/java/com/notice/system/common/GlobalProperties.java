@@ -4,6 +4,9 @@ import com.notice.system.entityEnum.DatabaseType;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 全局配置项：对应 application.yml 里的 notice.* 节点
  */
@@ -33,6 +36,23 @@ public class GlobalProperties {
         private Retry retry = new Retry();
         private Full full = new Full();
         private Conflict conflict = new Conflict();
+        private Async async = new Async();
+        private FanOut fanOut = new FanOut();
+        private Batch batch = new Batch();
+        private Reconcile reconcile = new Reconcile();
+        private Upsert upsert = new Upsert();
+        private Diff diff = new Diff();
+        private Fingerprint fingerprint = new Fingerprint();
+        private Coalesce coalesce = new Coalesce();
+        private Breaker breaker = new Breaker();
+        private Outbox outbox = new Outbox();
+        private LogWriter logWriter = new LogWriter();
+        private AuditShip auditShip = new AuditShip();
+        private LogRollup logRollup = new LogRollup();
+        private LogClean logClean = new LogClean();
+        private Incremental incremental = new Incremental();
+        private Lease lease = new Lease();
+        private EventBus eventBus = new EventBus();
 
         @Data
         public static class Retry {
@@ -42,6 +62,228 @@ public class GlobalProperties {
             private int maxRetryCount = 3;
             /** 重试任务执行间隔（毫秒） */
             private long fixedDelayMs = 60000;
+            /** 每页拉取的到期 FAILED 日志条数 */
+            private int pageSize = 200;
+            /** 单轮最多处理的页数（剩余的下轮继续） */
+            private int maxPages = 20;
+            /** 退避基数（毫秒）：第 n 次失败后等待 base * 2^(n-1) */
+            private long backoffBaseMs = 30000;
+            /** 退避上限（毫秒） */
+            private long backoffMaxMs = 1800000;
+            /** 退避抖动比例（0~1），错开同一时刻失败的日志 */
+            private double backoffJitter = 0.2;
+            /** 每个目标库同时重试的线程数 */
+            private int perTargetConcurrency = 2;
+        }
+
+        @Data
+        public static class Async {
+            /** 是否启用异步同步：写请求只做本地写，目标库同步交给后台队列 */
+            private boolean enabled = false;
+            /** 每个目标库的工作线程数（同一实体固定落在同一线程，保证顺序） */
+            private int workersPerTarget = 4;
+            /** 每个工作线程的队列容量 */
+            private int queueCapacity = 2000;
+            /** 队列满时提交方最多等待该时间（毫秒），超时记 FAILED 交给重试 */
+            private long offerTimeoutMs = 2000;
+            /** 停机时等待队列排空的最长时间（毫秒） */
+            private long shutdownAwaitMs = 10000;
+        }
+
+        @Data
+        public static class FanOut {
+            /** 是否并行同步到各目标库（关闭则按顺序逐个目标执行） */
+            private boolean enabled = true;
+            /** 扇出线程数 */
+            private int threads = 8;
+            /** 扇出线程池队列容量（满了由调用线程直接执行） */
+            private int queueCapacity = 200;
+            /** 单个目标库 apply 的最长等待时间（毫秒），超时记 FAILED 交给重试 */
+            private long targetTimeoutMs = 10000;
+            /** 批量 apply 每行追加的等待（毫秒）：批量超时 = targetTimeoutMs + 行数 × 该值 */
+            private long batchRowTimeoutMs = 50;
+        }
+
+        @Data
+        public static class Batch {
+            /** 批量同步是否走 applyBatch（关闭则逐条 submitSync） */
+            private boolean enabled = true;
+            /** 每批处理的主键数（IN 参数个数，SQL Server 单条语句参数上限 2100） */
+            private int chunkSize = 500;
+        }
+
+        @Data
+        public static class Incremental {
+            /** 是否开启按 update_time 水位线的增量同步 */
+            private boolean enabled = true;
+            /** 增量同步间隔（毫秒） */
+            private long fixedDelayMs = 300000;
+            /** 水位线回退的安全余量（毫秒）：覆盖时钟偏差与提交晚于 update_time 的长事务 */
+            private long safetyMarginMs = 300000;
+        }
+
+        @Data
+        public static class Outbox {
+            /** 是否开启 outbox 模式（业务写入与变更记录同一本地事务，relay 异步推送） */
+            private boolean enabled = false;
+            /** relay 工作线程数 */
+            private int relayWorkers = 2;
+            /** 每次领取的变更条数 */
+            private int batchSize = 200;
+            /** outbox 为空时的轮询间隔（毫秒） */
+            private long pollIntervalMs = 500;
+            /** 领取租约（毫秒）：relay 中途崩溃时，到期后记录可被重新领取 */
+            private long leaseMs = 60000;
+        }
+
+        @Data
+        public static class LogWriter {
+            /** 同步日志是否走后台批量写入（关闭则每个事件在当前线程单条 save） */
+            private boolean enabled = true;
+            /** 环形缓冲区容量（向上取 2 的幂），决定最多积压多少条日志 */
+            private int capacity = 8192;
+            /** 每批最多写入条数（一次 JDBC 批量插入 + 一次批量同步） */
+            private int batchSize = 200;
+            /** 不满一批时最长等待（毫秒） */
+            private long flushIntervalMs = 200;
+            /** 缓冲区满时的策略：BLOCK=等待腾出空间，超时退回当前线程单条 save；DROP=直接丢弃该条日志并计数 */
+            private String overflow = "BLOCK";
+            /** BLOCK 策略最长等待（毫秒） */
+            private long blockTimeoutMs = 50;
+            /** 停机时刷完剩余日志的最长等待（毫秒） */
+            private long shutdownAwaitMs = 10000;
+        }
+
+        @Data
+        public static class AuditShip {
+            /** 同步日志 / 冲突工单的新增行是否改为定期批量搬运（不再逐条 submitSync） */
+            private boolean enabled = true;
+            /** 主日志库：审计表在这里写入，再搬运到其它库 */
+            private DatabaseType sourceDb = DatabaseType.MYSQL;
+            /** 搬运任务间隔（毫秒） */
+            private long fixedDelayMs = 10000;
+            /** 每页读取行数（也是一次批量写入的行数，SQL Server 参数上限 2100） */
+            private int pageSize = 1000;
+            /** 每轮从“游标 - 余量”开始读，覆盖批量写入的提交延迟（毫秒） */
+            private long safetyMarginMs = 60000;
+        }
+
+        @Data
+        public static class LogRollup {
+            /** 是否维护 sync_log_hourly 小时预聚合（报表/聚合接口读汇总表，只对未汇总时段扫原始日志） */
+            private boolean enabled = true;
+            /** 汇总任务间隔（毫秒） */
+            private long fixedDelayMs = 300000;
+            /** 每轮从水位线回退重算的小时数；更早的小时有状态变化时按 update_time 单独重算 */
+            private int recomputeHours = 2;
+            /** 追赶历史数据时每个事务汇总的小时数 */
+            private int chunkHours = 24;
+        }
+
+        @Data
+        public static class LogClean {
+            /** 是否开启定时清理 sync_log */
+            private boolean enabled = true;
+            /** 定时清理 Cron（避开每周日 3 点的全量同步） */
+            private String cron = "0 30 4 * * ?";
+            /** 保留天数 */
+            private int retainDays = 90;
+            /** 每个库最多保留条数 */
+            private long maxCount = 100000;
+            /** CHUNKED=分批限速删除；PARTITION=整块删除过期月分区后再分批；PROCEDURE=调用存储过程 */
+            private String mode = "CHUNKED";
+            /** 每条 DELETE 最多删除的行数 */
+            private int chunkSize = 5000;
+            /** 批与批之间暂停（毫秒），给复制与在线写入让路 */
+            private long pauseMs = 200;
+            /** 单个库单次清理最长运行时间（毫秒），到时停止，剩余部分下次继续 */
+            private long maxRuntimeMs = 600000;
+            /** PARTITION 模式预建当前月之后的分区个数 */
+            private int partitionMonthsAhead = 2;
+        }
+
+        @Data
+        public static class Breaker {
+            /** 是否为每个目标库开启熔断（熔断期间变更暂存到 sync_pending_change，恢复后批量补同步） */
+            private boolean enabled = true;
+            /** 连续失败多少次后熔断 */
+            private int failureThreshold = 5;
+            /** 熔断持续时间（毫秒），到期后放行一次探测 */
+            private long openMs = 30000;
+            /** 补同步任务间隔（毫秒） */
+            private long drainFixedDelayMs = 30000;
+            /** 补同步每页读取的待同步变更数 */
+            private int drainPageSize = 500;
+        }
+
+        @Data
+        public static class Coalesce {
+            /** 是否合并同一实体短时间内的多次变更（只提交最后一次） */
+            private boolean enabled = false;
+            /** 合并窗口（毫秒） */
+            private long windowMs = 200;
+            /** 合并后提交同步的线程数（同一实体固定落在同一线程，保证顺序） */
+            private int workers = 4;
+            /** 同时处于合并窗口中的实体数上限（超过则不再合并，直接提交） */
+            private int maxPending = 10000;
+        }
+
+        @Data
+        public static class Upsert {
+            /** 目标库写入是否用方言原生单语句 upsert（关闭则回退为 selectById + insert/updateById） */
+            private boolean enabled = true;
+        }
+
+        @Data
+        public static class Diff {
+            /** 全量同步 / 重试写入前先读目标库比较：完全一致跳过写入，只有部分列不同时只 UPDATE 这些列（普通提交不读目标库） */
+            private boolean enabled = true;
+        }
+
+        @Data
+        public static class Fingerprint {
+            /** 行指纹在库内计算（FingerprintSpec 渲染的 SHA-256 表达式），快照/对账只取 (id, hash)；false=读整行在 Java 端计算（SQL Server 低于 2022 自动回退 Java 端） */
+            private boolean dbSide = false;
+            /** SHA256（与库内表达式一致）/ MURMUR3_128（非加密 128 位，更快；只能与 dbSide=false 搭配，否则自动改为 Java 端计算） */
+            private String algorithm = "SHA256";
+        }
+
+        @Data
+        public static class Lease {
+            /** 定时任务执行前先抢数据库租约，多节点部署时同一任务（或同一分片）同一时刻只在一个节点执行；开启时启动检查 sync_lease 表，不存在直接启动失败 */
+            private boolean enabled = false;
+            /** 租约表所在库 */
+            private DatabaseType db = DatabaseType.MYSQL;
+            /** 租期（毫秒）：持有期间每 ttl/3 续期一次，节点宕机后最多 ttl 即可被其它节点接管 */
+            private long ttlMs = 60000;
+            /** 节点标识，为空时取 pid@host + 随机后缀 */
+            private String owner = "";
+            /** 分片任务在本节点同时执行的分片数上限 */
+            private int shardParallelism = 4;
+        }
+
+        @Data
+        public static class EventBus {
+            /** post-check 与同步日志事件交给后台总线处理，发布方（同步线程）不再等待三库快照与日志落库 */
+            private boolean enabled = true;
+            /** 工作线程数（同一实体固定落在同一线程，保证顺序） */
+            private int workers = 4;
+            /** 每个工作线程的队列容量 */
+            private int queueCapacity = 4096;
+            /** 停机时等待队列排空的最长时间（毫秒） */
+            private long shutdownAwaitMs = 10000;
+        }
+
+        @Data
+        public static class Reconcile {
+            /** 发现不一致后：true=以源库覆盖目标库；false=只生成冲突工单 */
+            private boolean repair = true;
+            /** 顶层分桶的主键前缀长度（1=16 桶，2=256 桶） */
+            private int prefixLength = 2;
+            /** 桶内行数不超过该值时直接逐行比对，不再细分 */
+            private int leafSize = 256;
+            /** 扫描桶时每页读取行数 */
+            private int pageSize = 1000;
         }
 
         @Data
@@ -49,9 +291,19 @@ public class GlobalProperties {
             /** 是否启用定时全量同步 */
             private boolean enabled = true;
             /** 定时任务 cron 表达式 */
-            private String cron = "0 0 3 * * ?";
+            private String cron = "0 0 3 ? * SUN";
             /** 全量同步的源库 */
             private DatabaseType sourceDb = DatabaseType.MYSQL;
+            /** 按主键分页读取源库的页大小（每页同步完再读下一页） */
+            private int pageSize = 1000;
+            /** 是否从上次中断的断点继续 */
+            private boolean resume = true;
+            /** 定时任务模式：FULL=全量重放；RECONCILE=分桶 hash 对账，只处理不一致的行 */
+            private String mode = "FULL";
+            /** 同一依赖层内并行全量同步的实体类型数 */
+            private int parallelism = 4;
+            /** 全量同步全局限速（行/秒，所有并行实体共享），<=0 表示不限速 */
+            private long maxRowsPerSecond = 0;
         }
 
         @Data
@@ -73,6 +325,24 @@ public class GlobalProperties {
 
             /** 邮件冷却时间（分钟）：你 service/SQL 用得到的话放这里 */
             private int notifyCooldownMinutes = 30;
+
+            /** SUCCESS 日志扫描：每页读取条数（游标每处理完一页推进并落库一次） */
+            private int scanPageSize = 200;
+
+            /** 单轮每个分片最多扫描的页数，剩余部分下一轮接着扫 */
+            private int scanMaxPages = 20;
+
+            /** 扫描上界 = 当前时间 - 该值（毫秒），避开尚未提交的日志 */
+            private long scanLagMs = 5000;
+
+            /** 首次扫描（还没有游标）时回看的分钟数 */
+            private long scanInitialLookbackMinutes = 60;
+
+            /** 按日志主键末位 16 进制字符分片的总片数（1/2/4/8/16），多个节点可分摊扫描 */
+            private int scanShardCount = 1;
+
+            /** 本节点负责的分片序号（0 ~ scanShardCount-1），为空表示全部 */
+            private List<Integer> scanShards = new ArrayList<>();
         }
     }
 
@@ -0,0 +1,265 @@
+package com.notice.system.common;
+
+import com.notice.system.common.FingerprintSpec.Algorithm;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+
+/**
+ * 流式行指纹引擎（{@link FingerprintSpec#hash} 使用）：
+ * <ul>
+ *   <li>规范化后的字段逐字符编码成 UTF-8 写入复用的缓冲区，满了直接喂给摘要，不拼中间字符串</li>
+ *   <li>每个线程复用一个实例（MessageDigest、缓冲区、hex 输出数组），不再每行 getInstance / String.format</li>
+ *   <li>SHA256：与原“拼串 + SHA-256”结果逐字节一致；MURMUR3_128：非加密 128 位 hash，只在纯 Java 计算时使用</li>
+ * </ul>
+ * 非线程安全，只能通过 {@link #begin} 在当前线程内一次用完。
+ */
+final class RowFingerprinter {
+
+    private static final ThreadLocal<RowFingerprinter> LOCAL = ThreadLocal.withInitial(RowFingerprinter::new);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int BUF_SIZE = 512;
+
+    private final MessageDigest sha256;
+    private final byte[] buf = new byte[BUF_SIZE];
+    private final char[] hexOut = new char[64];
+    private int len;
+
+    private Algorithm algorithm;
+    private final Murmur3 murmur = new Murmur3();
+
+    private RowFingerprinter() {
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("sha256 not available", e);
+        }
+    }
+
+    static RowFingerprinter begin(Algorithm algorithm) {
+        RowFingerprinter f = LOCAL.get();
+        f.algorithm = (algorithm == null ? Algorithm.SHA256 : algorithm);
+        f.len = 0;
+        f.sha256.reset();
+        f.murmur.reset();
+        return f;
+    }
+
+    /* ======================== 写入 ======================== */
+
+    void putBytes(byte[] bytes) {
+        for (byte b : bytes) put(b);
+    }
+
+    /** 文本：按 String.trim() 去首尾 ≤ U+0020 的字符，\r\n、\r 统一为 \n（与 FingerprintSpec 的 TEXT 规则一致）。 */
+    void putText(String s) {
+        int from = 0;
+        int to = s.length();
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '\r') {
+                put((byte) '\n');
+                if (i + 1 < to && s.charAt(i + 1) == '\n') i++;
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                put((byte) (0xF0 | (cp >> 18)));
+                put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // 孤立代理项：与 String.getBytes(UTF_8) 一样替换为 '?'
+                put((byte) '?');
+            } else {
+                put((byte) (0xE0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /** 十进制整数（与 String.valueOf(long) 一致）。 */
+    void putLong(long v) {
+        if (v == Long.MIN_VALUE) {
+            putAscii(String.valueOf(v));
+            return;
+        }
+        if (v < 0) {
+            put((byte) '-');
+            v = -v;
+        }
+        long div = 1;
+        while (v / div >= 10) div *= 10;
+        for (; div > 0; div /= 10) {
+            put((byte) ('0' + (v / div) % 10));
+        }
+    }
+
+    /** yyyy-MM-dd HH:mm:ss（截断到秒）。 */
+    void putTime(LocalDateTime t) {
+        putDigits(t.getYear(), 4);
+        put((byte) '-');
+        putDigits(t.getMonthValue(), 2);
+        put((byte) '-');
+        putDigits(t.getDayOfMonth(), 2);
+        put((byte) ' ');
+        putDigits(t.getHour(), 2);
+        put((byte) ':');
+        putDigits(t.getMinute(), 2);
+        put((byte) ':');
+        putDigits(t.getSecond(), 2);
+    }
+
+    void putAscii(String s) {
+        for (int i = 0; i < s.length(); i++) put((byte) s.charAt(i));
+    }
+
+    private void putDigits(int v, int width) {
+        for (int div = (width == 4 ? 1000 : 10); div > 0; div /= 10) {
+            put((byte) ('0' + (v / div) % 10));
+        }
+    }
+
+    private void put(byte b) {
+        if (len == BUF_SIZE) flush();
+        buf[len++] = b;
+    }
+
+    private void flush() {
+        if (algorithm == Algorithm.SHA256) {
+            sha256.update(buf, 0, len);
+            len = 0;
+        } else {
+            // 只消费整 16 字节块，余下的留在缓冲区开头
+            int blocks = len & ~15;
+            murmur.blocks(buf, blocks);
+            System.arraycopy(buf, blocks, buf, 0, len - blocks);
+            len -= blocks;
+        }
+    }
+
+    /* ======================== 输出 ======================== */
+
+    String finishHex() {
+        if (algorithm == Algorithm.SHA256) {
+            sha256.update(buf, 0, len);
+            len = 0;
+            byte[] d = sha256.digest();
+            for (int i = 0; i < d.length; i++) {
+                hexOut[i * 2] = HEX[(d[i] >> 4) & 0xF];
+                hexOut[i * 2 + 1] = HEX[d[i] & 0xF];
+            }
+            return new String(hexOut, 0, d.length * 2);
+        }
+
+        flush();
+        murmur.finish(buf, len);
+        len = 0;
+        putHexLong(murmur.h1, 0);
+        putHexLong(murmur.h2, 16);
+        return new String(hexOut, 0, 32);
+    }
+
+    private void putHexLong(long v, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            hexOut[offset + i] = HEX[(int) (v & 0xF)];
+            v >>>= 4;
+        }
+    }
+
+    /* ======================== MurmurHash3 x64 128（流式） ======================== */
+
+    private static final class Murmur3 {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private long h1;
+        private long h2;
+        private long total;
+
+        void reset() {
+            h1 = 0;
+            h2 = 0;
+            total = 0;
+        }
+
+        void blocks(byte[] b, int n) {
+            for (int i = 0; i < n; i += 16) {
+                long k1 = getLong(b, i);
+                long k2 = getLong(b, i + 8);
+
+                h1 ^= mixK1(k1);
+                h1 = Long.rotateLeft(h1, 27);
+                h1 += h2;
+                h1 = h1 * 5 + 0x52dce729;
+
+                h2 ^= mixK2(k2);
+                h2 = Long.rotateLeft(h2, 31);
+                h2 += h1;
+                h2 = h2 * 5 + 0x38495ab5;
+            }
+            total += n;
+        }
+
+        /** 处理尾部（不足 16 字节）并完成 finalization。 */
+        void finish(byte[] b, int n) {
+            long k1 = 0;
+            long k2 = 0;
+            for (int i = n - 1; i >= 8; i--) k2 = (k2 << 8) | (b[i] & 0xFFL);
+            for (int i = Math.min(n, 8) - 1; i >= 0; i--) k1 = (k1 << 8) | (b[i] & 0xFFL);
+            if (n > 8) h2 ^= mixK2(k2);
+            if (n > 0) h1 ^= mixK1(k1);
+            total += n;
+
+            h1 ^= total;
+            h2 ^= total;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+        }
+
+        private static long getLong(byte[] b, int i) {
+            return (b[i] & 0xFFL)
+                    | (b[i + 1] & 0xFFL) << 8
+                    | (b[i + 2] & 0xFFL) << 16
+                    | (b[i + 3] & 0xFFL) << 24
+                    | (b[i + 4] & 0xFFL) << 32
+                    | (b[i + 5] & 0xFFL) << 40
+                    | (b[i + 6] & 0xFFL) << 48
+                    | (b[i + 7] & 0xFFL) << 56;
+        }
+
+        private static long mixK1(long k1) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            return k1 * C2;
+        }
+
+        private static long mixK2(long k2) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            return k2 * C1;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -1,25 +1,20 @@
 package com.notice.system.common;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import com.notice.system.entity.*;
 import com.notice.system.entityEnum.ConflictType;
 import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncAction;
 import com.notice.system.entityEnum.SyncEntityType;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Snapshot 工具：
  * <ul>
- *   <li>读取三库快照：exists(0/1) + hash(业务指纹)</li>
+ *   <li>读取三库快照：exists(0/1) + hash(业务指纹)；批量场景每库按批只取 (id, hash)，三库并发</li>
  *   <li>判断 mismatch / missing</li>
  *   <li>根据 action + snapshot 判定 ConflictType</li>
  * </ul>
@@ -51,6 +46,16 @@ public final class SnapshotUtil {
     public static Snapshot readSnapshot(SyncEntityType entityType,
                                         String entityId,
                                         MapperProvider mapperFn) {
+        return readSnapshot(entityType, entityId, mapperFn, Map.of());
+    }
+
+    /**
+     * 同上，knownRows 中已有的库直接用给定行（value 为 null 表示该库不存在），不再 selectById。
+     */
+    public static Snapshot readSnapshot(SyncEntityType entityType,
+                                        String entityId,
+                                        MapperProvider mapperFn,
+                                        Map<DatabaseType, ?> knownRows) {
         Snapshot s = new Snapshot();
 
         if (entityType == null || entityId == null || entityId.isBlank()) {
@@ -59,14 +64,109 @@ public final class SnapshotUtil {
         }
 
         for (DatabaseType db : DatabaseType.syncDbs()) {
-            BaseMapper<?> mapper = mapperFn.getMapper(entityType, db);
-            Object row = (mapper == null ? null : mapper.selectById(entityId));
+            Object row;
+            if (knownRows.containsKey(db)) {
+                row = knownRows.get(db);
+            } else {
+                BaseMapper<?> mapper = mapperFn.getMapper(entityType, db);
+                row = (mapper == null ? null : mapper.selectById(entityId));
+            }
+
+            putRow(s, entityType, db, row);
+        }
+
+        summarize(s);
+        return s;
+    }
+
+    /**
+     * 批量读取三库快照：每个库对全部 id 按 chunkSize 分批读取行指纹，各库之间在 executor 上并发
+     * （executor 为 null 时依次读取）。空 id 与重复 id 会被忽略。
+     *
+     * @param hashReader  读取一批 id 在某库的行指纹（通常在库内计算，只传 (id, hash)）
+     * @param knownHashes 已知的整库指纹：db -> (id -> hash)（如同步时已读出的源库行）；该库缺少的 id 视为不存在，不再查询
+     * @return id -> 快照，顺序同入参
+     */
+    public static Map<String, Snapshot> readSnapshots(SyncEntityType entityType,
+                                                      Collection<String> entityIds,
+                                                      HashReader hashReader,
+                                                      Map<DatabaseType, Map<String, String>> knownHashes,
+                                                      Executor executor,
+                                                      int chunkSize) {
+        Map<String, Snapshot> out = new LinkedHashMap<>();
+        if (entityType == null || entityIds == null) {
+            return out;
+        }
+        List<String> ids = entityIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return out;
+        }
+
+        Map<DatabaseType, CompletableFuture<Map<String, String>>> pending = new EnumMap<>(DatabaseType.class);
+        for (DatabaseType db : DatabaseType.syncDbs()) {
+            Map<String, String> known = (knownHashes == null ? null : knownHashes.get(db));
+            if (known != null) {
+                pending.put(db, CompletableFuture.completedFuture(known));
+                continue;
+            }
+            pending.put(db, executor == null
+                    ? CompletableFuture.completedFuture(readHashes(hashReader, entityType, db, ids, chunkSize))
+                    : CompletableFuture.supplyAsync(() -> readHashes(hashReader, entityType, db, ids, chunkSize), executor));
+        }
+
+        Map<DatabaseType, Map<String, String>> hashesByDb = new EnumMap<>(DatabaseType.class);
+        for (Map.Entry<DatabaseType, CompletableFuture<Map<String, String>>> e : pending.entrySet()) {
+            hashesByDb.put(e.getKey(), await(e.getValue()));
+        }
+
+        for (String id : ids) {
+            Snapshot s = new Snapshot();
+            for (DatabaseType db : DatabaseType.syncDbs()) {
+                String hash = hashesByDb.get(db).get(id);
+                s.exists.put(db, hash == null ? 0 : 1);
+                s.hash.put(db, hash);
+            }
+            summarize(s);
+            out.put(id, s);
+        }
+        return out;
+    }
+
+    private static Map<String, String> readHashes(HashReader hashReader,
+                                                  SyncEntityType entityType,
+                                                  DatabaseType db,
+                                                  List<String> ids,
+                                                  int chunkSize) {
+        Map<String, String> out = new HashMap<>();
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < ids.size(); from += size) {
+            out.putAll(hashReader.readHashes(entityType, db, ids.subList(from, Math.min(ids.size(), from + size))));
+        }
+        return out;
+    }
 
-            int flag = (row == null ? 0 : 1);
-            s.exists.put(db, flag);
-            s.hash.put(db, flag == 0 ? null : sha256Hex(buildFingerprint(entityType, row)));
+    /** 等待某库读取完成；读取异常原样抛给调用方（与单条 readSnapshot 一致）。 */
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = (e.getCause() == null ? e : e.getCause());
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
         }
+    }
 
+    private static void putRow(Snapshot s, SyncEntityType entityType, DatabaseType db, Object row) {
+        int flag = (row == null ? 0 : 1);
+        s.exists.put(db, flag);
+        s.hash.put(db, flag == 0 ? null : rowHash(entityType, row));
+    }
+
+    private static void summarize(Snapshot s) {
         s.anyMissing = s.exists.values().stream().anyMatch(v -> v == 0);
         s.allExist = s.exists.values().stream().allMatch(v -> v == 1);
         s.allMissing = s.exists.values().stream().allMatch(v -> v == 0);
@@ -85,8 +185,6 @@ public final class SnapshotUtil {
                 }
             }
         }
-
-        return s;
     }
 
     /**
@@ -111,104 +209,20 @@ public final class SnapshotUtil {
     }
 
     /**
-     * 指纹：只拼业务字段，排除 createTime/updateTime 这类“自然会变”的字段。
+     * 指纹：只拼业务字段，排除 createTime/updateTime 这类“自然会变”的字段（字段定义见 {@link FingerprintSpec}）。
      */
     public static String buildFingerprint(SyncEntityType type, Object row) {
-        if (row == null) return "";
-
-        return switch (type) {
-            case USER -> {
-                User u = (User) row;
-                yield "username=" + normText(u.getUsername())
-                        + "|roleId=" + nvo(u.getRoleId())
-                        + "|deptId=" + nvo(u.getDeptId())
-                        + "|nickname=" + normText(u.getNickname())
-                        + "|email=" + normText(u.getEmail())
-                        + "|phone=" + normText(u.getPhone())
-                        + "|status=" + nvo(u.getStatus());
-            }
-            case ROLE -> {
-                Role r = (Role) row;
-                yield "name=" + normText(r.getName());
-            }
-            case DEPT -> {
-                Dept d = (Dept) row;
-                yield "name=" + normText(d.getName())
-                        + "|parentId=" + nvo(d.getParentId())
-                        + "|description=" + normText(d.getDescription())
-                        + "|sortOrder=" + nvo(d.getSortOrder())
-                        + "|status=" + nvo(d.getStatus());
-            }
-            case NOTICE -> {
-                Notice n = (Notice) row;
-                yield "title=" + normText(n.getTitle())
-                        + "|content=" + normText(n.getContent())
-                        + "|publisherId=" + nvo(n.getPublisherId())
-                        + "|level=" + normText(n.getLevel())
-                        + "|status=" + normText(n.getStatus())
-                        + "|publishTime=" + normTime(n.getPublishTime())
-                        + "|expireTime=" + normTime(n.getExpireTime());
-            }
-            case NOTICE_TARGET_DEPT -> {
-                NoticeTargetDept x = (NoticeTargetDept) row;
-                yield "noticeId=" + nvo(x.getNoticeId())
-                        + "|deptId=" + nvo(x.getDeptId());
-            }
-            case NOTICE_READ -> {
-                NoticeRead nr = (NoticeRead) row;
-                yield "noticeId=" + nvo(nr.getNoticeId())
-                        + "|userId=" + nvo(nr.getUserId())
-                        + "|readTime=" + normTime(nr.getReadTime())
-                        + "|deviceType=" + normText(nr.getDeviceType());
-            }
-            default -> "id=" + normText(extractIdGeneric(row));
-        };
-    }
-
-    private static String extractIdGeneric(Object row) {
-        try {
-            var m = row.getClass().getMethod("getId");
-            Object v = m.invoke(row);
-            return v == null ? "" : String.valueOf(v);
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
-    /** null -> ""；不会产生 "null" 字符串 */
-    private static String nvo(Object v) {
-        if (v == null) return "";
-        String s = String.valueOf(v);
-        return s == null ? "" : s.trim();
+        return FingerprintSpec.of(type).fingerprint(row);
     }
 
-    /** 文本标准化：trim + 统一换行，避免 \r\n / \r 造成假 mismatch */
-    private static String normText(String s) {
-        if (s == null) return "";
-        String t = s.trim();
-        return t.replace("\r\n", "\n").replace("\r", "\n");
+    /** 单行指纹的 SHA-256（与快照 hash、库内 {@link FingerprintSpec#hashSql} 一致，供对账等批量场景复用）。 */
+    public static String rowHash(SyncEntityType type, Object row) {
+        return rowHash(type, row, FingerprintSpec.Algorithm.SHA256);
     }
 
-    /** 时间标准化：truncate 到秒 + 固定格式输出，避免不同库精度差异 */
-    private static final DateTimeFormatter DT_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-    private static String normTime(LocalDateTime t) {
-        if (t == null) return "";
-        LocalDateTime tt = t.truncatedTo(ChronoUnit.SECONDS);
-        return DT_FMT.format(tt);
-    }
-
-    /** hash：出错就抛，让上层记录 ERROR/日志 */
-    private static String sha256Hex(String text) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(text.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(bytes.length * 2);
-            for (byte b : bytes) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("sha256 failed", e);
-        }
+    /** 单行指纹（流式计算，不拼中间串）。 */
+    public static String rowHash(SyncEntityType type, Object row, FingerprintSpec.Algorithm algorithm) {
+        return FingerprintSpec.of(type).hash(row, algorithm);
     }
 
     /**
@@ -218,5 +232,13 @@ public final class SnapshotUtil {
     public interface MapperProvider {
         BaseMapper<?> getMapper(SyncEntityType type, DatabaseType db);
     }
+
+    /**
+     * 批量快照读取行指纹的方式：返回一批 id 在某库的 id -> hash，库中不存在的 id 不返回。
+     */
+    @FunctionalInterface
+    public interface HashReader {
+        Map<String, String> readHashes(SyncEntityType type, DatabaseType db, List<String> ids);
+    }
 }
 
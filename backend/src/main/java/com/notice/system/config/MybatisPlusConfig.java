@@ -1,10 +1,18 @@
 package com.notice.system.config;
 
+import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @MapperScan("com.notice.system.mapper")
 public class MybatisPlusConfig {
+
+    /** 为同步实体的 Mapper 注入按方言生成的 upsert。 */
+    @Bean
+    public ISqlInjector sqlInjector() {
+        return new SyncSqlInjector();
+    }
 }
 
@@ -0,0 +1,114 @@
+package com.notice.system.config;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import com.notice.system.mapper.base.SyncUpsertMapper;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 为 SyncUpsertMapper 注入 upsert 方法：按 Mapper 上 @DS 的数据源生成对应方言的单语句 upsert。
+ * <ul>
+ *   <li>mysql：INSERT ... AS src ON DUPLICATE KEY UPDATE（行别名，需 MySQL 8.0.19+；命中任意唯一键都会更新，
+ *       有主键以外唯一键的表由 MysqlSyncExecutor 改走 selectById + insert/updateById）</li>
+ *   <li>pg：INSERT ... ON CONFLICT (id) DO UPDATE</li>
+ *   <li>sqlserver：MERGE ... WITH (HOLDLOCK)</li>
+ * </ul>
+ */
+public class SyncSqlInjector extends DefaultSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methods = super.getMethodList(mapperClass, tableInfo);
+        DS ds = mapperClass.getAnnotation(DS.class);
+        if (SyncUpsertMapper.class.isAssignableFrom(mapperClass) && ds != null && tableInfo.havePK()) {
+            methods = new ArrayList<>(methods);
+            methods.add(new Upsert(ds.value()));
+        }
+        return methods;
+    }
+
+    static class Upsert extends AbstractMethod {
+
+        private final String dialect;
+
+        Upsert(String dialect) {
+            super("upsert");
+            this.dialect = dialect;
+        }
+
+        @Override
+        public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+            String sql = switch (dialect) {
+                case "mysql" -> mysql(tableInfo);
+                case "pg" -> pg(tableInfo);
+                case "sqlserver" -> sqlserver(tableInfo);
+                default -> throw new IllegalStateException("Unsupported upsert dialect: " + dialect + ", mapper=" + mapperClass.getName());
+            };
+            SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+            return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, NoKeyGenerator.INSTANCE, null, null);
+        }
+
+        private static String mysql(TableInfo t) {
+            return "INSERT INTO " + t.getTableName() + " (" + columns(t, "") + ") VALUES (" + params(t) + ") AS src"
+                    + " ON DUPLICATE KEY UPDATE "
+                    + t.getFieldList().stream()
+                    .map(f -> f.getColumn() + " = src." + f.getColumn())
+                    .collect(Collectors.joining(", "));
+        }
+
+        private static String pg(TableInfo t) {
+            return "INSERT INTO " + t.getTableName() + " (" + columns(t, "") + ") VALUES (" + params(t) + ")"
+                    + " ON CONFLICT (" + t.getKeyColumn() + ") DO UPDATE SET "
+                    + t.getFieldList().stream()
+                    .map(f -> f.getColumn() + " = EXCLUDED." + f.getColumn())
+                    .collect(Collectors.joining(", "));
+        }
+
+        private static String sqlserver(TableInfo t) {
+            StringBuilder src = new StringBuilder();
+            src.append(SqlScriptUtils.safeParam(t.getKeyProperty())).append(" AS [").append(t.getKeyColumn()).append("]");
+            for (TableFieldInfo f : t.getFieldList()) {
+                src.append(", ").append(SqlScriptUtils.safeParam(f.getEl())).append(" AS [").append(f.getColumn()).append("]");
+            }
+
+            // HOLDLOCK：避免并发 MERGE 在“判断不存在 -> 插入”之间插队导致主键冲突
+            return "MERGE INTO " + t.getTableName() + " WITH (HOLDLOCK) AS tgt"
+                    + " USING (SELECT " + src + ") AS src"
+                    + " ON tgt.[" + t.getKeyColumn() + "] = src.[" + t.getKeyColumn() + "]"
+                    + " WHEN MATCHED THEN UPDATE SET "
+                    + t.getFieldList().stream()
+                    .map(f -> "tgt.[" + f.getColumn() + "] = src.[" + f.getColumn() + "]")
+                    .collect(Collectors.joining(", "))
+                    + " WHEN NOT MATCHED THEN INSERT (" + columns(t, "[") + ")"
+                    + " VALUES (" + columns(t, "src.[") + ");";
+        }
+
+        /** 主键 + 普通列；quote 为 "[" 或 "src.[" 时按 SQL Server 方括号包裹。 */
+        private static String columns(TableInfo t, String quote) {
+            String close = quote.isEmpty() ? "" : "]";
+            StringBuilder sb = new StringBuilder(quote + t.getKeyColumn() + close);
+            for (TableFieldInfo f : t.getFieldList()) {
+                sb.append(", ").append(quote).append(f.getColumn()).append(close);
+            }
+            return sb.toString();
+        }
+
+        private static String params(TableInfo t) {
+            StringBuilder sb = new StringBuilder(SqlScriptUtils.safeParam(t.getKeyProperty()));
+            for (TableFieldInfo f : t.getFieldList()) {
+                sb.append(", ").append(SqlScriptUtils.safeParam(f.getEl()));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -10,8 +10,12 @@ import com.notice.system.entityEnum.SyncLogStatus;
 import com.notice.system.entityEnum.aggBy.SyncLogAggBy;
 import com.notice.system.service.AuthService;
 import com.notice.system.service.SyncLogService;
+import com.notice.system.service.SyncService;
+import com.notice.system.support.event.SyncEventBusStats;
+import com.notice.system.sync.SyncWriteStats;
 import com.notice.system.vo.report.AggVo;
 import com.notice.system.vo.synclog.SyncLogDailyReportVo;
+import com.notice.system.vo.synclog.SyncLogPurgeVo;
 import com.notice.system.vo.synclog.SyncLogVo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +35,8 @@ import java.util.List;
  *  - 手动清理
  *  - 枚举下拉
  *  - 聚合报表 / 日报
+ *  - 目标库写入统计
+ *  - 事件总线统计
  */
 @Slf4j
 @RestController
@@ -40,6 +46,7 @@ public class SyncLogAdminController {
 
     private final AuthService authService;
     private final SyncLogService syncLogService;
+    private final SyncService syncService;
 
     /* ======================= 1) 分页查询 ======================= */
 
@@ -101,11 +108,17 @@ public class SyncLogAdminController {
         authService.requireAdmin(authDb);
 
         long totalDeleted = 0L;
+        long elapsedMs = 0L;
+        boolean finished = true;
         for (DatabaseType eachDb : DatabaseType.syncDbs()) {
-            totalDeleted += syncLogService.cleanLogsInDb(eachDb, retainDays, maxCount);
+            SyncLogPurgeVo r = syncLogService.cleanLogsInDb(eachDb, retainDays, maxCount);
+            totalDeleted += r.getDeleted() + r.getPartitionRowsEstimated();
+            elapsedMs += r.getElapsedMs();
+            finished &= r.isFinished();
         }
 
-        String msg = "本次共清理同步日志 " + totalDeleted + " 条";
+        String msg = "本次共清理同步日志 " + totalDeleted + " 条，耗时 " + elapsedMs + " ms"
+                + (finished ? "" : "（达到最长运行时间，剩余部分下次继续）");
         log.info("[SYNC_LOG_ADMIN] 手动清理完成，{}", msg);
         return Result.success(msg);
     }
@@ -162,7 +175,30 @@ public class SyncLogAdminController {
 
         return Result.success(syncLogService.listDailyReport(useDb, vo));
     }
-}
 
+    /* ======================= 8) 写入统计 ======================= */
+
+    /**
+     * 各目标库写入统计（进程启动以来累计，重启清零）
+     *  - skipped：与源库一致、跳过写入
+     *  - partial：只更新了变化列
+     */
+    @GetMapping("/write-stats")
+    public Result<List<SyncWriteStats>> writeStats() {
+        authService.requireAdmin(syncLogService.defaultDb());
+        return Result.success(syncService.writeStats());
+    }
 
+    /* ======================= 9) 事件总线统计 ======================= */
 
+    /**
+     * post-check / 同步日志事件总线统计（进程启动以来累计，重启清零）
+     *  - pending：排队中的事件数
+     *  - inlineFallback：停机后或发布线程被中断时改为同步处理的次数（队列满时发布方阻塞等待，不再退化）
+     */
+    @GetMapping("/event-bus-stats")
+    public Result<SyncEventBusStats> eventBusStats() {
+        authService.requireAdmin(syncLogService.defaultDb());
+        return Result.success(syncService.eventBusStats());
+    }
+}
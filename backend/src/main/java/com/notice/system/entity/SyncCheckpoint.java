@@ -0,0 +1,43 @@
+package com.notice.system.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 同步任务断点（本库私有，不参与跨库同步）
+ */
+@Data
+@TableName("sync_checkpoint")
+public class SyncCheckpoint {
+
+    @TableId(type = IdType.ASSIGN_UUID)
+    private String id;
+
+    /**
+     * 断点 key，如 FULL_SYNC:NOTICE
+     */
+    private String checkpointKey;
+
+    /**
+     * 已处理到的主键（keyset 游标）
+     */
+    private String cursorId;
+
+    /**
+     * 已处理到的时间（按时间推进的任务使用）
+     */
+    private LocalDateTime cursorTime;
+
+    /**
+     * 本轮已处理行数
+     */
+    private Long processedCount;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,41 @@
+package com.notice.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务分布式租约（只在 notice.sync.lease.db 指定的库读写，不参与跨库同步）
+ */
+@Data
+@TableName("sync_lease")
+public class SyncLease {
+
+    /**
+     * 租约 key，如 SYNC_FULL、CONFLICT_SCAN:MYSQL:0/4
+     */
+    @TableId(type = IdType.INPUT)
+    private String leaseKey;
+
+    /**
+     * 当前持有者（节点标识）
+     */
+    private String owner;
+
+    /**
+     * fencing token：每次易主（或过期后重新抢到）+1，持有期间续期不变
+     */
+    private Long fencingToken;
+
+    /**
+     * 租约到期时间（数据库时钟）
+     */
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
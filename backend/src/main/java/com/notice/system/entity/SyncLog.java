@@ -30,6 +30,9 @@ public class SyncLog {
     private String errorMsg;
     private Integer retryCount;
 
+    /** 下次自动重试时间（null=尽快重试） */
+    private LocalDateTime nextRetryAt;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createTime;
 
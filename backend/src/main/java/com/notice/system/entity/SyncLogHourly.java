@@ -0,0 +1,41 @@
+package com.notice.system.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.entityEnum.SyncLogStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * sync_log 按小时预聚合（本库私有，不参与跨库同步，由各库自己的 sync_log 汇总）。
+ * 主键由 (statHour, entityType, action, sourceDb, targetDb, status) 计算得出。
+ */
+@Data
+@TableName("sync_log_hourly")
+public class SyncLogHourly {
+
+    @TableId(type = IdType.INPUT)
+    private String id;
+
+    /** 小时起点（整点） */
+    private LocalDateTime statHour;
+
+    private SyncEntityType entityType;
+    private SyncAction action;
+
+    private DatabaseType sourceDb;
+    private DatabaseType targetDb;
+
+    private SyncLogStatus status;
+
+    private Long totalCount;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,38 @@
+package com.notice.system.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 同步 outbox（本库私有，不参与跨库同步）：业务写入时在同一本地事务里插入一条变更记录，
+ * 由 relay 按 id（自增序号）顺序领取后推送到其它库。
+ */
+@Data
+@TableName("sync_outbox")
+public class SyncOutbox {
+
+    /** 自增序号，即变更的提交顺序 */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private SyncEntityType entityType;
+    private String entityId;
+
+    private SyncAction action;
+
+    private DatabaseType sourceDb;
+
+    /** 当前领取该记录的 relay 工作线程（未领取为 null） */
+    private String claimOwner;
+
+    /** 领取租约到期时间；relay 中途崩溃时，到期后可被其它 relay 重新领取 */
+    private LocalDateTime claimUntil;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,36 @@
+package com.notice.system.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 目标库熔断期间暂存的待同步变更（本库私有，不参与跨库同步）。
+ * 主键由 (targetDb, entityType, entityId) 计算得出，同一实体只保留最后一次变更。
+ */
+@Data
+@TableName("sync_pending_change")
+public class SyncPendingChange {
+
+    @TableId(type = IdType.INPUT)
+    private String id;
+
+    private DatabaseType targetDb;
+
+    private SyncEntityType entityType;
+    private String entityId;
+
+    private SyncAction action;
+
+    private DatabaseType sourceDb;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,13 @@
+package com.notice.system.exception;
+
+/**
+ * 定时任务执行期间租约已被其它节点接管（fencing token 已变），受保护的写入被拒绝，当前 job 终止。
+ */
+public class LeaseLostException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LeaseLostException(String leaseKey, Long fencingToken) {
+        super("lease lost: key=" + leaseKey + ", token=" + fencingToken);
+    }
+}
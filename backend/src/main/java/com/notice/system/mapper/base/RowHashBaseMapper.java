@@ -0,0 +1,37 @@
+package com.notice.system.mapper.base;
+
+import com.notice.system.mapper.dto.RowHash;
+import com.notice.system.mapper.dto.RowHashBucket;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 行指纹查询公共接口：hash 表达式由 FingerprintSpec 按方言渲染后以 ${hashExpr} 拼入，在库内计算，
+ * 只返回 (id, hash)，不把整行（如 notice.content）传回应用。
+ * table / keyColumn / hashExpr 均来自实体元数据与固定定义，不接受外部输入。
+ */
+public interface RowHashBaseMapper {
+
+    /** 一批主键的行指纹（不存在的主键不返回）。 */
+    List<RowHash> selectHashesByIds(@Param("table") String table,
+                                    @Param("keyColumn") String keyColumn,
+                                    @Param("hashExpr") String hashExpr,
+                                    @Param("ids") Collection<String> ids);
+
+    /** 按主键前缀 + keyset 游标（不含）分页读取行指纹，按主键升序。 */
+    List<RowHash> selectHashPage(@Param("table") String table,
+                                 @Param("keyColumn") String keyColumn,
+                                 @Param("hashExpr") String hashExpr,
+                                 @Param("prefix") String prefix,
+                                 @Param("cursor") String cursor,
+                                 @Param("limit") int limit);
+
+    /** 前缀桶内按主键前 bucketLength 位分组聚合行指纹（行数 + hash 前两个 64 位字之和），一次查询得到全部子桶。 */
+    List<RowHashBucket> selectBucketDigests(@Param("table") String table,
+                                            @Param("keyColumn") String keyColumn,
+                                            @Param("hashExpr") String hashExpr,
+                                            @Param("prefix") String prefix,
+                                            @Param("bucketLength") int bucketLength);
+}
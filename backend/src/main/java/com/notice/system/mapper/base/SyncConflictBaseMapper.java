@@ -1,6 +1,5 @@
 package com.notice.system.mapper.base;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.notice.system.entity.SyncConflict;
 import com.notice.system.mapper.dto.SyncConflictWithItemRow;
 import com.notice.system.vo.report.AggVo;
@@ -9,7 +8,7 @@ import org.apache.ibatis.annotations.Param;
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface SyncConflictBaseMapper extends BaseMapper<SyncConflict> {
+public interface SyncConflictBaseMapper extends SyncUpsertMapper<SyncConflict> {
 
     List<SyncConflict> listNeedNotify(
             @Param("now") LocalDateTime now,
@@ -0,0 +1,39 @@
+package com.notice.system.mapper.base;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.entity.SyncLease;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * SyncLease 公共 Mapper 接口：三个具体 Mapper 按方言实现。
+ * 所有时间都取数据库时钟（不依赖各节点时钟一致），每个操作都是单条带条件的语句，靠行锁保证互斥。
+ */
+public interface SyncLeaseBaseMapper extends BaseMapper<SyncLease> {
+
+    /**
+     * 抢占租约：空闲、已过期或由 reentryOwner 持有时成功（返回 1），租期 ttlMs。
+     * reentryOwner 传 owner 表示允许自己重入，传 null 表示自己持有（含 holdMs 保持期）时也抢不到。
+     * 换了持有者（或过期后重新抢到）时 fencing_token +1。
+     */
+    int tryAcquire(@Param("leaseKey") String leaseKey,
+                   @Param("owner") String owner,
+                   @Param("reentryOwner") String reentryOwner,
+                   @Param("ttlMs") long ttlMs);
+
+    /** 首次使用该 key：插入一行并直接持有（token=1）；并发插入时主键冲突由调用方视为抢占失败。 */
+    int insertAcquired(@Param("leaseKey") String leaseKey,
+                       @Param("owner") String owner,
+                       @Param("ttlMs") long ttlMs);
+
+    /** 续期：仍由自己持有（token 未变）且未过期时把到期时间推到 now + ttlMs，返回 1；否则 0（租约已丢失）。 */
+    int renew(@Param("leaseKey") String leaseKey,
+              @Param("owner") String owner,
+              @Param("token") long token,
+              @Param("ttlMs") long ttlMs);
+
+    /** 释放：到期时间改为 now + holdMs（0 表示立即释放）；holdMs 内其它节点抢不到，自己仍可重入。 */
+    int release(@Param("leaseKey") String leaseKey,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("holdMs") long holdMs);
+}
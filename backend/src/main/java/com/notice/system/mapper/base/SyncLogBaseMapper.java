@@ -1,8 +1,8 @@
 package com.notice.system.mapper.base;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.notice.system.entity.SyncLog;
 import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.mapper.dto.SyncLogPartition;
 import com.notice.system.vo.report.AggVo;
 import org.apache.ibatis.annotations.Param;
 
@@ -11,7 +11,7 @@ import java.util.List;
 
 /**SyncLog 公共 Mapper 接口：定义通用报表方法
  三个具体 Mapper（MySQL / PG / SQLServer）都 extends */
-public interface SyncLogBaseMapper extends BaseMapper<SyncLog> {
+public interface SyncLogBaseMapper extends SyncUpsertMapper<SyncLog> {
 
     /**按天统计同步日志（返回内部统计结果）*/
     List<SyncLogDailyStat> listDailyStats(
@@ -35,10 +35,13 @@ public interface SyncLogBaseMapper extends BaseMapper<SyncLog> {
             @Param("targetDb") String targetDb
     );
 
-    // 调用清理存储过程
-    void callCleanProc(@Param("retainDays") Integer retainDays,
+    /** 调用清理存储过程，返回过程报告的删除行数（旧版过程不返回时为 null）。 */
+    Long callCleanProc(@Param("retainDays") Integer retainDays,
                        @Param("maxCount") Long maxCount);
 
+    /** sync_log 行数估算（取自统计信息，不扫表；分区表为各分区之和）。 */
+    Long estimateRowCount();
+
     /**
      * 增量扫描：拉取最近更新的 SUCCESS 日志（用于离线发现“新冲突”候选集）
      *
@@ -50,7 +53,36 @@ public interface SyncLogBaseMapper extends BaseMapper<SyncLog> {
                                         @Param("toTime") LocalDateTime toTime,
                                         @Param("limit") Integer limit);
 
+    /**
+     * 按 (update_time, id) 游标顺序拉取 SUCCESS 日志（冲突扫描用，可断点续扫）
+     *
+     * @param afterTime 游标时间（null 表示从头开始）
+     * @param afterId   游标主键（同一 update_time 内严格大于它）
+     * @param toTime    上界（包含）
+     * @param suffixes  只取主键末位字符在其中的日志（分片扫描）；null/空表示不过滤
+     */
+    List<SyncLog> listSuccessLogsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") String afterId,
+                                       @Param("toTime") LocalDateTime toTime,
+                                       @Param("suffixes") List<String> suffixes,
+                                       @Param("limit") int limit);
+
+    /** 分批清理：删除最多 limit 条早于 threshold 的日志，返回删除行数。 */
+    int purgeExpiredChunk(@Param("threshold") LocalDateTime threshold,
+                          @Param("limit") int limit);
+
+    /** 分批清理：按 create_time 删除最旧的最多 limit 条日志（超出数量上限时使用）。 */
+    int purgeOldestChunk(@Param("limit") int limit);
+
+    /** sync_log 的按月分区（未分区或方言不支持时返回空）。 */
+    List<SyncLogPartition> listPartitions();
 
+    /** 删除一个按月分区（name 由 Service 校验格式）。 */
+    void dropPartition(@Param("name") String name);
 
+    /** 新增一个按月分区 [fromDate, toDate)（日期格式 yyyy-MM-dd，由 Service 生成）。 */
+    void addPartition(@Param("name") String name,
+                      @Param("fromDate") String fromDate,
+                      @Param("toDate") String toDate);
 }
 
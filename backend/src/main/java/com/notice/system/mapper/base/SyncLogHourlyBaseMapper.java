@@ -0,0 +1,49 @@
+package com.notice.system.mapper.base;
+
+import com.notice.system.entity.SyncLogHourly;
+import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.vo.report.AggVo;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** sync_log_hourly 公共 Mapper 接口：三个具体 Mapper 按方言实现小时截断与报表查询。 */
+public interface SyncLogHourlyBaseMapper extends SyncUpsertMapper<SyncLogHourly> {
+
+    /** 从 sync_log 原始行按小时汇总 [beginTime, endTime)（id 为空，由 Service 计算）。 */
+    List<SyncLogHourly> aggregateRaw(@Param("beginTime") LocalDateTime beginTime,
+                                     @Param("endTime") LocalDateTime endTime);
+
+    /** 与 SyncLogBaseMapper.listDailyStats 同口径，区间为 [beginTime, endTime)，按整点小时读取预聚合。 */
+    List<SyncLogDailyStat> listDailyStats(
+            @Param("beginTime") LocalDateTime beginTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("entityType") String entityType,
+            @Param("action") String action,
+            @Param("status") String status,
+            @Param("sourceDb") String sourceDb,
+            @Param("targetDb") String targetDb
+    );
+
+    /** 与 SyncLogBaseMapper.agg 同口径（groupCol 同一白名单，别名 l），区间为 [beginTime, endTime)。 */
+    List<AggVo> agg(
+            @Param("beginTime") LocalDateTime beginTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("groupCol") String groupCol,
+            @Param("entityType") String entityType,
+            @Param("action") String action,
+            @Param("status") String status,
+            @Param("sourceDb") String sourceDb,
+            @Param("targetDb") String targetDb
+    );
+
+    /**
+     * create_time 在 [fromTime, beforeTime) 内、且 update_time ≥ updatedSince 的日志所在的整点小时（去重、升序，最多 limit 个）；
+     * fromTime 为空表示不限下界。走 (update_time, create_time) 索引。
+     */
+    List<LocalDateTime> listChangedHours(@Param("updatedSince") LocalDateTime updatedSince,
+                                         @Param("fromTime") LocalDateTime fromTime,
+                                         @Param("beforeTime") LocalDateTime beforeTime,
+                                         @Param("limit") int limit);
+}
@@ -0,0 +1,18 @@
+package com.notice.system.mapper.base;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.entity.SyncOutbox;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** SyncOutbox 公共 Mapper 接口：三个具体 Mapper 按方言实现“跳过已加锁行”的领取查询。 */
+public interface SyncOutboxBaseMapper extends BaseMapper<SyncOutbox> {
+
+    /**
+     * 在当前事务内锁定最多 limit 条可领取（未领取或租约已过期）的记录，返回其 id。
+     * 已被其它 relay 锁住的行直接跳过，多个 relay 并发领取互不阻塞。
+     */
+    List<Long> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
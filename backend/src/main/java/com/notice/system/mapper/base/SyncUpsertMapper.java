@@ -0,0 +1,14 @@
+package com.notice.system.mapper.base;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+ * 参与跨库同步的实体 Mapper 基类：
+ * 在 BaseMapper 之上注入按方言生成的单语句 upsert（见 config.SyncSqlInjector），
+ * MySQL / PG / SQLServer 的具体 Mapper 通过 @DS 决定生成哪种方言。
+ */
+public interface SyncUpsertMapper<T> extends BaseMapper<T> {
+
+    /** 按主键存在则更新、不存在则插入（所有列都写，包括 null）。 */
+    int upsert(T entity);
+}
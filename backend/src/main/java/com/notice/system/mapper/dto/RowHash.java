@@ -0,0 +1,14 @@
+package com.notice.system.mapper.dto;
+
+import lombok.Data;
+
+/**
+ * 行指纹：主键 + 库内计算的业务字段 SHA-256（见 FingerprintSpec）
+ */
+@Data
+public class RowHash {
+
+    private String id;
+
+    private String hash;
+}
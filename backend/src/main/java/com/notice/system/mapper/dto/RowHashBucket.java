@@ -0,0 +1,23 @@
+package com.notice.system.mapper.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 按主键前缀分组的行指纹聚合：行数 + 行 hash 前两个 64 位字各自的和（与行顺序无关，对账时按 2^64 取模比较）
+ */
+@Data
+public class RowHashBucket {
+
+    /** 主键前 N 位（主键不足 N 位时为整个主键） */
+    private String bucket;
+
+    private Long rowCount;
+
+    /** hash 第 1~16 位 hex 的和 */
+    private BigDecimal sumHi;
+
+    /** hash 第 17~32 位 hex 的和 */
+    private BigDecimal sumLo;
+}
@@ -0,0 +1,15 @@
+package com.notice.system.mapper.dto;
+
+import lombok.Data;
+
+/**
+ * sync_log 分区信息（MySQL 分区 / PG 子表）
+ */
+@Data
+public class SyncLogPartition {
+
+    private String name;
+
+    /** 统计信息里的估算行数（不精确，仅用于清理报告） */
+    private Long estimatedRows;
+}
@@ -0,0 +1,23 @@
+package com.notice.system.mapper.mysql;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/** MySQL 表结构查询（information_schema）。 */
+@Mapper
+@DS("mysql")
+public interface SchemaMysqlMapper {
+
+    /** 表上除主键外的唯一索引个数。 */
+    @Select("""
+SELECT COUNT(DISTINCT index_name)
+FROM information_schema.statistics
+WHERE table_schema = DATABASE()
+  AND table_name = #{table}
+  AND non_unique = 0
+  AND index_name <> 'PRIMARY'
+""")
+    int countSecondaryUniqueKeys(@Param("table") String table);
+}
@@ -0,0 +1,11 @@
+package com.notice.system.mapper.mysql;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.entity.SyncCheckpoint;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+@DS("mysql")
+public interface SyncCheckpointMysqlMapper extends BaseMapper<SyncCheckpoint> {
+}
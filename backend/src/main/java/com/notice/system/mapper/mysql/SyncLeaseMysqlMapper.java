@@ -0,0 +1,68 @@
+package com.notice.system.mapper.mysql;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.mapper.base.SyncLeaseBaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+@DS("mysql")
+public interface SyncLeaseMysqlMapper extends SyncLeaseBaseMapper {
+
+    // MySQL 的 SET 按顺序求值、后面的表达式看到的是新值：fencing_token 必须放在 owner 之前
+    @Override
+    @Update("""
+UPDATE sync_lease
+SET fencing_token = CASE WHEN owner = #{owner} AND lease_until >= NOW(3)
+                         THEN fencing_token ELSE fencing_token + 1 END,
+    owner         = #{owner},
+    lease_until   = DATE_ADD(NOW(3), INTERVAL #{ttlMs} * 1000 MICROSECOND),
+    update_time   = NOW()
+WHERE lease_key = #{leaseKey}
+  AND (owner IS NULL OR lease_until IS NULL OR lease_until < NOW(3) OR owner = #{reentryOwner,jdbcType=VARCHAR})
+""")
+    int tryAcquire(@Param("leaseKey") String leaseKey,
+                   @Param("owner") String owner,
+                   @Param("reentryOwner") String reentryOwner,
+                   @Param("ttlMs") long ttlMs);
+
+    @Override
+    @Insert("""
+INSERT INTO sync_lease (lease_key, owner, fencing_token, lease_until, create_time, update_time)
+VALUES (#{leaseKey}, #{owner}, 1, DATE_ADD(NOW(3), INTERVAL #{ttlMs} * 1000 MICROSECOND), NOW(), NOW())
+""")
+    int insertAcquired(@Param("leaseKey") String leaseKey,
+                       @Param("owner") String owner,
+                       @Param("ttlMs") long ttlMs);
+
+    @Override
+    @Update("""
+UPDATE sync_lease
+SET lease_until = DATE_ADD(NOW(3), INTERVAL #{ttlMs} * 1000 MICROSECOND),
+    update_time = NOW()
+WHERE lease_key = #{leaseKey}
+  AND owner = #{owner}
+  AND fencing_token = #{token}
+  AND lease_until >= NOW(3)
+""")
+    int renew(@Param("leaseKey") String leaseKey,
+              @Param("owner") String owner,
+              @Param("token") long token,
+              @Param("ttlMs") long ttlMs);
+
+    @Override
+    @Update("""
+UPDATE sync_lease
+SET lease_until = DATE_ADD(NOW(3), INTERVAL #{holdMs} * 1000 MICROSECOND),
+    update_time = NOW()
+WHERE lease_key = #{leaseKey}
+  AND owner = #{owner}
+  AND fencing_token = #{token}
+""")
+    int release(@Param("leaseKey") String leaseKey,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("holdMs") long holdMs);
+}
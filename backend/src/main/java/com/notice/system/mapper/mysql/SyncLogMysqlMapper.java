@@ -4,10 +4,13 @@ import com.baomidou.dynamic.datasource.annotation.DS;
 import com.notice.system.entity.SyncLog;
 import com.notice.system.mapper.base.SyncLogBaseMapper;
 import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.mapper.dto.SyncLogPartition;
 import com.notice.system.vo.report.AggVo;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -89,9 +92,18 @@ ORDER BY statDate DESC, sourceDb, targetDb
 
     @Override
     @Select("CALL sp_clean_sync_log(#{retainDays}, #{maxCount})")
-    void callCleanProc(@Param("retainDays") Integer retainDays,
+    Long callCleanProc(@Param("retainDays") Integer retainDays,
                        @Param("maxCount") Long maxCount);
 
+    @Override
+    @Select("""
+    SELECT COALESCE(SUM(TABLE_ROWS), 0)
+    FROM information_schema.TABLES
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'sync_log'
+    """)
+    Long estimateRowCount();
+
     @Override
     @Select("""
     SELECT
@@ -116,6 +128,78 @@ ORDER BY statDate DESC, sourceDb, targetDb
     List<SyncLog> listRecentSuccessLogs(@Param("fromTime") LocalDateTime fromTime,
                                         @Param("toTime") LocalDateTime toTime,
                                         @Param("limit") Integer limit);
-}
 
+    @Override
+    @Select("""
+<script>
+SELECT
+  id,
+  entity_type AS entityType,
+  entity_id   AS entityId,
+  action,
+  source_db   AS sourceDb,
+  target_db   AS targetDb,
+  status,
+  error_msg   AS errorMsg,
+  retry_count AS retryCount,
+  create_time AS createTime,
+  update_time AS updateTime
+FROM sync_log
+WHERE status = 'SUCCESS'
+  AND update_time &lt;= #{toTime, jdbcType=TIMESTAMP}
+  <if test="afterTime != null">
+    AND (update_time &gt; #{afterTime, jdbcType=TIMESTAMP}
+         OR (update_time = #{afterTime, jdbcType=TIMESTAMP} AND id &gt; #{afterId}))
+  </if>
+  <if test="suffixes != null and suffixes.size() > 0">
+    AND RIGHT(id, 1) IN
+    <foreach collection="suffixes" item="s" open="(" separator="," close=")">#{s}</foreach>
+  </if>
+ORDER BY update_time, id
+LIMIT #{limit}
+</script>
+""")
+    List<SyncLog> listSuccessLogsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") String afterId,
+                                       @Param("toTime") LocalDateTime toTime,
+                                       @Param("suffixes") List<String> suffixes,
+                                       @Param("limit") int limit);
+
+    @Override
+    @Delete("DELETE FROM sync_log WHERE create_time < #{threshold, jdbcType=TIMESTAMP} ORDER BY create_time LIMIT #{limit}")
+    int purgeExpiredChunk(@Param("threshold") LocalDateTime threshold,
+                          @Param("limit") int limit);
+
+    @Override
+    @Delete("DELETE FROM sync_log ORDER BY create_time, id LIMIT #{limit}")
+    int purgeOldestChunk(@Param("limit") int limit);
+
+    @Override
+    @Select("""
+    SELECT
+      PARTITION_NAME AS name,
+      TABLE_ROWS     AS estimatedRows
+    FROM information_schema.PARTITIONS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'sync_log'
+      AND PARTITION_NAME IS NOT NULL
+    ORDER BY PARTITION_ORDINAL_POSITION
+    """)
+    List<SyncLogPartition> listPartitions();
+
+    @Override
+    @Update("ALTER TABLE sync_log DROP PARTITION ${name}")
+    void dropPartition(@Param("name") String name);
 
+    /** 从兜底分区 pmax 中拆出新月份（要求表按 sync_log_partition.sql 建有 pmax）。 */
+    @Override
+    @Update("""
+    ALTER TABLE sync_log REORGANIZE PARTITION pmax INTO (
+      PARTITION ${name} VALUES LESS THAN ('${toDate}'),
+      PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    )
+    """)
+    void addPartition(@Param("name") String name,
+                      @Param("fromDate") String fromDate,
+                      @Param("toDate") String toDate);
+}
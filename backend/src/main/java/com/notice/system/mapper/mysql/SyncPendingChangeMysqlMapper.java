@@ -0,0 +1,11 @@
+package com.notice.system.mapper.mysql;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.entity.SyncPendingChange;
+import com.notice.system.mapper.base.SyncUpsertMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+@DS("mysql")
+public interface SyncPendingChangeMysqlMapper extends SyncUpsertMapper<SyncPendingChange> {
+}
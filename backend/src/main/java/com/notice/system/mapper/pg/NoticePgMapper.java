@@ -1,6 +1,6 @@
 package com.notice.system.mapper.pg;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.mapper.base.SyncUpsertMapper;
 import com.notice.system.entity.Notice;
 import org.apache.ibatis.annotations.Mapper;
 import com.baomidou.dynamic.datasource.annotation.DS;
@@ -8,7 +8,7 @@ import com.baomidou.dynamic.datasource.annotation.DS;
 
 @Mapper
 @DS("pg")  // ⭐ 关键：这个 Mapper 固定走 pg 数据源
-public interface NoticePgMapper extends BaseMapper<Notice> {
+public interface NoticePgMapper extends SyncUpsertMapper<Notice> {
 
 //    @Select("select current_database()")
 //    String currentDatabase();
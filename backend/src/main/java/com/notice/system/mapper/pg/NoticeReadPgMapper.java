@@ -1,11 +1,11 @@
 package com.notice.system.mapper.pg;
 
 import com.baomidou.dynamic.datasource.annotation.DS;
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.mapper.base.SyncUpsertMapper;
 import com.notice.system.entity.NoticeRead;
 import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
 @DS("pg")
-public interface NoticeReadPgMapper extends BaseMapper<NoticeRead> {
+public interface NoticeReadPgMapper extends SyncUpsertMapper<NoticeRead> {
 }
@@ -0,0 +1,81 @@
+package com.notice.system.mapper.pg;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.mapper.base.RowHashBaseMapper;
+import com.notice.system.mapper.dto.RowHash;
+import com.notice.system.mapper.dto.RowHashBucket;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+@DS("pg")
+public interface RowHashPgMapper extends RowHashBaseMapper {
+
+    @Override
+    @Select("""
+    <script>
+    SELECT ${keyColumn} AS id, ${hashExpr} AS hash
+    FROM ${table}
+    WHERE ${keyColumn} IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+    </script>
+    """)
+    List<RowHash> selectHashesByIds(@Param("table") String table,
+                                    @Param("keyColumn") String keyColumn,
+                                    @Param("hashExpr") String hashExpr,
+                                    @Param("ids") Collection<String> ids);
+
+    @Override
+    @Select("""
+    <script>
+    SELECT ${keyColumn} AS id, ${hashExpr} AS hash
+    FROM ${table}
+    <where>
+      <if test="prefix != null and prefix != ''">
+        ${keyColumn} LIKE #{prefix} || '%'
+      </if>
+      <if test="cursor != null">
+        AND ${keyColumn} &gt; #{cursor}
+      </if>
+    </where>
+    ORDER BY ${keyColumn}
+    LIMIT #{limit}
+    </script>
+    """)
+    List<RowHash> selectHashPage(@Param("table") String table,
+                                 @Param("keyColumn") String keyColumn,
+                                 @Param("hashExpr") String hashExpr,
+                                 @Param("prefix") String prefix,
+                                 @Param("cursor") String cursor,
+                                 @Param("limit") int limit);
+
+    /** bit(64)::bigint 按补码解释，和与 MySQL 的无符号和按 2^64 取模相同。 */
+    @Override
+    @Select("""
+    <script>
+    SELECT t.bucket AS bucket,
+           COUNT(*) AS "rowCount",
+           SUM(('x' || substr(t.h, 1, 16))::bit(64)::bigint) AS "sumHi",
+           SUM(('x' || substr(t.h, 17, 16))::bit(64)::bigint) AS "sumLo"
+    FROM (
+      SELECT substr(${keyColumn}, 1, #{bucketLength}) AS bucket, ${hashExpr} AS h
+      FROM ${table}
+      <where>
+        <if test="prefix != null and prefix != ''">
+          ${keyColumn} LIKE #{prefix} || '%'
+        </if>
+      </where>
+    ) t
+    GROUP BY t.bucket
+    </script>
+    """)
+    List<RowHashBucket> selectBucketDigests(@Param("table") String table,
+                                            @Param("keyColumn") String keyColumn,
+                                            @Param("hashExpr") String hashExpr,
+                                            @Param("prefix") String prefix,
+                                            @Param("bucketLength") int bucketLength);
+}
@@ -0,0 +1,67 @@
+package com.notice.system.mapper.pg;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.mapper.base.SyncLeaseBaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+@DS("pg")
+public interface SyncLeasePgMapper extends SyncLeaseBaseMapper {
+
+    @Override
+    @Update("""
+UPDATE sync_lease
+SET fencing_token = CASE WHEN owner = #{owner} AND lease_until >= LOCALTIMESTAMP
+                         THEN fencing_token ELSE fencing_token + 1 END,
+    owner         = #{owner},
+    lease_until   = LOCALTIMESTAMP + #{ttlMs} * INTERVAL '1 millisecond',
+    update_time   = LOCALTIMESTAMP
+WHERE lease_key = #{leaseKey}
+  AND (owner IS NULL OR lease_until IS NULL OR lease_until < LOCALTIMESTAMP OR owner = #{reentryOwner,jdbcType=VARCHAR})
+""")
+    int tryAcquire(@Param("leaseKey") String leaseKey,
+                   @Param("owner") String owner,
+                   @Param("reentryOwner") String reentryOwner,
+                   @Param("ttlMs") long ttlMs);
+
+    @Override
+    @Insert("""
+INSERT INTO sync_lease (lease_key, owner, fencing_token, lease_until, create_time, update_time)
+VALUES (#{leaseKey}, #{owner}, 1, LOCALTIMESTAMP + #{ttlMs} * INTERVAL '1 millisecond', LOCALTIMESTAMP, LOCALTIMESTAMP)
+""")
+    int insertAcquired(@Param("leaseKey") String leaseKey,
+                       @Param("owner") String owner,
+                       @Param("ttlMs") long ttlMs);
+
+    @Override
+    @Update("""
+UPDATE sync_lease
+SET lease_until = LOCALTIMESTAMP + #{ttlMs} * INTERVAL '1 millisecond',
+    update_time = LOCALTIMESTAMP
+WHERE lease_key = #{leaseKey}
+  AND owner = #{owner}
+  AND fencing_token = #{token}
+  AND lease_until >= LOCALTIMESTAMP
+""")
+    int renew(@Param("leaseKey") String leaseKey,
+              @Param("owner") String owner,
+              @Param("token") long token,
+              @Param("ttlMs") long ttlMs);
+
+    @Override
+    @Update("""
+UPDATE sync_lease
+SET lease_until = LOCALTIMESTAMP + #{holdMs} * INTERVAL '1 millisecond',
+    update_time = LOCALTIMESTAMP
+WHERE lease_key = #{leaseKey}
+  AND owner = #{owner}
+  AND fencing_token = #{token}
+""")
+    int release(@Param("leaseKey") String leaseKey,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("holdMs") long holdMs);
+}
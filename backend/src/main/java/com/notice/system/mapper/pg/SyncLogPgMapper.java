@@ -4,10 +4,13 @@ import com.baomidou.dynamic.datasource.annotation.DS;
 import com.notice.system.entity.SyncLog;
 import com.notice.system.mapper.base.SyncLogBaseMapper;
 import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.mapper.dto.SyncLogPartition;
 import com.notice.system.vo.report.AggVo;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -90,10 +93,20 @@ ORDER BY statDate DESC, sourceDb, targetDb
     );
 
     @Override
-    @Select("CALL sp_clean_sync_log(#{retainDays, jdbcType=INTEGER}, #{maxCount, jdbcType=BIGINT})")
-    void callCleanProc(@Param("retainDays") Integer retainDays,
+    @Select("CALL sp_clean_sync_log(#{retainDays, jdbcType=INTEGER}, #{maxCount, jdbcType=BIGINT}, NULL::BIGINT)")
+    Long callCleanProc(@Param("retainDays") Integer retainDays,
                        @Param("maxCount") Long maxCount);
 
+    /** 分区表父表的 reltuples 为 -1，累加各分区；未 ANALYZE 过的表同样记为 0。 */
+    @Override
+    @Select("""
+    SELECT CAST(COALESCE(SUM(GREATEST(c.reltuples, 0)), 0) AS BIGINT)
+    FROM pg_class c
+    WHERE c.oid = to_regclass('sync_log')
+       OR c.oid IN (SELECT i.inhrelid FROM pg_inherits i WHERE i.inhparent = to_regclass('sync_log'))
+    """)
+    Long estimateRowCount();
+
     @Override
     @Select("""
 <script>
@@ -122,4 +135,87 @@ LIMIT #{limit, jdbcType=INTEGER}
     List<SyncLog> listRecentSuccessLogs(@Param("fromTime") LocalDateTime fromTime,
                                         @Param("toTime") LocalDateTime toTime,
                                         @Param("limit") Integer limit);
+
+    @Override
+    @Select("""
+<script>
+SELECT
+  id,
+  entity_type AS "entityType",
+  entity_id   AS "entityId",
+  action,
+  source_db   AS "sourceDb",
+  target_db   AS "targetDb",
+  status,
+  error_msg   AS "errorMsg",
+  retry_count AS "retryCount",
+  create_time AS "createTime",
+  update_time AS "updateTime"
+FROM sync_log
+WHERE status = 'SUCCESS'
+  AND update_time &lt;= #{toTime, jdbcType=TIMESTAMP}
+  <if test="afterTime != null">
+    AND (update_time &gt; #{afterTime, jdbcType=TIMESTAMP}
+         OR (update_time = #{afterTime, jdbcType=TIMESTAMP} AND id &gt; #{afterId}))
+  </if>
+  <if test="suffixes != null and suffixes.size() > 0">
+    AND right(id, 1) IN
+    <foreach collection="suffixes" item="s" open="(" separator="," close=")">#{s}</foreach>
+  </if>
+ORDER BY update_time, id
+LIMIT #{limit}
+</script>
+""")
+    List<SyncLog> listSuccessLogsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") String afterId,
+                                       @Param("toTime") LocalDateTime toTime,
+                                       @Param("suffixes") List<String> suffixes,
+                                       @Param("limit") int limit);
+
+    @Override
+    @Delete("""
+    DELETE FROM sync_log
+    WHERE id IN (
+      SELECT id FROM sync_log
+      WHERE create_time < #{threshold, jdbcType=TIMESTAMP}
+      ORDER BY create_time
+      LIMIT #{limit}
+    )
+    """)
+    int purgeExpiredChunk(@Param("threshold") LocalDateTime threshold,
+                          @Param("limit") int limit);
+
+    @Override
+    @Delete("""
+    DELETE FROM sync_log
+    WHERE id IN (
+      SELECT id FROM sync_log
+      ORDER BY create_time, id
+      LIMIT #{limit}
+    )
+    """)
+    int purgeOldestChunk(@Param("limit") int limit);
+
+    @Override
+    @Select("""
+    SELECT
+      c.relname             AS name,
+      CAST(c.reltuples AS BIGINT) AS estimatedRows
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    JOIN pg_class p ON p.oid = i.inhparent
+    WHERE p.relname = 'sync_log'
+    ORDER BY c.relname
+    """)
+    List<SyncLogPartition> listPartitions();
+
+    @Override
+    @Update("DROP TABLE IF EXISTS ${name}")
+    void dropPartition(@Param("name") String name);
+
+    @Override
+    @Update("CREATE TABLE IF NOT EXISTS ${name} PARTITION OF sync_log FOR VALUES FROM ('${fromDate}') TO ('${toDate}')")
+    void addPartition(@Param("name") String name,
+                      @Param("fromDate") String fromDate,
+                      @Param("toDate") String toDate);
 }
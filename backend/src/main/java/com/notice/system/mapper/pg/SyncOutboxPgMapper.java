@@ -0,0 +1,26 @@
+package com.notice.system.mapper.pg;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.mapper.base.SyncOutboxBaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+@DS("pg")
+public interface SyncOutboxPgMapper extends SyncOutboxBaseMapper {
+
+    @Override
+    @Select("""
+SELECT id
+FROM sync_outbox
+WHERE claim_until IS NULL OR claim_until < #{now, jdbcType=TIMESTAMP}
+ORDER BY id
+LIMIT #{limit}
+FOR UPDATE SKIP LOCKED
+""")
+    List<Long> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
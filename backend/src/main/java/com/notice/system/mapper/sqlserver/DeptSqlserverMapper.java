@@ -1,11 +1,11 @@
 package com.notice.system.mapper.sqlserver;
 
 import com.baomidou.dynamic.datasource.annotation.DS;
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.mapper.base.SyncUpsertMapper;
 import com.notice.system.entity.Dept;
 import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
 @DS("sqlserver")
-public interface DeptSqlserverMapper extends BaseMapper<Dept> {
+public interface DeptSqlserverMapper extends SyncUpsertMapper<Dept> {
 }
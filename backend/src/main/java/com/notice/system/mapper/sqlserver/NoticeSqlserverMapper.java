@@ -1,6 +1,6 @@
 package com.notice.system.mapper.sqlserver;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.mapper.base.SyncUpsertMapper;
 import com.notice.system.entity.Notice;
 import com.baomidou.dynamic.datasource.annotation.DS;
 import org.apache.ibatis.annotations.Mapper;
@@ -10,5 +10,5 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 @DS("sqlserver")   //  指定走 sqlserver 数据源
-public interface NoticeSqlserverMapper extends BaseMapper<Notice> {
+public interface NoticeSqlserverMapper extends SyncUpsertMapper<Notice> {
 }
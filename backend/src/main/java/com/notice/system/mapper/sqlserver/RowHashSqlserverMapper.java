@@ -0,0 +1,84 @@
+package com.notice.system.mapper.sqlserver;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.mapper.base.RowHashBaseMapper;
+import com.notice.system.mapper.dto.RowHash;
+import com.notice.system.mapper.dto.RowHashBucket;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+@DS("sqlserver")
+public interface RowHashSqlserverMapper extends RowHashBaseMapper {
+
+    @Override
+    @Select("""
+    <script>
+    SELECT ${keyColumn} AS id, ${hashExpr} AS hash
+    FROM ${table}
+    WHERE ${keyColumn} IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+    </script>
+    """)
+    List<RowHash> selectHashesByIds(@Param("table") String table,
+                                    @Param("keyColumn") String keyColumn,
+                                    @Param("hashExpr") String hashExpr,
+                                    @Param("ids") Collection<String> ids);
+
+    @Override
+    @Select("""
+    <script>
+    SELECT TOP (#{limit}) ${keyColumn} AS id, ${hashExpr} AS hash
+    FROM ${table}
+    <where>
+      <if test="prefix != null and prefix != ''">
+        ${keyColumn} LIKE #{prefix} + '%'
+      </if>
+      <if test="cursor != null">
+        AND ${keyColumn} &gt; #{cursor}
+      </if>
+    </where>
+    ORDER BY ${keyColumn}
+    </script>
+    """)
+    List<RowHash> selectHashPage(@Param("table") String table,
+                                 @Param("keyColumn") String keyColumn,
+                                 @Param("hashExpr") String hashExpr,
+                                 @Param("prefix") String prefix,
+                                 @Param("cursor") String cursor,
+                                 @Param("limit") int limit);
+
+    /** BIGINT 求和会溢出，先转 DECIMAL(38,0) 再累加。 */
+    @Override
+    @Select("""
+    <script>
+    SELECT t.bucket AS bucket,
+           COUNT_BIG(*) AS rowCount,
+           SUM(CONVERT(DECIMAL(38, 0), CONVERT(BIGINT, CONVERT(VARBINARY(8), SUBSTRING(t.h, 1, 16), 2)))) AS sumHi,
+           SUM(CONVERT(DECIMAL(38, 0), CONVERT(BIGINT, CONVERT(VARBINARY(8), SUBSTRING(t.h, 17, 16), 2)))) AS sumLo
+    FROM (
+      SELECT SUBSTRING(${keyColumn}, 1, #{bucketLength}) AS bucket, ${hashExpr} AS h
+      FROM ${table}
+      <where>
+        <if test="prefix != null and prefix != ''">
+          ${keyColumn} LIKE #{prefix} + '%'
+        </if>
+      </where>
+    ) t
+    GROUP BY t.bucket
+    </script>
+    """)
+    List<RowHashBucket> selectBucketDigests(@Param("table") String table,
+                                            @Param("keyColumn") String keyColumn,
+                                            @Param("hashExpr") String hashExpr,
+                                            @Param("prefix") String prefix,
+                                            @Param("bucketLength") int bucketLength);
+
+    /** 主版本号（15 = 2019）：库内指纹表达式依赖 2019 起才有的 UTF-8 排序规则。 */
+    @Select("SELECT CAST(SERVERPROPERTY('ProductMajorVersion') AS INT)")
+    Integer selectMajorVersion();
+}
@@ -0,0 +1,125 @@
+package com.notice.system.mapper.sqlserver;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.entity.SyncLogHourly;
+import com.notice.system.mapper.base.SyncLogHourlyBaseMapper;
+import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.vo.report.AggVo;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+@DS("sqlserver")
+public interface SyncLogHourlySqlserverMapper extends SyncLogHourlyBaseMapper {
+
+    @Override
+    @Select("""
+SELECT
+  DATEADD(hour, DATEDIFF(hour, 0, create_time), 0) AS statHour,
+  entity_type AS entityType,
+  action,
+  source_db   AS sourceDb,
+  target_db   AS targetDb,
+  [status],
+  COUNT(*)    AS totalCount
+FROM sync_log
+WHERE create_time >= #{beginTime, jdbcType=TIMESTAMP}
+  AND create_time <  #{endTime, jdbcType=TIMESTAMP}
+GROUP BY DATEADD(hour, DATEDIFF(hour, 0, create_time), 0), entity_type, action, source_db, target_db, [status]
+""")
+    List<SyncLogHourly> aggregateRaw(@Param("beginTime") LocalDateTime beginTime,
+                                     @Param("endTime") LocalDateTime endTime);
+
+    @Override
+    @Select("""
+SELECT
+  CONVERT(date, stat_hour) AS statDate,
+  source_db AS sourceDb,
+  target_db AS targetDb,
+  SUM(total_count) AS totalCount,
+  SUM(IIF([status] = 'SUCCESS', total_count, 0))  AS successCount,
+  SUM(IIF([status] = 'FAILED', total_count, 0))   AS failedCount,
+  SUM(IIF([status] = 'CONFLICT', total_count, 0)) AS conflictCount,
+  SUM(IIF([status] = 'ERROR', total_count, 0))    AS errorCount
+FROM sync_log_hourly
+WHERE stat_hour >= #{beginTime, jdbcType=TIMESTAMP}
+  AND stat_hour <  #{endTime, jdbcType=TIMESTAMP}
+  AND (NULLIF(#{entityType}, '') IS NULL OR entity_type = #{entityType})
+  AND (NULLIF(#{action}, '') IS NULL OR action = #{action})
+  AND (NULLIF(#{status}, '') IS NULL OR [status] = #{status})
+  AND (NULLIF(#{sourceDb}, '') IS NULL OR source_db = #{sourceDb})
+  AND (NULLIF(#{targetDb}, '') IS NULL OR target_db = #{targetDb})
+GROUP BY CONVERT(date, stat_hour), source_db, target_db
+ORDER BY statDate DESC, sourceDb, targetDb
+""")
+    List<SyncLogDailyStat> listDailyStats(
+            @Param("beginTime") LocalDateTime beginTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("entityType") String entityType,
+            @Param("action") String action,
+            @Param("status") String status,
+            @Param("sourceDb") String sourceDb,
+            @Param("targetDb") String targetDb
+    );
+
+    @Override
+    @Select("""
+    <script>
+    SELECT
+      ${groupCol} AS [key],
+      SUM(l.total_count) AS [count]
+    FROM sync_log_hourly l
+    WHERE l.stat_hour &gt;= #{beginTime, jdbcType=TIMESTAMP}
+      AND l.stat_hour &lt;  #{endTime,   jdbcType=TIMESTAMP}
+      <if test="entityType != null and entityType != ''">
+        AND l.entity_type = #{entityType, jdbcType=VARCHAR}
+      </if>
+      <if test="action != null and action != ''">
+        AND l.action = #{action, jdbcType=VARCHAR}
+      </if>
+      <if test="status != null and status != ''">
+        AND l.[status] = #{status, jdbcType=VARCHAR}
+      </if>
+      <if test="sourceDb != null and sourceDb != ''">
+        AND l.source_db = #{sourceDb, jdbcType=VARCHAR}
+      </if>
+      <if test="targetDb != null and targetDb != ''">
+        AND l.target_db = #{targetDb, jdbcType=VARCHAR}
+      </if>
+    GROUP BY ${groupCol}
+    ORDER BY [count] DESC
+    </script>
+    """)
+    List<AggVo> agg(
+            @Param("beginTime") LocalDateTime beginTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("groupCol") String groupCol,
+            @Param("entityType") String entityType,
+            @Param("action") String action,
+            @Param("status") String status,
+            @Param("sourceDb") String sourceDb,
+            @Param("targetDb") String targetDb
+    );
+
+    @Override
+    @Select("""
+    <script>
+    SELECT DISTINCT TOP (#{limit}) DATEADD(hour, DATEDIFF(hour, 0, create_time), 0) AS stat_hour
+    FROM sync_log
+    WHERE update_time &gt;= #{updatedSince, jdbcType=TIMESTAMP}
+      AND create_time &lt;  #{beforeTime, jdbcType=TIMESTAMP}
+      <if test="fromTime != null">
+        AND create_time &gt;= #{fromTime, jdbcType=TIMESTAMP}
+      </if>
+    ORDER BY stat_hour
+    </script>
+    """)
+    List<LocalDateTime> listChangedHours(@Param("updatedSince") LocalDateTime updatedSince,
+                                         @Param("fromTime") LocalDateTime fromTime,
+                                         @Param("beforeTime") LocalDateTime beforeTime,
+                                         @Param("limit") int limit);
+}
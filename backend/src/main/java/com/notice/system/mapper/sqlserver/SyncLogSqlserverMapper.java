@@ -4,7 +4,9 @@ import com.baomidou.dynamic.datasource.annotation.DS;
 import com.notice.system.entity.SyncLog;
 import com.notice.system.mapper.base.SyncLogBaseMapper;
 import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.mapper.dto.SyncLogPartition;
 import com.notice.system.vo.report.AggVo;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -89,9 +91,18 @@ ORDER BY statDate DESC, sourceDb, targetDb
 
     @Override
     @Select("EXEC dbo.sp_clean_sync_log #{retainDays}, #{maxCount}")
-    void callCleanProc(@Param("retainDays") Integer retainDays,
+    Long callCleanProc(@Param("retainDays") Integer retainDays,
                        @Param("maxCount") Long maxCount);
 
+    @Override
+    @Select("""
+    SELECT COALESCE(SUM(CAST(p.rows AS BIGINT)), 0)
+    FROM sys.partitions p
+    WHERE p.object_id = OBJECT_ID(N'dbo.sync_log')
+      AND p.index_id IN (0, 1)
+    """)
+    Long estimateRowCount();
+
     @Override
     @Select("""
   SELECT TOP (#{limit})
@@ -116,4 +127,69 @@ ORDER BY statDate DESC, sourceDb, targetDb
                                         @Param("toTime") LocalDateTime toTime,
                                         @Param("limit") Integer limit);
 
+    @Override
+    @Select("""
+<script>
+SELECT TOP (#{limit})
+  id,
+  entity_type AS entityType,
+  entity_id   AS entityId,
+  action,
+  source_db   AS sourceDb,
+  target_db   AS targetDb,
+  [status]    AS status,
+  error_msg   AS errorMsg,
+  retry_count AS retryCount,
+  create_time AS createTime,
+  update_time AS updateTime
+FROM sync_log
+WHERE [status] = 'SUCCESS'
+  AND update_time &lt;= #{toTime, jdbcType=TIMESTAMP}
+  <if test="afterTime != null">
+    AND (update_time &gt; #{afterTime, jdbcType=TIMESTAMP}
+         OR (update_time = #{afterTime, jdbcType=TIMESTAMP} AND id &gt; #{afterId}))
+  </if>
+  <if test="suffixes != null and suffixes.size() > 0">
+    AND RIGHT(id, 1) IN
+    <foreach collection="suffixes" item="s" open="(" separator="," close=")">#{s}</foreach>
+  </if>
+ORDER BY update_time, id
+</script>
+""")
+    List<SyncLog> listSuccessLogsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") String afterId,
+                                       @Param("toTime") LocalDateTime toTime,
+                                       @Param("suffixes") List<String> suffixes,
+                                       @Param("limit") int limit);
+
+    @Override
+    @Delete("DELETE TOP (#{limit}) FROM sync_log WHERE create_time < #{threshold, jdbcType=TIMESTAMP}")
+    int purgeExpiredChunk(@Param("threshold") LocalDateTime threshold,
+                          @Param("limit") int limit);
+
+    @Override
+    @Delete("""
+    WITH oldest AS (
+      SELECT TOP (#{limit}) id FROM sync_log ORDER BY create_time, id
+    )
+    DELETE FROM oldest
+    """)
+    int purgeOldestChunk(@Param("limit") int limit);
+
+    /** SQL Server 不做按月分区：列表为空，PARTITION 模式直接退化为分批删除。 */
+    @Override
+    default List<SyncLogPartition> listPartitions() {
+        return List.of();
+    }
+
+    /** listPartitions 为空时不会被调用，保持空操作。 */
+    @Override
+    default void dropPartition(@Param("name") String name) {
+    }
+
+    @Override
+    default void addPartition(@Param("name") String name,
+                              @Param("fromDate") String fromDate,
+                              @Param("toDate") String toDate) {
+    }
 }
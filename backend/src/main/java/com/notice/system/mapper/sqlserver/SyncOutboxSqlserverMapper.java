@@ -0,0 +1,24 @@
+package com.notice.system.mapper.sqlserver;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.notice.system.mapper.base.SyncOutboxBaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+@DS("sqlserver")
+public interface SyncOutboxSqlserverMapper extends SyncOutboxBaseMapper {
+
+    @Override
+    @Select("""
+SELECT TOP (#{limit}) id
+FROM sync_outbox WITH (UPDLOCK, READPAST, ROWLOCK)
+WHERE claim_until IS NULL OR claim_until < #{now, jdbcType=TIMESTAMP}
+ORDER BY id
+""")
+    List<Long> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,32 @@
+package com.notice.system.service;
+
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.dto.RowHash;
+import com.notice.system.mapper.dto.RowHashBucket;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 行指纹读取：默认在库内按 FingerprintSpec 计算 SHA-256，只取 (id, hash)；
+ * 关闭 notice.sync.fingerprint.db-side 或算法不是 SHA256 时退回读整行在 Java 端流式计算。
+ */
+public interface RowHashService {
+
+    /** 已在内存中的行按当前配置的算法计算指纹（与 hashesByIds / hashPage 口径一致）；row 为 null 返回 null。 */
+    String rowHash(SyncEntityType type, Object row);
+
+    /** 一批 id 在 db 上的 id -> hash（不存在的 id 不在结果中）。 */
+    Map<String, String> hashesByIds(SyncEntityType type, DatabaseType db, Collection<String> ids);
+
+    /** 按主键前缀 + keyset 游标（不含）分页读取行指纹，按主键升序；prefix 为空表示全表。 */
+    List<RowHash> hashPage(SyncEntityType type, DatabaseType db, String prefix, String cursor, int limit);
+
+    /**
+     * 前缀桶内按主键前 bucketLength 位分组的指纹聚合；库内计算时一条 GROUP BY 完成，
+     * 否则按 pageSize 分页读取行指纹在 Java 端累加。
+     */
+    List<RowHashBucket> bucketDigests(SyncEntityType type, DatabaseType db, String prefix, int bucketLength, int pageSize);
+}
@@ -0,0 +1,37 @@
+package com.notice.system.service;
+
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 审计类系统表（同步日志 / 冲突工单）的批量搬运：
+ * 新增行不再逐条 submitSync，而是定期按 (create_time, id) 游标从主日志库成批复制到其它库。
+ */
+public interface SyncAuditShipService {
+
+    /** 走批量搬运的实体类型。 */
+    Set<SyncEntityType> AUDIT_TYPES = EnumSet.of(
+            SyncEntityType.SYNC_LOG,
+            SyncEntityType.SYNC_CONFLICT,
+            SyncEntityType.SYNC_CONFLICT_ITEM);
+
+    /** 该变更是否交给批量搬运（调用方据此跳过逐条同步）。 */
+    boolean isShipped(SyncEntityType entityType, SyncAction action, DatabaseType sourceDb);
+
+    /**
+     * targetDb 上该审计表已完整到达的 create_time 上界（搬运游标 - 安全余量）。
+     * 未启用搬运、不是搬运的表或 targetDb 就是主日志库时返回 null；还没搬运过返回 LocalDateTime.MIN。
+     */
+    LocalDateTime shippedUntil(SyncEntityType entityType, DatabaseType targetDb);
+
+    /** 把主日志库中游标之后的新行复制到 targetDb，返回复制行数。 */
+    long ship(SyncEntityType entityType, DatabaseType targetDb);
+
+    /** 按依赖顺序把所有审计表复制到所有其它库，返回复制行数。 */
+    long shipAll();
+}
@@ -0,0 +1,22 @@
+package com.notice.system.service;
+
+import com.notice.system.entity.SyncCheckpoint;
+import com.notice.system.entityEnum.DatabaseType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 同步任务断点：记录在任务所读的源库里，只在本库读写，不触发跨库同步。
+ * 在租约任务中保存/清除前会按 fencing token 校验租约，已被接管时抛 LeaseLostException。
+ */
+public interface SyncCheckpointService {
+
+    /** 读取断点（不存在返回 null）。 */
+    SyncCheckpoint get(DatabaseType db, String checkpointKey);
+
+    /** 保存断点（不存在则新建）。 */
+    void save(DatabaseType db, String checkpointKey, String cursorId, LocalDateTime cursorTime, long processedCount);
+
+    /** 任务正常结束后清除断点。 */
+    void clear(DatabaseType db, String checkpointKey);
+}
@@ -50,6 +50,9 @@ public interface SyncConflictService extends MultiDbSyncService<SyncConflict> {
                                           int perDbLogLimit,
                                           int entityLimit);
 
+    //按持久化游标 (update_time, id) 扫描一个分片的 SUCCESS 日志发现新冲突，游标存在 logDb，每处理完一页推进一次
+    int detectNewConflictsByCursor(DatabaseType logDb, int shard, int shardCount, LocalDateTime now);
+
     //复查旧冲突
     int recheckOpenConflicts(LocalDateTime now,int limit);
     //发送邮件处理
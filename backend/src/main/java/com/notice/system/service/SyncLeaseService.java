@@ -0,0 +1,27 @@
+package com.notice.system.service;
+
+import com.notice.system.entity.SyncLease;
+
+/**
+ * 定时任务分布式租约：记录在 notice.sync.lease.db 指定的库里，时间以数据库时钟为准。
+ */
+public interface SyncLeaseService {
+
+    /** 本节点标识（租约 owner）。 */
+    String owner();
+
+    /**
+     * 抢占租约：成功返回当前租约（含 fencing token），已被其它节点持有时返回 null。
+     * reentrant=true 时本节点持有可重入；false 时本节点持有（含释放后的 holdMs 保持期）也视为失败，分片任务用它让分片轮到其它节点。
+     */
+    SyncLease tryAcquire(String leaseKey, long ttlMs, boolean reentrant);
+
+    /** 检查租约表可用（表不存在等直接抛异常）。 */
+    void checkAvailable();
+
+    /** 续期：返回 false 表示租约已过期并被其它节点接管（token 已变）。 */
+    boolean renew(SyncLease lease, long ttlMs);
+
+    /** 释放：holdMs 内其它节点仍抢不到（避免同一周期被重复执行），0 表示立即释放。 */
+    void release(SyncLease lease, long holdMs);
+}
@@ -0,0 +1,28 @@
+package com.notice.system.service;
+
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.vo.report.AggVo;
+import com.notice.system.vo.synclog.SyncLogVo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * sync_log 按小时预聚合（sync_log_hourly，各库私有）：
+ * 定时把已结束的小时汇总进来，报表只对未汇总的时间段扫原始日志。
+ */
+public interface SyncLogRollupService {
+
+    /** 汇总 db 上已结束的小时（并重算最近几个小时以吸收重试导致的状态变化），返回写入的聚合行数。 */
+    int rollup(DatabaseType db);
+
+    /** db 已汇总到的时间（整点，不含）；未开启或从未汇总返回 null。 */
+    LocalDateTime rolledUpUntil(DatabaseType db);
+
+    /** 读取 [beginHour, endHour) 的按天统计（两端须为整点）。 */
+    List<SyncLogDailyStat> listDailyStats(DatabaseType db, LocalDateTime beginHour, LocalDateTime endHour, SyncLogVo filter);
+
+    /** 读取 [beginHour, endHour) 的聚合统计（groupCol 与原始日志聚合同一白名单）。 */
+    List<AggVo> agg(DatabaseType db, LocalDateTime beginHour, LocalDateTime endHour, String groupCol, SyncLogVo filter);
+}
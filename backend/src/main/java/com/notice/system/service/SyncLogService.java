@@ -7,9 +7,11 @@ import com.notice.system.entityEnum.aggBy.SyncLogAggBy;
 import com.notice.system.service.base.MultiDbSyncService;
 import com.notice.system.vo.report.AggVo;
 import com.notice.system.vo.synclog.SyncLogDailyReportVo;
+import com.notice.system.vo.synclog.SyncLogPurgeVo;
 import com.notice.system.vo.synclog.SyncLogVo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface SyncLogService extends MultiDbSyncService<SyncLog> {
@@ -26,11 +28,20 @@ public interface SyncLogService extends MultiDbSyncService<SyncLog> {
     /** 根据日志记录重试一次同步，并更新 retryCount 与状态。 */
     boolean retrySyncByLogId(DatabaseType logDb, String logId);
 
+    /** 同 retrySyncByLogId，日志已由调用方读出（批量重试不再逐条回查）；失败时按指数退避写入 nextRetryAt。 */
+    boolean retrySyncLog(DatabaseType logDb, SyncLog logRecord);
+
+    /** 拉取一页已到期的 FAILED 日志（nextRetryAt 为空或不晚于 now），按 (create_time, id) 升序。 */
+    List<SyncLog> listDueRetries(DatabaseType logDb, LocalDateTime now, int maxRetry, int limit);
+
+    /** 同一实体被较新日志覆盖的旧 FAILED 日志：一条 UPDATE 收敛为最新日志的重试结果，不再单独重试。 */
+    int settleSuperseded(DatabaseType logDb, Collection<String> logIds, SyncLog latest);
+
     /** 按天统计同步日志（用于报表）。 */
     List<SyncLogDailyReportVo> listDailyReport(DatabaseType logDb, SyncLogVo condition);
 
-    /** 调用存储过程清理日志（按保留天数/最大数量）。 */
-    long cleanLogsInDb(DatabaseType db, Integer retainDays, Long maxCount);
+    /** 清理日志（按保留天数/最大数量）：默认分批限速删除，可选按月分区整块删除或调用存储过程。 */
+    SyncLogPurgeVo cleanLogsInDb(DatabaseType db, Integer retainDays, Long maxCount);
 
     /** 拉取最近 SUCCESS 日志并按 entityType+entityId 去重（用于冲突候选集扫描）。 */
     List<SyncLog> listRecentSuccessLogsDedup(LocalDateTime fromTime,
@@ -38,6 +49,14 @@ public interface SyncLogService extends MultiDbSyncService<SyncLog> {
                                              int perDbLimit,
                                              int entityLimit);
 
+    /** 按 (update_time, id) 游标顺序拉取一页 SUCCESS 日志（冲突扫描断点续扫；suffixes 为分片的主键末位字符）。 */
+    List<SyncLog> listSuccessLogsAfter(DatabaseType db,
+                                       LocalDateTime afterTime,
+                                       String afterId,
+                                       LocalDateTime toTime,
+                                       List<String> suffixes,
+                                       int limit);
+
     /** 通用聚合统计接口（返回 key/count）。 */
     List<AggVo> aggLogs(DatabaseType db,
                         LocalDateTime begin,
@@ -0,0 +1,28 @@
+package com.notice.system.service;
+
+import com.notice.system.entity.SyncOutbox;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 同步 outbox：变更记录写在业务写入的同一个库、同一个本地事务里，由 relay 领取后推送到其它库。
+ */
+public interface SyncOutboxService {
+
+    /** 在 db 上开启本地事务执行 work（work 内对 db 的业务写入与 outbox 记录一起提交或回滚）。 */
+    <R> R inLocalTransaction(DatabaseType db, Supplier<R> work);
+
+    /** 追加变更记录（在 inLocalTransaction 内调用时与业务写入同一事务）。 */
+    void append(DatabaseType db, SyncEntityType entityType, Collection<String> entityIds, SyncAction action);
+
+    /** 领取最多 limit 条记录，租约 leaseMs 内其它 relay 不会再领取。 */
+    List<SyncOutbox> claim(DatabaseType db, String owner, int limit, long leaseMs);
+
+    /** 推送完成后删除记录。 */
+    void remove(DatabaseType db, Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package com.notice.system.service;
+
+import com.notice.system.entity.SyncPendingChange;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 熔断期间的待同步变更：存放在仍可用的库（一般是变更的源库）里，只在本库读写，不触发跨库同步。
+ */
+public interface SyncPendingChangeService {
+
+    /** 暂存一条变更；同一 (targetDb, entityType, entityId) 只保留最后一次。 */
+    void save(DatabaseType storeDb,
+              DatabaseType targetDb,
+              SyncEntityType entityType,
+              String entityId,
+              SyncAction action,
+              DatabaseType sourceDb);
+
+    /** 按主键 keyset 分页读取某个目标库的待同步变更。 */
+    List<SyncPendingChange> listPage(DatabaseType storeDb, DatabaseType targetDb, String afterId, int limit);
+
+    /** 删除已补同步的变更；只删 updateTime 早于 before 的行，期间被再次更新的保留到下一轮。 */
+    int remove(DatabaseType storeDb, Collection<String> ids, LocalDateTime before);
+}
@@ -0,0 +1,17 @@
+package com.notice.system.service;
+
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncEntityType;
+
+/**
+ * 三库一致性对账：按主键前缀分桶比较各库的桶 hash，只下钻不一致的桶，
+ * 最终只对真正不一致的行做修复（或生成冲突工单）。
+ */
+public interface SyncReconcileService {
+
+    /** 对账单个实体，返回发现的不一致行数。 */
+    int reconcileEntity(SyncEntityType entityType, DatabaseType sourceDb);
+
+    /** 对账所有业务实体，返回发现的不一致行数。 */
+    int reconcileAll(DatabaseType sourceDb);
+}
@@ -3,23 +3,36 @@ package com.notice.system.service;
 import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncAction;
 import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.support.event.SyncEventBusStats;
+import com.notice.system.sync.SyncWriteStats;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
 
 public interface SyncService {
 
-    /** 源库发生变更后，向其它库提交同步任务。 */
+    /** 源库发生变更后，向其它库提交同步任务（开启异步模式时只入队即返回）。 */
     void submitSync(SyncEntityType entityType,
                     String entityId,
                     SyncAction action,
                     DatabaseType sourceDb);
 
-    /** 批量提交同步任务（同实体/同动作/同源库）。 */
+    /** 批量提交同步任务（同实体/同动作/同源库），同步模式下按批走 SyncExecutor.applyBatch。 */
     void submitBatchSync(SyncEntityType entityType,
                          Collection<String> entityIds,
                          SyncAction action,
                          DatabaseType sourceDb);
 
+    /** 执行本地写入：outbox 模式下 write 内的业务写入与提交的变更记录在同一本地事务；否则直接执行。 */
+    <R> R runLocalWrite(DatabaseType db, Supplier<R> write);
+
+    /** relay 推送 outbox 里领取到的变更：不再写 outbox，也不走异步队列/合并窗口，返回时已写完各目标库。 */
+    void relayBatch(SyncEntityType entityType,
+                    Collection<String> entityIds,
+                    SyncAction action,
+                    DatabaseType sourceDb);
+
     /** 仅同步到指定目标库（默认会记同步日志）。 */
     boolean syncToTarget(SyncEntityType entityType,
                          String entityId,
@@ -40,6 +53,22 @@ public interface SyncService {
 
     /** 从指定源库对所有支持同步的实体执行全量同步。 */
     void fullSyncAllFromSource(DatabaseType sourceDb);
+
+    /** 增量同步：只同步 update_time 晚于水位线（减去安全余量）的行，水位线按 (实体, 源库) 持久化，返回同步行数。 */
+    long incrementalSyncEntityFromSource(SyncEntityType entityType,
+                                         DatabaseType sourceDb);
+
+    /** 按依赖顺序对所有业务实体执行增量同步。 */
+    void incrementalSyncAllFromSource(DatabaseType sourceDb);
+
+    /** 把熔断期间暂存的待同步变更批量补同步到已恢复的目标库，返回处理条数。 */
+    int drainPendingChanges();
+
+    /** 各目标库执行器的写入统计（插入 / 跳过 / 部分列更新 / 整行写）。 */
+    List<SyncWriteStats> writeStats();
+
+    /** 同步事件总线（post-check / 同步日志）的排队与处理统计。 */
+    SyncEventBusStats eventBusStats();
 }
 
 
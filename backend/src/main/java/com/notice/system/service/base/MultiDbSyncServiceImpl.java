@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
  *   <li>defaultDb：当前实体（entityType）的“默认工作库/源库”</li>
  *   <li>resolveMapper：解析当前实体在指定库的 Mapper，缺失则 fail-fast 抛异常</li>
  *   <li>写操作统一通过 saveInDb/updateByIdInDb/removeByIdInDb 等，成功后提交同步任务</li>
+ *   <li>写操作包在 SyncService.runLocalWrite 中：开启 outbox 时业务写入与变更记录同一本地事务提交</li>
  * </ul>
  */
 @Slf4j
@@ -124,91 +125,98 @@ public abstract class MultiDbSyncServiceImpl<T> implements MultiDbSyncService<T>
     @Override
     public boolean saveInDb(DatabaseType db, T entity) {
         Objects.requireNonNull(entity, "entity must not be null");
-        int rows = resolveMapper(db).insert(entity);
-        if (rows <= 0) return false;
-
-        String id = extractId(entity);
-        if (id != null) {
-            syncService.submitSync(entityType, id, SyncAction.CREATE, useDb(db));
-        } else {
-            log.warn("[SYNC] insert ok but id is null, entityType={}, entityClass={}",
-                    entityType, entity.getClass().getName());
-        }
-        return true;
+        return syncService.runLocalWrite(useDb(db), () -> {
+            int rows = resolveMapper(db).insert(entity);
+            if (rows <= 0) return false;
+
+            String id = extractId(entity);
+            if (id != null) {
+                syncService.submitSync(entityType, id, SyncAction.CREATE, useDb(db));
+            } else {
+                log.warn("[SYNC] insert ok but id is null, entityType={}, entityClass={}",
+                        entityType, entity.getClass().getName());
+            }
+            return true;
+        });
     }
 
     /** 指定库批量插入（全部成功才触发 batch sync）。 */
     @Override
     public boolean saveBatchInDb(DatabaseType db, Collection<T> entities) {
         if (entities == null || entities.isEmpty()) return false;
-
-        BaseMapper<T> mapper = resolveMapper(db);
-        boolean allOk = true;
-        List<String> ids = new ArrayList<>(entities.size());
-
-        for (T e : entities) {
-            if (e == null) continue;
-            if (mapper.insert(e) <= 0) allOk = false;
-
-            String id = extractId(e);
-            if (id != null) ids.add(id);
-        }
-
-        if (allOk && !ids.isEmpty()) {
-            syncService.submitBatchSync(entityType, ids, SyncAction.CREATE, useDb(db));
-        }
-        return allOk;
+        return syncService.runLocalWrite(useDb(db), () -> {
+            BaseMapper<T> mapper = resolveMapper(db);
+            boolean allOk = true;
+            List<String> ids = new ArrayList<>(entities.size());
+
+            for (T e : entities) {
+                if (e == null) continue;
+                if (mapper.insert(e) <= 0) allOk = false;
+
+                String id = extractId(e);
+                if (id != null) ids.add(id);
+            }
+
+            if (allOk && !ids.isEmpty()) {
+                syncService.submitBatchSync(entityType, ids, SyncAction.CREATE, useDb(db));
+            }
+            return allOk;
+        });
     }
 
     /** 指定库按主键更新并触发同步。 */
     @Override
     public boolean updateByIdInDb(DatabaseType db, T entity) {
         Objects.requireNonNull(entity, "entity must not be null");
-        int rows = resolveMapper(db).updateById(entity);
-        if (rows <= 0) return false;
-
-        String id = extractId(entity);
-        if (id != null) {
-            syncService.submitSync(entityType, id, SyncAction.UPDATE, useDb(db));
-        } else {
-            log.warn("[SYNC] update ok but id is null, entityType={}, entityClass={}",
-                    entityType, entity.getClass().getName());
-        }
-        return true;
+        return syncService.runLocalWrite(useDb(db), () -> {
+            int rows = resolveMapper(db).updateById(entity);
+            if (rows <= 0) return false;
+
+            String id = extractId(entity);
+            if (id != null) {
+                syncService.submitSync(entityType, id, SyncAction.UPDATE, useDb(db));
+            } else {
+                log.warn("[SYNC] update ok but id is null, entityType={}, entityClass={}",
+                        entityType, entity.getClass().getName());
+            }
+            return true;
+        });
     }
 
     /** 指定库按主键删除并触发同步。 */
     @Override
     public boolean removeByIdInDb(DatabaseType db, Serializable id) {
         if (id == null) return false;
+        return syncService.runLocalWrite(useDb(db), () -> {
+            int rows = resolveMapper(db).deleteById(id);
+            if (rows <= 0) return false;
 
-        int rows = resolveMapper(db).deleteById(id);
-        if (rows <= 0) return false;
-
-        syncService.submitSync(entityType, String.valueOf(id), SyncAction.DELETE, useDb(db));
-        return true;
+            syncService.submitSync(entityType, String.valueOf(id), SyncAction.DELETE, useDb(db));
+            return true;
+        });
     }
 
     /** 指定库批量删除（全部成功才触发 batch sync）。 */
     @Override
     public boolean removeByIdsInDb(DatabaseType db, Collection<? extends Serializable> ids) {
         if (ids == null || ids.isEmpty()) return false;
-
-        BaseMapper<T> mapper = resolveMapper(db);
-        List<String> idList = ids.stream()
-                .filter(Objects::nonNull)
-                .map(String::valueOf)
-                .collect(Collectors.toList());
-
-        boolean allOk = true;
-        for (String id : idList) {
-            if (mapper.deleteById(id) <= 0) allOk = false;
-        }
-
-        if (allOk && !idList.isEmpty()) {
-            syncService.submitBatchSync(entityType, idList, SyncAction.DELETE, useDb(db));
-        }
-        return allOk;
+        return syncService.runLocalWrite(useDb(db), () -> {
+            BaseMapper<T> mapper = resolveMapper(db);
+            List<String> idList = ids.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::valueOf)
+                    .collect(Collectors.toList());
+
+            boolean allOk = true;
+            for (String id : idList) {
+                if (mapper.deleteById(id) <= 0) allOk = false;
+            }
+
+            if (allOk && !idList.isEmpty()) {
+                syncService.submitBatchSync(entityType, idList, SyncAction.DELETE, useDb(db));
+            }
+            return allOk;
+        });
     }
 
     /* ======================== 内部工具 ======================== */
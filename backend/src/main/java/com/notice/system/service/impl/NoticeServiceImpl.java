@@ -11,6 +11,7 @@ import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncEntityType;
 import com.notice.system.service.*;
 import com.notice.system.service.base.MultiDbSyncServiceImpl;
+import com.notice.system.support.task.TaskLeaseRunner;
 import com.notice.system.sync.SyncMetadataRegistry;
 import com.notice.system.vo.notice.NoticeAdminPageVo;
 import com.notice.system.vo.notice.NoticeAdminRowVo;
@@ -171,6 +172,8 @@ public class NoticeServiceImpl extends MultiDbSyncServiceImpl<Notice> implements
 
         for (Notice n : due) {
             if (n == null || blank(n.getId())) continue;
+            // 定时任务里执行时：租约已被接管则停止发布，避免两个节点重复发布
+            TaskLeaseRunner.checkFence();
             try {
                 publishNoticeNowInDb(db, n.getId());
             } catch (Exception e) {
@@ -0,0 +1,196 @@
+package com.notice.system.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.notice.system.common.FingerprintSpec;
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.base.RowHashBaseMapper;
+import com.notice.system.mapper.dto.RowHash;
+import com.notice.system.mapper.dto.RowHashBucket;
+import com.notice.system.mapper.mysql.RowHashMysqlMapper;
+import com.notice.system.mapper.pg.RowHashPgMapper;
+import com.notice.system.mapper.sqlserver.RowHashSqlserverMapper;
+import com.notice.system.service.RowHashService;
+import com.notice.system.sync.SyncMetadataRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RowHashServiceImpl implements RowHashService {
+
+    private final RowHashMysqlMapper mysqlMapper;
+    private final RowHashPgMapper pgMapper;
+    private final RowHashSqlserverMapper sqlserverMapper;
+    private final SyncMetadataRegistry metadataRegistry;
+    private final GlobalProperties globalProperties;
+
+    /** SQL Server 是否支持库内指纹（2022+：UTF-8 排序规则与 TRIM(chars FROM)），首次用到时探测一次 */
+    private volatile Boolean sqlserverDbSide;
+
+    @Override
+    public String rowHash(SyncEntityType type, Object row) {
+        return row == null ? null : FingerprintSpec.of(type).hash(row, algorithm());
+    }
+
+    @Override
+    public Map<String, String> hashesByIds(SyncEntityType type, DatabaseType db, Collection<String> ids) {
+        Map<String, String> out = new HashMap<>();
+        if (type == null || ids == null || ids.isEmpty()) {
+            return out;
+        }
+
+        if (dbSide(db)) {
+            TableInfo table = tableInfo(type);
+            for (RowHash r : mapper(db).selectHashesByIds(table.getTableName(), table.getKeyColumn(),
+                    FingerprintSpec.of(type).hashSql(db), ids)) {
+                if (r.getId() != null) out.put(r.getId(), r.getHash());
+            }
+            return out;
+        }
+
+        SyncMetadataRegistry.EntitySyncDefinition<Object> def = metadataRegistry.getDefinition(type);
+        for (Object row : entityMapper(def, type, db).selectBatchIds(ids)) {
+            String id = def.getIdGetter().apply(row);
+            if (id != null) out.put(id, rowHash(type, row));
+        }
+        return out;
+    }
+
+    @Override
+    public List<RowHash> hashPage(SyncEntityType type, DatabaseType db, String prefix, String cursor, int limit) {
+        int size = Math.max(1, limit);
+        TableInfo table = tableInfo(type);
+
+        if (dbSide(db)) {
+            return mapper(db).selectHashPage(table.getTableName(), table.getKeyColumn(),
+                    FingerprintSpec.of(type).hashSql(db), prefix, cursor, size);
+        }
+
+        SyncMetadataRegistry.EntitySyncDefinition<Object> def = metadataRegistry.getDefinition(type);
+        String keyColumn = table.getKeyColumn();
+        QueryWrapper<Object> qw = new QueryWrapper<>();
+        qw.likeRight(prefix != null && !prefix.isEmpty(), keyColumn, prefix)
+                .gt(cursor != null, keyColumn, cursor)
+                .orderByAsc(keyColumn);
+
+        List<RowHash> out = new ArrayList<>();
+        for (Object row : entityMapper(def, type, db).selectPage(new Page<>(1, size, false), qw).getRecords()) {
+            RowHash r = new RowHash();
+            r.setId(def.getIdGetter().apply(row));
+            r.setHash(rowHash(type, row));
+            out.add(r);
+        }
+        return out;
+    }
+
+    @Override
+    public List<RowHashBucket> bucketDigests(SyncEntityType type, DatabaseType db, String prefix, int bucketLength, int pageSize) {
+        if (dbSide(db)) {
+            TableInfo table = tableInfo(type);
+            return mapper(db).selectBucketDigests(table.getTableName(), table.getKeyColumn(),
+                    FingerprintSpec.of(type).hashSql(db), prefix, bucketLength);
+        }
+
+        // Java 端：逐页读行指纹，按 64 位回绕累加（与库内的和按 2^64 取模一致）
+        Map<String, long[]> acc = new TreeMap<>();
+        String cursor = null;
+        int size = Math.max(1, pageSize);
+        while (true) {
+            List<RowHash> rows = hashPage(type, db, prefix, cursor, size);
+            for (RowHash row : rows) {
+                if (row.getId() == null) continue;
+                String id = row.getId();
+                long[] a = acc.computeIfAbsent(id.substring(0, Math.min(bucketLength, id.length())), k -> new long[3]);
+                a[0]++;
+                a[1] += Long.parseUnsignedLong(row.getHash().substring(0, 16), 16);
+                a[2] += Long.parseUnsignedLong(row.getHash().substring(16, 32), 16);
+            }
+            if (rows.size() < size) break;
+            cursor = rows.get(rows.size() - 1).getId();
+        }
+
+        List<RowHashBucket> out = new ArrayList<>(acc.size());
+        acc.forEach((bucket, a) -> {
+            RowHashBucket b = new RowHashBucket();
+            b.setBucket(bucket);
+            b.setRowCount(a[0]);
+            b.setSumHi(BigDecimal.valueOf(a[1]));
+            b.setSumLo(BigDecimal.valueOf(a[2]));
+            out.add(b);
+        });
+        return out;
+    }
+
+    /** 库内表达式只实现了 SHA-256，其它算法一律在 Java 端计算；SQL Server 2022 以下同样回退到 Java 端。 */
+    private boolean dbSide(DatabaseType db) {
+        GlobalProperties.Sync.Fingerprint cfg = globalProperties.getSync().getFingerprint();
+        if (cfg == null || !cfg.isDbSide() || algorithm() != FingerprintSpec.Algorithm.SHA256) {
+            return false;
+        }
+        return db != DatabaseType.SQLSERVER || sqlserverDbSide();
+    }
+
+    private boolean sqlserverDbSide() {
+        Boolean supported = sqlserverDbSide;
+        if (supported == null) {
+            Integer major = null;
+            try {
+                major = sqlserverMapper.selectMajorVersion();
+            } catch (Exception e) {
+                log.warn("[ROW-HASH] SQL Server version probe failed, fall back to Java-side hashing: {}", e.getMessage());
+            }
+            supported = major != null && major >= 16;
+            if (!supported) {
+                log.warn("[ROW-HASH] SQL Server major version {} lacks TRIM(chars FROM), hashing SQLSERVER rows in Java", major);
+            }
+            sqlserverDbSide = supported;
+        }
+        return supported;
+    }
+
+    private FingerprintSpec.Algorithm algorithm() {
+        GlobalProperties.Sync.Fingerprint cfg = globalProperties.getSync().getFingerprint();
+        if (cfg == null || cfg.getAlgorithm() == null || cfg.getAlgorithm().isBlank()) {
+            return FingerprintSpec.Algorithm.SHA256;
+        }
+        return FingerprintSpec.Algorithm.valueOf(cfg.getAlgorithm().trim().toUpperCase());
+    }
+
+    private TableInfo tableInfo(SyncEntityType type) {
+        Object sample = metadataRegistry.getDefinition(type).getEntitySupplier().get();
+        TableInfo table = TableInfoHelper.getTableInfo(sample.getClass());
+        if (table == null || table.getKeyColumn() == null) {
+            throw new IllegalStateException("Table metadata not found: entityType=" + type);
+        }
+        return table;
+    }
+
+    private static BaseMapper<Object> entityMapper(SyncMetadataRegistry.EntitySyncDefinition<Object> def,
+                                                   SyncEntityType type,
+                                                   DatabaseType db) {
+        BaseMapper<Object> mapper = def.getMapper(db);
+        if (mapper == null) {
+            throw new IllegalStateException("Mapper not configured: entityType=" + type + ", db=" + db);
+        }
+        return mapper;
+    }
+
+    private RowHashBaseMapper mapper(DatabaseType db) {
+        return switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> mysqlMapper;
+            case PG -> pgMapper;
+            case SQLSERVER -> sqlserverMapper;
+        };
+    }
+}
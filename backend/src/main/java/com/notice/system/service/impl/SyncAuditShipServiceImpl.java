@@ -0,0 +1,183 @@
+package com.notice.system.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entity.SyncCheckpoint;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.service.SyncAuditShipService;
+import com.notice.system.service.SyncCheckpointService;
+import com.notice.system.sync.SyncExecutor;
+import com.notice.system.sync.SyncMetadataRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 审计表批量搬运：
+ * <ul>
+ *   <li>每个 (实体类型, 目标库) 一个游标，存在主日志库的 sync_checkpoint（key = AUDIT_SHIP:类型:目标库）</li>
+ *   <li>每轮从“游标时间 - 安全余量”开始按 (create_time, id) keyset 分页读取整行，直接交给目标库执行器批量 upsert</li>
+ *   <li>不经过 SyncService：不写同步日志、不做落库后校验；某个目标库失败只停该目标，游标不前进，下一轮重试</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncAuditShipServiceImpl implements SyncAuditShipService {
+
+    private static final String CREATE_TIME_COLUMN = "create_time";
+    private static final String CREATE_TIME_PROPERTY = "createTime";
+
+    private final List<SyncExecutor> executors;
+    private final SyncMetadataRegistry metadataRegistry;
+    private final SyncCheckpointService checkpointService;
+    private final GlobalProperties globalProperties;
+
+    @Override
+    public boolean isShipped(SyncEntityType entityType, SyncAction action, DatabaseType sourceDb) {
+        GlobalProperties.Sync.AuditShip cfg = globalProperties.getSync().getAuditShip();
+        // 只接管主日志库上的新增；更新/删除仍逐条同步（游标按 create_time 推进，看不到更新）
+        return cfg != null && cfg.isEnabled()
+                && action == SyncAction.CREATE
+                && AUDIT_TYPES.contains(entityType)
+                && sourceDb == cfg.getSourceDb();
+    }
+
+    @Override
+    public LocalDateTime shippedUntil(SyncEntityType entityType, DatabaseType targetDb) {
+        GlobalProperties.Sync.AuditShip cfg = globalProperties.getSync().getAuditShip();
+        if (cfg == null || !cfg.isEnabled() || !AUDIT_TYPES.contains(entityType) || targetDb == sourceDb()) {
+            return null;
+        }
+        SyncCheckpoint cp = checkpointService.get(sourceDb(), checkpointKey(entityType, targetDb));
+        if (cp == null || cp.getCursorTime() == null) {
+            return LocalDateTime.MIN;
+        }
+        return cp.getCursorTime().minusNanos(Math.max(0L, cfg.getSafetyMarginMs()) * 1_000_000L);
+    }
+
+    @Override
+    public long shipAll() {
+        long total = 0;
+        for (List<SyncEntityType> level : metadataRegistry.getSyncLevels()) {
+            for (SyncEntityType type : level) {
+                if (!AUDIT_TYPES.contains(type)) continue;
+                for (SyncExecutor executor : executors) {
+                    if (executor.targetDb() == sourceDb()) continue;
+                    try {
+                        total += ship(type, executor.targetDb());
+                    } catch (Exception ex) {
+                        log.warn("[SYNC-AUDIT] ship failed: entityType={}, {} -> {}, err={}",
+                                type, sourceDb(), executor.targetDb(), ex.getMessage());
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long ship(SyncEntityType entityType, DatabaseType targetDb) {
+        DatabaseType sourceDb = sourceDb();
+        SyncExecutor executor = executorFor(targetDb);
+        if (executor == null || targetDb == sourceDb) {
+            return 0L;
+        }
+
+        SyncMetadataRegistry.EntitySyncDefinition<Object> def = metadataRegistry.getDefinition(entityType);
+        BaseMapper<Object> sourceMapper = def.getMapper(sourceDb);
+        if (sourceMapper == null) {
+            throw new IllegalStateException("Source mapper not configured: entityType=" + entityType + ", db=" + sourceDb);
+        }
+
+        GlobalProperties.Sync.AuditShip cfg = globalProperties.getSync().getAuditShip();
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(def.getEntitySupplier().get().getClass());
+        String keyColumn = tableInfo.getKeyColumn();
+        int pageSize = Math.max(1, cfg.getPageSize());
+        long marginMs = Math.max(0L, cfg.getSafetyMarginMs());
+        String checkpointKey = checkpointKey(entityType, targetDb);
+        Function<Object, String> idGetter = def.getIdGetter();
+
+        // 游标回退安全余量：覆盖日志批量写入的提交延迟与时钟偏差（重复复制由 upsert 幂等吸收）
+        SyncCheckpoint cp = checkpointService.get(sourceDb, checkpointKey);
+        LocalDateTime cursorTime = (cp == null || cp.getCursorTime() == null)
+                ? null
+                : cp.getCursorTime().minusNanos(marginMs * 1_000_000L);
+        String cursorId = null;
+
+        long shipped = 0;
+        LocalDateTime savedTime = (cp == null ? null : cp.getCursorTime());
+        while (true) {
+            QueryWrapper<Object> qw = new QueryWrapper<>();
+            if (cursorTime != null) {
+                LocalDateTime t = cursorTime;
+                if (cursorId == null) {
+                    qw.ge(CREATE_TIME_COLUMN, t);
+                } else {
+                    String id = cursorId;
+                    qw.and(w -> w.gt(CREATE_TIME_COLUMN, t).or(o -> o.eq(CREATE_TIME_COLUMN, t).gt(keyColumn, id)));
+                }
+            }
+            qw.orderByAsc(CREATE_TIME_COLUMN, keyColumn);
+
+            List<Object> rows = sourceMapper.selectPage(new Page<>(1, pageSize, false), qw).getRecords();
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                ids.add(idGetter.apply(row));
+            }
+            executor.applyBatchEntities(entityType, SyncAction.CREATE, ids, rows, sourceDb, false);
+
+            Object last = rows.get(rows.size() - 1);
+            cursorTime = (LocalDateTime) tableInfo.getPropertyValue(last, CREATE_TIME_PROPERTY);
+            cursorId = idGetter.apply(last);
+            shipped += rows.size();
+
+            // 余量内的重复页不回写更早的游标
+            if (savedTime == null || (cursorTime != null && cursorTime.isAfter(savedTime))) {
+                checkpointService.save(sourceDb, checkpointKey, cursorId, cursorTime, shipped);
+                savedTime = cursorTime;
+            }
+
+            if (rows.size() < pageSize) {
+                break;
+            }
+        }
+
+        if (shipped > 0) {
+            log.debug("[SYNC-AUDIT] shipped: entityType={}, {} -> {}, rows={}, cursor={}",
+                    entityType, sourceDb, targetDb, shipped, cursorTime);
+        }
+        return shipped;
+    }
+
+    private static String checkpointKey(SyncEntityType entityType, DatabaseType targetDb) {
+        return "AUDIT_SHIP:" + entityType + ":" + targetDb;
+    }
+
+    private DatabaseType sourceDb() {
+        DatabaseType db = globalProperties.getSync().getAuditShip().getSourceDb();
+        return db == null ? DatabaseType.MYSQL : db;
+    }
+
+    private SyncExecutor executorFor(DatabaseType targetDb) {
+        for (SyncExecutor executor : executors) {
+            if (executor.targetDb() == targetDb) return executor;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.notice.system.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.notice.system.entity.SyncCheckpoint;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.mapper.mysql.SyncCheckpointMysqlMapper;
+import com.notice.system.mapper.pg.SyncCheckpointPgMapper;
+import com.notice.system.mapper.sqlserver.SyncCheckpointSqlserverMapper;
+import com.notice.system.service.SyncCheckpointService;
+import com.notice.system.support.task.TaskLeaseRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncCheckpointServiceImpl implements SyncCheckpointService {
+
+    private final SyncCheckpointMysqlMapper mysqlMapper;
+    private final SyncCheckpointPgMapper pgMapper;
+    private final SyncCheckpointSqlserverMapper sqlserverMapper;
+
+    @Override
+    public SyncCheckpoint get(DatabaseType db, String checkpointKey) {
+        if (checkpointKey == null || checkpointKey.isBlank()) return null;
+        return mapper(db).selectOne(new LambdaQueryWrapper<SyncCheckpoint>()
+                .eq(SyncCheckpoint::getCheckpointKey, checkpointKey));
+    }
+
+    @Override
+    public void save(DatabaseType db, String checkpointKey, String cursorId, LocalDateTime cursorTime, long processedCount) {
+        // 断点推进是任务的提交点：租约已被其它节点接管时拒绝写入并终止任务
+        TaskLeaseRunner.checkFence();
+        SyncCheckpoint cp = get(db, checkpointKey);
+        boolean insert = (cp == null);
+        if (insert) {
+            cp = new SyncCheckpoint();
+            cp.setCheckpointKey(checkpointKey);
+        }
+        cp.setCursorId(cursorId);
+        cp.setCursorTime(cursorTime);
+        cp.setProcessedCount(processedCount);
+        // 自动填充只补空值，这里显式刷新
+        cp.setUpdateTime(LocalDateTime.now());
+
+        if (insert) {
+            mapper(db).insert(cp);
+        } else {
+            mapper(db).updateById(cp);
+        }
+    }
+
+    @Override
+    public void clear(DatabaseType db, String checkpointKey) {
+        if (checkpointKey == null || checkpointKey.isBlank()) return;
+        TaskLeaseRunner.checkFence();
+        int rows = mapper(db).delete(new LambdaQueryWrapper<SyncCheckpoint>()
+                .eq(SyncCheckpoint::getCheckpointKey, checkpointKey));
+        log.debug("[SYNC-CHECKPOINT] cleared: db={}, key={}, rows={}", db, checkpointKey, rows);
+    }
+
+    private BaseMapper<SyncCheckpoint> mapper(DatabaseType db) {
+        return switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> mysqlMapper;
+            case PG -> pgMapper;
+            case SQLSERVER -> sqlserverMapper;
+        };
+    }
+}
@@ -17,18 +17,26 @@ import com.notice.system.mapper.dto.SyncConflictWithItemRow;
 import com.notice.system.service.*;
 import com.notice.system.service.base.MultiDbSyncServiceImpl;
 import com.notice.system.support.event.SyncBatchPostCheckEvent;
+import com.notice.system.support.event.SyncChunkPostCheckEvent;
+import com.notice.system.support.task.TaskLeaseRunner;
 import com.notice.system.sync.SyncMetadataRegistry;
 import com.notice.system.vo.conflict.SyncConflictDetailVo;
 import com.notice.system.vo.conflict.SyncConflictItemVo;
 import com.notice.system.vo.conflict.SyncConflictQueryVo;
 import com.notice.system.vo.conflict.SyncConflictWithItemsVo;
 import com.notice.system.vo.report.AggVo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 冲突工单服务（SyncConflict + SyncConflictItem）
@@ -44,6 +52,11 @@ public class SyncConflictServiceImpl
     private final SyncConflictItemService conflictItemService;
     private final SyncLogService syncLogService;
     private final ObjectMapper objectMapper;
+    private final RowHashService rowHashService;
+    private final SyncCheckpointService checkpointService;
+
+    /** 批量读取三库快照时各库并发查询的线程池（每库一个任务）。 */
+    private ThreadPoolExecutor snapshotPool;
 
     public SyncConflictServiceImpl(SyncService syncService,
                                    SyncMetadataRegistry metadataRegistry,
@@ -51,13 +64,41 @@ public class SyncConflictServiceImpl
                                    SyncConflictItemService conflictItemService,
                                    GlobalProperties globalProperties,
                                    SyncLogService syncLogService,
-                                   ObjectMapper objectMapper) {
+                                   ObjectMapper objectMapper,
+                                   RowHashService rowHashService,
+                                   SyncCheckpointService checkpointService) {
         super(syncService, metadataRegistry, SyncEntityType.SYNC_CONFLICT, DatabaseType.MYSQL);
         this.mailService = mailService;
         this.conflictItemService = conflictItemService;
         this.globalProperties = globalProperties;
         this.syncLogService = syncLogService;
         this.objectMapper = objectMapper;
+        this.rowHashService = rowHashService;
+        this.checkpointService = checkpointService;
+    }
+
+    @PostConstruct
+    public void initSnapshotPool() {
+        int threads = DatabaseType.syncDbs().size();
+        AtomicInteger seq = new AtomicInteger();
+        // 池满时由调用线程直接读取（退化为串行）
+        snapshotPool = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                r -> {
+                    Thread t = new Thread(r, "conflict-snapshot-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        snapshotPool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdownSnapshotPool() {
+        if (snapshotPool != null) {
+            snapshotPool.shutdown();
+        }
     }
 
     /* ======================== Mapper helpers（查询/分页/报表） ======================== */
@@ -80,23 +121,73 @@ public class SyncConflictServiceImpl
         boolean anyOk = ok != null && ok.values().stream().anyMatch(Boolean::booleanValue);
         if (!anyOk) return;
 
+        // 同步时已读过源库则复用，不再重复 selectById
+        Map<DatabaseType, Object> knownRows = new EnumMap<>(DatabaseType.class);
+        if (ev.isSourceLoaded() && ev.getSourceDb() != null) {
+            knownRows.put(ev.getSourceDb(), ev.getSourceEntity());
+        }
+
         String conflictId = checkAndUpsertConflictIfNeeded(
                 ev.getEntityType(),
                 ev.getEntityId(),
                 ev.getAction(),
-                ev.getSourceDb()
+                knownRows
         );
         ev.setConflictId(conflictId);
     }
 
+    @EventListener
+    public void onSyncChunkPostCheck(SyncChunkPostCheckEvent ev) {
+        if (ev == null || ev.getEntityType() == null || ev.getEntityIds() == null) return;
+
+        SyncEntityType entityType = ev.getEntityType();
+        SyncAction action = ev.getAction();
+        List<String> ids = new ArrayList<>();
+        for (String id : ev.getEntityIds()) {
+            if (!shouldSkipCheck(entityType, id, action)) ids.add(id);
+        }
+        if (ids.isEmpty()) return;
+
+        // 同步时已读过整批源库行则复用
+        Map<DatabaseType, Map<String, Object>> knownRows = new EnumMap<>(DatabaseType.class);
+        if (ev.getSourceEntities() != null && ev.getSourceDb() != null) {
+            knownRows.put(ev.getSourceDb(), ev.getSourceEntities());
+        }
+
+        Map<String, SnapshotUtil.Snapshot> snaps = readSnapshots(entityType, ids, knownRows);
+        LocalDateTime now = LocalDateTime.now();
+        snaps.forEach((id, snap) -> {
+            ConflictType conflictType = SnapshotUtil.judgeConflictType(action, snap);
+            if (conflictType == null) return;
+
+            String conflictId = upsertConflictBySnapshot(entityType, id, conflictType, snap, now, true);
+            if (conflictId != null) {
+                ev.getConflictIds().put(id, conflictId);
+            }
+        });
+    }
+
     @Override
     public String checkAndUpsertConflictIfNeeded(SyncEntityType entityType,
                                                  String entityId,
                                                  SyncAction action,
                                                  DatabaseType sourceDb) {
+        return checkAndUpsertConflictIfNeeded(entityType, entityId, action, Map.of());
+    }
+
+    private String checkAndUpsertConflictIfNeeded(SyncEntityType entityType,
+                                                  String entityId,
+                                                  SyncAction action,
+                                                  Map<DatabaseType, ?> knownRows) {
         if (shouldSkipCheck(entityType, entityId, action)) return null;
 
-        SnapshotUtil.Snapshot snap = readSnapshot(entityType, entityId);
+        Map<DatabaseType, Map<String, Object>> known = new EnumMap<>(DatabaseType.class);
+        knownRows.forEach((db, row) -> {
+            Map<String, Object> m = new HashMap<>();
+            if (row != null) m.put(entityId, row);
+            known.put(db, m);
+        });
+        SnapshotUtil.Snapshot snap = readSnapshot(entityType, entityId, known);
         ConflictType conflictType = SnapshotUtil.judgeConflictType(action, snap);
         if (conflictType == null) return null;
 
@@ -259,41 +350,131 @@ public class SyncConflictServiceImpl
         int entLim = (entityLimit <= 0 ? 200 : entityLimit);
 
         List<SyncLog> logs = syncLogService.listRecentSuccessLogsDedup(from, to, perDbLim, entLim);
-        if (logs == null || logs.isEmpty()) return 0;
+        return detectFromLogs(logs);
+    }
+
+    @Override
+    public int detectNewConflictsByCursor(DatabaseType logDb, int shard, int shardCount, LocalDateTime now) {
+        GlobalProperties.Sync.Conflict cfg = globalProperties.getSync().getConflict();
+        int pageSize = Math.max(1, cfg.getScanPageSize());
+        int maxPages = Math.max(1, cfg.getScanMaxPages());
+        LocalDateTime to = nvlNow(now).minusNanos(Math.max(0L, cfg.getScanLagMs()) * 1_000_000L);
+
+        List<String> suffixes = shardSuffixes(shard, shardCount);
+        String checkpointKey = "CONFLICT_SCAN:" + shard + "/" + Math.max(1, shardCount);
+
+        SyncCheckpoint cp = checkpointService.get(logDb, checkpointKey);
+        LocalDateTime cursorTime;
+        String cursorId;
+        long processed;
+        if (cp == null || cp.getCursorTime() == null) {
+            // 首次扫描：只回看一小段，不再每次启动都重扫 30 天
+            cursorTime = to.minusMinutes(Math.max(0L, cfg.getScanInitialLookbackMinutes()));
+            cursorId = null;
+            processed = 0L;
+        } else {
+            cursorTime = cp.getCursorTime();
+            cursorId = cp.getCursorId();
+            processed = cp.getProcessedCount() == null ? 0L : cp.getProcessedCount();
+        }
 
         int found = 0;
+        for (int p = 0; p < maxPages; p++) {
+            List<SyncLog> page = syncLogService.listSuccessLogsAfter(logDb, cursorTime, cursorId, to, suffixes, pageSize);
+            if (page.isEmpty()) break;
+
+            // 同一页内同一实体只检查最新一条（页内按 update_time 升序，后者覆盖前者）
+            Map<String, SyncLog> latest = new LinkedHashMap<>();
+            for (SyncLog lg : page) {
+                latest.put(lg.getEntityType() + "|" + lg.getEntityId(), lg);
+            }
+            found += detectFromLogs(new ArrayList<>(latest.values()));
+
+            // 整页处理完才推进游标：进程中途退出最多重扫这一页
+            SyncLog last = page.get(page.size() - 1);
+            cursorTime = last.getUpdateTime();
+            cursorId = last.getId();
+            processed += page.size();
+            checkpointService.save(logDb, checkpointKey, cursorId, cursorTime, processed);
+
+            if (page.size() < pageSize) break;
+        }
+
+        if (found > 0) {
+            log.info("[CONFLICT-DETECT] cursor scan: db={}, shard={}/{}, cursor={}, found={}",
+                    logDb, shard, shardCount, cursorTime, found);
+        }
+        return found;
+    }
+
+    /** 分片 = 日志主键（md5 hex）末位字符按 shardCount 取模；shardCount<=1 时不过滤。 */
+    private static List<String> shardSuffixes(int shard, int shardCount) {
+        if (shardCount <= 1) return null;
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            if (i % shardCount == shard) out.add(Integer.toHexString(i));
+        }
+        return out;
+    }
+
+    /** 对一批 SUCCESS 日志读三库快照并登记冲突，返回发现的数量。 */
+    private int detectFromLogs(List<SyncLog> logs) {
+        if (logs == null || logs.isEmpty()) return 0;
+
+        // 先按实体类型分组，每组一次批量读取三库快照
+        Map<SyncEntityType, List<SyncLog>> byType = new EnumMap<>(SyncEntityType.class);
         for (SyncLog lg : logs) {
             if (lg == null) continue;
 
+            String entityId = lg.getEntityId();
+            if (entityId == null || entityId.isBlank()) continue;
+
+            SyncEntityType entityType;
+            SyncAction action;
             try {
-                String entityId = lg.getEntityId();
-                if (entityId == null || entityId.isBlank()) continue;
+                entityType = SyncEntityType.valueOf(String.valueOf(lg.getEntityType()));
+                action = SyncAction.valueOf(String.valueOf(lg.getAction()));
+            } catch (Exception ignore) {
+                continue;
+            }
 
-                SyncEntityType entityType;
-                SyncAction action;
-                try {
-                    entityType = SyncEntityType.valueOf(String.valueOf(lg.getEntityType()));
-                    action = SyncAction.valueOf(String.valueOf(lg.getAction()));
-                } catch (Exception ignore) {
-                    continue;
-                }
+            if (shouldSkipCheck(entityType, entityId, action)) continue;
+            byType.computeIfAbsent(entityType, k -> new ArrayList<>()).add(lg);
+        }
 
-                if (shouldSkipCheck(entityType, entityId, action)) continue;
+        int found = 0;
+        for (Map.Entry<SyncEntityType, List<SyncLog>> e : byType.entrySet()) {
+            SyncEntityType entityType = e.getKey();
+            List<SyncLog> group = e.getValue();
 
-                SnapshotUtil.Snapshot snap = readSnapshot(entityType, entityId);
-                ConflictType conflictType = SnapshotUtil.judgeConflictType(action, snap);
-                if (conflictType == null) continue;
+            Map<String, SnapshotUtil.Snapshot> snaps;
+            try {
+                snaps = readSnapshots(entityType, group.stream().map(SyncLog::getEntityId).toList(), Map.of());
+            } catch (Exception ex) {
+                log.warn("[CONFLICT-DETECT] read snapshots failed, entityType={}, size={}, err={}",
+                        entityType, group.size(), ex.getMessage(), ex);
+                continue;
+            }
 
-                String conflictId = upsertConflictBySnapshot(
-                        entityType, entityId, conflictType, snap, LocalDateTime.now(), false
-                );
-                if (conflictId != null) {
-                    found++;
-                    log.info("[CONFLICT-DETECT] found by success-log: logId={}, entityType={}, entityId={}, conflictId={}",
-                            lg.getId(), entityType, entityId, conflictId);
+            for (SyncLog lg : group) {
+                try {
+                    String entityId = lg.getEntityId();
+                    SnapshotUtil.Snapshot snap = snaps.get(entityId);
+                    ConflictType conflictType = SnapshotUtil.judgeConflictType(
+                            SyncAction.valueOf(String.valueOf(lg.getAction())), snap);
+                    if (conflictType == null) continue;
+
+                    String conflictId = upsertConflictBySnapshot(
+                            entityType, entityId, conflictType, snap, LocalDateTime.now(), false
+                    );
+                    if (conflictId != null) {
+                        found++;
+                        log.info("[CONFLICT-DETECT] found by success-log: logId={}, entityType={}, entityId={}, conflictId={}",
+                                lg.getId(), entityType, entityId, conflictId);
+                    }
+                } catch (Exception ex) {
+                    log.warn("[CONFLICT-DETECT] scan failed, logId={}, err={}", lg.getId(), ex.getMessage(), ex);
                 }
-            } catch (Exception e) {
-                log.warn("[CONFLICT-DETECT] scan failed, logId={}, err={}", lg.getId(), e.getMessage(), e);
             }
         }
 
@@ -325,6 +506,8 @@ public class SyncConflictServiceImpl
         int sent = 0;
         for (SyncConflict c : list) {
             if (c == null || c.getId() == null) continue;
+            // 租约已被接管则停止：不与接管的节点重复发通知
+            TaskLeaseRunner.checkFence();
 
             try {
                 SyncConflict latest = getById(workDb, c.getId());
@@ -355,9 +538,14 @@ public class SyncConflictServiceImpl
         SyncConflict c = getById(workDb, conflictId);
         if (c == null) return false;
 
-        SnapshotUtil.Snapshot snap = readSnapshot(c.getEntityType(), c.getEntityId());
+        return recheckConflict(c, readSnapshot(c.getEntityType(), c.getEntityId()), t);
+    }
 
-        conflictItemService.upsertSnapshotItems(conflictId, snap.exists, snap.hash, t);
+    /** 用已读取的快照重检一个工单（批量重检时快照按实体类型一次读出）。 */
+    private boolean recheckConflict(SyncConflict c, SnapshotUtil.Snapshot snap, LocalDateTime t) {
+        DatabaseType workDb = this.defaultDb();
+
+        conflictItemService.upsertSnapshotItems(c.getId(), snap.exists, snap.hash, t);
 
         c.setLastCheckedAt(t);
         c.setLastSeenAt(t);
@@ -411,13 +599,32 @@ public class SyncConflictServiceImpl
         List<SyncConflict> list = resolveMapper(workDb).selectPage(page, qw).getRecords();
         if (list == null || list.isEmpty()) return 0;
 
-        int processed = 0;
+        Map<SyncEntityType, List<SyncConflict>> byType = new EnumMap<>(SyncEntityType.class);
         for (SyncConflict c : list) {
-            if (c == null || c.getId() == null) continue;
+            if (c == null || c.getId() == null || c.getEntityType() == null) continue;
+            byType.computeIfAbsent(c.getEntityType(), k -> new ArrayList<>()).add(c);
+        }
+
+        int processed = 0;
+        for (Map.Entry<SyncEntityType, List<SyncConflict>> e : byType.entrySet()) {
+            Map<String, SnapshotUtil.Snapshot> snaps;
             try {
-                if (recheckConflict(c.getId(), t)) processed++;
-            } catch (Exception e) {
-                log.warn("[CONFLICT] recheckOpenConflicts failed, id={}, err={}", c.getId(), e.getMessage(), e);
+                snaps = readSnapshots(e.getKey(), e.getValue().stream().map(SyncConflict::getEntityId).toList(), Map.of());
+            } catch (Exception ex) {
+                log.warn("[CONFLICT] recheckOpenConflicts read snapshots failed, entityType={}, err={}",
+                        e.getKey(), ex.getMessage(), ex);
+                continue;
+            }
+
+            for (SyncConflict c : e.getValue()) {
+                SnapshotUtil.Snapshot snap = snaps.get(c.getEntityId());
+                if (snap == null) continue;
+                TaskLeaseRunner.checkFence();
+                try {
+                    if (recheckConflict(c, snap, t)) processed++;
+                } catch (Exception ex) {
+                    log.warn("[CONFLICT] recheckOpenConflicts failed, id={}, err={}", c.getId(), ex.getMessage(), ex);
+                }
             }
         }
         return processed;
@@ -614,10 +821,37 @@ public class SyncConflictServiceImpl
     }
 
 
-    /* ======================== Snapshot adapter：把“取 mapper”注入 SnapshotUtil ======================== */
+    /* ======================== Snapshot adapter：把“取行指纹”注入 SnapshotUtil ======================== */
 
     private SnapshotUtil.Snapshot readSnapshot(SyncEntityType entityType, String entityId) {
-        return SnapshotUtil.readSnapshot(entityType, entityId, this::resolveBaseMapperOf);
+        return readSnapshot(entityType, entityId, Map.of());
+    }
+
+    private SnapshotUtil.Snapshot readSnapshot(SyncEntityType entityType,
+                                               String entityId,
+                                               Map<DatabaseType, Map<String, Object>> knownRows) {
+        if (entityType == null || entityId == null || entityId.isBlank()) {
+            return new SnapshotUtil.Snapshot();
+        }
+        return readSnapshots(entityType, List.of(entityId), knownRows).get(entityId);
+    }
+
+    private Map<String, SnapshotUtil.Snapshot> readSnapshots(SyncEntityType entityType,
+                                                             Collection<String> entityIds,
+                                                             Map<DatabaseType, Map<String, Object>> knownRows) {
+        GlobalProperties.Sync.Batch batchCfg = globalProperties.getSync().getBatch();
+        int chunkSize = (batchCfg == null ? 500 : batchCfg.getChunkSize());
+
+        // 已读出的行在本地算指纹（与库内计算口径一致）
+        Map<DatabaseType, Map<String, String>> knownHashes = new EnumMap<>(DatabaseType.class);
+        knownRows.forEach((db, rows) -> {
+            Map<String, String> hashes = new HashMap<>();
+            rows.forEach((id, row) -> {
+                if (row != null) hashes.put(id, rowHashService.rowHash(entityType, row));
+            });
+            knownHashes.put(db, hashes);
+        });
+        return SnapshotUtil.readSnapshots(entityType, entityIds, rowHashService::hashesByIds, knownHashes, snapshotPool, chunkSize);
     }
 
     private String upsertConflictBySnapshot(SyncEntityType entityType,
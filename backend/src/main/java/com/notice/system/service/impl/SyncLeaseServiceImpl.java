@@ -0,0 +1,115 @@
+package com.notice.system.service.impl;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entity.SyncLease;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.mapper.base.SyncLeaseBaseMapper;
+import com.notice.system.mapper.mysql.SyncLeaseMysqlMapper;
+import com.notice.system.mapper.pg.SyncLeasePgMapper;
+import com.notice.system.mapper.sqlserver.SyncLeaseSqlserverMapper;
+import com.notice.system.service.SyncLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class SyncLeaseServiceImpl implements SyncLeaseService {
+
+    private final SyncLeaseMysqlMapper mysqlMapper;
+    private final SyncLeasePgMapper pgMapper;
+    private final SyncLeaseSqlserverMapper sqlserverMapper;
+    private final GlobalProperties globalProperties;
+
+    private final String owner;
+
+    public SyncLeaseServiceImpl(SyncLeaseMysqlMapper mysqlMapper,
+                                SyncLeasePgMapper pgMapper,
+                                SyncLeaseSqlserverMapper sqlserverMapper,
+                                GlobalProperties globalProperties) {
+        this.mysqlMapper = mysqlMapper;
+        this.pgMapper = pgMapper;
+        this.sqlserverMapper = sqlserverMapper;
+        this.globalProperties = globalProperties;
+
+        String configured = globalProperties.getSync().getLease().getOwner();
+        // 随机后缀：容器里 pid@host 重启后可能不变，避免新进程误认旧进程的租约
+        this.owner = (configured == null || configured.isBlank())
+                ? ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : configured;
+    }
+
+    @Override
+    public String owner() {
+        return owner;
+    }
+
+    @Override
+    public SyncLease tryAcquire(String leaseKey, long ttlMs, boolean reentrant) {
+        SyncLeaseBaseMapper mapper = mapper();
+        long ttl = clampMs(ttlMs);
+
+        int rows = mapper.tryAcquire(leaseKey, owner, reentrant ? owner : null, ttl);
+        if (rows == 0) {
+            if (mapper.selectById(leaseKey) != null) {
+                return null;
+            }
+            try {
+                rows = mapper.insertAcquired(leaseKey, owner, ttl);
+            } catch (DuplicateKeyException e) {
+                // 其它节点同时首次插入
+                return null;
+            }
+        }
+        if (rows == 0) {
+            return null;
+        }
+
+        SyncLease lease = mapper.selectById(leaseKey);
+        return (lease != null && owner.equals(lease.getOwner())) ? lease : null;
+    }
+
+    @Override
+    public boolean renew(SyncLease lease, long ttlMs) {
+        if (lease == null) return false;
+        return mapper().renew(lease.getLeaseKey(), owner, lease.getFencingToken(), clampMs(ttlMs)) > 0;
+    }
+
+    @Override
+    public void release(SyncLease lease, long holdMs) {
+        if (lease == null) return;
+        int rows = mapper().release(lease.getLeaseKey(), owner, lease.getFencingToken(), clampMs(holdMs));
+        if (rows == 0) {
+            log.warn("[SYNC-LEASE] release skipped, lease already taken over: key={}, token={}",
+                    lease.getLeaseKey(), lease.getFencingToken());
+        }
+    }
+
+    @Override
+    public void checkAvailable() {
+        DatabaseType db = globalProperties.getSync().getLease().getDb();
+        try {
+            mapper().selectById("__probe__");
+        } catch (Exception e) {
+            throw new IllegalStateException("sync_lease table not available in db=" + db
+                    + ": run sql/<db>/sync_upgrade.sql or set notice.sync.lease.enabled=false", e);
+        }
+    }
+
+    /** SQL Server 的 DATEADD 只接受 INT 毫秒数。 */
+    private static long clampMs(long ms) {
+        return Math.min(Integer.MAX_VALUE, Math.max(0L, ms));
+    }
+
+    private SyncLeaseBaseMapper mapper() {
+        DatabaseType db = globalProperties.getSync().getLease().getDb();
+        return switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> mysqlMapper;
+            case PG -> pgMapper;
+            case SQLSERVER -> sqlserverMapper;
+        };
+    }
+}
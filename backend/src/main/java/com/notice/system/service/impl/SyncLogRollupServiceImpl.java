@@ -0,0 +1,232 @@
+package com.notice.system.service.impl;
+
+import com.baomidou.dynamic.datasource.toolkit.DynamicDataSourceContextHolder;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entity.SyncCheckpoint;
+import com.notice.system.entity.SyncLog;
+import com.notice.system.entity.SyncLogHourly;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.base.SyncLogHourlyBaseMapper;
+import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.mapper.mysql.SyncLogHourlyMysqlMapper;
+import com.notice.system.mapper.pg.SyncLogHourlyPgMapper;
+import com.notice.system.mapper.sqlserver.SyncLogHourlySqlserverMapper;
+import com.notice.system.service.SyncAuditShipService;
+import com.notice.system.service.SyncCheckpointService;
+import com.notice.system.service.SyncLogRollupService;
+import com.notice.system.sync.SyncMetadataRegistry;
+import com.notice.system.vo.report.AggVo;
+import com.notice.system.vo.synclog.SyncLogVo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncLogRollupServiceImpl implements SyncLogRollupService {
+
+    private static final String CHECKPOINT_KEY = "SYNC_LOG_ROLLUP";
+    /** 上一轮“旧日志状态变化”扫描的开始时间 */
+    private static final String DIRTY_CHECKPOINT_KEY = "SYNC_LOG_ROLLUP_DIRTY";
+    /** 状态变化扫描的回退余量：从其它库同步过来的更新，update_time 沿用源库时间，落库会晚一些 */
+    private static final long DIRTY_MARGIN_MINUTES = 10;
+    /** 状态变化扫描每次最多取的小时数（按小时 keyset 翻页） */
+    private static final int DIRTY_HOURS_PAGE = 200;
+
+    private final SyncLogHourlyMysqlMapper mysqlMapper;
+    private final SyncLogHourlyPgMapper pgMapper;
+    private final SyncLogHourlySqlserverMapper sqlserverMapper;
+    private final SyncMetadataRegistry metadataRegistry;
+    private final SyncCheckpointService checkpointService;
+    private final PlatformTransactionManager transactionManager;
+    private final GlobalProperties globalProperties;
+    private final SyncAuditShipService auditShipService;
+
+    /**
+     * 从水位线回退 recomputeHours 开始、按 chunkHours 分段重算到当前整点（当前小时仍在写入，不汇总）；
+     * 更早的小时里若有日志状态被改写（重试、收敛被覆盖日志、手动重试），按 update_time 找出这些小时单独重算。
+     * 每段在本库一个事务里“删旧 + 插新”，重复执行结果一致。
+     * 日志由审计搬运写入的库（非主日志库），新行的 update_time 沿用主日志库时间、可能早于余量，
+     * 因此只汇总搬运游标之前已完整到达的小时，由游标推进驱动重算。
+     */
+    @Override
+    public int rollup(DatabaseType db) {
+        GlobalProperties.Sync.LogRollup cfg = globalProperties.getSync().getLogRollup();
+        LocalDateTime scanStart = LocalDateTime.now();
+        LocalDateTime closedUntil = closedUntil(db, scanStart);
+        if (closedUntil == null) {
+            log.debug("[SYNC_LOG_ROLLUP] nothing shipped yet, skip: db={}", db);
+            return 0;
+        }
+
+        SyncCheckpoint cp = checkpointService.get(db, CHECKPOINT_KEY);
+        LocalDateTime watermark = (cp == null ? null : cp.getCursorTime());
+        LocalDateTime from = (watermark == null)
+                ? earliestLogHour(db)
+                : watermark.minusHours(Math.max(0, cfg.getRecomputeHours()));
+        if (from == null) {
+            // 还没有日志：直接把水位线推到当前整点
+            checkpointService.save(db, CHECKPOINT_KEY, null, closedUntil, 0L);
+            return 0;
+        }
+
+        int chunkHours = Math.max(1, cfg.getChunkHours());
+        int written = rollupDirtyHours(db, from, scanStart);
+        LocalDateTime chunkBegin = from;
+        while (chunkBegin.isBefore(closedUntil)) {
+            LocalDateTime chunkEnd = chunkBegin.plusHours(chunkHours);
+            if (chunkEnd.isAfter(closedUntil)) chunkEnd = closedUntil;
+
+            written += rollupRange(db, chunkBegin, chunkEnd);
+            if (watermark == null || chunkEnd.isAfter(watermark)) {
+                checkpointService.save(db, CHECKPOINT_KEY, null, chunkEnd, written);
+                watermark = chunkEnd;
+            }
+            chunkBegin = chunkEnd;
+        }
+
+        log.debug("[SYNC_LOG_ROLLUP] done: db={}, from={}, until={}, rows={}", db, from, closedUntil, written);
+        return written;
+    }
+
+    /**
+     * 本轮可汇总到的整点：一般为当前整点；审计搬运的目标库不超过搬运游标所在整点，还没搬运过返回 null。
+     */
+    private LocalDateTime closedUntil(DatabaseType db, LocalDateTime scanStart) {
+        LocalDateTime closedUntil = scanStart.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime shippedUntil = auditShipService.shippedUntil(SyncEntityType.SYNC_LOG, db);
+        if (shippedUntil == null) {
+            return closedUntil;
+        }
+        if (shippedUntil.equals(LocalDateTime.MIN)) {
+            return null;
+        }
+        LocalDateTime shippedHour = shippedUntil.truncatedTo(ChronoUnit.HOURS);
+        return shippedHour.isBefore(closedUntil) ? shippedHour : closedUntil;
+    }
+
+    /**
+     * 重算 from 之前、自上一轮以来有日志状态变化的小时：库内按小时去重，每次最多 DIRTY_HOURS_PAGE 个，按小时翻页。
+     * 首次运行没有上一轮时间：from 之前的小时刚刚全部汇总过，只记下本轮时间。
+     */
+    private int rollupDirtyHours(DatabaseType db, LocalDateTime from, LocalDateTime scanStart) {
+        SyncCheckpoint cp = checkpointService.get(db, DIRTY_CHECKPOINT_KEY);
+        LocalDateTime lastScan = (cp == null ? null : cp.getCursorTime());
+
+        int written = 0;
+        if (lastScan != null) {
+            LocalDateTime since = lastScan.minusMinutes(DIRTY_MARGIN_MINUTES);
+            LocalDateTime next = null;
+            int hours = 0;
+            while (true) {
+                List<LocalDateTime> page = mapper(db).listChangedHours(since, next, from, DIRTY_HOURS_PAGE);
+                for (LocalDateTime hour : page) {
+                    written += rollupRange(db, hour, hour.plusHours(1));
+                }
+                hours += page.size();
+                if (page.size() < DIRTY_HOURS_PAGE) break;
+                next = page.get(page.size() - 1).plusHours(1);
+            }
+            if (hours > 0) {
+                log.info("[SYNC_LOG_ROLLUP] recomputed changed hours: db={}, hours={}", db, hours);
+            }
+        }
+        checkpointService.save(db, DIRTY_CHECKPOINT_KEY, null, scanStart, 0L);
+        return written;
+    }
+
+    @Override
+    public LocalDateTime rolledUpUntil(DatabaseType db) {
+        GlobalProperties.Sync.LogRollup cfg = globalProperties.getSync().getLogRollup();
+        if (cfg == null || !cfg.isEnabled()) {
+            return null;
+        }
+        SyncCheckpoint cp = checkpointService.get(db, CHECKPOINT_KEY);
+        return cp == null ? null : cp.getCursorTime();
+    }
+
+    @Override
+    public List<SyncLogDailyStat> listDailyStats(DatabaseType db, LocalDateTime beginHour, LocalDateTime endHour, SyncLogVo filter) {
+        SyncLogVo f = (filter == null ? new SyncLogVo() : filter);
+        return mapper(db).listDailyStats(beginHour, endHour,
+                f.getEntityType() == null ? null : f.getEntityType().name(),
+                f.getAction() == null ? null : f.getAction().name(),
+                f.getStatus() == null ? null : f.getStatus().name(),
+                f.getSourceDb() == null ? null : f.getSourceDb().name(),
+                f.getTargetDb() == null ? null : f.getTargetDb().name());
+    }
+
+    @Override
+    public List<AggVo> agg(DatabaseType db, LocalDateTime beginHour, LocalDateTime endHour, String groupCol, SyncLogVo filter) {
+        SyncLogVo f = (filter == null ? new SyncLogVo() : filter);
+        return mapper(db).agg(beginHour, endHour, groupCol,
+                f.getEntityType() == null ? null : f.getEntityType().name(),
+                f.getAction() == null ? null : f.getAction().name(),
+                f.getStatus() == null ? null : f.getStatus().name(),
+                f.getSourceDb() == null ? null : f.getSourceDb().name(),
+                f.getTargetDb() == null ? null : f.getTargetDb().name());
+    }
+
+    /** 重算 [begin, end)：先切到 db 的数据源再开事务，删旧与插新一起提交。 */
+    private int rollupRange(DatabaseType db, LocalDateTime begin, LocalDateTime end) {
+        SyncLogHourlyBaseMapper mapper = mapper(db);
+        String dsKey = metadataRegistry.getDefinition(SyncEntityType.SYNC_LOG).getDsKey(db);
+
+        DynamicDataSourceContextHolder.push(dsKey);
+        try {
+            Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+                List<SyncLogHourly> hours = mapper.aggregateRaw(begin, end);
+                mapper.delete(new LambdaQueryWrapper<SyncLogHourly>()
+                        .ge(SyncLogHourly::getStatHour, begin)
+                        .lt(SyncLogHourly::getStatHour, end));
+                for (SyncLogHourly h : hours) {
+                    h.setId(hourlyId(h));
+                    mapper.insert(h);
+                }
+                return hours.size();
+            });
+            return rows == null ? 0 : rows;
+        } finally {
+            DynamicDataSourceContextHolder.poll();
+        }
+    }
+
+    private LocalDateTime earliestLogHour(DatabaseType db) {
+        BaseMapper<SyncLog> logMapper = metadataRegistry.<SyncLog>getDefinition(SyncEntityType.SYNC_LOG).getMapper(db);
+        QueryWrapper<SyncLog> qw = new QueryWrapper<SyncLog>().select("create_time").orderByAsc("create_time");
+        List<SyncLog> first = logMapper.selectPage(new Page<>(1, 1, false), qw).getRecords();
+        if (first == null || first.isEmpty() || first.get(0).getCreateTime() == null) {
+            return null;
+        }
+        return first.get(0).getCreateTime().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    /** (小时, 实体类型, 动作, 源库, 目标库, 状态) -> 32 位小写 hex。 */
+    private static String hourlyId(SyncLogHourly h) {
+        String key = h.getStatHour() + "|" + h.getEntityType() + "|" + h.getAction()
+                + "|" + h.getSourceDb() + "|" + h.getTargetDb() + "|" + h.getStatus();
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SyncLogHourlyBaseMapper mapper(DatabaseType db) {
+        return switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> mysqlMapper;
+            case PG -> pgMapper;
+            case SQLSERVER -> sqlserverMapper;
+        };
+    }
+}
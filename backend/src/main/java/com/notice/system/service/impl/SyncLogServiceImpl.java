@@ -1,7 +1,12 @@
 package com.notice.system.service.impl;
 
+import com.baomidou.dynamic.datasource.toolkit.DynamicDataSourceContextHolder;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.notice.system.common.GlobalProperties;
 import com.notice.system.entity.SyncLog;
 import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncAction;
@@ -10,26 +15,46 @@ import com.notice.system.entityEnum.SyncLogStatus;
 import com.notice.system.entityEnum.aggBy.SyncLogAggBy;
 import com.notice.system.mapper.base.SyncLogBaseMapper;
 import com.notice.system.mapper.dto.SyncLogDailyStat;
+import com.notice.system.mapper.dto.SyncLogPartition;
+import com.notice.system.service.SyncLogRollupService;
 import com.notice.system.service.SyncLogService;
 import com.notice.system.service.SyncService;
 import com.notice.system.service.base.MultiDbSyncServiceImpl;
+import com.notice.system.support.concurrent.RingBatchWriter;
 import com.notice.system.support.event.SyncLogEvent;
+import com.notice.system.support.task.TaskLeaseRunner;
 import com.notice.system.sync.SyncMetadataRegistry;
 import com.notice.system.vo.report.AggVo;
 import com.notice.system.vo.synclog.SyncLogDailyReportVo;
+import com.notice.system.vo.synclog.SyncLogPurgeVo;
 import com.notice.system.vo.synclog.SyncLogVo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 同步日志服务：
  * <ul>
- *   <li>监听 SyncLogEvent 落库（日志表自身不再写日志，避免递归）</li>
+ *   <li>监听 SyncLogEvent 落库（日志表自身不再写日志，避免递归）；默认进环形缓冲区，由后台线程批量插入并批量同步</li>
  *   <li>提供：分页查询、聚合报表、清理、按日志重试、SUCCESS 日志去重扫描</li>
+ *   <li>日报 / 聚合优先读 sync_log_hourly 小时预聚合，只对未汇总的时段扫原始日志</li>
  * </ul>
  */
 @Slf4j
@@ -38,8 +63,67 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
 
     private static final int MAX_FAIL = 3;
 
-    public SyncLogServiceImpl(SyncService syncService, SyncMetadataRegistry metadataRegistry) {
+    private static final Log BATCH_LOG = LogFactory.getLog(SyncLogServiceImpl.class);
+
+    /** DROP 策略下每丢弃这么多条打印一次告警 */
+    private static final long DROP_WARN_EVERY = 1000L;
+
+    /** 原始日志查询区间是闭区间：头部片段截止到整点前 1 微秒，避免与预聚合重复计数 */
+    private static final long RAW_EDGE_NANOS = 1_000L;
+
+    /** 按月分区命名：MySQL pYYYYMM，PG 子表 sync_log_pYYYYMM */
+    private static final Pattern MONTH_PARTITION = Pattern.compile("^(?:sync_log_)?p(\\d{6})$");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final GlobalProperties globalProperties;
+    private final SyncLogRollupService rollupService;
+
+    /** 后台批量写入器（未开启时为 null，事件在当前线程单条 save） */
+    private volatile RingBatchWriter<SyncLog> logWriter;
+    private final AtomicLong droppedLogs = new AtomicLong();
+
+    public SyncLogServiceImpl(SyncService syncService,
+                              SyncMetadataRegistry metadataRegistry,
+                              SqlSessionFactory sqlSessionFactory,
+                              GlobalProperties globalProperties,
+                              SyncLogRollupService rollupService) {
         super(syncService, metadataRegistry, SyncEntityType.SYNC_LOG, DatabaseType.MYSQL);
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.globalProperties = globalProperties;
+        this.rollupService = rollupService;
+    }
+
+    @PostConstruct
+    public void startLogWriter() {
+        GlobalProperties.Sync.LogWriter cfg = globalProperties.getSync().getLogWriter();
+        if (cfg == null || !cfg.isEnabled()) {
+            return;
+        }
+        logWriter = new RingBatchWriter<>("sync-log-writer",
+                cfg.getCapacity(), cfg.getBatchSize(), cfg.getFlushIntervalMs(),
+                overflowPolicy(cfg), cfg.getBlockTimeoutMs(), this::flushLogs);
+        log.info("[SYNC_LOG] batch writer started: capacity={}, batchSize={}, flushIntervalMs={}, overflow={}",
+                cfg.getCapacity(), cfg.getBatchSize(), cfg.getFlushIntervalMs(), overflowPolicy(cfg));
+    }
+
+    /** 停机时先停止接收并刷完缓冲区（本 Bean 依赖 SyncService，会先于它销毁，批量同步仍可用）。 */
+    @PreDestroy
+    public void stopLogWriter() {
+        RingBatchWriter<SyncLog> writer = logWriter;
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown(globalProperties.getSync().getLogWriter().getShutdownAwaitMs());
+        logWriter = null;
+    }
+
+    private RingBatchWriter.OverflowPolicy overflowPolicy(GlobalProperties.Sync.LogWriter cfg) {
+        try {
+            return RingBatchWriter.OverflowPolicy.valueOf(cfg.getOverflow().trim().toUpperCase());
+        } catch (Exception ex) {
+            return RingBatchWriter.OverflowPolicy.BLOCK;
+        }
     }
 
     /* ======================== Event -> 落库 ======================== */
@@ -61,10 +145,85 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
         logRecord.setErrorMsg(event.errorMsg());
         logRecord.setRetryCount(0);
 
+        // 后台批量写入：请求线程只写环形缓冲区
+        RingBatchWriter<SyncLog> writer = logWriter;
+        if (writer != null) {
+            if (writer.offer(logRecord)) {
+                return;
+            }
+            if (writer.isRunning() && overflowPolicy(globalProperties.getSync().getLogWriter()) == RingBatchWriter.OverflowPolicy.DROP) {
+                long dropped = droppedLogs.incrementAndGet();
+                if (dropped % DROP_WARN_EVERY == 1) {
+                    log.warn("[SYNC_LOG] writer buffer full, log dropped: totalDropped={}, entityType={}, id={}, status={}",
+                            dropped, event.entityType(), event.entityId(), event.status());
+                }
+                return;
+            }
+        }
+
         // 落到默认日志库，然后由 MultiDbSyncService 自动同步到其它库
         save(logRecord);
     }
 
+    /**
+     * 后台线程刷一批日志：默认日志库一次 JDBC 批量插入（驱动开启 rewriteBatched 时合并为多行 INSERT），
+     * 再整批提交一次批量同步；批量失败时逐条幂等保存兜底。
+     */
+    private void flushLogs(List<SyncLog> logs) {
+        try {
+            insertLogBatch(defaultDb, logs);
+        } catch (Exception ex) {
+            log.warn("[SYNC_LOG] batch insert failed, fallback to single save: size={}, err={}",
+                    logs.size(), ex.getMessage());
+            for (SyncLog logRecord : logs) {
+                try {
+                    saveIfAbsent(logRecord);
+                } catch (Exception e) {
+                    log.warn("[SYNC_LOG] save log failed: entityType={}, id={}, err={}",
+                            logRecord.getEntityType(), logRecord.getEntityId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 批量失败后的逐条兜底：insert 已给每条分配了 id，且批量可能已部分落库（非事务 / 驱动逐条执行时），
+     * 已存在的行只补提交同步，不再重复插入。
+     */
+    private void saveIfAbsent(SyncLog logRecord) {
+        String id = logRecord.getId();
+        if (id != null && getById(defaultDb, id) != null) {
+            syncService.submitSync(entityType, id, SyncAction.CREATE, defaultDb);
+            return;
+        }
+        save(logRecord);
+    }
+
+    private void insertLogBatch(DatabaseType db, List<SyncLog> logs) {
+        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
+        String insertStatement = SqlHelper.getSqlStatement(def.getMapperInterface(db), SqlMethod.INSERT_ONE);
+
+        syncService.runLocalWrite(db, () -> {
+            // BATCH 会话不经过 Mapper 上的 @DS 切面，这里手动切数据源
+            DynamicDataSourceContextHolder.push(def.getDsKey(db));
+            try {
+                SqlHelper.executeBatch(sqlSessionFactory, BATCH_LOG, logs, logs.size(),
+                        (sqlSession, logRecord) -> sqlSession.insert(insertStatement, logRecord));
+            } finally {
+                DynamicDataSourceContextHolder.poll();
+            }
+
+            List<String> ids = new ArrayList<>(logs.size());
+            for (SyncLog logRecord : logs) {
+                if (logRecord.getId() != null) ids.add(logRecord.getId());
+            }
+            if (!ids.isEmpty()) {
+                syncService.submitBatchSync(entityType, ids, SyncAction.CREATE, db);
+            }
+            return null;
+        });
+    }
+
     private boolean shouldLogEntity(SyncEntityType type) {
         return type != SyncEntityType.SYNC_LOG
                 && type != SyncEntityType.SYNC_CONFLICT
@@ -142,6 +301,15 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
             log.warn("[SYNC-LOG] retry failed: not found, db={}, logId={}", db, logId);
             return false;
         }
+        return retrySyncLog(db, logRecord);
+    }
+
+    @Override
+    public boolean retrySyncLog(DatabaseType logDb, SyncLog logRecord) {
+        if (logRecord == null || logRecord.getId() == null) return false;
+
+        DatabaseType db = useDb(logDb);
+        String logId = logRecord.getId();
 
         int oldRetry = (logRecord.getRetryCount() == null ? 0 : logRecord.getRetryCount());
         if (logRecord.getStatus() == SyncLogStatus.ERROR && oldRetry >= MAX_FAIL) {
@@ -179,7 +347,7 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
                 log.info("[SYNC-LOG] retry ok: db={}, logId={}, {} {} {} -> {}",
                         db, logId, entityType, action, sourceDb, targetDb);
             } else {
-                markRetryFailed(logRecord, newRetry);
+                markRetryFailed(logRecord, newRetry, now);
                 log.warn("[SYNC-LOG] retry failed: db={}, logId={}, retryCount={}, {} {} {} -> {}",
                         db, logId, newRetry, entityType, action, sourceDb, targetDb);
             }
@@ -190,7 +358,12 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
         } catch (Exception e) {
             logRecord.setRetryCount(newRetry);
             logRecord.setUpdateTime(now);
-            logRecord.setStatus(newRetry >= MAX_FAIL ? SyncLogStatus.ERROR : SyncLogStatus.FAILED);
+            if (newRetry >= MAX_FAIL) {
+                logRecord.setStatus(SyncLogStatus.ERROR);
+            } else {
+                logRecord.setStatus(SyncLogStatus.FAILED);
+                logRecord.setNextRetryAt(nextRetryAt(now, newRetry));
+            }
 
             String msg = (e.getMessage() == null || e.getMessage().isBlank())
                     ? e.getClass().getSimpleName()
@@ -217,14 +390,79 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
         return null;
     }
 
-    private void markRetryFailed(SyncLog logRecord, int newRetry) {
+    private void markRetryFailed(SyncLog logRecord, int newRetry, LocalDateTime now) {
         if (newRetry >= MAX_FAIL) {
             logRecord.setStatus(SyncLogStatus.ERROR);
             logRecord.setErrorMsg("重试同步失败已达 3 次，已标记为 ERROR，请人工介入处理");
         } else {
             logRecord.setStatus(SyncLogStatus.FAILED);
             logRecord.setErrorMsg("重试同步仍失败，请查看失败日志详情");
+            logRecord.setNextRetryAt(nextRetryAt(now, newRetry));
+        }
+    }
+
+    /** 指数退避：base * 2^(retry-1)，封顶 backoffMaxMs，再加 ±jitter 的随机抖动（同一时刻失败的日志错开重试）。 */
+    private LocalDateTime nextRetryAt(LocalDateTime now, int retryCount) {
+        GlobalProperties.Sync.Retry cfg = globalProperties.getSync().getRetry();
+        if (cfg == null) cfg = new GlobalProperties.Sync.Retry();
+        long base = Math.max(0L, cfg.getBackoffBaseMs());
+        if (base == 0L) return null;
+
+        long max = Math.max(base, cfg.getBackoffMaxMs());
+        int shift = Math.min(Math.max(0, retryCount - 1), 62);
+        long delay = (base > (max >> shift)) ? max : Math.min(max, base << shift);
+
+        double jitter = Math.min(1.0, Math.max(0.0, cfg.getBackoffJitter()));
+        if (jitter > 0) {
+            delay += (long) (delay * jitter * ThreadLocalRandom.current().nextDouble(-1.0, 1.0));
         }
+        return now.plus(Math.max(0L, delay), ChronoUnit.MILLIS);
+    }
+
+    /* ======================== 批量重试（定时任务） ======================== */
+
+    @Override
+    public List<SyncLog> listDueRetries(DatabaseType logDb, LocalDateTime now, int maxRetry, int limit) {
+        LocalDateTime at = (now == null ? LocalDateTime.now() : now);
+        LambdaQueryWrapper<SyncLog> w = new LambdaQueryWrapper<SyncLog>()
+                .eq(SyncLog::getStatus, SyncLogStatus.FAILED)
+                .lt(SyncLog::getRetryCount, maxRetry)
+                .and(q -> q.isNull(SyncLog::getNextRetryAt).or().le(SyncLog::getNextRetryAt, at))
+                .orderByAsc(SyncLog::getCreateTime)
+                .orderByAsc(SyncLog::getId);
+
+        // 处理过的日志要么不再是 FAILED，要么 nextRetryAt 推到了将来：每次都取第一页即可
+        Page<SyncLog> page = resolveMapper(useDb(logDb)).selectPage(new Page<>(1, Math.max(1, limit), false), w);
+        return page.getRecords() == null ? Collections.emptyList() : page.getRecords();
+    }
+
+    @Override
+    public int settleSuperseded(DatabaseType logDb, Collection<String> logIds, SyncLog latest) {
+        if (logIds == null || logIds.isEmpty() || latest == null || latest.getStatus() == null) return 0;
+
+        DatabaseType db = useDb(logDb);
+        List<String> ids = logIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) return 0;
+
+        String msg = (latest.getStatus() == SyncLogStatus.SUCCESS)
+                ? "已由同一实体较新的日志 " + latest.getId() + " 重试成功"
+                : latest.getErrorMsg();
+
+        LambdaUpdateWrapper<SyncLog> w = new LambdaUpdateWrapper<SyncLog>()
+                .in(SyncLog::getId, ids)
+                .eq(SyncLog::getStatus, SyncLogStatus.FAILED)
+                .set(SyncLog::getStatus, latest.getStatus())
+                .set(SyncLog::getErrorMsg, msg)
+                .set(SyncLog::getNextRetryAt, latest.getNextRetryAt())
+                .set(SyncLog::getUpdateTime, LocalDateTime.now());
+
+        return syncService.runLocalWrite(db, () -> {
+            int rows = resolveMapper(db).update(null, w);
+            if (rows > 0) {
+                syncService.submitBatchSync(SyncEntityType.SYNC_LOG, ids, SyncAction.UPDATE, db);
+            }
+            return rows;
+        });
     }
 
     private void markUnretryable(DatabaseType db, SyncLog logRecord, int newRetry, LocalDateTime now, String msg) {
@@ -251,16 +489,20 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
             LocalDateTime tmp = begin; begin = end; end = tmp;
         }
 
-        SyncLogBaseMapper mapper = resolveMapperAs(db, SyncLogBaseMapper.class);
-
-        List<SyncLogDailyStat> stats = mapper.listDailyStats(
-                begin, end,
-                vo.getEntityType() == null ? null : vo.getEntityType().name(),
-                vo.getAction() == null ? null : vo.getAction().name(),
-                vo.getStatus() == null ? null : vo.getStatus().name(),
-                vo.getSourceDb() == null ? null : vo.getSourceDb().name(),
-                vo.getTargetDb() == null ? null : vo.getTargetDb().name()
-        );
+        // 中间已汇总的整点小时读预聚合，两端不足一小时 / 尚未汇总的部分扫原始日志
+        HourSplit split = splitByRollup(db, begin, end);
+        List<SyncLogDailyStat> stats;
+        if (split == null) {
+            stats = rawDailyStats(db, begin, end, vo);
+        } else {
+            stats = new ArrayList<>();
+            if (begin.isBefore(split.beginHour())) {
+                stats.addAll(rawDailyStats(db, begin, split.beginHour().minusNanos(RAW_EDGE_NANOS), vo));
+            }
+            stats.addAll(rollupService.listDailyStats(db, split.beginHour(), split.endHour(), vo));
+            stats.addAll(rawDailyStats(db, split.endHour(), end, vo));
+            stats = mergeDailyStats(stats);
+        }
         if (stats == null || stats.isEmpty()) return Collections.emptyList();
 
         List<SyncLogDailyReportVo> result = new ArrayList<>(stats.size());
@@ -280,24 +522,145 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
         return result;
     }
 
-    /* ======================== 清理（存储过程） ======================== */
+    /* ======================== 清理 ======================== */
 
+    /**
+     * 清理模式：
+     *  - CHUNKED：每条 DELETE 最多 chunkSize 行（自动提交，锁与 undo/WAL 都有上限），批间暂停 pauseMs，超过 maxRuntimeMs 停止
+     *  - PARTITION：先整块删除完全过期的按月分区并预建后续月份分区，再对剩余部分走 CHUNKED（表未分区时等同 CHUNKED）
+     *  - PROCEDURE：调用原存储过程（单条大 DELETE）
+     */
     @Override
-    public long cleanLogsInDb(DatabaseType db, Integer retainDays, Long maxCount) {
+    public SyncLogPurgeVo cleanLogsInDb(DatabaseType db, Integer retainDays, Long maxCount) {
         DatabaseType useDb = (db == null ? DatabaseType.MYSQL : db);
+        GlobalProperties.Sync.LogClean cfg = globalProperties.getSync().getLogClean();
 
-        int days = (retainDays == null || retainDays <= 0) ? 90 : retainDays;
-        long max = (maxCount == null || maxCount <= 0) ? 100000L : maxCount;
+        int days = (retainDays == null || retainDays <= 0) ? cfg.getRetainDays() : retainDays;
+        long max = (maxCount == null || maxCount <= 0) ? cfg.getMaxCount() : maxCount;
+        String mode = (cfg.getMode() == null ? "CHUNKED" : cfg.getMode().trim().toUpperCase());
 
         SyncLogBaseMapper mapper = resolveMapperAs(useDb, SyncLogBaseMapper.class);
+        SyncLogPurgeVo result = new SyncLogPurgeVo();
+        result.setDb(useDb);
+        result.setMode(mode);
+        long start = System.nanoTime();
+
+        if ("PROCEDURE".equals(mode)) {
+            TaskLeaseRunner.checkFence();
+            Long deleted = mapper.callCleanProc(days, max);
+            if (deleted == null) {
+                log.warn("[SYNC-LOG] sp_clean_sync_log on db={} does not report deleted rows, run sync_upgrade.sql", useDb);
+            }
+            result.setDeleted(deleted == null ? 0L : deleted);
+        } else {
+            LocalDateTime threshold = LocalDateTime.now().minusDays(days);
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.max(1L, cfg.getMaxRuntimeMs()));
+            // 数量上限按统计信息估算：清理前取一次，再扣掉本轮删除的行（统计信息滞后时宁可少删，下一轮补上）
+            long estimated = Optional.ofNullable(mapper.estimateRowCount()).orElse(0L);
+
+            if ("PARTITION".equals(mode)) {
+                dropExpiredPartitions(useDb, mapper, threshold, cfg, result);
+            }
+
+            // 分区粒度是月：分区里剩余的过期行、以及超出数量上限的部分仍分批删除
+            boolean finished = purgeInChunks(limit -> mapper.purgeExpiredChunk(threshold, limit),
+                    Long.MAX_VALUE, deadline, cfg, result);
+            if (finished) {
+                long total = estimated - result.getDeleted() - result.getPartitionRowsEstimated();
+                if (total > max) {
+                    finished = purgeInChunks(mapper::purgeOldestChunk, total - max, deadline, cfg, result);
+                }
+            }
+            result.setFinished(finished);
+        }
+
+        result.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("[SYNC-LOG] clean done: db={}, mode={}, deleted={}, chunks={}, partitionsDropped={}, partitionRows~{}, elapsedMs={}, finished={}",
+                useDb, mode, result.getDeleted(), result.getChunks(), result.getPartitionsDropped(),
+                result.getPartitionRowsEstimated(), result.getElapsedMs(), result.isFinished());
+        return result;
+    }
+
+    /**
+     * 分批删除，最多删 budget 行；某批不满说明已删完。
+     *
+     * @return true=删完；false=到达截止时间或线程被中断（剩余部分留给下次）
+     */
+    private boolean purgeInChunks(IntUnaryOperator deleteChunk,
+                                  long budget,
+                                  long deadlineNanos,
+                                  GlobalProperties.Sync.LogClean cfg,
+                                  SyncLogPurgeVo result) {
+        int chunkSize = Math.max(1, cfg.getChunkSize());
+        long left = budget;
+        while (left > 0) {
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                return false;
+            }
+            int limit = (int) Math.min(chunkSize, left);
+            // 每批删除前确认租约仍在：被接管后剩余部分交给接管的节点
+            TaskLeaseRunner.checkFence();
+            int rows = deleteChunk.applyAsInt(limit);
+            result.setDeleted(result.getDeleted() + rows);
+            result.setChunks(result.getChunks() + 1);
+            left -= rows;
+            if (rows < limit) {
+                return true;
+            }
+            if (cfg.getPauseMs() > 0) {
+                try {
+                    Thread.sleep(cfg.getPauseMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** 删除上界不晚于阈值的按月分区，并预建当前及后续 partitionMonthsAhead 个月的分区。 */
+    private void dropExpiredPartitions(DatabaseType db,
+                                       SyncLogBaseMapper mapper,
+                                       LocalDateTime threshold,
+                                       GlobalProperties.Sync.LogClean cfg,
+                                       SyncLogPurgeVo result) {
+        List<SyncLogPartition> partitions = mapper.listPartitions();
+        if (partitions == null || partitions.isEmpty()) {
+            log.info("[SYNC-LOG] sync_log is not partitioned on db={}, fallback to chunked purge", db);
+            return;
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (SyncLogPartition p : partitions) {
+            existing.add(p.getName());
+            Matcher m = MONTH_PARTITION.matcher(p.getName());
+            if (!m.matches()) continue;
 
-        long before = Optional.ofNullable(resolveMapper(useDb).selectCount(null)).orElse(0L);
-        mapper.callCleanProc(days, max);
-        long after = Optional.ofNullable(resolveMapper(useDb).selectCount(null)).orElse(0L);
+            YearMonth month = YearMonth.parse(m.group(1), PARTITION_MONTH);
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(threshold)) continue;
 
-        long deleted = Math.max(0L, before - after);
-        log.info("[SYNC-LOG] clean done: db={}, deleted={}", useDb, deleted);
-        return deleted;
+            TaskLeaseRunner.checkFence();
+            mapper.dropPartition(p.getName());
+            result.getPartitionsDropped().add(p.getName());
+            result.setPartitionRowsEstimated(result.getPartitionRowsEstimated()
+                    + (p.getEstimatedRows() == null ? 0L : Math.max(0L, p.getEstimatedRows())));
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= Math.max(0, cfg.getPartitionMonthsAhead()); i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = (db == DatabaseType.PG ? "sync_log_p" : "p") + month.format(PARTITION_MONTH);
+            if (existing.contains(name)) continue;
+            TaskLeaseRunner.checkFence();
+            try {
+                mapper.addPartition(name, month.atDay(1).toString(), month.plusMonths(1).atDay(1).toString());
+                log.info("[SYNC-LOG] partition added: db={}, name={}", db, name);
+            } catch (Exception ex) {
+                log.warn("[SYNC-LOG] add partition failed: db={}, name={}, err={}", db, name, ex.getMessage());
+                break;
+            }
+        }
     }
 
     /* ======================== SUCCESS 日志扫描（Conflict 用） ======================== */
@@ -358,6 +721,19 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
                 .toList();
     }
 
+    @Override
+    public List<SyncLog> listSuccessLogsAfter(DatabaseType db,
+                                              LocalDateTime afterTime,
+                                              String afterId,
+                                              LocalDateTime toTime,
+                                              List<String> suffixes,
+                                              int limit) {
+        SyncLogBaseMapper mapper = resolveMapperAs(db, SyncLogBaseMapper.class);
+        List<SyncLog> page = mapper.listSuccessLogsAfter(
+                afterTime, afterId == null ? "" : afterId, toTime, suffixes, Math.max(1, limit));
+        return page == null ? Collections.emptyList() : page;
+    }
+
     /* ======================== 聚合报表（SQL） ======================== */
 
     @Override
@@ -374,13 +750,25 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
         if (b.isAfter(e)) { LocalDateTime tmp = b; b = e; e = tmp; }
         if (by == null) throw new IllegalArgumentException("agg by 不能为空");
 
-        SyncLogBaseMapper mapper = resolveMapperAs(useDb, SyncLogBaseMapper.class);
-
         SyncLogVo f = (filter == null ? new SyncLogVo() : filter);
         String groupCol = mapSyncLogGroupCol(useDb, by);
 
-        return mapper.agg(
-                b, e, groupCol,
+        HourSplit split = splitByRollup(useDb, b, e);
+        if (split == null) {
+            return rawAgg(useDb, b, e, groupCol, f);
+        }
+        List<AggVo> parts = new ArrayList<>();
+        if (b.isBefore(split.beginHour())) {
+            parts.addAll(rawAgg(useDb, b, split.beginHour().minusNanos(RAW_EDGE_NANOS), groupCol, f));
+        }
+        parts.addAll(rollupService.agg(useDb, split.beginHour(), split.endHour(), groupCol, f));
+        parts.addAll(rawAgg(useDb, split.endHour(), e, groupCol, f));
+        return mergeAgg(parts);
+    }
+
+    private List<AggVo> rawAgg(DatabaseType db, LocalDateTime begin, LocalDateTime end, String groupCol, SyncLogVo f) {
+        return resolveMapperAs(db, SyncLogBaseMapper.class).agg(
+                begin, end, groupCol,
                 f.getEntityType() == null ? null : f.getEntityType().name(),
                 f.getAction() == null ? null : f.getAction().name(),
                 f.getStatus() == null ? null : f.getStatus().name(),
@@ -389,6 +777,81 @@ public class SyncLogServiceImpl extends MultiDbSyncServiceImpl<SyncLog> implemen
         );
     }
 
+    private List<SyncLogDailyStat> rawDailyStats(DatabaseType db, LocalDateTime begin, LocalDateTime end, SyncLogVo vo) {
+        return resolveMapperAs(db, SyncLogBaseMapper.class).listDailyStats(
+                begin, end,
+                vo.getEntityType() == null ? null : vo.getEntityType().name(),
+                vo.getAction() == null ? null : vo.getAction().name(),
+                vo.getStatus() == null ? null : vo.getStatus().name(),
+                vo.getSourceDb() == null ? null : vo.getSourceDb().name(),
+                vo.getTargetDb() == null ? null : vo.getTargetDb().name()
+        );
+    }
+
+    /* ======================== 小时预聚合拆分 ======================== */
+
+    /** 可由预聚合回答的整点区间 [beginHour, endHour)。 */
+    private record HourSplit(LocalDateTime beginHour, LocalDateTime endHour) {
+    }
+
+    /** [begin, end] 中落在已汇总范围内的整点小时；不足一小时或未开启汇总返回 null（全部扫原始日志）。 */
+    private HourSplit splitByRollup(DatabaseType db, LocalDateTime begin, LocalDateTime end) {
+        LocalDateTime until = rollupService.rolledUpUntil(db);
+        if (until == null) return null;
+
+        LocalDateTime beginHour = begin.truncatedTo(ChronoUnit.HOURS);
+        if (beginHour.isBefore(begin)) beginHour = beginHour.plusHours(1);
+        LocalDateTime endHour = end.truncatedTo(ChronoUnit.HOURS);
+        if (endHour.isAfter(until)) endHour = until;
+
+        return beginHour.isBefore(endHour) ? new HourSplit(beginHour, endHour) : null;
+    }
+
+    /** 按 (日期, 源库, 目标库) 合并各片段的日报行，排序与原始查询一致。 */
+    private static List<SyncLogDailyStat> mergeDailyStats(List<SyncLogDailyStat> parts) {
+        Map<String, SyncLogDailyStat> merged = new LinkedHashMap<>();
+        for (SyncLogDailyStat s : parts) {
+            if (s == null) continue;
+            String key = s.getStatDate() + "|" + s.getSourceDb() + "|" + s.getTargetDb();
+            SyncLogDailyStat m = merged.get(key);
+            if (m == null) {
+                merged.put(key, s);
+                continue;
+            }
+            m.setTotalCount(sum(m.getTotalCount(), s.getTotalCount()));
+            m.setSuccessCount(sum(m.getSuccessCount(), s.getSuccessCount()));
+            m.setFailedCount(sum(m.getFailedCount(), s.getFailedCount()));
+            m.setConflictCount(sum(m.getConflictCount(), s.getConflictCount()));
+            m.setErrorCount(sum(m.getErrorCount(), s.getErrorCount()));
+        }
+        List<SyncLogDailyStat> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(SyncLogDailyStat::getStatDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(SyncLogDailyStat::getSourceDb, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(SyncLogDailyStat::getTargetDb, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /** 按 key 合并各片段的聚合结果，按 count 倒序。 */
+    private static List<AggVo> mergeAgg(List<AggVo> parts) {
+        Map<String, AggVo> merged = new LinkedHashMap<>();
+        for (AggVo a : parts) {
+            if (a == null) continue;
+            AggVo m = merged.get(a.getKey());
+            if (m == null) {
+                merged.put(a.getKey(), a);
+            } else {
+                m.setCount(sum(m.getCount(), a.getCount()));
+            }
+        }
+        List<AggVo> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(AggVo::getCount, Comparator.nullsLast(Comparator.reverseOrder())));
+        return result;
+    }
+
+    private static Long sum(Long a, Long b) {
+        return (a == null ? 0L : a) + (b == null ? 0L : b);
+    }
+
     private String mapSyncLogGroupCol(DatabaseType db, SyncLogAggBy by) {
         boolean isSqlServer = db == DatabaseType.SQLSERVER;
         return switch (by) {
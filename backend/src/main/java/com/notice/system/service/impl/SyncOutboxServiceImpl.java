@@ -0,0 +1,107 @@
+package com.notice.system.service.impl;
+
+import com.baomidou.dynamic.datasource.annotation.DS;
+import com.baomidou.dynamic.datasource.toolkit.DynamicDataSourceContextHolder;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.notice.system.entity.SyncOutbox;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.base.SyncOutboxBaseMapper;
+import com.notice.system.mapper.mysql.SyncOutboxMysqlMapper;
+import com.notice.system.mapper.pg.SyncOutboxPgMapper;
+import com.notice.system.mapper.sqlserver.SyncOutboxSqlserverMapper;
+import com.notice.system.service.SyncOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncOutboxServiceImpl implements SyncOutboxService {
+
+    private final SyncOutboxMysqlMapper mysqlMapper;
+    private final SyncOutboxPgMapper pgMapper;
+    private final SyncOutboxSqlserverMapper sqlserverMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 先切到 db 的数据源再开事务：事务开始时绑定的连接就是 db 的连接，
+     * work 内 @DS 为同一个库的 Mapper 都复用这个连接。
+     * 注意：work 内不能写其它库（会拿到同一个已绑定的连接）。
+     */
+    @Override
+    public <R> R inLocalTransaction(DatabaseType db, Supplier<R> work) {
+        DynamicDataSourceContextHolder.push(dsKey(db));
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> work.get());
+        } finally {
+            DynamicDataSourceContextHolder.poll();
+        }
+    }
+
+    @Override
+    public void append(DatabaseType db, SyncEntityType entityType, Collection<String> entityIds, SyncAction action) {
+        if (entityIds == null || entityIds.isEmpty()) return;
+        SyncOutboxBaseMapper mapper = mapper(db);
+        for (String entityId : entityIds) {
+            SyncOutbox row = new SyncOutbox();
+            row.setEntityType(entityType);
+            row.setEntityId(entityId);
+            row.setAction(action);
+            row.setSourceDb(db);
+            mapper.insert(row);
+        }
+    }
+
+    @Override
+    public List<SyncOutbox> claim(DatabaseType db, String owner, int limit, long leaseMs) {
+        SyncOutboxBaseMapper mapper = mapper(db);
+        return inLocalTransaction(db, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = mapper.lockClaimable(now, Math.max(1, limit));
+            if (ids == null || ids.isEmpty()) {
+                return List.of();
+            }
+            mapper.update(null, new LambdaUpdateWrapper<SyncOutbox>()
+                    .set(SyncOutbox::getClaimOwner, owner)
+                    .set(SyncOutbox::getClaimUntil, now.plusNanos(Math.max(0L, leaseMs) * 1_000_000L))
+                    .in(SyncOutbox::getId, ids));
+
+            List<SyncOutbox> rows = new ArrayList<>(mapper.selectBatchIds(ids));
+            rows.sort(Comparator.comparing(SyncOutbox::getId));
+            return rows;
+        });
+    }
+
+    @Override
+    public void remove(DatabaseType db, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        int rows = mapper(db).deleteBatchIds(ids);
+        log.debug("[SYNC-OUTBOX] removed: db={}, size={}, rows={}", db, ids.size(), rows);
+    }
+
+    private SyncOutboxBaseMapper mapper(DatabaseType db) {
+        return switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> mysqlMapper;
+            case PG -> pgMapper;
+            case SQLSERVER -> sqlserverMapper;
+        };
+    }
+
+    private static String dsKey(DatabaseType db) {
+        Class<?> mapperInterface = switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> SyncOutboxMysqlMapper.class;
+            case PG -> SyncOutboxPgMapper.class;
+            case SQLSERVER -> SyncOutboxSqlserverMapper.class;
+        };
+        return mapperInterface.getAnnotation(DS.class).value();
+    }
+}
@@ -0,0 +1,86 @@
+package com.notice.system.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.notice.system.entity.SyncPendingChange;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.base.SyncUpsertMapper;
+import com.notice.system.mapper.mysql.SyncPendingChangeMysqlMapper;
+import com.notice.system.mapper.pg.SyncPendingChangePgMapper;
+import com.notice.system.mapper.sqlserver.SyncPendingChangeSqlserverMapper;
+import com.notice.system.service.SyncPendingChangeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncPendingChangeServiceImpl implements SyncPendingChangeService {
+
+    private final SyncPendingChangeMysqlMapper mysqlMapper;
+    private final SyncPendingChangePgMapper pgMapper;
+    private final SyncPendingChangeSqlserverMapper sqlserverMapper;
+
+    @Override
+    public void save(DatabaseType storeDb,
+                     DatabaseType targetDb,
+                     SyncEntityType entityType,
+                     String entityId,
+                     SyncAction action,
+                     DatabaseType sourceDb) {
+        SyncPendingChange change = new SyncPendingChange();
+        change.setId(pendingId(targetDb, entityType, entityId));
+        change.setTargetDb(targetDb);
+        change.setEntityType(entityType);
+        change.setEntityId(entityId);
+        change.setAction(action);
+        change.setSourceDb(sourceDb);
+        // upsert 命中已有行时不会走自动填充，这里显式刷新
+        change.setUpdateTime(LocalDateTime.now());
+
+        // 主键由实体 key 决定：同一实体重复暂存只覆盖，不新增行
+        mapper(storeDb).upsert(change);
+    }
+
+    @Override
+    public List<SyncPendingChange> listPage(DatabaseType storeDb, DatabaseType targetDb, String afterId, int limit) {
+        LambdaQueryWrapper<SyncPendingChange> qw = new LambdaQueryWrapper<SyncPendingChange>()
+                .eq(SyncPendingChange::getTargetDb, targetDb)
+                .gt(afterId != null, SyncPendingChange::getId, afterId)
+                .orderByAsc(SyncPendingChange::getId);
+        return mapper(storeDb).selectPage(new Page<>(1, Math.max(1, limit), false), qw).getRecords();
+    }
+
+    @Override
+    public int remove(DatabaseType storeDb, Collection<String> ids, LocalDateTime before) {
+        if (ids == null || ids.isEmpty()) return 0;
+        int rows = mapper(storeDb).delete(new LambdaQueryWrapper<SyncPendingChange>()
+                .in(SyncPendingChange::getId, ids)
+                .lt(before != null, SyncPendingChange::getUpdateTime, before));
+        log.debug("[SYNC-PENDING] removed: db={}, size={}, rows={}", storeDb, ids.size(), rows);
+        return rows;
+    }
+
+    /** (targetDb, entityType, entityId) -> 32 位小写 hex，与业务表主键格式一致。 */
+    private static String pendingId(DatabaseType targetDb, SyncEntityType entityType, String entityId) {
+        String key = targetDb + "|" + entityType + "|" + entityId;
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SyncUpsertMapper<SyncPendingChange> mapper(DatabaseType db) {
+        return switch (db == null ? DatabaseType.MYSQL : db) {
+            case MYSQL -> mysqlMapper;
+            case PG -> pgMapper;
+            case SQLSERVER -> sqlserverMapper;
+        };
+    }
+}
@@ -0,0 +1,265 @@
+package com.notice.system.service.impl;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.dto.RowHash;
+import com.notice.system.mapper.dto.RowHashBucket;
+import com.notice.system.service.RowHashService;
+import com.notice.system.service.SyncConflictService;
+import com.notice.system.service.SyncReconcileService;
+import com.notice.system.service.SyncService;
+import com.notice.system.sync.SyncMetadataRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * 分桶（Merkle 式）对账：
+ * <ul>
+ *   <li>按主键前缀（32 位小写 hex）分桶，每个库每个桶算一个聚合 hash（行数 + 行指纹 hash 前两个 64 位字之和，与行顺序无关）</li>
+ *   <li>聚合在库内按前缀 GROUP BY 完成，一条查询得到一层的全部子桶，不把 (id, hash) 逐行拉回应用</li>
+ *   <li>三库桶 hash 一致则整桶跳过；不一致则按下一位 hex 拆成 16 个子桶继续比较</li>
+ *   <li>桶足够小（≤ leafSize）时读出每行指纹逐行比对，只对不一致的行修复或上报冲突</li>
+ * </ul>
+ * 行指纹沿用 FingerprintSpec（由 RowHashService 在库内计算，只取 (id, hash)），保证与 post-check / 冲突工单的判定口径一致。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncReconcileServiceImpl implements SyncReconcileService {
+
+    private static final String HEX = "0123456789abcdef";
+    private static final int ID_LENGTH = 32;
+
+    /** 只对账业务表，系统表（日志/冲突）不参与。 */
+    private static final List<SyncEntityType> BUSINESS_TYPES = List.of(
+            SyncEntityType.ROLE,
+            SyncEntityType.DEPT,
+            SyncEntityType.USER,
+            SyncEntityType.NOTICE,
+            SyncEntityType.NOTICE_TARGET_DEPT,
+            SyncEntityType.NOTICE_READ
+    );
+
+    private final SyncMetadataRegistry metadataRegistry;
+    private final SyncService syncService;
+    private final SyncConflictService syncConflictService;
+    private final GlobalProperties globalProperties;
+    private final RowHashService rowHashService;
+
+    @Override
+    public int reconcileAll(DatabaseType sourceDb) {
+        DatabaseType realSource = (sourceDb == null ? DatabaseType.MYSQL : sourceDb);
+        log.info("[SYNC-RECONCILE] reconcileAll start: sourceDb={}", realSource);
+
+        int total = 0;
+        for (SyncEntityType type : BUSINESS_TYPES) {
+            if (!metadataRegistry.supports(type)) continue;
+            try {
+                total += reconcileEntity(type, realSource);
+            } catch (Exception ex) {
+                log.warn("[SYNC-RECONCILE] entity failed: entityType={}, err={}", type, ex.getMessage(), ex);
+            }
+        }
+
+        log.info("[SYNC-RECONCILE] reconcileAll done: sourceDb={}, diffs={}", realSource, total);
+        return total;
+    }
+
+    @Override
+    public int reconcileEntity(SyncEntityType entityType, DatabaseType sourceDb) {
+        DatabaseType realSource = (sourceDb == null ? DatabaseType.MYSQL : sourceDb);
+        GlobalProperties.Sync.Reconcile cfg = globalProperties.getSync().getReconcile();
+
+        Scan scan = new Scan(entityType, realSource, cfg, rowHashService);
+        long start = System.currentTimeMillis();
+
+        // 顶层：一次按 prefixLength 位前缀分组，得到所有非空桶
+        int prefixLength = Math.min(Math.max(1, cfg.getPrefixLength()), 3);
+        int diffs = 0;
+        for (Map.Entry<String, Map<DatabaseType, BucketDigest>> e : scan.digestChildren("", prefixLength).entrySet()) {
+            if (!isHexBucket(e.getKey(), prefixLength)) {
+                // 非 hex 主键不会落进任何桶：只告警，交给全量同步兜底
+                log.warn("[SYNC-RECONCILE] non-hex ids not covered: entityType={}, bucket={}, counts={}",
+                        entityType, e.getKey(), counts(e.getValue()));
+                continue;
+            }
+            diffs += reconcileBucket(scan, e.getKey(), e.getValue());
+        }
+
+        log.info("[SYNC-RECONCILE] entity done: entityType={}, sourceDb={}, buckets={}, rowsScanned={}, diffs={}, costMs={}",
+                entityType, realSource, scan.bucketScans, scan.rowsScanned, diffs, System.currentTimeMillis() - start);
+        return diffs;
+    }
+
+    /** 比较一个桶：一致跳过；否则拆子桶或逐行比对。 */
+    private int reconcileBucket(Scan scan, String prefix, Map<DatabaseType, BucketDigest> digests) {
+        if (new HashSet<>(digests.values()).size() <= 1) {
+            return 0;
+        }
+
+        long maxCount = digests.values().stream().mapToLong(d -> d.count).max().orElse(0L);
+        if (maxCount <= scan.cfg.getLeafSize() || prefix.length() >= ID_LENGTH) {
+            return diffRows(scan, prefix);
+        }
+
+        Map<String, Map<DatabaseType, BucketDigest>> children = scan.digestChildren(prefix, prefix.length() + 1);
+
+        // 子桶覆盖不全（存在非 hex 字符或更短的主键），直接在本桶逐行比对
+        for (String child : children.keySet()) {
+            if (!isHexBucket(child, prefix.length() + 1)) {
+                return diffRows(scan, prefix);
+            }
+        }
+
+        int diffs = 0;
+        for (Map.Entry<String, Map<DatabaseType, BucketDigest>> e : children.entrySet()) {
+            diffs += reconcileBucket(scan, e.getKey(), e.getValue());
+        }
+        return diffs;
+    }
+
+    /** 逐行比对：以源库为准，目标库缺失/多出/指纹不同的行都算不一致。 */
+    private int diffRows(Scan scan, String prefix) {
+        Map<DatabaseType, Map<String, String>> hashes = new EnumMap<>(DatabaseType.class);
+        for (DatabaseType db : DatabaseType.syncDbs()) {
+            Map<String, String> m = new HashMap<>();
+            scan.scanBucket(db, prefix, m::put);
+            hashes.put(db, m);
+        }
+
+        Set<String> ids = new TreeSet<>();
+        hashes.values().forEach(m -> ids.addAll(m.keySet()));
+
+        Map<String, String> sourceHashes = hashes.get(scan.sourceDb);
+        int diffs = 0;
+        for (String id : ids) {
+            String sourceHash = sourceHashes.get(id);
+            List<DatabaseType> diverged = new ArrayList<>();
+            for (DatabaseType db : DatabaseType.syncDbs()) {
+                if (db != scan.sourceDb && !Objects.equals(sourceHash, hashes.get(db).get(id))) {
+                    diverged.add(db);
+                }
+            }
+            if (diverged.isEmpty()) continue;
+
+            diffs++;
+            handleDiff(scan, id, diverged);
+        }
+
+        log.info("[SYNC-RECONCILE] bucket diff: entityType={}, prefix={}, rows={}, diffs={}",
+                scan.entityType, prefix, ids.size(), diffs);
+        return diffs;
+    }
+
+    private void handleDiff(Scan scan, String id, List<DatabaseType> diverged) {
+        try {
+            if (scan.cfg.isRepair()) {
+                // UPDATE：源库不存在时执行器会在目标库兜底删除
+                for (DatabaseType targetDb : diverged) {
+                    syncService.syncToTarget(scan.entityType, id, SyncAction.UPDATE, scan.sourceDb, targetDb);
+                }
+            } else {
+                syncConflictService.checkAndUpsertConflictIfNeeded(scan.entityType, id, SyncAction.UPDATE, scan.sourceDb);
+            }
+        } catch (Exception ex) {
+            log.warn("[SYNC-RECONCILE] handle diff failed: entityType={}, id={}, targets={}, err={}",
+                    scan.entityType, id, diverged, ex.getMessage(), ex);
+        }
+    }
+
+    private static boolean isHexBucket(String bucket, int length) {
+        if (bucket == null || bucket.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (HEX.indexOf(bucket.charAt(i)) < 0) return false;
+        }
+        return true;
+    }
+
+    private static Map<DatabaseType, Long> counts(Map<DatabaseType, BucketDigest> digests) {
+        Map<DatabaseType, Long> out = new EnumMap<>(DatabaseType.class);
+        digests.forEach((db, d) -> out.put(db, d.count));
+        return out;
+    }
+
+    /** 桶聚合 hash：行数 + 行 hash 前两个 64 位字之和（按 2^64 回绕，与行顺序无关）。 */
+    private record BucketDigest(long count, long sumHi, long sumLo) {
+
+        private static final BucketDigest EMPTY = new BucketDigest(0L, 0L, 0L);
+
+        private static BucketDigest of(RowHashBucket b) {
+            return new BucketDigest(
+                    b.getRowCount() == null ? 0L : b.getRowCount(),
+                    b.getSumHi() == null ? 0L : b.getSumHi().toBigInteger().longValue(),
+                    b.getSumLo() == null ? 0L : b.getSumLo().toBigInteger().longValue());
+        }
+    }
+
+    /** 一次实体对账的扫描上下文。 */
+    private static final class Scan {
+        private final SyncEntityType entityType;
+        private final DatabaseType sourceDb;
+        private final GlobalProperties.Sync.Reconcile cfg;
+        private final RowHashService rowHashService;
+
+        private long bucketScans;
+        private long rowsScanned;
+
+        private Scan(SyncEntityType entityType,
+                     DatabaseType sourceDb,
+                     GlobalProperties.Sync.Reconcile cfg,
+                     RowHashService rowHashService) {
+            this.entityType = entityType;
+            this.sourceDb = sourceDb;
+            this.cfg = cfg;
+            this.rowHashService = rowHashService;
+        }
+
+        /** prefix 桶内按主键前 bucketLength 位分组，返回 子桶 -> 各库聚合（某库没有该子桶记为空桶），按子桶升序。 */
+        private Map<String, Map<DatabaseType, BucketDigest>> digestChildren(String prefix, int bucketLength) {
+            Map<String, Map<DatabaseType, BucketDigest>> out = new TreeMap<>();
+            for (DatabaseType db : DatabaseType.syncDbs()) {
+                bucketScans++;
+                for (RowHashBucket b : rowHashService.bucketDigests(entityType, db, prefix, bucketLength, cfg.getPageSize())) {
+                    out.computeIfAbsent(b.getBucket(), k -> new EnumMap<>(DatabaseType.class)).put(db, BucketDigest.of(b));
+                }
+            }
+            for (Map<DatabaseType, BucketDigest> digests : out.values()) {
+                for (DatabaseType db : DatabaseType.syncDbs()) {
+                    digests.putIfAbsent(db, BucketDigest.EMPTY);
+                }
+            }
+            return out;
+        }
+
+        /** 按主键 keyset 分页扫描一个前缀桶，逐行回调 (id, 行指纹 hash)。 */
+        private void scanBucket(DatabaseType db, String prefix, BiConsumer<String, String> consumer) {
+            int pageSize = Math.max(1, cfg.getPageSize());
+            bucketScans++;
+
+            String cursor = null;
+            while (true) {
+                List<RowHash> rows = rowHashService.hashPage(entityType, db, prefix, cursor, pageSize);
+                if (rows == null || rows.isEmpty()) {
+                    return;
+                }
+
+                for (RowHash row : rows) {
+                    if (row.getId() == null) continue;
+                    consumer.accept(row.getId(), row.getHash());
+                }
+                rowsScanned += rows.size();
+
+                if (rows.size() < pageSize) {
+                    return;
+                }
+                cursor = rows.get(rows.size() - 1).getId();
+            }
+        }
+    }
+}
@@ -1,24 +1,49 @@
 package com.notice.system.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entity.SyncCheckpoint;
+import com.notice.system.entity.SyncPendingChange;
 import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncAction;
 import com.notice.system.entityEnum.SyncEntityType;
 import com.notice.system.entityEnum.SyncLogStatus;
+import com.notice.system.service.SyncAuditShipService;
+import com.notice.system.service.SyncCheckpointService;
+import com.notice.system.service.SyncOutboxService;
+import com.notice.system.service.SyncPendingChangeService;
 import com.notice.system.service.SyncService;
+import com.notice.system.support.concurrent.CircuitBreaker;
+import com.notice.system.support.concurrent.KeyedLaneExecutor;
+import com.notice.system.support.concurrent.RowRateLimiter;
 import com.notice.system.support.event.SyncBatchPostCheckEvent;
+import com.notice.system.support.event.SyncChunkPostCheckEvent;
+import com.notice.system.support.event.SyncEventBus;
+import com.notice.system.support.event.SyncEventBusStats;
 import com.notice.system.support.event.SyncLogEvent;
+import com.notice.system.support.task.TaskLeaseRunner;
 import com.notice.system.sync.SyncExecutor;
 import com.notice.system.sync.SyncMetadataRegistry;
 import com.notice.system.sync.SyncStatusDecider;
+import com.notice.system.sync.SyncWriteStats;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -28,15 +53,88 @@ public class SyncServiceImpl implements SyncService {
     private final SyncMetadataRegistry metadataRegistry;
     private final List<SyncExecutor> executors;
     private final ApplicationEventPublisher eventPublisher;
+    private final SyncEventBus eventBus;
+    private final GlobalProperties globalProperties;
+    private final SyncCheckpointService checkpointService;
+    private final SyncPendingChangeService pendingChangeService;
+    private final SyncOutboxService outboxService;
+    private final SyncAuditShipService auditShipService;
 
     private final Map<DatabaseType, SyncExecutor> executorMap = new EnumMap<>(DatabaseType.class);
 
+    /** 异步模式下每个目标库一组按实体分道的工作线程（未开启异步时为空）。 */
+    private final Map<DatabaseType, KeyedLaneExecutor> targetLanes = new EnumMap<>(DatabaseType.class);
+
+    /** 同步模式下并行扇出到各目标库的线程池（未开启时为 null，按顺序逐个目标执行）。 */
+    private ThreadPoolExecutor fanOutPool;
+
+    /** 合并窗口内待提交的变更：entityType|entityId -> 最后一次变更（未开启合并时不使用）。 */
+    private final Map<String, PendingChange> pendingChanges = new ConcurrentHashMap<>();
+
+    /** 合并窗口计时器与按实体分道的提交线程（未开启合并时为 null）。 */
+    private ScheduledExecutorService coalesceTimer;
+    private KeyedLaneExecutor coalesceLanes;
+
+    /** 全量同步全局限速（所有并行同步的实体类型共享）。 */
+    private RowRateLimiter fullSyncLimiter;
+
+    /** 每个目标库一个熔断器（未开启熔断时为空）。 */
+    private final Map<DatabaseType, CircuitBreaker> breakers = new EnumMap<>(DatabaseType.class);
+
+    /** 增量同步的水位线列（由 MyMetaObjectHandler 在插入/更新时填充）。 */
+    private static final String UPDATE_TIME_COLUMN = "update_time";
+    private static final String UPDATE_TIME_PROPERTY = "updateTime";
+
     private enum LogMode {
         NONE,        // 不写任何日志（retry 场景）
         FAIL_ONLY,   // 只写失败日志（submitSync 的“先 apply 后统一写 success”）
         ALL          // 成功失败都写（syncToTarget 场景）
     }
 
+    /**
+     * 一次变更预读的源库行：loaded=false 表示未预读（由执行器自行读取）；entity 为 null 表示源库不存在。
+     */
+    private record SourceRow(boolean loaded, Object entity) {
+        private static final SourceRow NOT_LOADED = new SourceRow(false, null);
+    }
+
+    /** 异步派发时各目标库车道共用的源库行：第一个执行到的车道读取，其余车道复用，每次变更只读一次源库。 */
+    private final class SharedSource {
+        private final SyncEntityType entityType;
+        private final String entityId;
+        private final SyncAction action;
+        private final DatabaseType realSource;
+        private SourceRow row;
+
+        private SharedSource(SyncEntityType entityType, String entityId, SyncAction action, DatabaseType realSource) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.action = action;
+            this.realSource = realSource;
+        }
+
+        private synchronized SourceRow get() {
+            if (row == null) {
+                row = loadSource(entityType, entityId, action, realSource);
+            }
+            return row;
+        }
+    }
+
+    /** 目标库熔断中：tryApply 不执行，返回该标记，由 recordOutcome 暂存变更。 */
+    private static final class CircuitOpenException extends Exception {
+        private static final long serialVersionUID = 1L;
+        private static final CircuitOpenException INSTANCE = new CircuitOpenException();
+
+        private CircuitOpenException() {
+            super("target circuit open", null, false, false);
+        }
+    }
+
+    /** 补同步时按 (实体类型, 动作, 源库) 分组走批量路径。 */
+    private record PendingGroup(SyncEntityType entityType, SyncAction action, DatabaseType sourceDb) {
+    }
+
     @PostConstruct
     public void init() {
         for (SyncExecutor executor : executors) {
@@ -44,6 +142,81 @@ public class SyncServiceImpl implements SyncService {
             executorMap.put(targetDb, executor);
             log.info("[SYNC] executor registered: targetDb={}, impl={}", targetDb, executor.getClass().getSimpleName());
         }
+
+        GlobalProperties.Sync.Async asyncCfg = globalProperties.getSync().getAsync();
+        if (asyncCfg != null && asyncCfg.isEnabled()) {
+            for (DatabaseType targetDb : executorMap.keySet()) {
+                targetLanes.put(targetDb, new KeyedLaneExecutor(
+                        "sync-" + targetDb.name().toLowerCase(),
+                        asyncCfg.getWorkersPerTarget(),
+                        asyncCfg.getQueueCapacity(),
+                        asyncCfg.getOfferTimeoutMs()));
+            }
+            log.info("[SYNC] async dispatch enabled: workersPerTarget={}, queueCapacity={}, offerTimeoutMs={}",
+                    asyncCfg.getWorkersPerTarget(), asyncCfg.getQueueCapacity(), asyncCfg.getOfferTimeoutMs());
+        }
+
+        GlobalProperties.Sync.FanOut fanOutCfg = globalProperties.getSync().getFanOut();
+        if (fanOutCfg != null && fanOutCfg.isEnabled()) {
+            int threads = Math.max(1, fanOutCfg.getThreads());
+            AtomicInteger seq = new AtomicInteger();
+            // 池满时由调用线程直接执行（退化为串行），不丢任务
+            fanOutPool = new ThreadPoolExecutor(
+                    threads, threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, fanOutCfg.getQueueCapacity())),
+                    r -> {
+                        Thread t = new Thread(r, "sync-fanout-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            fanOutPool.allowCoreThreadTimeOut(true);
+            log.info("[SYNC] parallel fan-out enabled: threads={}, targetTimeoutMs={}",
+                    threads, fanOutCfg.getTargetTimeoutMs());
+        }
+
+        GlobalProperties.Sync.Breaker breakerCfg = globalProperties.getSync().getBreaker();
+        if (breakerCfg != null && breakerCfg.isEnabled()) {
+            for (DatabaseType targetDb : executorMap.keySet()) {
+                breakers.put(targetDb, new CircuitBreaker("SYNC-BREAKER-" + targetDb,
+                        breakerCfg.getFailureThreshold(), breakerCfg.getOpenMs()));
+            }
+            log.info("[SYNC] target circuit breakers enabled: failureThreshold={}, openMs={}",
+                    breakerCfg.getFailureThreshold(), breakerCfg.getOpenMs());
+        }
+
+        fullSyncLimiter = new RowRateLimiter(globalProperties.getSync().getFull().getMaxRowsPerSecond());
+
+        GlobalProperties.Sync.Coalesce coalesceCfg = globalProperties.getSync().getCoalesce();
+        if (coalesceCfg != null && coalesceCfg.isEnabled()) {
+            coalesceTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "sync-coalesce-timer");
+                t.setDaemon(true);
+                return t;
+            });
+            coalesceLanes = new KeyedLaneExecutor("sync-coalesce",
+                    coalesceCfg.getWorkers(), coalesceCfg.getMaxPending(), 0L);
+            log.info("[SYNC] coalescing enabled: windowMs={}, workers={}, maxPending={}",
+                    coalesceCfg.getWindowMs(), coalesceCfg.getWorkers(), coalesceCfg.getMaxPending());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        long awaitMs = globalProperties.getSync().getAsync().getShutdownAwaitMs();
+
+        // 先把合并窗口里还没到点的变更全部提交，再关各级队列
+        if (coalesceTimer != null) {
+            coalesceTimer.shutdownNow();
+            new ArrayList<>(pendingChanges.keySet()).forEach(this::flushPending);
+            coalesceLanes.shutdown(awaitMs);
+        }
+
+        targetLanes.values().forEach(lanes -> lanes.shutdown(awaitMs));
+
+        if (fanOutPool != null) {
+            fanOutPool.shutdown();
+        }
     }
 
     @Override
@@ -52,19 +225,367 @@ public class SyncServiceImpl implements SyncService {
                            SyncAction action,
                            DatabaseType sourceDb) {
 
+        // 审计表新增：由批量搬运任务按游标复制，不逐条同步
+        if (auditShipService.isShipped(entityType, action, useDb(sourceDb))) {
+            return;
+        }
+        // outbox 模式：只记录变更（与业务写入同一本地事务），由 relay 推送
+        if (outboxEnabled()) {
+            outboxService.append(useDb(sourceDb), entityType, List.of(entityId), action);
+            return;
+        }
+        dispatchOne(entityType, entityId, action, sourceDb);
+    }
+
+    /** 单条变更走合并窗口或直接提交。 */
+    private void dispatchOne(SyncEntityType entityType, String entityId, SyncAction action, DatabaseType sourceDb) {
+        if (coalesceTimer != null) {
+            coalesce(entityType, entityId, action, useDb(sourceDb));
+            return;
+        }
+        doSubmitSync(entityType, entityId, action, sourceDb);
+    }
+
+    @Override
+    public <R> R runLocalWrite(DatabaseType db, Supplier<R> write) {
+        // 非 outbox 模式不开事务：同步扇出会写其它库，不能放在源库事务里
+        if (!outboxEnabled()) {
+            return write.get();
+        }
+        return outboxService.inLocalTransaction(useDb(db), write);
+    }
+
+    private boolean outboxEnabled() {
+        GlobalProperties.Sync.Outbox outboxCfg = globalProperties.getSync().getOutbox();
+        return outboxCfg != null && outboxCfg.isEnabled();
+    }
+
+    /**
+     * 合并窗口：同一 (entityType, entityId) 在 windowMs 内的多次变更只保留最后一次动作，
+     * 窗口到点后提交一次。提交走按实体分道的线程，保证同一实体前后两次提交按顺序执行。
+     */
+    private void coalesce(SyncEntityType entityType, String entityId, SyncAction action, DatabaseType realSource) {
+        String key = entityType + "|" + entityId;
+        GlobalProperties.Sync.Coalesce cfg = globalProperties.getSync().getCoalesce();
+
+        // 0=已合并进现有窗口；1=新开窗口；2=待合并实体过多，不再开窗口
+        int[] outcome = {0};
+        pendingChanges.compute(key, (k, pending) -> {
+            if (pending != null) {
+                pending.merge(action, realSource);
+                return pending;
+            }
+            if (pendingChanges.size() >= cfg.getMaxPending()) {
+                outcome[0] = 2;
+                return null;
+            }
+            outcome[0] = 1;
+            return new PendingChange(entityType, entityId, action, realSource);
+        });
+
+        if (outcome[0] == 1) {
+            coalesceTimer.schedule(() -> flushPending(key), Math.max(0L, cfg.getWindowMs()), TimeUnit.MILLISECONDS);
+        } else if (outcome[0] == 2) {
+            // 直接进该实体的提交车道（与窗口到点后的提交同一车道，仍保持同实体顺序）
+            submitToCoalesceLane(key, new PendingChange(entityType, entityId, action, realSource));
+        }
+    }
+
+    /** 窗口到点：取出合并后的变更提交一次（之后到达的变更会开新窗口）。 */
+    private void flushPending(String key) {
+        PendingChange pending = pendingChanges.remove(key);
+        if (pending == null) {
+            return;
+        }
+        if (pending.merged > 0) {
+            log.debug("[SYNC-COALESCE] merged: key={}, merged={}, finalAction={}", key, pending.merged, pending.action);
+        }
+        submitToCoalesceLane(key, pending);
+    }
+
+    /**
+     * 提交到该实体的车道。计时器只有一个线程，车道满时不能阻塞也不能直接执行（会与已排队的同实体提交乱序），
+     * 把变更放回待合并表，下个窗口再提交；停机后（含停机期间到达的请求）最多等待 async.offerTimeoutMs，
+     * 仍提交不进去则对各目标库记 FAILED，交给重试任务按源库当前行补同步。
+     */
+    private void submitToCoalesceLane(String key, PendingChange change) {
+        Runnable task = () -> doSubmitSync(change.entityType, change.entityId, change.action, change.sourceDb);
+        if (coalesceTimer.isShutdown()) {
+            long timeoutMs = globalProperties.getSync().getAsync().getOfferTimeoutMs();
+            if (!coalesceLanes.submit(key, task, timeoutMs)) {
+                log.warn("[SYNC-COALESCE] lanes stopped or full, recorded as failed: key={}, action={}", key, change.action);
+                for (DatabaseType targetDb : executorMap.keySet()) {
+                    if (targetDb == change.sourceDb) continue;
+                    recordOutcome(change.entityType, change.entityId, change.action, change.sourceDb, targetDb,
+                            new RejectedExecutionException("coalesce lane rejected"), LogMode.FAIL_ONLY);
+                }
+            }
+            return;
+        }
+        if (!coalesceLanes.submit(key, task)) {
+            requeue(key, change);
+        }
+    }
+
+    /** 车道已满：变更放回待合并表（期间已有更新的变更则以新的为准），windowMs 后再提交。 */
+    private void requeue(String key, PendingChange change) {
+        boolean[] reopened = {false};
+        pendingChanges.compute(key, (k, pending) -> {
+            if (pending != null) {
+                pending.merged++;
+                return pending;
+            }
+            reopened[0] = true;
+            return change;
+        });
+        if (!reopened[0]) {
+            return;
+        }
+        log.debug("[SYNC-COALESCE] lane full, requeued: key={}, action={}", key, change.action);
+        try {
+            long windowMs = Math.max(1L, globalProperties.getSync().getCoalesce().getWindowMs());
+            coalesceTimer.schedule(() -> flushPending(key), windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            // 计时器已停：shutdown 会把 pendingChanges 里剩余的变更全部提交
+        }
+    }
+
+    /** 合并窗口内的一条待提交变更（只在 pendingChanges.compute 内修改）。 */
+    private static final class PendingChange {
+        private final SyncEntityType entityType;
+        private final String entityId;
+        private SyncAction action;
+        private DatabaseType sourceDb;
+        private int merged;
+
+        private PendingChange(SyncEntityType entityType, String entityId, SyncAction action, DatabaseType sourceDb) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.action = action;
+            this.sourceDb = sourceDb;
+        }
+
+        /** 后到的变更覆盖前面的动作（apply 时总是按源库当前状态写入，只需保留最后一次动作）。 */
+        private void merge(SyncAction action, DatabaseType sourceDb) {
+            this.action = action;
+            this.sourceDb = sourceDb;
+            this.merged++;
+        }
+    }
+
+    private void doSubmitSync(SyncEntityType entityType,
+                              String entityId,
+                              SyncAction action,
+                              DatabaseType sourceDb) {
+
         DatabaseType realSource = useDb(sourceDb);
 
+        // 异步模式：源库行在各车道执行时再读（读到的是 apply 时刻的最新值），请求线程不读源库
+        if (!targetLanes.isEmpty()) {
+            dispatchAsync(entityType, entityId, action, realSource);
+            return;
+        }
+        applyNow(entityType, entityId, action, realSource);
+    }
+
+    /** 在当前线程同步到所有目标库并做 post-check，返回时各目标库已写完（结果已记日志）。 */
+    private void applyNow(SyncEntityType entityType,
+                          String entityId,
+                          SyncAction action,
+                          DatabaseType realSource) {
+        // 源库行只读一次，分发给所有目标库并供 post-check 复用
+        SourceRow source = loadSource(entityType, entityId, action, realSource);
+
         // targetDb -> applyOk（按遍历顺序保留输出稳定性）
-        Map<DatabaseType, Boolean> applyOk = new LinkedHashMap<>();
+        Map<DatabaseType, Boolean> applyOk = (fanOutPool != null)
+                ? applyAllTargetsParallel(entityType, entityId, action, realSource, source)
+                : applyAllTargetsSequential(entityType, entityId, action, realSource, source);
+
+        afterApply(entityType, entityId, action, realSource, applyOk, source);
+    }
 
+    /** 读取源库行；DELETE 不需要源行，读取失败则退回由各执行器自行读取。 */
+    private SourceRow loadSource(SyncEntityType entityType, String entityId, SyncAction action, DatabaseType realSource) {
+        if (action == SyncAction.DELETE || !metadataRegistry.supports(entityType)) {
+            return SourceRow.NOT_LOADED;
+        }
+        try {
+            BaseMapper<?> sourceMapper = metadataRegistry.getDefinition(entityType).getMapper(realSource);
+            if (sourceMapper == null) {
+                return SourceRow.NOT_LOADED;
+            }
+            return new SourceRow(true, sourceMapper.selectById(entityId));
+        } catch (Exception ex) {
+            log.warn("[SYNC] load source failed, executors will read it: entityType={}, id={}, sourceDb={}, err={}",
+                    entityType, entityId, realSource, ex.getMessage());
+            return SourceRow.NOT_LOADED;
+        }
+    }
+
+    /** 批量读取源库行（id -> 实体）；DELETE 或读取失败返回 null。 */
+    private Map<String, Object> loadSources(SyncEntityType entityType, List<String> ids, SyncAction action, DatabaseType realSource) {
+        if (action == SyncAction.DELETE) {
+            return null;
+        }
+        try {
+            SyncMetadataRegistry.EntitySyncDefinition<Object> def = metadataRegistry.getDefinition(entityType);
+            BaseMapper<Object> sourceMapper = def.getMapper(realSource);
+            if (sourceMapper == null) {
+                return null;
+            }
+            Map<String, Object> out = new HashMap<>();
+            for (Object row : sourceMapper.selectBatchIds(ids)) {
+                String id = def.getIdGetter().apply(row);
+                if (id != null) out.put(id, row);
+            }
+            return out;
+        } catch (Exception ex) {
+            log.warn("[SYNC-BATCH] load sources failed, executors will read them: entityType={}, sourceDb={}, size={}, err={}",
+                    entityType, realSource, ids.size(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private Map<DatabaseType, Boolean> applyAllTargetsSequential(SyncEntityType entityType,
+                                                                 String entityId,
+                                                                 SyncAction action,
+                                                                 DatabaseType realSource,
+                                                                 SourceRow source) {
+        Map<DatabaseType, Boolean> applyOk = new LinkedHashMap<>();
         for (Map.Entry<DatabaseType, SyncExecutor> e : executorMap.entrySet()) {
             DatabaseType targetDb = e.getKey();
             if (targetDb == realSource) {
                 continue;
             }
-            boolean ok = syncOneTarget(entityType, entityId, action, realSource, targetDb, e.getValue(), LogMode.FAIL_ONLY);
+            boolean ok = syncOneTarget(entityType, entityId, action, realSource, targetDb, e.getValue(), LogMode.FAIL_ONLY, source, false);
             applyOk.put(targetDb, ok);
         }
+        return applyOk;
+    }
+
+    /**
+     * 并行扇出：各目标库 apply 同时在 fanOutPool 上执行，调用方等待全部结束（或超时）后汇总 applyOk。
+     * 端到端耗时从“各目标之和”降为“最慢目标”，单个目标超时按 FAILED 记录，不再拖住整次调用。
+     */
+    private Map<DatabaseType, Boolean> applyAllTargetsParallel(SyncEntityType entityType,
+                                                               String entityId,
+                                                               SyncAction action,
+                                                               DatabaseType realSource,
+                                                               SourceRow source) {
+        long timeoutMs = Math.max(1L, globalProperties.getSync().getFanOut().getTargetTimeoutMs());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        Map<DatabaseType, CompletableFuture<Exception>> futures = new LinkedHashMap<>();
+        for (Map.Entry<DatabaseType, SyncExecutor> e : executorMap.entrySet()) {
+            DatabaseType targetDb = e.getKey();
+            if (targetDb == realSource) {
+                continue;
+            }
+            SyncExecutor executor = e.getValue();
+            futures.put(targetDb, CompletableFuture.supplyAsync(
+                    () -> tryApply(executor, entityType, entityId, action, realSource, source, false), fanOutPool));
+        }
+
+        Map<DatabaseType, Boolean> applyOk = new LinkedHashMap<>();
+        for (Map.Entry<DatabaseType, CompletableFuture<Exception>> e : futures.entrySet()) {
+            DatabaseType targetDb = e.getKey();
+            Exception ex;
+            try {
+                ex = e.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException te) {
+                // 超时：先按可重试的 FAILED 记录（写入可能一直不返回）；不 cancel——中断停不掉已在执行的 JDBC 写，
+                // 迟到的成功照常补记 SUCCESS
+                ex = new TimeoutException("apply timed out after " + timeoutMs + "ms");
+                e.getValue().thenAccept(lateEx -> {
+                    if (lateEx == null) {
+                        recordLateSuccess(entityType, entityId, action, realSource, targetDb);
+                    }
+                });
+            } catch (ExecutionException ee) {
+                ex = (ee.getCause() instanceof Exception c) ? c : ee;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                ex = ie;
+            }
+            applyOk.put(targetDb, recordOutcome(entityType, entityId, action, realSource, targetDb, ex, LogMode.FAIL_ONLY));
+        }
+        return applyOk;
+    }
+
+    /**
+     * 异步派发：每个目标库按 (entityType, entityId) 落到固定工作线程，保证同一实体在同一目标库按顺序执行；
+     * 源库行在车道内读取（第一个执行到的车道读一次，其余目标库复用；读取时间不早于本次写入，最终落到各目标库的仍是最新行），
+     * 最后一个目标库完成后再统一做 post-check 与日志（post-check 自行重读源库）。
+     * 队列满时调用方最多等待 offerTimeoutMs，不在调用线程直接执行（否则会与已排队的同实体任务乱序），超时记 FAILED 交给重试。
+     */
+    private void dispatchAsync(SyncEntityType entityType,
+                               String entityId,
+                               SyncAction action,
+                               DatabaseType realSource) {
+
+        List<DatabaseType> targets = new ArrayList<>();
+        for (DatabaseType targetDb : executorMap.keySet()) {
+            if (targetDb != realSource) targets.add(targetDb);
+        }
+        if (targets.isEmpty()) return;
+
+        String key = entityType + "|" + entityId;
+        Map<DatabaseType, Boolean> results = new ConcurrentHashMap<>();
+        AtomicInteger remaining = new AtomicInteger(targets.size());
+        SharedSource shared = new SharedSource(entityType, entityId, action, realSource);
+
+        for (DatabaseType targetDb : targets) {
+            SyncExecutor executor = executorMap.get(targetDb);
+            Runnable task = () -> {
+                SourceRow source = shared.get();
+                boolean ok = syncOneTarget(entityType, entityId, action, realSource, targetDb, executor, LogMode.FAIL_ONLY, source, false);
+                completeAsync(entityType, entityId, action, realSource, targetDb, ok, results, remaining);
+            };
+
+            // 请求线程与事件总线线程都只等 offerTimeoutMs：不拖住请求，也不与向总线发布事件的车道互锁
+            boolean queued = targetLanes.get(targetDb).submit(key, task);
+            if (!queued) {
+                // 已停机或等待超时：记 FAILED，由重试任务按源库当前行补同步
+                log.warn("[SYNC-ASYNC] dispatch rejected: targetDb={}, entityType={}, id={}", targetDb, entityType, entityId);
+                boolean ok = recordOutcome(entityType, entityId, action, realSource, targetDb,
+                        new RejectedExecutionException("async queue rejected, targetDb=" + targetDb), LogMode.FAIL_ONLY);
+                completeAsync(entityType, entityId, action, realSource, targetDb, ok, results, remaining);
+            }
+        }
+    }
+
+    /** 记录一个目标库的异步结果；最后一个目标库完成时触发 afterApply。 */
+    private void completeAsync(SyncEntityType entityType,
+                               String entityId,
+                               SyncAction action,
+                               DatabaseType realSource,
+                               DatabaseType targetDb,
+                               boolean ok,
+                               Map<DatabaseType, Boolean> results,
+                               AtomicInteger remaining) {
+        results.put(targetDb, ok);
+        if (remaining.decrementAndGet() == 0) {
+            afterApply(entityType, entityId, action, realSource, orderedResults(results), SourceRow.NOT_LOADED);
+        }
+    }
+
+    /** 按执行器注册顺序输出 applyOk，保持与同步模式一致的日志顺序。 */
+    private Map<DatabaseType, Boolean> orderedResults(Map<DatabaseType, Boolean> results) {
+        Map<DatabaseType, Boolean> ordered = new LinkedHashMap<>();
+        for (DatabaseType targetDb : executorMap.keySet()) {
+            Boolean ok = results.get(targetDb);
+            if (ok != null) ordered.put(targetDb, ok);
+        }
+        return ordered;
+    }
+
+    /** 所有目标库 apply 结束后：按需 post-check，并写 SUCCESS/CONFLICT 日志。 */
+    private void afterApply(SyncEntityType entityType,
+                            String entityId,
+                            SyncAction action,
+                            DatabaseType realSource,
+                            Map<DatabaseType, Boolean> applyOk,
+                            SourceRow source) {
 
         // 不需要做 post-check 的场景：直接对成功目标写 SUCCESS
         if (!allowWriteSyncLog(entityType) || action == SyncAction.DELETE) {
@@ -82,13 +603,71 @@ public class SyncServiceImpl implements SyncService {
             return;
         }
 
-        // 一次提交结束后统一触发 post-check（生成冲突工单等）
-        SyncBatchPostCheckEvent ev = new SyncBatchPostCheckEvent(entityType, entityId, action, realSource, applyOk);
-        eventPublisher.publishEvent(ev);
+        // 一次提交结束后统一触发 post-check（生成冲突工单等）：交给事件总线，conflictId 在总线线程上回填后再写日志。
+        // 排队执行时预读的源库行可能已被后续变更覆盖，由监听器在检查时重新读取
+        SourceRow checkSource = eventBus.isDeferred() ? SourceRow.NOT_LOADED : source;
+        eventBus.dispatch(entityType + "|" + entityId, () -> {
+            SyncBatchPostCheckEvent ev = new SyncBatchPostCheckEvent(
+                    entityType, entityId, action, realSource, applyOk, checkSource.loaded(), checkSource.entity());
+            eventPublisher.publishEvent(ev);
 
-        String conflictId = ev.getConflictId();
+            writeApplyLogs(entityType, entityId, action, realSource, applyOk, ev.getConflictId());
+        });
+    }
 
-        // 对同步成功的目标库写 SUCCESS/CONFLICT
+    /**
+     * 一批 id 的 afterApply：post-check 合并为一次 {@link SyncChunkPostCheckEvent}（三库快照按批读取），
+     * 再逐条写 SUCCESS/CONFLICT。
+     */
+    private void afterApplyChunk(SyncEntityType entityType,
+                                 List<String> ids,
+                                 SyncAction action,
+                                 DatabaseType realSource,
+                                 Map<String, Map<DatabaseType, Boolean>> applyOkById,
+                                 Map<String, Object> sources) {
+        if (!allowWriteSyncLog(entityType) || action == SyncAction.DELETE) {
+            for (String id : ids) {
+                afterApply(entityType, id, action, realSource, applyOkById.get(id), sourceRowOf(sources, id));
+            }
+            return;
+        }
+
+        List<String> checkIds = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (applyOkById.get(id).values().stream().anyMatch(Boolean::booleanValue)) {
+                checkIds.add(id);
+            }
+        }
+        if (checkIds.isEmpty()) {
+            return;
+        }
+
+        // 按总线车道拆成子批：每个 id 都在自己的车道上检查，与同一实体的单条事件保持顺序；三库快照仍按子批读取
+        Map<Integer, List<String>> byLane = new LinkedHashMap<>();
+        for (String id : checkIds) {
+            byLane.computeIfAbsent(eventBus.laneOf(entityType + "|" + id), k -> new ArrayList<>()).add(id);
+        }
+        // 排队执行时不带预读的源库行，由监听器在检查时重新读取
+        Map<String, Object> checkSources = eventBus.isDeferred() ? null : sources;
+        for (List<String> laneIds : byLane.values()) {
+            eventBus.dispatch(entityType + "|" + laneIds.get(0), () -> {
+                SyncChunkPostCheckEvent ev = new SyncChunkPostCheckEvent(entityType, action, realSource, laneIds, checkSources);
+                eventPublisher.publishEvent(ev);
+
+                for (String id : laneIds) {
+                    writeApplyLogs(entityType, id, action, realSource, applyOkById.get(id), ev.getConflictIds().get(id));
+                }
+            });
+        }
+    }
+
+    /** 对同步成功的目标库写 SUCCESS/CONFLICT。 */
+    private void writeApplyLogs(SyncEntityType entityType,
+                                String entityId,
+                                SyncAction action,
+                                DatabaseType realSource,
+                                Map<DatabaseType, Boolean> applyOk,
+                                String conflictId) {
         applyOk.forEach((targetDb, ok) -> {
             if (!ok) return;
 
@@ -110,9 +689,192 @@ public class SyncServiceImpl implements SyncService {
         if (entityIds == null || entityIds.isEmpty()) {
             return;
         }
-        for (String id : entityIds) {
-            submitSync(entityType, id, action, sourceDb);
+        if (auditShipService.isShipped(entityType, action, useDb(sourceDb))) {
+            return;
+        }
+        if (outboxEnabled()) {
+            outboxService.append(useDb(sourceDb), entityType, entityIds, action);
+            return;
+        }
+        doSubmitBatchSync(entityType, entityIds, action, sourceDb, false, false);
+    }
+
+    @Override
+    public void relayBatch(SyncEntityType entityType,
+                           Collection<String> entityIds,
+                           SyncAction action,
+                           DatabaseType sourceDb) {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
+        }
+        // relay 返回后即删除 outbox 记录：必须在返回前真正写完，不能只进内存队列
+        doSubmitBatchSync(entityType, entityIds, action, sourceDb, false, true);
+    }
+
+    /**
+     * 批量提交；diff=true 时目标库写入前先读出比较（只有全量同步这类目标多半已一致的补偿链路才值得多一次读）。
+     * direct=true 时不走异步车道与合并窗口，在当前线程写完才返回：调用方随后会删除 outbox 记录或推进断点，
+     * 变更只进内存队列时进程崩溃会丢失。
+     */
+    private void doSubmitBatchSync(SyncEntityType entityType,
+                                   Collection<String> entityIds,
+                                   SyncAction action,
+                                   DatabaseType sourceDb,
+                                   boolean diff,
+                                   boolean direct) {
+
+        DatabaseType realSource = useDb(sourceDb);
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(entityIds));
+        ids.removeIf(id -> id == null || id.isBlank());
+
+        // 异步模式 / 未开启批量：逐条提交（异步模式依赖按实体分道保证顺序）；direct 时逐条在当前线程写完
+        GlobalProperties.Sync.Batch batchCfg = globalProperties.getSync().getBatch();
+        boolean batchEnabled = batchCfg != null && batchCfg.isEnabled();
+        if (!batchEnabled || (!direct && !targetLanes.isEmpty())) {
+            for (String id : ids) {
+                if (direct) {
+                    applyNow(entityType, id, action, realSource);
+                } else {
+                    dispatchOne(entityType, id, action, realSource);
+                }
+            }
+            return;
+        }
+
+        int chunkSize = Math.max(1, batchCfg.getChunkSize());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+
+            // 本批源库行只读一次（null 表示未预读）
+            Map<String, Object> sources = loadSources(entityType, chunk, action, realSource);
+
+            // targetDb -> 本批失败的 id
+            Map<DatabaseType, Set<String>> failedByTarget = applyChunkAllTargets(entityType, chunk, action, realSource, sources, diff);
+
+            Map<String, Map<DatabaseType, Boolean>> applyOkById = new HashMap<>();
+            for (String id : chunk) {
+                Map<DatabaseType, Boolean> applyOk = new LinkedHashMap<>();
+                failedByTarget.forEach((targetDb, failed) -> applyOk.put(targetDb, !failed.contains(id)));
+                applyOkById.put(id, applyOk);
+            }
+            afterApplyChunk(entityType, chunk, action, realSource, applyOkById, sources);
+        }
+    }
+
+    /** 一批 id 同步到所有目标库（开启扇出时各目标并行），返回各目标库失败的 id。 */
+    private Map<DatabaseType, Set<String>> applyChunkAllTargets(SyncEntityType entityType,
+                                                                List<String> ids,
+                                                                SyncAction action,
+                                                                DatabaseType realSource,
+                                                                Map<String, Object> sources,
+                                                                boolean diff) {
+        Map<DatabaseType, CompletableFuture<Set<String>>> futures = new LinkedHashMap<>();
+        Map<DatabaseType, Set<String>> failedByTarget = new LinkedHashMap<>();
+
+        for (Map.Entry<DatabaseType, SyncExecutor> e : executorMap.entrySet()) {
+            DatabaseType targetDb = e.getKey();
+            if (targetDb == realSource) {
+                continue;
+            }
+            SyncExecutor executor = e.getValue();
+            if (fanOutPool != null) {
+                futures.put(targetDb, CompletableFuture.supplyAsync(
+                        () -> applyChunkOneTarget(entityType, ids, action, realSource, targetDb, executor, sources, diff), fanOutPool));
+            } else {
+                failedByTarget.put(targetDb, applyChunkOneTarget(entityType, ids, action, realSource, targetDb, executor, sources, diff));
+            }
+        }
+
+        // 批量耗时与批大小相关：targetTimeoutMs 之外每行再追加 batchRowTimeoutMs
+        GlobalProperties.Sync.FanOut fanOutCfg = globalProperties.getSync().getFanOut();
+        long timeoutMs = Math.max(1L, fanOutCfg.getTargetTimeoutMs() + fanOutCfg.getBatchRowTimeoutMs() * ids.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        for (Map.Entry<DatabaseType, CompletableFuture<Set<String>>> e : futures.entrySet()) {
+            DatabaseType targetDb = e.getKey();
+            Set<String> failed;
+            try {
+                failed = e.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException te) {
+                // 与单条扇出相同：整批先记 FAILED 交给重试，迟到完成时对其中成功的 id 补记 SUCCESS
+                log.warn("[SYNC-BATCH] target timed out: targetDb={}, entityType={}, size={}, timeoutMs={}",
+                        targetDb, entityType, ids.size(), timeoutMs);
+                TimeoutException timeout = new TimeoutException("batch apply timed out after " + timeoutMs + "ms");
+                for (String id : ids) {
+                    recordOutcome(entityType, id, action, realSource, targetDb, timeout, LogMode.FAIL_ONLY);
+                }
+                e.getValue().thenAccept(lateFailed -> {
+                    for (String id : ids) {
+                        if (!lateFailed.contains(id)) {
+                            recordLateSuccess(entityType, id, action, realSource, targetDb);
+                        }
+                    }
+                });
+                failed = new HashSet<>(ids);
+            } catch (ExecutionException ee) {
+                log.warn("[SYNC-BATCH] target task failed: targetDb={}, entityType={}, err={}",
+                        e.getKey(), entityType, ee.getMessage(), ee);
+                failed = new HashSet<>(ids);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                failed = new HashSet<>(ids);
+            }
+            failedByTarget.put(e.getKey(), failed);
+        }
+        return failedByTarget;
+    }
+
+    /** 单目标库批量 apply；目标库熔断中则整批暂存，返回全部 id。 */
+    private Set<String> applyChunkOneTarget(SyncEntityType entityType,
+                                            List<String> ids,
+                                            SyncAction action,
+                                            DatabaseType sourceDb,
+                                            DatabaseType targetDb,
+                                            SyncExecutor executor,
+                                            Map<String, Object> sources,
+                                            boolean diff) {
+        CircuitBreaker breaker = breakers.get(targetDb);
+        if (breaker != null && !breaker.allowRequest()) {
+            for (String id : ids) {
+                recordOutcome(entityType, id, action, sourceDb, targetDb, CircuitOpenException.INSTANCE, LogMode.FAIL_ONLY);
+            }
+            return new HashSet<>(ids);
+        }
+        return applyChunkPermitted(entityType, ids, action, sourceDb, targetDb, executor, sources, diff);
+    }
+
+    /**
+     * 已通过熔断检查的批量 apply；整批失败时退化为逐条 apply，定位到具体失败的 id（失败日志照常写）。
+     */
+    private Set<String> applyChunkPermitted(SyncEntityType entityType,
+                                            List<String> ids,
+                                            SyncAction action,
+                                            DatabaseType sourceDb,
+                                            DatabaseType targetDb,
+                                            SyncExecutor executor,
+                                            Map<String, Object> sources,
+                                            boolean diff) {
+        try {
+            if (sources != null) {
+                executor.applyBatchEntities(entityType, action, ids, sources.values(), sourceDb, diff);
+            } else {
+                executor.applyBatch(entityType, action, ids, sourceDb, diff);
+            }
+            onApplyOutcome(targetDb, null);
+            return Collections.emptySet();
+        } catch (Exception ex) {
+            onApplyOutcome(targetDb, ex);
+            log.warn("[SYNC-BATCH] batch apply failed, fallback to per-id: entityType={}, {} -> {}, size={}, err={}",
+                    entityType, sourceDb, targetDb, ids.size(), ex.getMessage());
+        }
+
+        Set<String> failed = new HashSet<>();
+        for (String id : ids) {
+            if (!syncOneTarget(entityType, id, action, sourceDb, targetDb, executor, LogMode.FAIL_ONLY, sourceRowOf(sources, id), diff)) {
+                failed.add(id);
+            }
         }
+        return failed;
     }
 
     /** 正常业务：同步到指定目标库并写日志。 */
@@ -122,17 +884,17 @@ public class SyncServiceImpl implements SyncService {
                                 SyncAction action,
                                 DatabaseType sourceDb,
                                 DatabaseType targetDb) {
-        return doSyncToTarget(entityType, entityId, action, sourceDb, targetDb, LogMode.ALL);
+        return doSyncToTarget(entityType, entityId, action, sourceDb, targetDb, LogMode.ALL, false);
     }
 
-    /** 重试/修复：只执行同步，不生成新日志。 */
+    /** 重试/修复：只执行同步，不生成新日志；目标库多半已有该行，写入前先比较（开启差异写入时）。 */
     @Override
     public boolean syncToTargetWithoutLog(SyncEntityType entityType,
                                           String entityId,
                                           SyncAction action,
                                           DatabaseType sourceDb,
                                           DatabaseType targetDb) {
-        return doSyncToTarget(entityType, entityId, action, sourceDb, targetDb, LogMode.NONE);
+        return doSyncToTarget(entityType, entityId, action, sourceDb, targetDb, LogMode.NONE, true);
     }
 
     private boolean doSyncToTarget(SyncEntityType entityType,
@@ -140,7 +902,8 @@ public class SyncServiceImpl implements SyncService {
                                    SyncAction action,
                                    DatabaseType sourceDb,
                                    DatabaseType targetDb,
-                                   LogMode logMode) {
+                                   LogMode logMode,
+                                   boolean diff) {
 
         DatabaseType realSource = useDb(sourceDb);
         if (targetDb == null) {
@@ -156,50 +919,239 @@ public class SyncServiceImpl implements SyncService {
             return false;
         }
 
-        return syncOneTarget(entityType, entityId, action, realSource, targetDb, executor, logMode);
+        return syncOneTarget(entityType, entityId, action, realSource, targetDb, executor, logMode, SourceRow.NOT_LOADED, diff);
     }
 
+    /**
+     * 按主键 keyset 分页流式全量同步：每页只取主键，同步完再取下一页，内存占用与表大小无关；
+     * 每页结束后把最后一个主键记为断点，中断后下次从断点继续。
+     */
     @Override
     public void fullSyncEntityFromSource(SyncEntityType entityType, DatabaseType sourceDb) {
         DatabaseType realSource = useDb(sourceDb);
 
-        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
-        BaseMapper<?> sourceMapper = def.getMapper(realSource);
+        SyncMetadataRegistry.EntitySyncDefinition<Object> def = metadataRegistry.getDefinition(entityType);
+        BaseMapper<Object> sourceMapper = def.getMapper(realSource);
         if (sourceMapper == null) {
             throw new IllegalStateException("Source mapper not configured: entityType=" + entityType + ", db=" + realSource);
         }
 
-        @SuppressWarnings("unchecked")
-        List<Object> list = (List<Object>) sourceMapper.selectList(null);
-        if (list == null || list.isEmpty()) {
-            log.info("[SYNC] fullSyncEntityFromSource empty: entityType={}, sourceDb={}", entityType, realSource);
-            return;
+        GlobalProperties.Sync.Full fullCfg = globalProperties.getSync().getFull();
+        int pageSize = Math.max(1, fullCfg.getPageSize());
+        String checkpointKey = "FULL_SYNC:" + entityType;
+        String keyColumn = TableInfoHelper.getTableInfo(def.getEntitySupplier().get().getClass()).getKeyColumn();
+        Function<Object, String> idGetter = def.getIdGetter();
+
+        String cursor = null;
+        long processed = 0;
+        if (fullCfg.isResume()) {
+            SyncCheckpoint cp = checkpointService.get(realSource, checkpointKey);
+            if (cp != null && cp.getCursorId() != null) {
+                cursor = cp.getCursorId();
+                processed = cp.getProcessedCount() == null ? 0 : cp.getProcessedCount();
+                log.info("[SYNC] fullSyncEntityFromSource resume: entityType={}, sourceDb={}, afterId={}, processed={}",
+                        entityType, realSource, cursor, processed);
+            }
         }
 
-        @SuppressWarnings("unchecked")
-        Function<Object, String> idGetter = (Function<Object, String>) def.getIdGetter();
+        log.info("[SYNC] fullSyncEntityFromSource start: entityType={}, sourceDb={}, pageSize={}", entityType, realSource, pageSize);
+        while (true) {
+            QueryWrapper<Object> qw = new QueryWrapper<>();
+            qw.select(keyColumn)
+                    .gt(cursor != null, keyColumn, cursor)
+                    .orderByAsc(keyColumn);
+            // searchCount=false：不额外发 count 语句
+            List<Object> rows = sourceMapper.selectPage(new Page<>(1, pageSize, false), qw).getRecords();
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                String id = idGetter.apply(row);
+                if (id != null && !id.isBlank()) {
+                    ids.add(id);
+                }
+            }
+            fullSyncLimiter.acquire(ids.size());
+            // 全量同步是补偿链路本身，不经过 outbox；目标库大多已一致，走差异写入
+            doSubmitBatchSync(entityType, ids, SyncAction.UPDATE, realSource, true, true);
+
+            cursor = idGetter.apply(rows.get(rows.size() - 1));
+            processed += ids.size();
+            checkpointService.save(realSource, checkpointKey, cursor, null, processed);
 
-        log.info("[SYNC] fullSyncEntityFromSource start: entityType={}, sourceDb={}, total={}", entityType, realSource, list.size());
-        for (Object entity : list) {
-            String id = idGetter.apply(entity);
-            if (id != null && !id.isBlank()) {
-                submitSync(entityType, id, SyncAction.UPDATE, realSource);
+            if (rows.size() < pageSize) {
+                break;
             }
         }
-        log.info("[SYNC] fullSyncEntityFromSource done: entityType={}, sourceDb={}", entityType, realSource);
+
+        checkpointService.clear(realSource, checkpointKey);
+        log.info("[SYNC] fullSyncEntityFromSource done: entityType={}, sourceDb={}, total={}", entityType, realSource, processed);
     }
 
+    /**
+     * 按 (update_time, id) keyset 增量扫描：从“水位线 - 安全余量”开始，只读变更过的行（走 update_time 索引），
+     * 每页同步完把最后一行的 (update_time, id) 存为新水位线。
+     * 物理删除不会体现在 update_time 上，由正常同步链路与每周全量兜底。
+     */
+    @Override
+    public long incrementalSyncEntityFromSource(SyncEntityType entityType, DatabaseType sourceDb) {
+        DatabaseType realSource = useDb(sourceDb);
+
+        SyncMetadataRegistry.EntitySyncDefinition<Object> def = metadataRegistry.getDefinition(entityType);
+        BaseMapper<Object> sourceMapper = def.getMapper(realSource);
+        if (sourceMapper == null) {
+            throw new IllegalStateException("Source mapper not configured: entityType=" + entityType + ", db=" + realSource);
+        }
+
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(def.getEntitySupplier().get().getClass());
+        String keyColumn = tableInfo.getKeyColumn();
+        String timeColumn = UPDATE_TIME_COLUMN;
+        int pageSize = Math.max(1, globalProperties.getSync().getFull().getPageSize());
+        long marginMs = Math.max(0L, globalProperties.getSync().getIncremental().getSafetyMarginMs());
+        String checkpointKey = "INCR_SYNC:" + entityType;
+        Function<Object, String> idGetter = def.getIdGetter();
+
+        // 水位线回退安全余量；首次运行没有水位线，从头扫一遍
+        SyncCheckpoint cp = checkpointService.get(realSource, checkpointKey);
+        LocalDateTime cursorTime = (cp == null || cp.getCursorTime() == null)
+                ? null
+                : cp.getCursorTime().minusNanos(marginMs * 1_000_000L);
+        String cursorId = null;
+
+        long processed = 0;
+        while (true) {
+            QueryWrapper<Object> qw = new QueryWrapper<>();
+            qw.select(keyColumn, timeColumn);
+            if (cursorTime != null) {
+                LocalDateTime t = cursorTime;
+                if (cursorId == null) {
+                    qw.ge(timeColumn, t);
+                } else {
+                    String id = cursorId;
+                    qw.and(w -> w.gt(timeColumn, t).or(o -> o.eq(timeColumn, t).gt(keyColumn, id)));
+                }
+            }
+            qw.orderByAsc(timeColumn, keyColumn);
+
+            List<Object> rows = sourceMapper.selectPage(new Page<>(1, pageSize, false), qw).getRecords();
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                String id = idGetter.apply(row);
+                if (id != null && !id.isBlank()) {
+                    ids.add(id);
+                }
+            }
+            fullSyncLimiter.acquire(ids.size());
+            doSubmitBatchSync(entityType, ids, SyncAction.UPDATE, realSource, false, true);
+
+            Object last = rows.get(rows.size() - 1);
+            cursorTime = (LocalDateTime) tableInfo.getPropertyValue(last, UPDATE_TIME_PROPERTY);
+            cursorId = idGetter.apply(last);
+            processed += ids.size();
+            checkpointService.save(realSource, checkpointKey, cursorId, cursorTime, processed);
+
+            if (rows.size() < pageSize) {
+                break;
+            }
+        }
+
+        if (processed > 0) {
+            log.info("[SYNC] incrementalSync done: entityType={}, sourceDb={}, rows={}, watermark={}",
+                    entityType, realSource, processed, cursorTime);
+        }
+        return processed;
+    }
+
+    @Override
+    public void incrementalSyncAllFromSource(DatabaseType sourceDb) {
+        DatabaseType realSource = useDb(sourceDb);
+        long total = 0;
+        for (List<SyncEntityType> level : metadataRegistry.getSyncLevels()) {
+            for (SyncEntityType type : level) {
+                // 只做业务表；系统表（日志/冲突）不按水位线同步
+                if (!allowWriteSyncLog(type)) continue;
+                try {
+                    total += incrementalSyncEntityFromSource(type, realSource);
+                } catch (Exception ex) {
+                    log.warn("[SYNC] incrementalSync failed: entityType={}, sourceDb={}, err={}",
+                            type, realSource, ex.getMessage(), ex);
+                }
+            }
+        }
+        log.debug("[SYNC] incrementalSyncAllFromSource done: sourceDb={}, rows={}", realSource, total);
+    }
+
+    /**
+     * 按实体依赖拓扑分层推进：前一层全部完成后才开始下一层（目标库外键不会因顺序失败），
+     * 同一层内的实体互不依赖，并行同步；某个实体失败时，依赖它的实体本轮跳过。
+     */
     @Override
     public void fullSyncAllFromSource(DatabaseType sourceDb) {
         DatabaseType realSource = useDb(sourceDb);
-        log.info("[SYNC] fullSyncAllFromSource start: sourceDb={}", realSource);
+        GlobalProperties.Sync.Full fullCfg = globalProperties.getSync().getFull();
+        List<List<SyncEntityType>> levels = metadataRegistry.getSyncLevels();
+        log.info("[SYNC] fullSyncAllFromSource start: sourceDb={}, levels={}, parallelism={}, maxRowsPerSecond={}",
+                realSource, levels, fullCfg.getParallelism(), fullCfg.getMaxRowsPerSecond());
+
+        Set<SyncEntityType> failed = EnumSet.noneOf(SyncEntityType.class);
+        Set<SyncEntityType> skipped = EnumSet.noneOf(SyncEntityType.class);
 
-        for (SyncEntityType type : SyncEntityType.values()) {
-            if (metadataRegistry.supports(type)) {
-                fullSyncEntityFromSource(type, realSource);
+        int threads = Math.max(1, fullCfg.getParallelism());
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = threads == 1 ? null : Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sync-full-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (List<SyncEntityType> level : levels) {
+                Map<SyncEntityType, Future<?>> running = new EnumMap<>(SyncEntityType.class);
+                for (SyncEntityType type : level) {
+                    Set<SyncEntityType> deps = metadataRegistry.getDependencies(type);
+                    if (!Collections.disjoint(deps, failed) || !Collections.disjoint(deps, skipped)) {
+                        skipped.add(type);
+                        log.warn("[SYNC] fullSyncAllFromSource skip: entityType={}, dependsOn={}", type, deps);
+                        continue;
+                    }
+                    // parallelism=1 时在当前线程逐个执行（FutureTask 同样收集异常）
+                    FutureTask<Void> task = new FutureTask<>(() -> fullSyncEntityFromSource(type, realSource), null);
+                    if (pool == null) {
+                        task.run();
+                    } else {
+                        pool.execute(task);
+                    }
+                    running.put(type, task);
+                }
+
+                for (Map.Entry<SyncEntityType, Future<?>> e : running.entrySet()) {
+                    try {
+                        e.getValue().get();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("fullSyncAllFromSource interrupted", ex);
+                    } catch (ExecutionException ex) {
+                        failed.add(e.getKey());
+                        Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                        log.error("[SYNC] fullSyncEntityFromSource failed: entityType={}, sourceDb={}, err={}",
+                                e.getKey(), realSource, cause.getMessage(), cause);
+                    }
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
             }
         }
 
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("fullSyncAllFromSource incomplete: failed=" + failed + ", skipped=" + skipped);
+        }
         log.info("[SYNC] fullSyncAllFromSource done: sourceDb={}", realSource);
     }
 
@@ -210,26 +1162,230 @@ public class SyncServiceImpl implements SyncService {
                                   DatabaseType sourceDb,
                                   DatabaseType targetDb,
                                   SyncExecutor executor,
-                                  LogMode logMode) {
+                                  LogMode logMode,
+                                  SourceRow source,
+                                  boolean diff) {
+        Exception ex = tryApply(executor, entityType, entityId, action, sourceDb, source, diff);
+        return recordOutcome(entityType, entityId, action, sourceDb, targetDb, ex, logMode);
+    }
 
+    /** 只执行 apply：成功返回 null，失败返回异常（不写日志，便于在并行场景由调用线程统一处理）。 */
+    private Exception tryApply(SyncExecutor executor,
+                               SyncEntityType entityType,
+                               String entityId,
+                               SyncAction action,
+                               DatabaseType sourceDb,
+                               SourceRow source,
+                               boolean diff) {
+        CircuitBreaker breaker = breakers.get(executor.targetDb());
+        if (breaker != null && !breaker.allowRequest()) {
+            return CircuitOpenException.INSTANCE;
+        }
         try {
-            executor.applyOne(entityType, action, entityId, sourceDb);
+            if (source.loaded()) {
+                executor.applyEntity(entityType, action, entityId, source.entity(), sourceDb, diff);
+            } else {
+                executor.applyOne(entityType, action, entityId, sourceDb, diff);
+            }
+            onApplyOutcome(executor.targetDb(), null);
+            return null;
+        } catch (Exception ex) {
+            onApplyOutcome(executor.targetDb(), ex);
+            return ex;
+        }
+    }
+
+    /**
+     * 超时后才完成的写入：目标库已是源库行，补记 SUCCESS（超时时写的 FAILED 仍会被重试一次，按源库当前行幂等覆盖）。
+     */
+    private void recordLateSuccess(SyncEntityType entityType,
+                                   String entityId,
+                                   SyncAction action,
+                                   DatabaseType sourceDb,
+                                   DatabaseType targetDb) {
+        log.info("[SYNC] late success after timeout: entityType={}, id={}, action={}, {} -> {}",
+                entityType, entityId, action, sourceDb, targetDb);
+        if (allowWriteSyncLog(entityType)) {
+            publishLog(entityType, entityId, action, sourceDb, targetDb, SyncLogStatus.SUCCESS, "late success after timeout", null);
+        }
+    }
+
+    /** 把 apply 结果计入目标库熔断器：只有可重试的瞬态错误（连接/超时等）算失败，数据类错误说明目标库可达。 */
+    private void onApplyOutcome(DatabaseType targetDb, Exception ex) {
+        CircuitBreaker breaker = breakers.get(targetDb);
+        if (breaker == null) {
+            return;
+        }
+        if (ex != null && SyncStatusDecider.decideOnException(ex) == SyncLogStatus.FAILED) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    /** 目标库熔断中：变更暂存到源库的 sync_pending_change，恢复后由补同步任务批量处理。 */
+    private boolean spillPending(SyncEntityType entityType,
+                                 String entityId,
+                                 SyncAction action,
+                                 DatabaseType sourceDb,
+                                 DatabaseType targetDb) {
+        try {
+            pendingChangeService.save(sourceDb, targetDb, entityType, entityId, action, sourceDb);
+            log.debug("[SYNC-BREAKER] spilled: entityType={}, id={}, action={}, {} -> {}",
+                    entityType, entityId, action, sourceDb, targetDb);
+            return true;
+        } catch (Exception ex) {
+            log.warn("[SYNC-BREAKER] spill failed, fallback to sync_log: entityType={}, id={}, {} -> {}, err={}",
+                    entityType, entityId, sourceDb, targetDb, ex.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public SyncEventBusStats eventBusStats() {
+        return eventBus.stats();
+    }
+
+    @Override
+    public List<SyncWriteStats> writeStats() {
+        List<SyncWriteStats> stats = new ArrayList<>(executors.size());
+        for (SyncExecutor executor : executors) {
+            stats.add(executor.writeStats());
+        }
+        return stats;
+    }
+
+    /**
+     * 补同步：对每个目标库，从其它库读出熔断期间暂存的变更，按 (实体类型, 动作, 源库) 分组走批量 apply。
+     * 目标库仍在熔断中时本轮跳过；熔断到期时第一批即作为探测，成功则熔断器关闭并继续补完。
+     */
+    @Override
+    public int drainPendingChanges() {
+        if (breakers.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        for (DatabaseType targetDb : breakers.keySet()) {
+            for (DatabaseType storeDb : executorMap.keySet()) {
+                if (storeDb != targetDb) {
+                    total += drainPending(storeDb, targetDb);
+                }
+            }
+        }
+        if (total > 0) {
+            log.info("[SYNC-BREAKER] drain done: total={}", total);
+        }
+        return total;
+    }
+
+    private int drainPending(DatabaseType storeDb, DatabaseType targetDb) {
+        CircuitBreaker breaker = breakers.get(targetDb);
+        SyncExecutor executor = executorMap.get(targetDb);
+        int pageSize = Math.max(1, globalProperties.getSync().getBreaker().getDrainPageSize());
 
+        // 依赖层序：写入按父表在前，删除按子表在前
+        Map<SyncEntityType, Integer> rank = new EnumMap<>(SyncEntityType.class);
+        List<List<SyncEntityType>> levels = metadataRegistry.getSyncLevels();
+        for (int i = 0; i < levels.size(); i++) {
+            for (SyncEntityType type : levels.get(i)) rank.put(type, i);
+        }
+        // 先写入（0..n-1），后删除（n+1..2n，层序倒排）
+        int n = levels.size();
+        Comparator<PendingGroup> order = Comparator
+                .comparingInt((PendingGroup g) -> g.action() == SyncAction.DELETE
+                        ? 2 * n - rank.getOrDefault(g.entityType(), 0)
+                        : rank.getOrDefault(g.entityType(), 0))
+                .thenComparing(PendingGroup::toString);
+
+        int drained = 0;
+        String cursor = null;
+        while (true) {
+            // 本页读取之前的时间：之后被再次暂存的变更 updateTime 更新，不会被本页删除
+            // （DATETIME 可能只精确到秒，往前留 1 秒余量；多留的行下一轮再补一次，apply 是幂等的）
+            LocalDateTime readAt = LocalDateTime.now().minusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+            List<SyncPendingChange> page;
+            try {
+                page = pendingChangeService.listPage(storeDb, targetDb, cursor, pageSize);
+            } catch (Exception ex) {
+                log.warn("[SYNC-BREAKER] read pending failed: storeDb={}, targetDb={}, err={}", storeDb, targetDb, ex.getMessage());
+                return drained;
+            }
+            if (page.isEmpty()) {
+                return drained;
+            }
+
+            Map<PendingGroup, List<String>> groups = new TreeMap<>(order);
+            for (SyncPendingChange change : page) {
+                if (!metadataRegistry.supports(change.getEntityType())) continue;
+                groups.computeIfAbsent(new PendingGroup(change.getEntityType(), change.getAction(), useDb(change.getSourceDb())),
+                        g -> new ArrayList<>()).add(change.getEntityId());
+            }
+
+            for (Map.Entry<PendingGroup, List<String>> e : groups.entrySet()) {
+                if (!breaker.allowRequest()) {
+                    log.info("[SYNC-BREAKER] target still unavailable, drain paused: targetDb={}, drained={}", targetDb, drained);
+                    return drained;
+                }
+                PendingGroup g = e.getKey();
+                List<String> ids = e.getValue();
+                Map<String, Object> sources = loadSources(g.entityType(), ids, g.action(), g.sourceDb());
+                Set<String> failed = applyChunkPermitted(g.entityType(), ids, g.action(), g.sourceDb(), targetDb, executor, sources, false);
+                Map<String, Map<DatabaseType, Boolean>> applyOkById = new HashMap<>();
+                for (String id : ids) {
+                    applyOkById.put(id, Map.of(targetDb, !failed.contains(id)));
+                }
+                afterApplyChunk(g.entityType(), ids, g.action(), g.sourceDb(), applyOkById, sources);
+            }
+
+            // 失败的已写 FAILED/ERROR 日志交给重试任务，或因再次熔断被重新暂存（updateTime 晚于 readAt，不会删）
+            List<String> pageIds = new ArrayList<>(page.size());
+            for (SyncPendingChange change : page) pageIds.add(change.getId());
+            // 租约已被接管：不删，留给接管的节点（已补过的行再补一次也是幂等的）
+            TaskLeaseRunner.checkFence();
+            pendingChangeService.remove(storeDb, pageIds, readAt);
+            drained += page.size();
+
+            cursor = page.get(page.size() - 1).getId();
+            if (page.size() < pageSize) {
+                return drained;
+            }
+        }
+    }
+
+    /** 根据 apply 结果按日志模式写 SyncLog，返回是否成功。 */
+    private boolean recordOutcome(SyncEntityType entityType,
+                                  String entityId,
+                                  SyncAction action,
+                                  DatabaseType sourceDb,
+                                  DatabaseType targetDb,
+                                  Exception ex,
+                                  LogMode logMode) {
+        if (ex == null) {
             if (logMode == LogMode.ALL && allowWriteSyncLog(entityType)) {
                 publishLog(entityType, entityId, action, sourceDb, targetDb, SyncLogStatus.SUCCESS, null, null);
             }
             return true;
+        }
 
-        } catch (Exception ex) {
-            log.warn("[SYNC] failed: entityType={}, id={}, action={}, {} -> {}, err={}",
-                    entityType, entityId, action, sourceDb, targetDb, ex.getMessage(), ex);
-
-            if (logMode != LogMode.NONE && allowWriteSyncLog(entityType)) {
-                SyncLogStatus st = SyncStatusDecider.decideOnException(ex);
-                publishLog(entityType, entityId, action, sourceDb, targetDb, st, ex.getMessage(), null);
+        // 熔断中：暂存成功则不写失败日志（避免给重试任务堆积大量 FAILED）
+        if (ex instanceof CircuitOpenException) {
+            if (spillPending(entityType, entityId, action, sourceDb, targetDb)) {
+                return false;
             }
-            return false;
         }
+
+        log.warn("[SYNC] failed: entityType={}, id={}, action={}, {} -> {}, err={}",
+                entityType, entityId, action, sourceDb, targetDb, ex.getMessage(), ex);
+
+        if (logMode != LogMode.NONE && allowWriteSyncLog(entityType)) {
+            SyncLogStatus st = SyncStatusDecider.decideOnException(ex);
+            publishLog(entityType, entityId, action, sourceDb, targetDb, st, ex.getMessage(), null);
+        }
+        return false;
+    }
+
+    private static SourceRow sourceRowOf(Map<String, Object> sources, String id) {
+        return sources == null ? SourceRow.NOT_LOADED : new SourceRow(true, sources.get(id));
     }
 
     /** 过滤掉系统自用表，避免写日志时递归触发同步。 */
@@ -247,7 +1403,7 @@ public class SyncServiceImpl implements SyncService {
                             SyncLogStatus status,
                             String message,
                             String conflictId) {
-        eventPublisher.publishEvent(new SyncLogEvent(
+        eventBus.publish(entityType + "|" + entityId, new SyncLogEvent(
                 entityType, entityId, action, sourceDb, targetDb, status, message, conflictId
         ));
     }
@@ -256,12 +1412,3 @@ public class SyncServiceImpl implements SyncService {
         return (db == null ? DatabaseType.MYSQL : db);
     }
 }
-
-
-
-
-
-
-
-
-
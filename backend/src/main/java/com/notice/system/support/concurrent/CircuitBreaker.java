@@ -0,0 +1,80 @@
+package com.notice.system.support.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 简单熔断器：
+ * <ul>
+ *   <li>CLOSED：正常放行；连续失败 failureThreshold 次后转 OPEN</li>
+ *   <li>OPEN：openMs 内一律拒绝；到期后只放行一个探测请求（HALF_OPEN）</li>
+ *   <li>HALF_OPEN：探测成功转 CLOSED，失败重新 OPEN</li>
+ * </ul>
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private long probeStartedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMs) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(0L, openMs);
+    }
+
+    /** 是否放行本次请求；OPEN 到期时当前调用者成为唯一的探测请求。 */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeStartedAt = System.currentTimeMillis();
+                log.info("[{}] half-open, probing", name);
+                return true;
+            default:
+                // 已有探测在进行中；探测迟迟没有结果（如被取消）时，超过 openMs 再放行一次
+                if (System.currentTimeMillis() - probeStartedAt < openMs) {
+                    return false;
+                }
+                probeStartedAt = System.currentTimeMillis();
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("[{}] closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openUntil = System.currentTimeMillis() + openMs;
+            log.warn("[{}] opened: consecutiveFailures={}, openMs={}", name, consecutiveFailures, openMs);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public boolean isClosed() {
+        return getState() == State.CLOSED;
+    }
+}
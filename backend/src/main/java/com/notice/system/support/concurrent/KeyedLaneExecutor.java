@@ -0,0 +1,183 @@
+package com.notice.system.support.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 key 分道的有界执行器：
+ * <ul>
+ *   <li>每条“车道”一个工作线程 + 一个有界队列，同一 key 固定落在同一车道，保证按提交顺序执行</li>
+ *   <li>队列满时 submit 最多阻塞 offerTimeoutMs，超时返回 false 交给调用方兜底；submitBlocking 一直阻塞到入队（背压）</li>
+ *   <li>shutdown 时会尽量把已入队任务执行完</li>
+ * </ul>
+ */
+@Slf4j
+public class KeyedLaneExecutor {
+
+    private static final long POLL_INTERVAL_MS = 200L;
+
+    private final String name;
+    private final long offerTimeoutMs;
+    private final Lane[] lanes;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public KeyedLaneExecutor(String name, int laneCount, int queueCapacity, long offerTimeoutMs) {
+        this.name = name;
+        this.offerTimeoutMs = Math.max(0L, offerTimeoutMs);
+
+        int n = Math.max(1, laneCount);
+        int cap = Math.max(1, queueCapacity);
+        this.lanes = new Lane[n];
+        for (int i = 0; i < n; i++) {
+            lanes[i] = new Lane(name + "-" + i, cap);
+            lanes[i].thread.start();
+        }
+    }
+
+    /**
+     * 提交任务到 key 对应的车道。
+     *
+     * @return true=已入队；false=执行器已关闭或队列满且等待超时（任务未执行）
+     */
+    public boolean submit(Object key, Runnable task) {
+        return submit(key, task, offerTimeoutMs);
+    }
+
+    /** 同上，队列满时最多等待 timeoutMs（覆盖构造时的 offerTimeoutMs）。 */
+    public boolean submit(Object key, Runnable task, long timeoutMs) {
+        if (!running || task == null) {
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        Lane lane = lane(key);
+        try {
+            if (lane.queue.offer(task, Math.max(0L, timeoutMs), TimeUnit.MILLISECONDS)) {
+                submitted.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 提交任务到 key 对应的车道；队列满时一直阻塞到有空位（不越序、不丢任务）。
+     *
+     * @return true=已入队；false=执行器已关闭或等待时线程被中断（任务未执行）
+     */
+    public boolean submitBlocking(Object key, Runnable task) {
+        if (task == null) {
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        Lane lane = lane(key);
+        try {
+            // 分段等待：关闭后不再继续阻塞
+            while (running) {
+                if (lane.queue.offer(task, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    submitted.incrementAndGet();
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    private Lane lane(Object key) {
+        return lanes[laneIndex(key)];
+    }
+
+    /** key 落在哪条车道：同一车道上的任务按提交顺序执行。 */
+    public int laneIndex(Object key) {
+        return Math.floorMod(key == null ? 0 : key.hashCode(), lanes.length);
+    }
+
+    /** 当前所有车道排队中的任务数。 */
+    public int pendingCount() {
+        int sum = 0;
+        for (Lane lane : lanes) sum += lane.queue.size();
+        return sum;
+    }
+
+    public long submittedCount() {
+        return submitted.get();
+    }
+
+    public long completedCount() {
+        return completed.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /** 停止接收新任务，并在 awaitMs 内尽量执行完已入队任务。 */
+    public void shutdown(long awaitMs) {
+        running = false;
+
+        long deadline = System.currentTimeMillis() + Math.max(0L, awaitMs);
+        for (Lane lane : lanes) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) break;
+            try {
+                lane.thread.join(left);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int left = pendingCount();
+        log.info("[{}] shutdown: submitted={}, completed={}, rejected={}, dropped={}",
+                name, submitted.get(), completed.get(), rejected.get(), left);
+    }
+
+    private final class Lane {
+        private final BlockingQueue<Runnable> queue;
+        private final Thread thread;
+
+        private Lane(String threadName, int capacity) {
+            this.queue = new LinkedBlockingQueue<>(capacity);
+            this.thread = new Thread(this::loop, threadName);
+            this.thread.setDaemon(true);
+        }
+
+        private void loop() {
+            // 关闭后继续把队列里剩余任务执行完再退出
+            while (running || !queue.isEmpty()) {
+                Runnable task;
+                try {
+                    task = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == null) {
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (Throwable ex) {
+                    log.warn("[{}] task failed: {}", name, ex.getMessage(), ex);
+                } finally {
+                    completed.incrementAndGet();
+                }
+            }
+        }
+    }
+}
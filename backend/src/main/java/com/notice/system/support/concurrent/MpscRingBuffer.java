@@ -0,0 +1,94 @@
+package com.notice.system.support.concurrent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界无锁环形缓冲区（多生产者 / 单消费者）：
+ * <ul>
+ *   <li>容量向上取 2 的幂，内存固定，不随写入量增长</li>
+ *   <li>生产者 CAS 抢占写入位置，每个槽位用序号标记“可写 / 可读”，满时 offer 立即返回 false</li>
+ *   <li>只允许一个线程调用 poll / drainTo</li>
+ * </ul>
+ */
+public class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 只由消费者线程写；volatile 供 size() 在其它线程读取 */
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = cap - 1;
+        this.slots = new Object[cap];
+        this.sequences = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /** 当前元素数（并发下为近似值）。 */
+    public int size() {
+        long n = tail.get() - head;
+        return (int) Math.max(0L, Math.min(n, slots.length));
+    }
+
+    /** 写入一个元素；缓冲区已满返回 false。 */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException("element must not be null");
+        while (true) {
+            long t = tail.get();
+            int idx = (int) (t & mask);
+            long diff = sequences.get(idx) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots[idx] = e;
+                    // 序号 = t + 1 表示该槽位已发布，消费者可见
+                    sequences.set(idx, t + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 槽位还没被消费者释放：已满
+                return false;
+            }
+            // diff > 0：被其它生产者抢先，重读 tail
+        }
+    }
+
+    /** 取出一个元素；为空返回 null（仅消费者线程调用）。 */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head;
+        int idx = (int) (h & mask);
+        if (sequences.get(idx) != h + 1) {
+            return null;
+        }
+        E e = (E) slots[idx];
+        slots[idx] = null;
+        // 序号 = h + 容量：该槽位留给下一圈的生产者
+        sequences.set(idx, h + slots.length);
+        head = h + 1;
+        return e;
+    }
+
+    /** 最多取出 max 个元素追加到 sink，返回取出个数（仅消费者线程调用）。 */
+    public int drainTo(List<? super E> sink, int max) {
+        int n = 0;
+        while (n < max) {
+            E e = poll();
+            if (e == null) break;
+            sink.add(e);
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,181 @@
+package com.notice.system.support.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 基于 MpscRingBuffer 的后台批量写入器：
+ * <ul>
+ *   <li>生产者 offer 只写环形缓冲区，不加锁、不做 IO</li>
+ *   <li>单个后台线程攒批：满 batchSize 立即刷，否则最早一条等待超过 flushIntervalMs 时刷</li>
+ *   <li>缓冲区满：BLOCK 最多等待 blockTimeoutMs，DROP 立即放弃；没写入的返回 false 交给调用方兜底</li>
+ *   <li>shutdown 时停止接收，并把缓冲区剩余元素刷完</li>
+ * </ul>
+ */
+@Slf4j
+public class RingBatchWriter<E> {
+
+    public enum OverflowPolicy {
+        /** 缓冲区满时等待消费者腾出空间（最多 blockTimeoutMs） */
+        BLOCK,
+        /** 缓冲区满时立即放弃 */
+        DROP
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final String name;
+    private final MpscRingBuffer<E> ring;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+    private final Consumer<List<E>> sink;
+    private final Thread thread;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public RingBatchWriter(String name,
+                           int capacity,
+                           int batchSize,
+                           long flushIntervalMs,
+                           OverflowPolicy policy,
+                           long blockTimeoutMs,
+                           Consumer<List<E>> sink) {
+        this.name = name;
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, Math.min(batchSize, ring.capacity()));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, flushIntervalMs));
+        this.policy = (policy == null ? OverflowPolicy.BLOCK : policy);
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, blockTimeoutMs));
+        this.sink = sink;
+        this.thread = new Thread(this::loop, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 提交一个元素。
+     *
+     * @return true=已进入缓冲区；false=已关闭或缓冲区满（按策略放弃），调用方自行兜底
+     */
+    public boolean offer(E e) {
+        if (!running || e == null) {
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        boolean ok = ring.offer(e);
+        if (!ok && policy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            LockSupport.unpark(thread);
+            while (!ok && running && System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                ok = ring.offer(e);
+            }
+        }
+        if (!ok) {
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        accepted.incrementAndGet();
+        if (ring.size() >= batchSize) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int pendingCount() {
+        return ring.size();
+    }
+
+    public long acceptedCount() {
+        return accepted.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public long writtenCount() {
+        return written.get();
+    }
+
+    public long flushCount() {
+        return flushes.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    /** 停止接收新元素，并在 awaitMs 内把缓冲区剩余元素刷完。 */
+    public void shutdown(long awaitMs) {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Math.max(1L, awaitMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("[{}] shutdown: accepted={}, written={}, flushes={}, rejected={}, failed={}, dropped={}",
+                name, accepted.get(), written.get(), flushes.get(), rejected.get(), failed.get(), ring.size());
+    }
+
+    private void loop() {
+        List<E> batch = new ArrayList<>(batchSize);
+        // 当前批次最早一条可能的到达时间（空闲入睡时刻），用于计算刷新期限
+        long firstAt = System.nanoTime();
+
+        // 关闭后继续把缓冲区里剩余元素刷完再退出
+        while (running || ring.size() > 0 || !batch.isEmpty()) {
+            ring.drainTo(batch, batchSize - batch.size());
+
+            long waited = System.nanoTime() - firstAt;
+            boolean due = batch.size() >= batchSize || waited >= flushIntervalNanos || !running;
+            if (!batch.isEmpty() && due) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+                firstAt = System.nanoTime();
+                continue;
+            }
+
+            // 空闲时按整个间隔休眠；攒批中只睡到最早一条到期（生产者攒满一批会提前唤醒）
+            if (batch.isEmpty()) {
+                firstAt = System.nanoTime();
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            }
+        }
+    }
+
+    private void flush(List<E> batch) {
+        try {
+            sink.accept(batch);
+            written.addAndGet(batch.size());
+        } catch (Throwable ex) {
+            failed.addAndGet(batch.size());
+            log.warn("[{}] flush failed: size={}, err={}", name, batch.size(), ex.getMessage(), ex);
+        } finally {
+            flushes.incrementAndGet();
+        }
+    }
+}
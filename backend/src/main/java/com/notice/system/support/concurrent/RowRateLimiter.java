@@ -0,0 +1,62 @@
+package com.notice.system.support.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 全局行数限速器（令牌桶）：
+ * <ul>
+ *   <li>每秒补充 rowsPerSecond 个令牌，桶容量 = 1 秒的量（允许短时突发一整秒）</li>
+ *   <li>acquire(n) 按行数扣减，令牌不足时阻塞到补够为止；单次 n 超过桶容量时允许透支，由后续调用等待偿还</li>
+ *   <li>rowsPerSecond &lt;= 0 表示不限速</li>
+ * </ul>
+ * 多个并发的全量同步共享同一个实例，总吞吐受同一上限约束。
+ */
+public class RowRateLimiter {
+
+    private final double permitsPerNano;
+    private final double maxPermits;
+
+    private double storedPermits;
+    private long lastRefillNanos;
+
+    public RowRateLimiter(long rowsPerSecond) {
+        this.permitsPerNano = rowsPerSecond <= 0 ? 0D : rowsPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.maxPermits = Math.max(0L, rowsPerSecond);
+        this.storedPermits = maxPermits;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public boolean isUnlimited() {
+        return permitsPerNano <= 0D;
+    }
+
+    /** 申请 rows 行的配额，必要时阻塞等待（线程被中断时提前返回并保留中断标记）。 */
+    public void acquire(int rows) {
+        if (isUnlimited() || rows <= 0) {
+            return;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            refill(System.nanoTime());
+            storedPermits -= rows;
+            // 余额为负：等到补回 0 为止（透支部分由本次调用者承担等待）
+            waitNanos = storedPermits >= 0 ? 0L : (long) (-storedPermits / permitsPerNano);
+        }
+
+        long deadline = System.nanoTime() + waitNanos;
+        while (waitNanos > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, waitNanos);
+            waitNanos = deadline - System.nanoTime();
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            storedPermits = Math.min(maxPermits, storedPermits + elapsed * permitsPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -21,6 +21,12 @@ public class SyncBatchPostCheckEvent {
      */
     private final Map<DatabaseType, Boolean> targetApplyOk;
 
+    /**
+     * 同步时已读出的源库实体（sourceLoaded=false 表示没有预读，post-check 需自行读取；实体为 null 表示源库不存在）
+     */
+    private final boolean sourceLoaded;
+    private final Object sourceEntity;
+
     /**
      * 监听器回填：若发现冲突则给出 conflictId
      */
@@ -32,11 +38,23 @@ public class SyncBatchPostCheckEvent {
                                    SyncAction action,
                                    DatabaseType sourceDb,
                                    Map<DatabaseType, Boolean> targetApplyOk) {
+        this(entityType, entityId, action, sourceDb, targetApplyOk, false, null);
+    }
+
+    public SyncBatchPostCheckEvent(SyncEntityType entityType,
+                                   String entityId,
+                                   SyncAction action,
+                                   DatabaseType sourceDb,
+                                   Map<DatabaseType, Boolean> targetApplyOk,
+                                   boolean sourceLoaded,
+                                   Object sourceEntity) {
         this.entityType = entityType;
         this.entityId = entityId;
         this.action = action;
         this.sourceDb = sourceDb;
         this.targetApplyOk = targetApplyOk;
+        this.sourceLoaded = sourceLoaded;
+        this.sourceEntity = sourceEntity;
     }
 }
 
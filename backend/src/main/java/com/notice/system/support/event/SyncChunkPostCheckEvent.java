@@ -0,0 +1,48 @@
+package com.notice.system.support.event;
+
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量同步一批 id 结束后的 post-check：监听器一次读取整批三库快照，而不是每个 id 发一次 {@link SyncBatchPostCheckEvent}。
+ */
+@Getter
+public class SyncChunkPostCheckEvent {
+
+    private final SyncEntityType entityType;
+    private final SyncAction action;
+    private final DatabaseType sourceDb;
+
+    /**
+     * 需要检查的 id（至少有一个目标库 apply 成功）
+     */
+    private final List<String> entityIds;
+
+    /**
+     * 同步时已读出的本批源库行：null 表示没有预读；非 null 时不在其中的 id 表示源库不存在
+     */
+    private final Map<String, Object> sourceEntities;
+
+    /**
+     * 监听器回填：entityId -> conflictId（只包含发现冲突的 id）
+     */
+    private final Map<String, String> conflictIds = new HashMap<>();
+
+    public SyncChunkPostCheckEvent(SyncEntityType entityType,
+                                   SyncAction action,
+                                   DatabaseType sourceDb,
+                                   List<String> entityIds,
+                                   Map<String, Object> sourceEntities) {
+        this.entityType = entityType;
+        this.action = action;
+        this.sourceDb = sourceDb;
+        this.entityIds = entityIds;
+        this.sourceEntities = sourceEntities;
+    }
+}
@@ -0,0 +1,120 @@
+package com.notice.system.support.event;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.support.concurrent.KeyedLaneExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 同步事件总线（post-check / 同步日志）：
+ * <ul>
+ *   <li>按实体 key 分道，固定数量的工作线程消费有界队列；同一实体的事件按发布顺序处理</li>
+ *   <li>在工作线程里再发布的事件直接在当前线程处理（本来就在该实体的车道上，且不会自己等自己）</li>
+ *   <li>队列满时发布线程阻塞等待入队（背压），不在发布线程上处理；只有停机后或等待时被中断才在发布线程同步处理</li>
+ *   <li>未开启时等同于直接 {@link ApplicationEventPublisher#publishEvent}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncEventBus {
+
+    private static final ThreadLocal<Boolean> ON_WORKER = new ThreadLocal<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final GlobalProperties globalProperties;
+
+    /** 未开启时为 null */
+    private volatile KeyedLaneExecutor lanes;
+
+    private final AtomicLong inlineFallback = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        GlobalProperties.Sync.EventBus cfg = globalProperties.getSync().getEventBus();
+        if (cfg == null || !cfg.isEnabled()) {
+            return;
+        }
+        // 只用 submitBlocking，不需要 offer 超时
+        lanes = new KeyedLaneExecutor("sync-event", cfg.getWorkers(), cfg.getQueueCapacity(), 0L);
+        log.info("[SYNC-EVENT] bus started: workers={}, queueCapacity={}",
+                cfg.getWorkers(), cfg.getQueueCapacity());
+    }
+
+    /** 停机时停止接收并处理完已入队事件（之后发布的事件在发布线程同步处理）。 */
+    @PreDestroy
+    public void stop() {
+        KeyedLaneExecutor l = lanes;
+        if (l == null) {
+            return;
+        }
+        lanes = null;
+        l.shutdown(globalProperties.getSync().getEventBus().getShutdownAwaitMs());
+    }
+
+    /** 按 key 异步发布一个 Spring 事件（监听器在总线工作线程上执行）。 */
+    public void publish(Object key, Object event) {
+        dispatch(key, () -> eventPublisher.publishEvent(event));
+    }
+
+    /** 按 key 异步执行一段事件处理逻辑（如 post-check 后写日志），与同 key 的其它事件保持顺序。 */
+    public void dispatch(Object key, Runnable task) {
+        KeyedLaneExecutor l = lanes;
+        if (l == null || Boolean.TRUE.equals(ON_WORKER.get())) {
+            task.run();
+            return;
+        }
+
+        long enqueuedAt = System.currentTimeMillis();
+        boolean queued = l.submitBlocking(key, () -> {
+            maxWaitMs.accumulateAndGet(System.currentTimeMillis() - enqueuedAt, Math::max);
+            ON_WORKER.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                ON_WORKER.remove();
+            }
+        });
+        if (!queued) {
+            long n = inlineFallback.incrementAndGet();
+            if (n == 1 || n % 1000 == 0) {
+                log.warn("[SYNC-EVENT] bus stopped or publisher interrupted, run inline: key={}, inlineTotal={}", key, n);
+            }
+            task.run();
+        }
+    }
+
+    /** 在当前线程 dispatch 的任务是否会排队稍后执行（而不是当场执行）：发布时读到的数据到执行时可能已过期。 */
+    public boolean isDeferred() {
+        return lanes != null && !isOnWorker();
+    }
+
+    /** key 所在的车道序号（未开启时为 0）：同一车道上的任务按发布顺序执行。 */
+    public int laneOf(Object key) {
+        KeyedLaneExecutor l = lanes;
+        return l == null ? 0 : l.laneIndex(key);
+    }
+
+    /** 当前线程是否为总线工作线程（在其上发布到其它有界队列时不能无限阻塞，否则可能与那边的线程互相等待）。 */
+    public static boolean isOnWorker() {
+        return Boolean.TRUE.equals(ON_WORKER.get());
+    }
+
+    /** 总线运行统计（进程启动以来累计）；maxWaitMs 为事件入队到开始处理的最长等待。 */
+    public SyncEventBusStats stats() {
+        KeyedLaneExecutor l = lanes;
+        GlobalProperties.Sync.EventBus cfg = globalProperties.getSync().getEventBus();
+        if (l == null) {
+            return new SyncEventBusStats(false, 0, 0, 0L, 0L, inlineFallback.get(), maxWaitMs.get());
+        }
+        return new SyncEventBusStats(true, Math.max(1, cfg.getWorkers()), l.pendingCount(),
+                l.submittedCount(), l.completedCount(), inlineFallback.get(), maxWaitMs.get());
+    }
+}
@@ -0,0 +1,14 @@
+package com.notice.system.support.event;
+
+/**
+ * 同步事件总线统计：pending=排队中；submitted/completed=入队/处理完成累计；
+ * inlineFallback=停机后或发布线程被中断时改为在发布线程同步处理的次数；maxWaitMs=入队到开始处理的最长等待。
+ */
+public record SyncEventBusStats(boolean enabled,
+                                int workers,
+                                int pending,
+                                long submitted,
+                                long completed,
+                                long inlineFallback,
+                                long maxWaitMs) {
+}
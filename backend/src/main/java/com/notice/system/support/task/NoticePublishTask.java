@@ -10,11 +10,17 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class NoticePublishTask {
 
+    private static final long INTERVAL_MS = 30_000L;
+
     private final NoticeService noticeService;
+    private final TaskLeaseRunner leaseRunner;
 
-    @Scheduled(fixedDelay = 30_000)
+    @Scheduled(fixedDelay = INTERVAL_MS)
     public void publishDueNotices() {
-        DatabaseType db = noticeService.defaultDb(); // 建议只扫主库
-        noticeService.publishDueDraftsInDb(db);
+        // 多节点只由持有租约的节点发布，避免重复发布
+        leaseRunner.runExclusive("NOTICE_PUBLISH", INTERVAL_MS, () -> {
+            DatabaseType db = noticeService.defaultDb(); // 建议只扫主库
+            noticeService.publishDueDraftsInDb(db);
+        });
     }
 }
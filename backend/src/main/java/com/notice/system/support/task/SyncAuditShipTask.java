@@ -0,0 +1,41 @@
+package com.notice.system.support.task;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.service.SyncAuditShipService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计表搬运定时任务：
+ *  - 同步日志 / 冲突工单的新增行不逐条同步
+ *  - 定期从主日志库按游标成批复制到其它库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncAuditShipTask {
+
+    private final SyncAuditShipService auditShipService;
+    private final GlobalProperties globalProperties;
+    private final TaskLeaseRunner leaseRunner;
+
+    @Scheduled(fixedDelayString = "${notice.sync.audit-ship.fixed-delay-ms:10000}")
+    public void ship() {
+        GlobalProperties.Sync.AuditShip cfg = globalProperties.getSync().getAuditShip();
+        if (cfg == null || !cfg.isEnabled()) {
+            return;
+        }
+        leaseRunner.runExclusive("SYNC_AUDIT_SHIP", cfg.getFixedDelayMs(), () -> {
+            try {
+                long rows = auditShipService.shipAll();
+                if (rows > 0) {
+                    log.info("[SYNC-AUDIT] ship round done: rows={}", rows);
+                }
+            } catch (Exception ex) {
+                log.warn("[SYNC-AUDIT] ship round failed: {}", ex.getMessage(), ex);
+            }
+        });
+    }
+}
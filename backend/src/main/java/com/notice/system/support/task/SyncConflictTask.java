@@ -1,6 +1,8 @@
 package com.notice.system.support.task;
 
 import com.notice.system.common.GlobalProperties;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.exception.LeaseLostException;
 import com.notice.system.service.SyncConflictService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +10,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -16,9 +20,7 @@ public class SyncConflictTask {
 
     private final SyncConflictService syncConflictService;
     private final GlobalProperties globalProperties;
-
-    // 扫 SUCCESS 日志的游标：单机版够用
-    private volatile LocalDateTime lastSuccessLogScanAt = LocalDateTime.now().minusDays(30);
+    private final TaskLeaseRunner leaseRunner;
 
     @Scheduled(fixedDelayString = "${notice.sync.conflict.job-fixed-delay-ms:300000}")
     public void runConflictJob() {
@@ -28,35 +30,36 @@ public class SyncConflictTask {
 
         LocalDateTime now = LocalDateTime.now();
 
-        // 这些也可以放 cfg；课设就先写死也行
-        int detectPerDbLimit = 200;
-        int detectEntityLimit = 200;
+        // ====== A 先按持久化游标扫描 SUCCESS 日志发现新冲突（重启不重扫，多节点按分片租约分摊） ======
+        int shardCount = Math.min(16, Math.max(1, cfg.getScanShardCount()));
+        List<Integer> owned = ownedShards(cfg, shardCount);
+        for (DatabaseType db : DatabaseType.all()) {
+            // 游标持久化，分片被别的节点重复扫到也只是从游标继续：扫完立即释放租约
+            leaseRunner.runSharded("CONFLICT_SCAN:" + db, shardCount, 0L, owned::contains, shard -> {
+                try {
+                    syncConflictService.detectNewConflictsByCursor(db, shard, shardCount, now);
+                } catch (Exception e) {
+                    log.warn("[CONFLICT-JOB] cursor scan failed, db={}, shard={}/{}, err={}",
+                            db, shard, shardCount, e.getMessage(), e);
+                }
+            });
+        }
 
+        // ====== B / C 重检与通知只需要一个节点做 ======
+        leaseRunner.runExclusive("CONFLICT_RECHECK", cfg.getRecheckFixedDelayMs(), () -> recheckAndNotify(cfg, now));
+        log.info("[SyncConflictTask] 冲突检测Task结束");
+    }
+
+    private void recheckAndNotify(GlobalProperties.Sync.Conflict cfg, LocalDateTime now) {
         int recheckLimit = cfg.getRecheckLimit() <= 0 ? 50 : cfg.getRecheckLimit();
         int notifyLimit  = cfg.getNotifyLimit()  <= 0 ? 20 : cfg.getNotifyLimit();
 
-        // ====== A 先扫描 SUCCESS 日志发现新冲突 ======
-        LocalDateTime from = lastSuccessLogScanAt;
-        lastSuccessLogScanAt = now;
-
-        int found;
-        try {
-            found = syncConflictService.detectNewConflictsFromSuccessLogs(
-                    from, now, detectPerDbLimit, detectEntityLimit
-            );
-            if (found > 0) {
-                log.info("[CONFLICT-JOB] detectNewFromSuccessLogs done, from={}, to={}, found={}",
-                        from, now, found);
-            }
-        } catch (Exception e) {
-            log.warn("[CONFLICT-JOB] detectNewFromSuccessLogs failed, from={}, to={}, err={}",
-                    from, now, e.getMessage(), e);
-        }
-
         // ====== B 再重检 OPEN 冲突（刷新 items/自动结单/重开） ======
         try {
             int n = syncConflictService.recheckOpenConflicts(now, recheckLimit);
             if (n > 0) log.info("[CONFLICT-JOB] recheckOpen done, count={}", n);
+        } catch (LeaseLostException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("[CONFLICT-JOB] recheckOpen failed, err={}", e.getMessage(), e);
         }
@@ -65,10 +68,21 @@ public class SyncConflictTask {
         try {
             int sent = syncConflictService.notifyPendingConflicts(now, notifyLimit);
             if (sent > 0) log.info("[CONFLICT-JOB] notifyPending done, sent={}", sent);
+        } catch (LeaseLostException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("[CONFLICT-JOB] notifyPending failed, err={}", e.getMessage(), e);
         }
-        log.info("[SyncConflictTask] 冲突检测Task结束");
+    }
+
+    /** 本节点负责的分片：未配置时负责全部；越界的序号忽略。 */
+    private static List<Integer> ownedShards(GlobalProperties.Sync.Conflict cfg, int shardCount) {
+        List<Integer> configured = cfg.getScanShards();
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            if (configured == null || configured.isEmpty() || configured.contains(i)) out.add(i);
+        }
+        return out;
     }
 }
 
@@ -1,6 +1,7 @@
 package com.notice.system.support.task;
 
 import com.notice.system.common.GlobalProperties;
+import com.notice.system.service.SyncReconcileService;
 import com.notice.system.service.SyncService;
 import com.notice.system.entityEnum.DatabaseType;
 import lombok.RequiredArgsConstructor;
@@ -8,10 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * 全量同步定时任务：
- *  - 定期从某个源库对所有实体执行全量同步
- *  - 实现“每日/每周全库校验纠偏”的效果
+ *  - 每隔几分钟按 update_time 水位线做增量同步（只扫变更过的行）
+ *  - 定期从某个源库对所有实体执行全量同步，作为每周兜底纠偏
  */
 @Slf4j
 @Component
@@ -19,14 +22,36 @@ import org.springframework.stereotype.Component;
 public class SyncFullTask {
 
     private final SyncService syncService;
+    private final SyncReconcileService syncReconcileService;
     private final GlobalProperties globalProperties;
+    private final TaskLeaseRunner leaseRunner;
+
+    /** Cron 任务结束后继续占用租约的时长：各节点时钟有偏差时，晚触发的节点不会再跑一遍 */
+    private static final long CRON_HOLD_MS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * 增量同步：notice.sync.incremental.fixed-delay-ms 控制间隔
+     */
+    @Scheduled(fixedDelayString = "${notice.sync.incremental.fixed-delay-ms:300000}",
+            initialDelayString = "${notice.sync.incremental.fixed-delay-ms:300000}")
+    public void incrementalSyncAll() {
+        GlobalProperties.Sync.Incremental incCfg = globalProperties.getSync().getIncremental();
+        if (incCfg == null || !incCfg.isEnabled()) {
+            return;
+        }
+
+        DatabaseType sourceDb = globalProperties.getSync().getFull().getSourceDb();
+        DatabaseType db = (sourceDb == null ? DatabaseType.MYSQL : sourceDb);
+        leaseRunner.runExclusive("SYNC_INCREMENTAL", incCfg.getFixedDelayMs(),
+                () -> syncService.incrementalSyncAllFromSource(db));
+    }
 
     /**
      * 定时全量同步的 Cron 从配置中读取：
      *  - notice.sync.full.cron
-     *  - 默认 "0 0 3 * * ?"（每天凌晨 3 点）
+     *  - 默认 "0 0 3 ? * SUN"（每周日凌晨 3 点）
      */
-    @Scheduled(cron = "${notice.sync.full.cron:0 0 3 * * ?}")
+    @Scheduled(cron = "${notice.sync.full.cron:0 0 3 ? * SUN}")
     public void fullSyncAll() {
         GlobalProperties.Sync.Full fullCfg = globalProperties.getSync().getFull();
         if (!fullCfg.isEnabled()) {
@@ -34,11 +59,23 @@ public class SyncFullTask {
             return;
         }
 
+        leaseRunner.runExclusive("SYNC_FULL", CRON_HOLD_MS, () -> fullSyncAll(fullCfg));
+    }
+
+    private void fullSyncAll(GlobalProperties.Sync.Full fullCfg) {
         DatabaseType sourceDb = fullCfg.getSourceDb();
         if (sourceDb == null) {
             sourceDb = DatabaseType.MYSQL;
         }
 
+        // RECONCILE：分桶 hash 对账，只处理不一致的行
+        if ("RECONCILE".equalsIgnoreCase(fullCfg.getMode())) {
+            log.info("[SYNC-FULL] 定时对账开始，源库={}", sourceDb);
+            int diffs = syncReconcileService.reconcileAll(sourceDb);
+            log.info("[SYNC-FULL] 定时对账结束，源库={}，不一致行数={}", sourceDb, diffs);
+            return;
+        }
+
         log.info("[SYNC-FULL] 定时全量同步开始，源库={}", sourceDb);
         syncService.fullSyncAllFromSource(sourceDb);
         log.info("[SYNC-FULL] 定时全量同步结束，源库={}", sourceDb);
@@ -2,13 +2,18 @@ package com.notice.system.support.task;
 
 import com.notice.system.common.GlobalProperties;
 import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.exception.LeaseLostException;
 import com.notice.system.service.SyncLogService;
+import com.notice.system.vo.synclog.SyncLogPurgeVo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-/** 定时清理三库 sync_log，避免日志无限膨胀。 */
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** 定时清理三库 sync_log，避免日志无限膨胀（分批限速，见 notice.sync.log-clean）。 */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -16,23 +21,38 @@ public class SyncLogCleanTask {
 
     private final GlobalProperties globalProperties;
     private final SyncLogService syncLogService;
+    private final TaskLeaseRunner leaseRunner;
 
-    @Scheduled(cron = "0 0 3 * * ?")
-    public void cleanSchedule() {
-        // 没有单独 logClean.enabled 时，就直接执行；后面想加配置再加
-        int retainDays = 90;
-        long maxCount = 100000L;
-
-        log.info("[SYNC_LOG_CLEAN] start: retainDays={}, maxCount={}", retainDays, maxCount);
+    /** 清理结束后继续占用租约的时长：各节点 Cron 有时钟偏差时不会重复清理 */
+    private static final long CRON_HOLD_MS = TimeUnit.HOURS.toMillis(1);
 
-        long totalDeleted = 0L;
-        for (DatabaseType db : DatabaseType.values()) {
-            totalDeleted += syncLogService.cleanLogsInDb(db, retainDays, maxCount);
+    @Scheduled(cron = "${notice.sync.log-clean.cron:0 30 4 * * ?}")
+    public void cleanSchedule() {
+        GlobalProperties.Sync.LogClean cfg = globalProperties.getSync().getLogClean();
+        if (!cfg.isEnabled()) {
+            return;
         }
 
-        log.info("[SYNC_LOG_CLEAN] done: deleted={}", totalDeleted);
+        log.info("[SYNC_LOG_CLEAN] start: retainDays={}, maxCount={}, mode={}",
+                cfg.getRetainDays(), cfg.getMaxCount(), cfg.getMode());
+
+        // 每个库一个分片租约：多节点时各清各的库，不重复清理
+        DatabaseType[] dbs = DatabaseType.values();
+        AtomicLong totalDeleted = new AtomicLong();
+        AtomicLong totalElapsedMs = new AtomicLong();
+        leaseRunner.runSharded("SYNC_LOG_CLEAN", dbs.length, CRON_HOLD_MS, shard -> {
+            DatabaseType db = dbs[shard];
+            try {
+                SyncLogPurgeVo r = syncLogService.cleanLogsInDb(db, cfg.getRetainDays(), cfg.getMaxCount());
+                totalDeleted.addAndGet(r.getDeleted() + r.getPartitionRowsEstimated());
+                totalElapsedMs.addAndGet(r.getElapsedMs());
+            } catch (LeaseLostException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                log.warn("[SYNC_LOG_CLEAN] db={} failed: {}", db, ex.getMessage(), ex);
+            }
+        });
+
+        log.info("[SYNC_LOG_CLEAN] done: deleted={}, elapsedMs={}", totalDeleted.get(), totalElapsedMs.get());
     }
 }
-
-
-
@@ -0,0 +1,40 @@
+package com.notice.system.support.task;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.service.SyncLogRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** 定时把三库 sync_log 已结束的小时汇总到 sync_log_hourly，报表与聚合接口优先读汇总表。 */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncLogRollupTask {
+
+    private final GlobalProperties globalProperties;
+    private final SyncLogRollupService rollupService;
+    private final TaskLeaseRunner leaseRunner;
+
+    @Scheduled(fixedDelayString = "${notice.sync.log-rollup.fixed-delay-ms:300000}")
+    public void rollup() {
+        GlobalProperties.Sync.LogRollup cfg = globalProperties.getSync().getLogRollup();
+        if (cfg == null || !cfg.isEnabled()) {
+            return;
+        }
+        // 每个库一个分片租约
+        List<DatabaseType> dbs = DatabaseType.syncDbs();
+        leaseRunner.runSharded("SYNC_LOG_ROLLUP", dbs.size(), cfg.getFixedDelayMs(), shard -> {
+            DatabaseType db = dbs.get(shard);
+            try {
+                rollupService.rollup(db);
+            } catch (Exception ex) {
+                log.warn("[SYNC_LOG_ROLLUP] failed: db={}, err={}", db, ex.getMessage(), ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.notice.system.support.task;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entity.SyncOutbox;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.service.SyncOutboxService;
+import com.notice.system.service.SyncService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * outbox relay：
+ *  - relayWorkers 个工作线程轮流从各库的 sync_outbox 领取一批变更（跳过其它 relay 已锁住的行，互不阻塞）
+ *  - 同一批内同一实体只保留最后一次变更，再按 (实体类型, 动作) 分组走批量同步
+ *  - 推送完成后删除记录；中途崩溃则租约到期后被重新领取（至少一次，apply 幂等）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncOutboxRelay {
+
+    private final SyncService syncService;
+    private final SyncOutboxService outboxService;
+    private final GlobalProperties globalProperties;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    /** 批内分组：同实体类型 + 同动作 + 同源库走一次批量同步。 */
+    private record RelayGroup(SyncEntityType entityType, SyncAction action, DatabaseType sourceDb) {
+    }
+
+    @PostConstruct
+    public void start() {
+        GlobalProperties.Sync.Outbox cfg = globalProperties.getSync().getOutbox();
+        if (cfg == null || !cfg.isEnabled()) {
+            return;
+        }
+
+        running = true;
+        String node = ManagementFactory.getRuntimeMXBean().getName();
+        for (int i = 0; i < Math.max(1, cfg.getRelayWorkers()); i++) {
+            String owner = node + "-" + i;
+            Thread t = new Thread(() -> loop(owner), "sync-outbox-relay-" + i);
+            t.setDaemon(true);
+            t.start();
+            workers.add(t);
+        }
+        log.info("[SYNC-OUTBOX] relay started: workers={}, batchSize={}, leaseMs={}",
+                workers.size(), cfg.getBatchSize(), cfg.getLeaseMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        long awaitMs = globalProperties.getSync().getAsync().getShutdownAwaitMs();
+        long deadline = System.currentTimeMillis() + awaitMs;
+        for (Thread t : workers) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) break;
+            try {
+                t.join(left);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void loop(String owner) {
+        GlobalProperties.Sync.Outbox cfg = globalProperties.getSync().getOutbox();
+        while (running) {
+            int handled = 0;
+            for (DatabaseType db : DatabaseType.syncDbs()) {
+                try {
+                    handled += relayOnce(db, owner, cfg);
+                } catch (Exception ex) {
+                    log.warn("[SYNC-OUTBOX] relay round failed: db={}, err={}", db, ex.getMessage(), ex);
+                }
+            }
+            if (handled == 0) {
+                try {
+                    Thread.sleep(Math.max(1L, cfg.getPollIntervalMs()));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** 从 db 的 outbox 领取一批并推送，返回处理条数。 */
+    private int relayOnce(DatabaseType db, String owner, GlobalProperties.Sync.Outbox cfg) {
+        List<SyncOutbox> rows;
+        try {
+            rows = outboxService.claim(db, owner, cfg.getBatchSize(), cfg.getLeaseMs());
+        } catch (Exception ex) {
+            log.warn("[SYNC-OUTBOX] claim failed: db={}, err={}", db, ex.getMessage());
+            return 0;
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // 同一实体只保留序号最大的一次变更（rows 已按序号升序）
+        Map<String, SyncOutbox> latest = new LinkedHashMap<>();
+        for (SyncOutbox row : rows) {
+            String key = row.getEntityType() + "|" + row.getEntityId();
+            latest.remove(key);
+            latest.put(key, row);
+        }
+
+        Map<RelayGroup, List<String>> groups = new LinkedHashMap<>();
+        for (SyncOutbox row : latest.values()) {
+            groups.computeIfAbsent(new RelayGroup(row.getEntityType(), row.getAction(), row.getSourceDb()),
+                    g -> new ArrayList<>()).add(row.getEntityId());
+        }
+
+        try {
+            groups.forEach((g, ids) -> syncService.relayBatch(g.entityType(), ids, g.action(), g.sourceDb()));
+        } catch (Exception ex) {
+            // 不删除：租约到期后重新领取
+            log.warn("[SYNC-OUTBOX] relay failed, will retry after lease: db={}, size={}, err={}",
+                    db, rows.size(), ex.getMessage(), ex);
+            return rows.size();
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (SyncOutbox row : rows) ids.add(row.getId());
+        outboxService.remove(db, ids);
+        log.debug("[SYNC-OUTBOX] relayed: db={}, rows={}, entities={}, groups={}", db, rows.size(), latest.size(), groups.size());
+        return rows.size();
+    }
+}
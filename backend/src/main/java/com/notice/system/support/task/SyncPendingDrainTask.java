@@ -0,0 +1,41 @@
+package com.notice.system.support.task;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.exception.LeaseLostException;
+import com.notice.system.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 熔断补同步定时任务：
+ *  - 目标库熔断期间，变更暂存在 sync_pending_change
+ *  - 目标库恢复（或熔断到期可探测）后，把暂存变更按批补同步过去
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncPendingDrainTask {
+
+    private final SyncService syncService;
+    private final GlobalProperties globalProperties;
+    private final TaskLeaseRunner leaseRunner;
+
+    @Scheduled(fixedDelayString = "${notice.sync.breaker.drain-fixed-delay-ms:30000}")
+    public void drainPending() {
+        GlobalProperties.Sync.Breaker breakerCfg = globalProperties.getSync().getBreaker();
+        if (breakerCfg == null || !breakerCfg.isEnabled()) {
+            return;
+        }
+        leaseRunner.runExclusive("SYNC_PENDING_DRAIN", breakerCfg.getDrainFixedDelayMs(), () -> {
+            try {
+                syncService.drainPendingChanges();
+            } catch (LeaseLostException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                log.warn("[SYNC-BREAKER] drain failed: {}", ex.getMessage(), ex);
+            }
+        });
+    }
+}
@@ -1,24 +1,26 @@
 package com.notice.system.support.task;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.notice.system.common.GlobalProperties;
 import com.notice.system.entity.SyncLog;
 import com.notice.system.service.SyncLogService;
 import com.notice.system.entityEnum.DatabaseType;
-import com.notice.system.entityEnum.SyncEntityType;
-import com.notice.system.entityEnum.SyncLogStatus;
-import com.notice.system.sync.SyncMetadataRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 同步失败自动重试定时任务：
- *  - 只扫描 FAILED（可重试）状态的 sync_log
+ *  - 只扫描 FAILED（可重试）且已到期（next_retry_at 为空或已过）的 sync_log，分页拉取，单轮有页数上限
+ *  - 同一实体 + 目标库只重试最新一条日志（重试按源库当前行同步），被覆盖的旧日志直接收敛为它的结果
+ *  - 按目标库分组并行重试，每个目标库最多 perTargetConcurrency 个线程；仍失败的按指数退避推迟
  *  - ERROR / CONFLICT 不重试（分别代表：不可恢复错误 / 工单冲突）
  */
 @Slf4j
@@ -26,9 +28,38 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SyncRetryTask {
 
-    private final SyncMetadataRegistry metadataRegistry;
+    /** 日志默认落 MYSQL（并同步到其他库）；为了避免重复重试，任务只扫 MYSQL */
+    private static final DatabaseType LOG_DB = DatabaseType.MYSQL;
+
     private final SyncLogService syncLogService;
     private final GlobalProperties globalProperties;
+    private final TaskLeaseRunner leaseRunner;
+
+    private ThreadPoolExecutor retryPool;
+
+    @PostConstruct
+    public void initRetryPool() {
+        int threads = DatabaseType.syncDbs().size() * perTarget(globalProperties.getSync().getRetry());
+        AtomicInteger seq = new AtomicInteger();
+        // 池满时由调度线程直接执行（退化为串行）
+        retryPool = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread t = new Thread(r, "sync-retry-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        retryPool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdownRetryPool() {
+        if (retryPool != null) {
+            retryPool.shutdown();
+        }
+    }
 
     /**
      * 每 fixedDelayMs 毫秒执行一次重试任务
@@ -40,59 +71,138 @@ public class SyncRetryTask {
         if (retryCfg == null || !retryCfg.isEnabled()) {
             return;
         }
+        // 多节点同时重试会在 retry_count 上互相竞争：只由持有租约的节点执行
+        leaseRunner.runExclusive("SYNC_RETRY", retryCfg.getFixedDelayMs(), () -> retryFailed(retryCfg));
+    }
 
+    private void retryFailed(GlobalProperties.Sync.Retry retryCfg) {
         int maxRetry = retryCfg.getMaxRetryCount();
         if (maxRetry <= 0) maxRetry = 3;
+        int pageSize = Math.max(1, retryCfg.getPageSize());
+        int maxPages = Math.max(1, retryCfg.getMaxPages());
+        int perTarget = perTarget(retryCfg);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        // 本轮已见过的日志（写回失败时同一页会被再次拉到，避免死循环）
+        Set<String> seen = new HashSet<>();
+        // 本轮已重试过的实体 -> 重试后的日志（后续页出现的更早变更直接收敛为它的结果）
+        Map<String, SyncLog> handled = new HashMap<>();
+
+        int pages = 0;
+        int retried = 0;
+        int superseded = 0;
+        AtomicInteger ok = new AtomicInteger();
+
+        while (pages < maxPages) {
+            List<SyncLog> page = syncLogService.listDueRetries(LOG_DB, now, maxRetry, pageSize);
+            if (page.isEmpty()) break;
+            pages++;
+
+            // 1) 去重：页内按 create_time 升序，同一实体保留最后一条，其余记为被覆盖
+            Map<String, SyncLog> latest = new LinkedHashMap<>();
+            Map<String, List<String>> covered = new HashMap<>();
+            for (SyncLog l : page) {
+                if (!seen.add(l.getId())) continue;
+                String key = dedupKey(l);
+
+                SyncLog done = handled.get(key);
+                if (done != null && l.getCreateTime() != null && !l.getCreateTime().isAfter(now)) {
+                    // 本轮开始前的变更，已被本轮那次重试（读源库当前行）覆盖
+                    covered.computeIfAbsent(key, k -> new ArrayList<>()).add(l.getId());
+                    continue;
+                }
+                SyncLog prev = latest.remove(key);
+                if (prev != null) {
+                    covered.computeIfAbsent(key, k -> new ArrayList<>()).add(prev.getId());
+                }
+                latest.put(key, l);
+            }
+            if (latest.isEmpty() && covered.isEmpty()) break;
+
+            // 2) 按目标库分组并行重试
+            retried += latest.size();
+            retryInParallel(latest.values(), perTarget, ok);
+            handled.putAll(latest);
+
+            // 3) 被覆盖的旧日志一条 UPDATE 收敛为最新日志的结果（租约已被接管则停止本轮）
+            TaskLeaseRunner.checkFence();
+            for (Map.Entry<String, List<String>> e : covered.entrySet()) {
+                try {
+                    superseded += syncLogService.settleSuperseded(LOG_DB, e.getValue(), handled.get(e.getKey()));
+                } catch (Exception ex) {
+                    log.warn("[SYNC-RETRY] settle superseded failed, key={}, count={}, err={}",
+                            e.getKey(), e.getValue().size(), ex.getMessage());
+                }
+            }
 
-        // 从 SyncMetadataRegistry 获取 SYNC_LOG 在各库的 Mapper
-        SyncMetadataRegistry.EntitySyncDefinition<SyncLog> def =
-                metadataRegistry.getDefinition(SyncEntityType.SYNC_LOG);
-        if (def == null) {
-            log.warn("[SYNC-RETRY] 未在 SyncMetadataRegistry 中找到 SYNC_LOG 定义");
-            return;
+            if (page.size() < pageSize) break;
         }
 
-        long totalCount = 0L;
+        if (retried > 0 || superseded > 0) {
+            log.info("[SYNC-RETRY] round done: db={}, pages={}, retried={}, ok={}, superseded={}",
+                    LOG_DB, pages, retried, ok.get(), superseded);
+        }
+    }
 
-        // 你现在日志默认落 MYSQL（并同步到其他库）；为了避免重复重试，任务只扫 MYSQL 即可
-        for (DatabaseType db : new DatabaseType[]{DatabaseType.MYSQL}) {
-            BaseMapper<SyncLog> mapper = def.getMapper(db);
-            if (mapper == null) {
-                log.warn("[SYNC-RETRY] 未找到 {} 库的 SyncLog Mapper，跳过", db);
+    /** 每个目标库一个队列（保持 create_time 先后），最多 perTarget 个线程同时领取。 */
+    private void retryInParallel(Collection<SyncLog> logs, int perTarget, AtomicInteger ok) {
+        // 重试线程不持有租约：每条重试（会更新 retry_count）前用调度线程的租约校验
+        Runnable fence = TaskLeaseRunner.currentFence();
+        Map<DatabaseType, Queue<SyncLog>> byTarget = new EnumMap<>(DatabaseType.class);
+        for (SyncLog l : logs) {
+            if (l.getTargetDb() == null) {
+                // 字段缺失：retrySyncLog 会直接标记 ERROR，不必占用线程
+                fence.run();
+                retryOne(l, ok);
                 continue;
             }
+            byTarget.computeIfAbsent(l.getTargetDb(), k -> new ConcurrentLinkedQueue<>()).add(l);
+        }
 
-            List<SyncLog> failedLogs = mapper.selectList(
-                    new LambdaQueryWrapper<SyncLog>()
-                            .eq(SyncLog::getStatus, SyncLogStatus.FAILED)
-                            .lt(SyncLog::getRetryCount, maxRetry)
-                            .orderByAsc(SyncLog::getCreateTime) // 可选：先重试最早的
-            );
-
-            if (failedLogs == null || failedLogs.isEmpty()) {
-                continue;
+        List<Future<?>> futures = new ArrayList<>();
+        for (Queue<SyncLog> queue : byTarget.values()) {
+            int workers = Math.min(perTarget, queue.size());
+            for (int i = 0; i < workers; i++) {
+                futures.add(retryPool.submit(() -> {
+                    SyncLog l;
+                    while ((l = queue.poll()) != null) {
+                        fence.run();
+                        retryOne(l, ok);
+                    }
+                }));
             }
+        }
 
-            log.info("[SYNC-RETRY] {} 库需要重试的 FAILED 记录数量={}", db, failedLogs.size());
-            totalCount += failedLogs.size();
-
-            for (SyncLog logRecord : failedLogs) {
-                boolean ok = syncLogService.retrySyncByLogId(db, logRecord.getId());
-                if (!ok) {
-                    log.debug("[SYNC-RETRY] 单条重试失败或跳过，db={}，logId={}", db, logRecord.getId());
-                }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("[SYNC-RETRY] retry worker failed, err={}", e.getCause() == null ? e : e.getCause().toString());
             }
         }
+    }
 
-        if (totalCount > 0) {
-            log.info("[SYNC-RETRY] 本轮重试任务结束，共尝试重试 {} 条 FAILED 记录", totalCount);
+    private void retryOne(SyncLog l, AtomicInteger ok) {
+        try {
+            if (syncLogService.retrySyncLog(LOG_DB, l)) {
+                ok.incrementAndGet();
+            } else {
+                log.debug("[SYNC-RETRY] 单条重试失败或跳过，db={}，logId={}", LOG_DB, l.getId());
+            }
+        } catch (Exception e) {
+            log.warn("[SYNC-RETRY] retry error, logId={}, err={}", l.getId(), e.getMessage());
         }
     }
-}
-
-
-
-
-
 
+    private static String dedupKey(SyncLog l) {
+        return l.getEntityType() + "|" + l.getEntityId() + "|" + l.getTargetDb();
+    }
 
+    private static int perTarget(GlobalProperties.Sync.Retry cfg) {
+        return (cfg == null ? 2 : Math.max(1, cfg.getPerTargetConcurrency()));
+    }
+}
@@ -0,0 +1,263 @@
+package com.notice.system.support.task;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entity.SyncLease;
+import com.notice.system.exception.LeaseLostException;
+import com.notice.system.service.SyncLeaseService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * 定时任务租约执行器：
+ * <ul>
+ *   <li>runExclusive：抢到租约才执行，执行期间后台每 ttl/3 续期；结束后保持 holdMs，同一周期其它节点不会再跑一次</li>
+ *   <li>runSharded：大任务拆成 shardCount 个分片，每个分片一个租约，本节点并行执行抢到的分片；
+ *       分片不可重入、每轮随机顺序，多个节点轮流分摊而不是总落在同一节点</li>
+ *   <li>续期失败（租约过期被其它节点接管，fencing token 已变）后，job 在下一次受保护写入（{@link #checkFence()}）时终止</li>
+ *   <li>notice.sync.lease.enabled=false 时直接执行（单机部署）；开启时启动检查 sync_lease 表，不可用直接启动失败</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskLeaseRunner {
+
+    /** 当前线程正在执行的 job 持有的租约 */
+    private static final ThreadLocal<Held> CURRENT = new ThreadLocal<>();
+
+    private final SyncLeaseService leaseService;
+    private final GlobalProperties globalProperties;
+
+    private ScheduledThreadPoolExecutor heartbeat;
+    private ExecutorService shardPool;
+
+    @PostConstruct
+    public void start() {
+        GlobalProperties.Sync.Lease cfg = globalProperties.getSync().getLease();
+        if (cfg != null && cfg.isEnabled()) {
+            leaseService.checkAvailable();
+        }
+
+        heartbeat = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "task-lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.setRemoveOnCancelPolicy(true);
+
+        int parallelism = Math.max(1, cfg == null ? 1 : cfg.getShardParallelism());
+        AtomicInteger seq = new AtomicInteger();
+        shardPool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "task-lease-shard-" + seq.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        if (shardPool != null) {
+            shardPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 受租约保护的写入（任务断点等）前调用：按 fencing token 校验当前线程的租约仍由本节点持有（顺带续期），
+     * 已被接管则抛 {@link LeaseLostException} 终止 job。不在租约内执行时什么也不做。
+     */
+    public static void checkFence() {
+        Held held = CURRENT.get();
+        if (held != null) {
+            held.check();
+        }
+    }
+
+    /**
+     * 当前线程租约的 fence：job 把受保护的写入交给其它线程（线程池）执行时，在提交前取出，由工作线程在写入前调用。
+     * 不在租约内执行时返回空操作。
+     */
+    public static Runnable currentFence() {
+        Held held = CURRENT.get();
+        return held == null ? () -> { } : held::check;
+    }
+
+    /**
+     * 抢到 leaseKey 的租约才执行 job。
+     *
+     * @param holdMs 执行结束后继续占用的时长（一般取任务间隔），期间其它节点跳过
+     * @return true=本节点执行了 job 且期间没有丢失租约
+     */
+    public boolean runExclusive(String leaseKey, long holdMs, Runnable job) {
+        return runExclusive(leaseKey, holdMs, true, job);
+    }
+
+    private boolean runExclusive(String leaseKey, long holdMs, boolean reentrant, Runnable job) {
+        GlobalProperties.Sync.Lease cfg = globalProperties.getSync().getLease();
+        if (cfg == null || !cfg.isEnabled()) {
+            job.run();
+            return true;
+        }
+
+        long ttlMs = Math.max(1000L, cfg.getTtlMs());
+        SyncLease lease;
+        try {
+            lease = leaseService.tryAcquire(leaseKey, ttlMs, reentrant);
+        } catch (Exception ex) {
+            // 租约库不可用时不执行：宁可少跑一轮，也不让多个节点同时跑
+            log.warn("[SYNC-LEASE] acquire failed, skip: key={}, err={}", leaseKey, ex.getMessage());
+            return false;
+        }
+        if (lease == null) {
+            log.debug("[SYNC-LEASE] held by another node, skip: key={}", leaseKey);
+            return false;
+        }
+
+        Held held = new Held(leaseKey, lease, ttlMs);
+        long period = Math.max(1L, ttlMs / 3);
+        ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(held::heartbeat, period, period, TimeUnit.MILLISECONDS);
+
+        log.debug("[SYNC-LEASE] acquired: key={}, owner={}, token={}",
+                leaseKey, leaseService.owner(), lease.getFencingToken());
+        Held previous = CURRENT.get();
+        CURRENT.set(held);
+        try {
+            job.run();
+        } catch (LeaseLostException ex) {
+            log.warn("[SYNC-LEASE] job stopped, lease taken over: key={}, token={}", leaseKey, lease.getFencingToken());
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            renewal.cancel(false);
+            if (!held.lost.get()) {
+                try {
+                    leaseService.release(lease, holdMs);
+                } catch (Exception ex) {
+                    // 释放失败不要紧：租约到期后自然失效
+                    log.warn("[SYNC-LEASE] release failed: key={}, err={}", leaseKey, ex.getMessage());
+                }
+            }
+        }
+        return !held.lost.get();
+    }
+
+    /**
+     * 分片执行：每个分片一个租约（key = jobName:shard/shardCount），每轮按随机顺序尝试，抢到的分片在本节点并行执行
+     * （notice.sync.lease.shard-parallelism），全部结束后返回。分片不可重入：本节点上一轮跑过、仍在 holdMs 内的分片留给其它节点。
+     *
+     * @return 本节点执行的分片数
+     */
+    public int runSharded(String jobName, int shardCount, long holdMs, IntConsumer job) {
+        return runSharded(jobName, shardCount, holdMs, shard -> true, job);
+    }
+
+    /** 同上，只尝试 eligible 为 true 的分片（节点静态指定了负责的分片时使用）。 */
+    public int runSharded(String jobName, int shardCount, long holdMs, IntPredicate eligible, IntConsumer job) {
+        int n = Math.max(1, shardCount);
+        List<Integer> shards = new ArrayList<>(n);
+        for (int shard = 0; shard < n; shard++) {
+            if (eligible.test(shard)) shards.add(shard);
+        }
+        // 多个节点同时触发时各自从不同分片开始
+        Collections.shuffle(shards);
+
+        List<Future<Boolean>> futures = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            futures.add(shardPool.submit(
+                    () -> runExclusive(jobName + ":" + shard + "/" + n, holdMs, false, () -> job.accept(shard))));
+        }
+
+        int ran = 0;
+        for (Future<Boolean> f : futures) {
+            try {
+                if (f.get()) ran++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(other -> other.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                log.warn("[SYNC-LEASE] shard failed: job={}, err={}", jobName, e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return ran;
+    }
+
+    /** 一次 runExclusive 持有的租约：心跳与 checkFence 共用丢失判定。 */
+    private final class Held {
+
+        private final String leaseKey;
+        private final SyncLease lease;
+        private final long ttlMs;
+        private final AtomicBoolean lost = new AtomicBoolean(false);
+        /** 最近一次确认仍持有的时间（本地时钟，只用于判断续期失败是否已超过租期） */
+        private volatile long confirmedAt = System.currentTimeMillis();
+
+        private Held(String leaseKey, SyncLease lease, long ttlMs) {
+            this.leaseKey = leaseKey;
+            this.lease = lease;
+            this.ttlMs = ttlMs;
+        }
+
+        private void heartbeat() {
+            if (!lost.get()) {
+                renew();
+            }
+        }
+
+        private void check() {
+            if (!lost.get()) {
+                renew();
+            }
+            if (lost.get()) {
+                throw new LeaseLostException(leaseKey, lease.getFencingToken());
+            }
+        }
+
+        private synchronized void renew() {
+            if (lost.get()) return;
+            try {
+                if (leaseService.renew(lease, ttlMs)) {
+                    confirmedAt = System.currentTimeMillis();
+                    return;
+                }
+                markLost("token changed");
+            } catch (Exception ex) {
+                log.warn("[SYNC-LEASE] renew failed: key={}, err={}", leaseKey, ex.getMessage());
+                // 租约库一直连不上：超过租期就当作已被接管
+                if (System.currentTimeMillis() - confirmedAt >= ttlMs) {
+                    markLost("renew failing for " + ttlMs + "ms");
+                }
+            }
+        }
+
+        private void markLost(String reason) {
+            if (lost.compareAndSet(false, true)) {
+                log.warn("[SYNC-LEASE] lease lost while running, job stops at next fenced write: key={}, token={}, reason={}",
+                        leaseKey, lease.getFencingToken(), reason);
+            }
+        }
+    }
+}
@@ -1,75 +1,172 @@
 package com.notice.system.sync;
 
+import com.baomidou.dynamic.datasource.toolkit.DynamicDataSourceContextHolder;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.notice.system.common.GlobalProperties;
 import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncAction;
 import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.mapper.base.SyncUpsertMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 
-import java.lang.reflect.Method;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
-/** 基于 SyncMetadataRegistry 的通用同步执行器（单条 CREATE/UPDATE/DELETE）。 */
+/** 基于 SyncMetadataRegistry 的通用同步执行器（单条/批量 CREATE/UPDATE/DELETE）。 */
 @Slf4j
 @RequiredArgsConstructor
 public abstract class AbstractSyncExecutor implements SyncExecutor {
 
+    private static final Log BATCH_LOG = LogFactory.getLog(AbstractSyncExecutor.class);
+
     private final DatabaseType targetDb;
     private final String logPrefix;
     private final SyncMetadataRegistry metadataRegistry;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final GlobalProperties globalProperties;
+
+    /** 实体类 -> (属性名 -> 列名)，不含主键；用于差异更新只 SET 变化列 */
+    private final Map<Class<?>, Map<String, String>> columnsByClass = new ConcurrentHashMap<>();
+
+    /** 实体名 -> 目标表能否走单语句 upsert（见 upsertSafe） */
+    private final Map<String, Boolean> upsertSafeByEntity = new ConcurrentHashMap<>();
+
+    private final AtomicLong insertedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong partialCount = new AtomicLong();
+    private final AtomicLong fullCount = new AtomicLong();
 
     @Override
     public DatabaseType targetDb() {
         return targetDb;
     }
 
+    @Override
+    public SyncWriteStats writeStats() {
+        return new SyncWriteStats(targetDb, insertedCount.get(), skippedCount.get(), partialCount.get(), fullCount.get());
+    }
+
     /** 将源库的一条变更同步到目标库。 */
     @Override
     public void applyOne(SyncEntityType entityType,
                          SyncAction action,
                          String entityId,
-                         DatabaseType sourceDb) {
+                         DatabaseType sourceDb,
+                         boolean diff) {
+
+        validate(entityType, action, entityId, sourceDb);
+        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
+        doApply(def, action, entityId, sourceDb, diff);
+    }
 
+    /** 用调用方已读好的源库实体同步到目标库（sourceEntity 为 null 表示源库不存在）。 */
+    @Override
+    public void applyEntity(SyncEntityType entityType,
+                            SyncAction action,
+                            String entityId,
+                            Object sourceEntity,
+                            DatabaseType sourceDb,
+                            boolean diff) {
+
+        validate(entityType, action, entityId, sourceDb);
+        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
+        doApplyEntity(def, action, entityId, sourceEntity, sourceDb, diff);
+    }
+
+    private void validate(SyncEntityType entityType, SyncAction action, String entityId, DatabaseType sourceDb) {
         Objects.requireNonNull(entityType, "entityType must not be null");
         Objects.requireNonNull(action, "action must not be null");
         if (entityId == null || entityId.isBlank()) {
             throw new IllegalArgumentException("entityId must not be blank");
         }
         Objects.requireNonNull(sourceDb, "sourceDb must not be null");
-
-        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
-        doApply(def, action, entityId, sourceDb);
     }
 
     private <T> void doApply(SyncMetadataRegistry.EntitySyncDefinition<T> def,
                              SyncAction action,
                              String entityId,
-                             DatabaseType sourceDb) {
+                             DatabaseType sourceDb,
+                             boolean diff) {
 
-        String entityName = def.getEntityName();
         BaseMapper<T> sourceMapper = def.getMapper(sourceDb);
-        BaseMapper<T> targetMapper = def.getMapper(targetDb);
-
         if (sourceMapper == null) {
-            throw new IllegalStateException("Source mapper not configured: entity=" + entityName + ", db=" + sourceDb);
-        }
-        if (targetMapper == null) {
-            throw new IllegalStateException("Target mapper not configured: entity=" + entityName + ", db=" + targetDb);
+            throw new IllegalStateException("Source mapper not configured: entity=" + def.getEntityName() + ", db=" + sourceDb);
         }
+        BaseMapper<T> targetMapper = targetMapper(def);
 
-        // DELETE：目标库直接删
         if (action == SyncAction.DELETE) {
-            int rows = targetMapper.deleteById(entityId);
-            log.info("{} [{}] DELETE sourceDb={} -> targetDb={}, id={}, rows={}",
-                    logPrefix, entityName, sourceDb, targetDb, entityId, rows);
+            deleteOnTarget(def, targetMapper, entityId, sourceDb);
             return;
         }
 
         // 读取源库
         T source = sourceMapper.selectById(entityId);
-        log.debug("{} [{}] READ sourceDb={}, id={}, entity={}", logPrefix, entityName, sourceDb, entityId, source);
+        log.debug("{} [{}] READ sourceDb={}, id={}, entity={}", logPrefix, def.getEntityName(), sourceDb, entityId, source);
+
+        writeToTarget(def, targetMapper, entityId, source, sourceDb, diff);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void doApplyEntity(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                   SyncAction action,
+                                   String entityId,
+                                   Object sourceEntity,
+                                   DatabaseType sourceDb,
+                                   boolean diff) {
+
+        BaseMapper<T> targetMapper = targetMapper(def);
+
+        if (action == SyncAction.DELETE) {
+            deleteOnTarget(def, targetMapper, entityId, sourceDb);
+            return;
+        }
+
+        writeToTarget(def, targetMapper, entityId, (T) sourceEntity, sourceDb, diff);
+    }
+
+    private <T> BaseMapper<T> targetMapper(SyncMetadataRegistry.EntitySyncDefinition<T> def) {
+        BaseMapper<T> targetMapper = def.getMapper(targetDb);
+        if (targetMapper == null) {
+            throw new IllegalStateException("Target mapper not configured: entity=" + def.getEntityName() + ", db=" + targetDb);
+        }
+        return targetMapper;
+    }
+
+    /** DELETE：目标库直接删。 */
+    private <T> void deleteOnTarget(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                    BaseMapper<T> targetMapper,
+                                    String entityId,
+                                    DatabaseType sourceDb) {
+        int rows = targetMapper.deleteById(entityId);
+        log.info("{} [{}] DELETE sourceDb={} -> targetDb={}, id={}, rows={}",
+                logPrefix, def.getEntityName(), sourceDb, targetDb, entityId, rows);
+    }
+
+    /** 把源库实体写入目标库（源实体可能被多个目标库共享，这里只读不改）。 */
+    private <T> void writeToTarget(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                   BaseMapper<T> targetMapper,
+                                   String entityId,
+                                   T source,
+                                   DatabaseType sourceDb,
+                                   boolean diff) {
+
+        String entityName = def.getEntityName();
 
         // 源库不存在：目标库兜底删除（避免幽灵数据）
         if (source == null) {
@@ -79,6 +176,22 @@ public abstract class AbstractSyncExecutor implements SyncExecutor {
             return;
         }
 
+        // 差异写入：先读目标库，一致则跳过，只有部分列不同则只更新这些列
+        if (useDiff(diff)) {
+            writeDiff(def, targetMapper, entityId, source, sourceDb);
+            return;
+        }
+
+        // 方言原生 upsert：一条语句完成“有则更新、无则插入”，不再先查目标库
+        if (useUpsert(def, targetMapper)) {
+            T target = copyOf(def, source, entityId);
+            int rows = ((SyncUpsertMapper<T>) targetMapper).upsert(target);
+            fullCount.incrementAndGet();
+            log.info("{} [{}] UPSERT sourceDb={} -> targetDb={}, id={}, rows={}",
+                    logPrefix, entityName, sourceDb, targetDb, entityId, rows);
+            return;
+        }
+
         // upsert：目标有则 update，没有则 insert
         T target = targetMapper.selectById(entityId);
         boolean insert = (target == null);
@@ -86,42 +199,372 @@ public abstract class AbstractSyncExecutor implements SyncExecutor {
             target = def.getEntitySupplier().get();
         }
 
-        BeanUtils.copyProperties(source, target);
-        ensureStringIdIfPossible(target, entityId);
+        def.getCopier().copy(source, target);
+        ensureId(def, target, entityId);
 
         int rows = insert ? targetMapper.insert(target) : targetMapper.updateById(target);
+        (insert ? insertedCount : fullCount).incrementAndGet();
         log.info("{} [{}] {} sourceDb={} -> targetDb={}, id={}, rows={}",
                 logPrefix, entityName, insert ? "INSERT" : "UPDATE", sourceDb, targetDb, entityId, rows);
     }
 
-    /** 尝试通过 setId(String) 兜底写入主键（没有该方法则忽略）。 */
-    private void ensureStringIdIfPossible(Object entity, String entityId) {
-        if (entity == null) return;
+    /** 单条差异写入：目标不存在则插入；全部列都变了走整行写；否则只 UPDATE 变化列。 */
+    private <T> void writeDiff(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                               BaseMapper<T> targetMapper,
+                               String entityId,
+                               T source,
+                               DatabaseType sourceDb) {
 
-        try {
-            Method getId = entity.getClass().getMethod("getId");
-            Object val = getId.invoke(entity);
-            if (val instanceof String s && !s.isBlank()) {
-                return;
+        String entityName = def.getEntityName();
+        T copy = copyOf(def, source, entityId);
+        T existing = targetMapper.selectById(entityId);
+
+        if (existing == null) {
+            int rows = useUpsert(def, targetMapper)
+                    ? ((SyncUpsertMapper<T>) targetMapper).upsert(copy)
+                    : targetMapper.insert(copy);
+            insertedCount.incrementAndGet();
+            log.info("{} [{}] INSERT sourceDb={} -> targetDb={}, id={}, rows={}",
+                    logPrefix, entityName, sourceDb, targetDb, entityId, rows);
+            return;
+        }
+
+        Map<String, String> columns = columnsOf(copy.getClass());
+        List<String> changed = changedColumns(def, columns, copy, existing);
+        if (changed.isEmpty()) {
+            skippedCount.incrementAndGet();
+            log.debug("{} [{}] SKIP unchanged sourceDb={} -> targetDb={}, id={}",
+                    logPrefix, entityName, sourceDb, targetDb, entityId);
+            return;
+        }
+
+        int rows;
+        if (changed.size() < columns.size()) {
+            rows = targetMapper.update(null, partialUpdate(def, columns, copy, changed, entityId));
+            partialCount.incrementAndGet();
+        } else {
+            rows = useUpsert(def, targetMapper)
+                    ? ((SyncUpsertMapper<T>) targetMapper).upsert(copy)
+                    : targetMapper.updateById(copy);
+            fullCount.incrementAndGet();
+        }
+        log.info("{} [{}] UPDATE sourceDb={} -> targetDb={}, id={}, columns={}, rows={}",
+                logPrefix, entityName, sourceDb, targetDb, entityId, changed, rows);
+    }
+
+    /** 与目标库取值不同的属性（只算映射到列的属性，不含主键）。 */
+    private <T> List<String> changedColumns(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                            Map<String, String> columns,
+                                            T source,
+                                            T existing) {
+        List<String> changed = def.getCopier().diff(source, existing);
+        changed.retainAll(columns.keySet());
+        return changed;
+    }
+
+    /** 只 SET 变化列的 UpdateWrapper（绕开实体自动填充，updateTime 跟随源库）。 */
+    private <T> UpdateWrapper<T> partialUpdate(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                               Map<String, String> columns,
+                                               T source,
+                                               List<String> changed,
+                                               String entityId) {
+        UpdateWrapper<T> uw = new UpdateWrapper<>();
+        for (String property : changed) {
+            uw.set(columns.get(property), def.getCopier().read(source, property));
+        }
+        uw.eq(TableInfoHelper.getTableInfo(source.getClass()).getKeyColumn(), entityId);
+        return uw;
+    }
+
+    private Map<String, String> columnsOf(Class<?> entityClass) {
+        return columnsByClass.computeIfAbsent(entityClass, c -> {
+            TableInfo tableInfo = TableInfoHelper.getTableInfo(c);
+            Map<String, String> columns = new LinkedHashMap<>();
+            for (TableFieldInfo field : tableInfo.getFieldList()) {
+                columns.put(field.getProperty(), field.getColumn());
             }
-            if (val != null && !(val instanceof String)) {
-                // 非 String 的 id，不做强行覆盖，避免误伤
-                return;
+            return columns;
+        });
+    }
+
+    /** 复制一份源实体用于写入，避免多个目标库并行写时共享同一对象（自动填充等会改参数对象）。 */
+    private <T> T copyOf(SyncMetadataRegistry.EntitySyncDefinition<T> def, T source, String entityId) {
+        T target = def.getCopier().copyOf(source);
+        ensureId(def, target, entityId);
+        return target;
+    }
+
+    /**
+     * 批量同步：一次 selectBatchIds 读源库、一次查询目标库已有主键，
+     * 再用 BATCH 执行器把 insert/updateById 攒成 JDBC 批量写入目标库。
+     * 调用方负责分批（entityIds 直接进 IN 条件）。
+     */
+    @Override
+    public void applyBatch(SyncEntityType entityType,
+                           SyncAction action,
+                           Collection<String> entityIds,
+                           DatabaseType sourceDb,
+                           boolean diff) {
+
+        Objects.requireNonNull(entityType, "entityType must not be null");
+        Objects.requireNonNull(action, "action must not be null");
+        Objects.requireNonNull(sourceDb, "sourceDb must not be null");
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
+        }
+
+        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
+        doApplyBatch(def, action, new ArrayList<>(new LinkedHashSet<>(entityIds)), null, sourceDb, diff);
+    }
+
+    /** 用调用方已读好的源库实体批量同步（entityIds 中找不到对应实体的视为源库已删除）。 */
+    @Override
+    public void applyBatchEntities(SyncEntityType entityType,
+                                   SyncAction action,
+                                   Collection<String> entityIds,
+                                   Collection<?> sourceEntities,
+                                   DatabaseType sourceDb,
+                                   boolean diff) {
+
+        Objects.requireNonNull(entityType, "entityType must not be null");
+        Objects.requireNonNull(action, "action must not be null");
+        Objects.requireNonNull(sourceDb, "sourceDb must not be null");
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
+        }
+
+        SyncMetadataRegistry.EntitySyncDefinition<?> def = metadataRegistry.getDefinition(entityType);
+        doApplyBatch(def, action, new ArrayList<>(new LinkedHashSet<>(entityIds)),
+                sourceEntities == null ? List.of() : sourceEntities, sourceDb, diff);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void doApplyBatch(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                  SyncAction action,
+                                  List<String> ids,
+                                  Collection<?> preloaded,
+                                  DatabaseType sourceDb,
+                                  boolean diff) {
+
+        String entityName = def.getEntityName();
+        BaseMapper<T> targetMapper = targetMapper(def);
+
+        // DELETE：目标库一条 IN 删除
+        if (action == SyncAction.DELETE) {
+            int rows = targetMapper.deleteBatchIds(ids);
+            log.info("{} [{}] BATCH DELETE sourceDb={} -> targetDb={}, ids={}, rows={}",
+                    logPrefix, entityName, sourceDb, targetDb, ids.size(), rows);
+            return;
+        }
+
+        // 读取源库（调用方已读好则直接用）
+        Collection<T> sources;
+        if (preloaded != null) {
+            sources = (Collection<T>) preloaded;
+        } else {
+            BaseMapper<T> sourceMapper = def.getMapper(sourceDb);
+            if (sourceMapper == null) {
+                throw new IllegalStateException("Source mapper not configured: entity=" + entityName + ", db=" + sourceDb);
             }
-        } catch (NoSuchMethodException ignore) {
+            sources = sourceMapper.selectBatchIds(ids);
+        }
+        Set<String> wanted = new HashSet<>(ids);
+        Map<String, T> sourceById = new LinkedHashMap<>();
+        for (T source : sources) {
+            String id = def.getIdGetter().apply(source);
+            if (id != null && wanted.contains(id)) sourceById.put(id, source);
+        }
+
+        // 源库不存在：目标库兜底删除（避免幽灵数据）
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (!sourceById.containsKey(id)) missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            int rows = targetMapper.deleteBatchIds(missing);
+            log.info("{} [{}] BATCH SOURCE_MISSING -> DELETE targetDb={}, ids={}, rows={}",
+                    logPrefix, entityName, targetDb, missing.size(), rows);
+        }
+        if (sourceById.isEmpty()) {
+            return;
+        }
+
+        // 源实体可能被多个目标库共享：写入用副本
+        List<T> copies = new ArrayList<>(sourceById.size());
+        sourceById.forEach((id, source) -> copies.add(copyOf(def, source, id)));
+
+        Class<?> targetMapperInterface = def.getMapperInterface(targetDb);
+
+        // 差异写入：一次读出目标库已有行，逐行比较
+        if (useDiff(diff)) {
+            applyBatchDiff(def, targetMapper, targetMapperInterface, ids.size(), copies, sourceDb);
             return;
-        } catch (Exception e) {
-            // getId 失败也不致命，继续尝试 setId
-            log.debug("{} ensureId(getId) failed: {}", logPrefix, e.getMessage());
         }
 
+        // 方言原生 upsert：不查目标库，整批直接写
+        if (useUpsert(def, targetMapper)) {
+            String upsertStatement = targetMapperInterface.getName() + ".upsert";
+            executeBatchOnTarget(def, copies, (sqlSession, entity) -> sqlSession.insert(upsertStatement, entity));
+            fullCount.addAndGet(copies.size());
+            log.info("{} [{}] BATCH UPSERT sourceDb={} -> targetDb={}, ids={}, upsert={}",
+                    logPrefix, entityName, sourceDb, targetDb, ids.size(), copies.size());
+            return;
+        }
+
+        // 目标库已有主键：一次查询
+        String keyColumn = TableInfoHelper.getTableInfo(copies.get(0).getClass()).getKeyColumn();
+        QueryWrapper<T> qw = new QueryWrapper<>();
+        qw.select(keyColumn).in(keyColumn, sourceById.keySet());
+        Set<String> existing = new HashSet<>();
+        for (Object v : targetMapper.selectObjs(qw)) {
+            if (v != null) existing.add(String.valueOf(v));
+        }
+
+        // 目标有则 update，没有则 insert
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        for (T copy : copies) {
+            (existing.contains(def.getIdGetter().apply(copy)) ? updates : inserts).add(copy);
+        }
+
+        String insertStatement = SqlHelper.getSqlStatement(targetMapperInterface, SqlMethod.INSERT_ONE);
+        String updateStatement = SqlHelper.getSqlStatement(targetMapperInterface, SqlMethod.UPDATE_BY_ID);
+
+        executeBatchOnTarget(def, inserts, (sqlSession, entity) -> sqlSession.insert(insertStatement, entity));
+        executeBatchOnTarget(def, updates, (sqlSession, entity) -> {
+            MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
+            param.put(Constants.ENTITY, entity);
+            sqlSession.update(updateStatement, param);
+        });
+
+        insertedCount.addAndGet(inserts.size());
+        fullCount.addAndGet(updates.size());
+        log.info("{} [{}] BATCH INSERT/UPDATE sourceDb={} -> targetDb={}, ids={}, insert={}, update={}",
+                logPrefix, entityName, sourceDb, targetDb, ids.size(), inserts.size(), updates.size());
+    }
+
+    /**
+     * 批量差异写入：一次 selectBatchIds 读目标库，分成 插入 / 跳过 / 整行写 / 部分列更新；
+     * 部分列更新按“变化列集合”分组，同组 SQL 相同，JDBC 批量才能真正合并。
+     */
+    private <T> void applyBatchDiff(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                    BaseMapper<T> targetMapper,
+                                    Class<?> targetMapperInterface,
+                                    int idCount,
+                                    List<T> copies,
+                                    DatabaseType sourceDb) {
+
+        Map<String, T> existingById = new HashMap<>();
+        List<String> copyIds = new ArrayList<>(copies.size());
+        for (T copy : copies) copyIds.add(def.getIdGetter().apply(copy));
+        for (T row : targetMapper.selectBatchIds(copyIds)) {
+            existingById.put(def.getIdGetter().apply(row), row);
+        }
+
+        Map<String, String> columns = columnsOf(copies.get(0).getClass());
+        List<T> inserts = new ArrayList<>();
+        List<T> fulls = new ArrayList<>();
+        Map<List<String>, List<UpdateWrapper<T>>> partials = new LinkedHashMap<>();
+        int skipped = 0;
+        int partialRows = 0;
+
+        for (T copy : copies) {
+            String id = def.getIdGetter().apply(copy);
+            T existing = existingById.get(id);
+            if (existing == null) {
+                inserts.add(copy);
+                continue;
+            }
+            List<String> changed = changedColumns(def, columns, copy, existing);
+            if (changed.isEmpty()) {
+                skipped++;
+            } else if (changed.size() < columns.size()) {
+                partials.computeIfAbsent(changed, k -> new ArrayList<>())
+                        .add(partialUpdate(def, columns, copy, changed, id));
+                partialRows++;
+            } else {
+                fulls.add(copy);
+            }
+        }
+
+        boolean upsert = useUpsert(def, targetMapper);
+        String insertStatement = upsert
+                ? targetMapperInterface.getName() + ".upsert"
+                : SqlHelper.getSqlStatement(targetMapperInterface, SqlMethod.INSERT_ONE);
+        String updateByIdStatement = SqlHelper.getSqlStatement(targetMapperInterface, SqlMethod.UPDATE_BY_ID);
+        String updateStatement = SqlHelper.getSqlStatement(targetMapperInterface, SqlMethod.UPDATE);
+
+        executeBatchOnTarget(def, inserts, (sqlSession, entity) -> sqlSession.insert(insertStatement, entity));
+        executeBatchOnTarget(def, fulls, (sqlSession, entity) -> {
+            if (upsert) {
+                sqlSession.insert(insertStatement, entity);
+                return;
+            }
+            MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
+            param.put(Constants.ENTITY, entity);
+            sqlSession.update(updateByIdStatement, param);
+        });
+        for (List<UpdateWrapper<T>> group : partials.values()) {
+            executeBatchOnTarget(def, group, (sqlSession, wrapper) -> {
+                MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+                param.put(Constants.ENTITY, null);
+                param.put(Constants.WRAPPER, wrapper);
+                sqlSession.update(updateStatement, param);
+            });
+        }
+
+        insertedCount.addAndGet(inserts.size());
+        skippedCount.addAndGet(skipped);
+        partialCount.addAndGet(partialRows);
+        fullCount.addAndGet(fulls.size());
+        log.info("{} [{}] BATCH DIFF sourceDb={} -> targetDb={}, ids={}, insert={}, skip={}, partial={}, full={}",
+                logPrefix, def.getEntityName(), sourceDb, targetDb, idCount, inserts.size(), skipped, partialRows, fulls.size());
+    }
+
+    /** 目标 Mapper 注入了 upsert、开关打开且目标表适用时走单语句 upsert。 */
+    private boolean useUpsert(SyncMetadataRegistry.EntitySyncDefinition<?> def, BaseMapper<?> targetMapper) {
+        if (!globalProperties.getSync().getUpsert().isEnabled() || !(targetMapper instanceof SyncUpsertMapper)) {
+            return false;
+        }
+        return upsertSafeByEntity.computeIfAbsent(def.getEntityName(), k -> {
+            TableInfo tableInfo = TableInfoHelper.getTableInfo(def.getEntitySupplier().get().getClass());
+            return tableInfo != null && upsertSafe(tableInfo.getTableName());
+        });
+    }
+
+    /**
+     * 目标表能否走单语句 upsert：只有主键冲突才走更新、其它唯一键冲突照常报错时才安全。
+     * PG 的 ON CONFLICT (id) 与 SQL Server 的 MERGE ON id 都满足；结果按实体缓存。
+     */
+    protected boolean upsertSafe(String table) {
+        return true;
+    }
+
+    /** 调用方要求差异写入且总开关打开。 */
+    private boolean useDiff(boolean diff) {
+        return diff && globalProperties.getSync().getDiff().isEnabled();
+    }
+
+    /** 在目标库上用 BATCH 执行器批量执行（BATCH 会话不经过 Mapper 上的 @DS 切面，这里手动切数据源）。 */
+    private <T, E> void executeBatchOnTarget(SyncMetadataRegistry.EntitySyncDefinition<T> def,
+                                             List<E> entities,
+                                             BiConsumer<SqlSession, E> consumer) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        DynamicDataSourceContextHolder.push(def.getDsKey(targetDb));
         try {
-            Method setId = entity.getClass().getMethod("setId", String.class);
-            setId.invoke(entity, entityId);
-        } catch (NoSuchMethodException ignore) {
-            // 没有 setId(String) 就算了
-        } catch (Exception e) {
-            log.debug("{} ensureId(setId) failed: {}", logPrefix, e.getMessage());
+            SqlHelper.executeBatch(sqlSessionFactory, BATCH_LOG, entities, entities.size(), consumer);
+        } finally {
+            DynamicDataSourceContextHolder.poll();
+        }
+    }
+
+    /** 目标实体主键为空时用 entityId 兜底。 */
+    private <T> void ensureId(SyncMetadataRegistry.EntitySyncDefinition<T> def, T entity, String entityId) {
+        String id = def.getIdGetter().apply(entity);
+        if (id == null || id.isBlank()) {
+            def.getIdSetter().accept(entity, entityId);
         }
     }
 }
@@ -0,0 +1,157 @@
+package com.notice.system.sync;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 实体属性复制器：启动时用 LambdaMetafactory 把每个属性的 getter/setter 编译成函数对象，
+ * 之后逐行复制只是普通接口调用，不走反射（语义与 BeanUtils.copyProperties 一致：可读且可写、类型兼容的属性都复制，包括 null）。
+ */
+public final class EntityCopier<T> {
+
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final String[] properties;
+    private final Function<Object, Object>[] getters;
+    private final BiConsumer<Object, Object>[] setters;
+
+    private EntityCopier(Class<T> type,
+                         Supplier<T> factory,
+                         String[] properties,
+                         Function<Object, Object>[] getters,
+                         BiConsumer<Object, Object>[] setters) {
+        this.type = type;
+        this.factory = factory;
+        this.properties = properties;
+        this.getters = getters;
+        this.setters = setters;
+    }
+
+    /** 为实体类构建复制器（失败直接抛异常，启动期暴露问题）。 */
+    public static <T> EntityCopier<T> of(Class<T> type, Supplier<T> factory) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<String> properties = new ArrayList<>();
+        List<Function<Object, Object>> getters = new ArrayList<>();
+        List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+            Method read = pd.getReadMethod();
+            Method write = pd.getWriteMethod();
+            if (read == null || write == null) continue;
+            if (!write.getParameterTypes()[0].isAssignableFrom(read.getReturnType())) continue;
+
+            try {
+                getters.add(getter(lookup, type, read));
+                setters.add(setter(lookup, type, write));
+                properties.add(pd.getName());
+            } catch (Throwable e) {
+                throw new IllegalStateException("Build copier failed: " + type.getName() + "." + pd.getName(), e);
+            }
+        }
+
+        // 泛型数组只能经通配符数组转换，元素类型由上面的 getter/setter 保证
+        @SuppressWarnings("unchecked")
+        Function<Object, Object>[] getterArray = (Function<Object, Object>[]) getters.toArray(new Function<?, ?>[0]);
+        @SuppressWarnings("unchecked")
+        BiConsumer<Object, Object>[] setterArray = (BiConsumer<Object, Object>[]) setters.toArray(new BiConsumer<?, ?>[0]);
+
+        return new EntityCopier<>(type, factory, properties.toArray(new String[0]), getterArray, setterArray);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /** 把 from 的所有属性复制到 to。 */
+    public void copy(T from, T to) {
+        for (int i = 0; i < getters.length; i++) {
+            setters[i].accept(to, getters[i].apply(from));
+        }
+    }
+
+    /** 新建实体并复制 from 的所有属性。 */
+    public T copyOf(T from) {
+        T to = factory.get();
+        copy(from, to);
+        return to;
+    }
+
+    /**
+     * 比较两个实体，返回值不同的属性名。
+     * 时间按秒比较（各库时间精度不同，与 SnapshotUtil 指纹口径一致），BigDecimal 按数值比较。
+     */
+    public List<String> diff(T a, T b) {
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < getters.length; i++) {
+            if (!sameValue(getters[i].apply(a), getters[i].apply(b))) {
+                changed.add(properties[i]);
+            }
+        }
+        return changed;
+    }
+
+    /** 读取指定属性值（属性不存在返回 null）。 */
+    public Object read(T entity, String property) {
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i].equals(property)) return getters[i].apply(entity);
+        }
+        return null;
+    }
+
+    private static boolean sameValue(Object x, Object y) {
+        if (x instanceof LocalDateTime tx && y instanceof LocalDateTime ty) {
+            return tx.truncatedTo(ChronoUnit.SECONDS).equals(ty.truncatedTo(ChronoUnit.SECONDS));
+        }
+        if (x instanceof BigDecimal dx && y instanceof BigDecimal dy) {
+            return dx.compareTo(dy) == 0;
+        }
+        return Objects.equals(x, y);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(MethodHandles.Lookup lookup, Class<?> type, Method read) throws Throwable {
+        MethodHandle mh = lookup.unreflect(read);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                mh,
+                MethodType.methodType(wrap(read.getReturnType()), type));
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Class<?> type, Method write) throws Throwable {
+        MethodHandle mh = lookup.unreflect(write);
+        Class<?> paramType = write.getParameterTypes()[0];
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                mh,
+                MethodType.methodType(void.class, type, wrap(paramType)));
+        BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        if (!paramType.isPrimitive()) {
+            return setter;
+        }
+        // 基本类型属性：null 无法拆箱，跳过
+        return (target, value) -> {
+            if (value != null) setter.accept(target, value);
+        };
+    }
+
+    /** 基本类型转包装类型，其它原样返回。 */
+    private static Class<?> wrap(Class<?> c) {
+        return c.isPrimitive() ? MethodType.methodType(c).wrap().returnType() : c;
+    }
+}
@@ -1,15 +1,38 @@
 package com.notice.system.sync;
 
+import com.notice.system.common.GlobalProperties;
 import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.mapper.mysql.SchemaMysqlMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.stereotype.Component;
 
 /** 目标库为 MySQL 的同步执行器。 */
+@Slf4j
 @Component
 public class MysqlSyncExecutor extends AbstractSyncExecutor {
 
-    public MysqlSyncExecutor(SyncMetadataRegistry metadataRegistry) {
-        super(DatabaseType.MYSQL, "[MYSQL]", metadataRegistry);
-    }
-}
+    private final SchemaMysqlMapper schemaMapper;
 
+    public MysqlSyncExecutor(SyncMetadataRegistry metadataRegistry,
+                             SqlSessionFactory sqlSessionFactory,
+                             GlobalProperties globalProperties,
+                             SchemaMysqlMapper schemaMapper) {
+        super(DatabaseType.MYSQL, "[MYSQL]", metadataRegistry, sqlSessionFactory, globalProperties);
+        this.schemaMapper = schemaMapper;
+    }
 
+    /**
+     * ON DUPLICATE KEY UPDATE 命中任意唯一键都会走更新：新 id 与别的行撞上 username/email 等唯一键时，
+     * 会把那一行（连同主键）整行改掉，而不是像 PG / SQL Server 那样报错。有主键以外唯一键的表不走 upsert。
+     */
+    @Override
+    protected boolean upsertSafe(String table) {
+        try {
+            return schemaMapper.countSecondaryUniqueKeys(table) == 0;
+        } catch (Exception ex) {
+            log.warn("[MYSQL] unique key lookup failed, upsert disabled: table={}, err={}", table, ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,20 +1,17 @@
 package com.notice.system.sync;
 
+import com.notice.system.common.GlobalProperties;
 import com.notice.system.entityEnum.DatabaseType;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.stereotype.Component;
 
 /** 目标库为 SQL Server 的同步执行器。 */
 @Component
 public class SqlServerSyncExecutor extends AbstractSyncExecutor {
 
-    public SqlServerSyncExecutor(SyncMetadataRegistry metadataRegistry) {
-        super(DatabaseType.SQLSERVER, "[SQLSERVER]", metadataRegistry);
+    public SqlServerSyncExecutor(SyncMetadataRegistry metadataRegistry,
+                                 SqlSessionFactory sqlSessionFactory,
+                                 GlobalProperties globalProperties) {
+        super(DatabaseType.SQLSERVER, "[SQLSERVER]", metadataRegistry, sqlSessionFactory, globalProperties);
     }
 }
-
-
-
-
-
-
-
@@ -4,19 +4,47 @@ import com.notice.system.entityEnum.DatabaseType;
 import com.notice.system.entityEnum.SyncAction;
 import com.notice.system.entityEnum.SyncEntityType;
 
+import java.util.Collection;
+
+/**
+ * 目标库执行器。apply 系列方法的 diff=true 表示写入前先读目标库比较（一致跳过、只更新变化列），
+ * 仍受 notice.sync.diff.enabled 总开关约束；只有目标库多半已一致的补偿链路（全量同步、重试）才传 true。
+ */
 public interface SyncExecutor {
 
     /** 返回当前执行器负责写入的目标库。 */
     DatabaseType targetDb();
 
+    /** 目标库写入统计（插入 / 跳过 / 部分列更新 / 整行写）。 */
+    SyncWriteStats writeStats();
+
     /** 从源库读取指定实体并将变更应用到目标库。 */
     void applyOne(SyncEntityType entityType,
                   SyncAction action,
                   String entityId,
-                  DatabaseType sourceDb);
+                  DatabaseType sourceDb,
+                  boolean diff);
+
+    /** 用已读好的源库实体同步到目标库（同一次变更只读一次源库，再分发给各目标库）；sourceEntity 为 null 表示源库不存在。 */
+    void applyEntity(SyncEntityType entityType,
+                     SyncAction action,
+                     String entityId,
+                     Object sourceEntity,
+                     DatabaseType sourceDb,
+                     boolean diff);
+
+    /** 批量版 applyOne：一次读源库、一次查目标库已有主键，再批量写入目标库。 */
+    void applyBatch(SyncEntityType entityType,
+                    SyncAction action,
+                    Collection<String> entityIds,
+                    DatabaseType sourceDb,
+                    boolean diff);
+
+    /** 批量版 applyEntity：entityIds 中没有对应源实体的视为源库已删除。 */
+    void applyBatchEntities(SyncEntityType entityType,
+                            SyncAction action,
+                            Collection<String> entityIds,
+                            Collection<?> sourceEntities,
+                            DatabaseType sourceDb,
+                            boolean diff);
 }
-
-
-
-
-
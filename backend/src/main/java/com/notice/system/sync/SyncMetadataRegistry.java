@@ -1,5 +1,6 @@
 package com.notice.system.sync;
 
+import com.baomidou.dynamic.datasource.annotation.DS;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.notice.system.entity.*;
 import com.notice.system.entityEnum.DatabaseType;
@@ -11,10 +12,10 @@ import jakarta.annotation.PostConstruct;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -61,34 +62,46 @@ public class SyncMetadataRegistry {
 
     private final Map<SyncEntityType, EntitySyncDefinition<?>> registry = new EnumMap<>(SyncEntityType.class);
 
+    /** 按依赖拓扑分层后的实体类型：同一层互不依赖，可并行；后一层依赖前面的层。 */
+    private List<List<SyncEntityType>> syncLevels = List.of();
+
     @PostConstruct
     public void init() {
-        register(SyncEntityType.NOTICE, "NOTICE", Notice::new, Notice::getId,
+        register(SyncEntityType.NOTICE, "NOTICE", Notice.class, Notice::new, Notice::getId, Notice::setId,
                 noticeMysqlMapper, noticePgMapper, noticeSqlserverMapper);
 
-        register(SyncEntityType.USER, "USER", User::new, User::getId,
+        register(SyncEntityType.USER, "USER", User.class, User::new, User::getId, User::setId,
                 userMysqlMapper, userPgMapper, userSqlserverMapper);
 
-        register(SyncEntityType.ROLE, "ROLE", Role::new, Role::getId,
+        register(SyncEntityType.ROLE, "ROLE", Role.class, Role::new, Role::getId, Role::setId,
                 roleMysqlMapper, rolePgMapper, roleSqlserverMapper);
 
-        register(SyncEntityType.DEPT, "DEPT", Dept::new, Dept::getId,
+        register(SyncEntityType.DEPT, "DEPT", Dept.class, Dept::new, Dept::getId, Dept::setId,
                 deptMysqlMapper, deptPgMapper, deptSqlserverMapper);
 
-        register(SyncEntityType.NOTICE_TARGET_DEPT, "NOTICE_TARGET_DEPT", NoticeTargetDept::new, NoticeTargetDept::getId,
+        register(SyncEntityType.NOTICE_TARGET_DEPT, "NOTICE_TARGET_DEPT", NoticeTargetDept.class, NoticeTargetDept::new, NoticeTargetDept::getId, NoticeTargetDept::setId,
                 noticeTargetDeptMysqlMapper, noticeTargetDeptPgMapper, noticeTargetDeptSqlserverMapper);
 
-        register(SyncEntityType.NOTICE_READ, "NOTICE_READ", NoticeRead::new, NoticeRead::getId,
+        register(SyncEntityType.NOTICE_READ, "NOTICE_READ", NoticeRead.class, NoticeRead::new, NoticeRead::getId, NoticeRead::setId,
                 noticeReadMysqlMapper, noticeReadPgMapper, noticeReadSqlserverMapper);
 
-        register(SyncEntityType.SYNC_LOG, "SYNC_LOG", SyncLog::new, SyncLog::getId,
+        register(SyncEntityType.SYNC_LOG, "SYNC_LOG", SyncLog.class, SyncLog::new, SyncLog::getId, SyncLog::setId,
                 syncLogMysqlMapper, syncLogPgMapper, syncLogSqlserverMapper);
 
-        register(SyncEntityType.SYNC_CONFLICT, "SYNC_CONFLICT", SyncConflict::new, SyncConflict::getId,
+        register(SyncEntityType.SYNC_CONFLICT, "SYNC_CONFLICT", SyncConflict.class, SyncConflict::new, SyncConflict::getId, SyncConflict::setId,
                 syncConflictMysqlMapper, syncConflictPgMapper, syncConflictSqlserverMapper);
 
-        register(SyncEntityType.SYNC_CONFLICT_ITEM, "SYNC_CONFLICT_ITEM", SyncConflictItem::new, SyncConflictItem::getId,
+        register(SyncEntityType.SYNC_CONFLICT_ITEM, "SYNC_CONFLICT_ITEM", SyncConflictItem.class, SyncConflictItem::new, SyncConflictItem::getId, SyncConflictItem::setId,
                 syncConflictItemMysqlMapper, syncConflictItemPgMapper, syncConflictItemSqlserverMapper);
+
+        // 外键依赖：被引用的实体必须先同步到目标库
+        dependsOn(SyncEntityType.USER, SyncEntityType.ROLE, SyncEntityType.DEPT);
+        dependsOn(SyncEntityType.NOTICE, SyncEntityType.USER);
+        dependsOn(SyncEntityType.NOTICE_TARGET_DEPT, SyncEntityType.NOTICE, SyncEntityType.DEPT);
+        dependsOn(SyncEntityType.NOTICE_READ, SyncEntityType.NOTICE, SyncEntityType.USER);
+        dependsOn(SyncEntityType.SYNC_CONFLICT_ITEM, SyncEntityType.SYNC_CONFLICT);
+
+        syncLevels = List.copyOf(computeLevels());
     }
 
     /** 获取指定实体的同步定义（未注册则抛异常）。 */
@@ -107,16 +120,78 @@ public class SyncMetadataRegistry {
         return registry.containsKey(entityType);
     }
 
+    /** 该实体依赖（外键引用）的实体类型。 */
+    public Set<SyncEntityType> getDependencies(SyncEntityType entityType) {
+        return Collections.unmodifiableSet(getDefinition(entityType).getDependsOn());
+    }
+
+    /** 按依赖拓扑分层的已注册实体类型（全量同步/对账按层推进）。 */
+    public List<List<SyncEntityType>> getSyncLevels() {
+        return syncLevels;
+    }
+
+    private void dependsOn(SyncEntityType type, SyncEntityType... deps) {
+        EntitySyncDefinition<?> def = getDefinition(type);
+        for (SyncEntityType dep : deps) {
+            if (!supports(dep)) {
+                throw new IllegalStateException("Dependency not registered: " + type + " -> " + dep);
+            }
+            def.getDependsOn().add(dep);
+        }
+    }
+
+    /** Kahn 拓扑排序，按层输出；存在循环依赖时启动失败。 */
+    private List<List<SyncEntityType>> computeLevels() {
+        Map<SyncEntityType, Integer> inDegree = new EnumMap<>(SyncEntityType.class);
+        for (Map.Entry<SyncEntityType, EntitySyncDefinition<?>> e : registry.entrySet()) {
+            inDegree.put(e.getKey(), e.getValue().getDependsOn().size());
+        }
+
+        List<List<SyncEntityType>> levels = new ArrayList<>();
+        List<SyncEntityType> current = new ArrayList<>();
+        inDegree.forEach((type, degree) -> {
+            if (degree == 0) current.add(type);
+        });
+
+        int placed = 0;
+        while (!current.isEmpty()) {
+            levels.add(List.copyOf(current));
+            placed += current.size();
+
+            List<SyncEntityType> next = new ArrayList<>();
+            for (SyncEntityType type : registry.keySet()) {
+                Set<SyncEntityType> deps = registry.get(type).getDependsOn();
+                if (inDegree.get(type) == 0 || Collections.disjoint(deps, current)) continue;
+                int left = inDegree.get(type);
+                for (SyncEntityType done : current) {
+                    if (deps.contains(done)) left--;
+                }
+                inDegree.put(type, left);
+                if (left == 0) next.add(type);
+            }
+            current.clear();
+            current.addAll(next);
+        }
+
+        if (placed != registry.size()) {
+            throw new IllegalStateException("Cyclic entity dependencies: " + inDegree);
+        }
+        return levels;
+    }
+
     private <T> void register(
             SyncEntityType type,
             String entityName,
+            Class<T> entityClass,
             Supplier<T> supplier,
             Function<T, String> idGetter,
+            BiConsumer<T, String> idSetter,
             BaseMapper<T> mysqlMapper,
             BaseMapper<T> pgMapper,
             BaseMapper<T> sqlserverMapper
     ) {
-        EntitySyncDefinition<T> def = new EntitySyncDefinition<>(entityName, supplier, idGetter);
+        EntitySyncDefinition<T> def = new EntitySyncDefinition<>(
+                entityName, supplier, idGetter, idSetter, EntityCopier.of(entityClass, supplier));
         def.addMapper(DatabaseType.MYSQL, mysqlMapper);
         def.addMapper(DatabaseType.PG, pgMapper);
         def.addMapper(DatabaseType.SQLSERVER, sqlserverMapper);
@@ -127,21 +202,52 @@ public class SyncMetadataRegistry {
     public static class EntitySyncDefinition<T> {
         /** 业务实体名（用于日志/展示）。 */
         private final String entityName;
-        /** 预留：用于某些场景动态构造实体。 */
+        /** 构造空实体（复制/插入目标库时使用）。 */
         private final Supplier<T> entitySupplier;
         /** 提取实体主键字符串的函数。 */
         private final Function<T, String> idGetter;
+        /** 写入实体主键的函数。 */
+        private final BiConsumer<T, String> idSetter;
+        /** 启动时编译好的属性复制器（同步写目标库时复制源实体用）。 */
+        private final EntityCopier<T> copier;
+        /** 依赖（外键引用）的实体类型，全量同步时需先于本实体完成。 */
+        private final Set<SyncEntityType> dependsOn = EnumSet.noneOf(SyncEntityType.class);
 
         /** 三库对应的 Mapper。 */
         private final Map<DatabaseType, BaseMapper<T>> mapperByDb = new EnumMap<>(DatabaseType.class);
 
+        /** 三库对应的 Mapper 接口（带 @DS，批量写时用于拼 MappedStatement id 与切数据源）。 */
+        private final Map<DatabaseType, Class<?>> mapperInterfaceByDb = new EnumMap<>(DatabaseType.class);
+
         public void addMapper(DatabaseType db, BaseMapper<T> mapper) {
             mapperByDb.put(db, mapper);
+            mapperInterfaceByDb.put(db, resolveMapperInterface(db, mapper));
         }
 
         public BaseMapper<T> getMapper(DatabaseType db) {
             return mapperByDb.get(db);
         }
+
+        public Class<?> getMapperInterface(DatabaseType db) {
+            return mapperInterfaceByDb.get(db);
+        }
+
+        /** Mapper 上 @DS 声明的数据源 key。 */
+        public String getDsKey(DatabaseType db) {
+            Class<?> mapperInterface = mapperInterfaceByDb.get(db);
+            return mapperInterface == null ? null : mapperInterface.getAnnotation(DS.class).value();
+        }
+
+        /** 从 Mapper 代理对象上找出带 @DS 的业务 Mapper 接口。 */
+        private static Class<?> resolveMapperInterface(DatabaseType db, Object mapper) {
+            if (mapper == null) return null;
+            for (Class<?> itf : ClassUtils.getAllInterfaces(mapper)) {
+                if (BaseMapper.class.isAssignableFrom(itf) && itf.isAnnotationPresent(DS.class)) {
+                    return itf;
+                }
+            }
+            throw new IllegalStateException("@DS mapper interface not found: db=" + db + ", mapper=" + mapper.getClass().getName());
+        }
     }
 }
 
@@ -0,0 +1,10 @@
+package com.notice.system.sync;
+
+import com.notice.system.entityEnum.DatabaseType;
+
+/**
+ * 目标库写入统计（执行器启动以来累计）：
+ * inserted=新插入；skipped=与源库一致跳过写入；partial=只更新变化列；full=整行写入。
+ */
+public record SyncWriteStats(DatabaseType targetDb, long inserted, long skipped, long partial, long full) {
+}
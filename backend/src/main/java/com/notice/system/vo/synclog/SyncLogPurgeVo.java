@@ -0,0 +1,28 @@
+package com.notice.system.vo.synclog;
+
+import com.notice.system.entityEnum.DatabaseType;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** 单个库的同步日志清理结果。 */
+@Data
+public class SyncLogPurgeVo {
+    private DatabaseType db;
+    private String mode;
+
+    /** 逐批 DELETE 删除的行数（PROCEDURE 模式为过程返回的删除行数） */
+    private long deleted;
+    /** 执行的 DELETE 批次数 */
+    private int chunks;
+
+    /** 整个删除的按月分区 */
+    private List<String> partitionsDropped = new ArrayList<>();
+    /** 被删除分区的估算行数（来自统计信息） */
+    private long partitionRowsEstimated;
+
+    private long elapsedMs;
+    /** false 表示达到最长运行时间提前停止，剩余部分下次继续 */
+    private boolean finished = true;
+}
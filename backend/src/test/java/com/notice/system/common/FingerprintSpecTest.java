@@ -0,0 +1,256 @@
+package com.notice.system.common;
+
+import com.notice.system.entity.*;
+import com.notice.system.entityEnum.SyncEntityType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintSpecTest {
+
+    private static final String ALPHABET = "ab Z09\t\r\n 通知部门用户😀é";
+
+    @Test
+    void matchesLegacyForEdgeCaseText() {
+        String[] samples = {
+                "",
+                "plain",
+                "line1\r\nline2\rline3\nline4",
+                "  padded  ",
+                "\t\r\n tabs and newlines \n\t",
+                "\u0001ctrl\u001f",
+                "通知：部门用户",
+                "emoji 😀 pair",
+                "lone \ud800 high",
+                "lone \udc00 low",
+                "\ud83d",
+                "x".repeat(600) + "通知".repeat(300) + "😀".repeat(200)
+        };
+        for (String text : samples) {
+            Notice n = notice(text);
+            assertSameAsLegacy(SyncEntityType.NOTICE, n);
+
+            User u = user(text);
+            assertSameAsLegacy(SyncEntityType.USER, u);
+        }
+    }
+
+    @Test
+    void matchesLegacyForNullFields() {
+        assertSameAsLegacy(SyncEntityType.USER, new User());
+        assertSameAsLegacy(SyncEntityType.DEPT, new Dept());
+        assertSameAsLegacy(SyncEntityType.NOTICE, new Notice());
+        assertSameAsLegacy(SyncEntityType.NOTICE_READ, new NoticeRead());
+        assertSameAsLegacy(SyncEntityType.SYNC_LOG, new SyncLog());
+
+        // null 行与空串同 hash
+        assertEquals(legacySha256Hex(""), FingerprintSpec.of(SyncEntityType.USER).hash(null, FingerprintSpec.Algorithm.SHA256));
+    }
+
+    @Test
+    void matchesLegacyForNumbersAndTimes() {
+        Dept d = new Dept();
+        d.setName("d");
+        d.setSortOrder(Integer.MIN_VALUE);
+        d.setStatus(-7);
+        assertSameAsLegacy(SyncEntityType.DEPT, d);
+
+        NoticeRead r = new NoticeRead();
+        r.setNoticeId("n1");
+        r.setUserId("u1");
+        r.setReadTime(LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_999_999));
+        assertSameAsLegacy(SyncEntityType.NOTICE_READ, r);
+
+        // 年份超出 4 位时走格式化回退
+        r.setReadTime(LocalDateTime.of(12024, 1, 1, 0, 0));
+        assertSameAsLegacy(SyncEntityType.NOTICE_READ, r);
+    }
+
+    @Test
+    void putLongMatchesStringValueOf() {
+        long[] values = {0L, 7L, -7L, 10L, 1_000_000L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+        for (long v : values) {
+            RowFingerprinter f = RowFingerprinter.begin(FingerprintSpec.Algorithm.SHA256);
+            f.putLong(v);
+            assertEquals(legacySha256Hex(String.valueOf(v)), f.finishHex(), "value " + v);
+        }
+    }
+
+    @Test
+    void matchesLegacyForRandomRows() {
+        Random r = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            assertSameAsLegacy(SyncEntityType.USER, user(text(r, r.nextInt(40))));
+            assertSameAsLegacy(SyncEntityType.NOTICE, notice(text(r, r.nextInt(1500))));
+
+            Dept d = new Dept();
+            d.setName(text(r, 10));
+            d.setParentId(r.nextBoolean() ? null : Long.toHexString(r.nextLong()));
+            d.setDescription(text(r, 80));
+            d.setSortOrder(r.nextBoolean() ? null : r.nextInt());
+            d.setStatus(r.nextInt(3) - 1);
+            assertSameAsLegacy(SyncEntityType.DEPT, d);
+        }
+    }
+
+    @Test
+    void murmur3MatchesPublishedVectors() {
+        // MurmurHash3_x64_128，seed=0，输出 h1 || h2（各 16 位 hex）
+        assertEquals("00000000000000000000000000000000", murmur(""));
+        assertEquals("629942693e10f86792db0b82baeb5347", murmur("hell"));
+        assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347", murmur("The quick brown fox jumps over the lazy dog"));
+        assertEquals("658ca970ff85269a43fee3eaa68e5c3e", murmur("The quick brown fox jumps over the lazy cog"));
+    }
+
+    @Test
+    void murmur3IsStableAcrossBufferFlushes() {
+        String s = "0123456789abcdef".repeat(100) + "tail";
+
+        RowFingerprinter whole = RowFingerprinter.begin(FingerprintSpec.Algorithm.MURMUR3_128);
+        whole.putAscii(s);
+        String expected = whole.finishHex();
+
+        RowFingerprinter pieces = RowFingerprinter.begin(FingerprintSpec.Algorithm.MURMUR3_128);
+        for (int i = 0; i < s.length(); i += 37) {
+            pieces.putAscii(s.substring(i, Math.min(s.length(), i + 37)));
+        }
+        assertEquals(expected, pieces.finishHex());
+    }
+
+    private static void assertSameAsLegacy(SyncEntityType type, Object row) {
+        String legacy = legacyFingerprint(type, row);
+        FingerprintSpec spec = FingerprintSpec.of(type);
+        assertEquals(legacy, spec.fingerprint(row));
+        assertEquals(legacySha256Hex(legacy), spec.hash(row, FingerprintSpec.Algorithm.SHA256));
+        assertEquals(legacySha256Hex(legacy), SnapshotUtil.rowHash(type, row));
+    }
+
+    private static String murmur(String ascii) {
+        RowFingerprinter f = RowFingerprinter.begin(FingerprintSpec.Algorithm.MURMUR3_128);
+        f.putAscii(ascii);
+        return f.finishHex();
+    }
+
+    private static User user(String text) {
+        User u = new User();
+        u.setUsername(text);
+        u.setRoleId("r1");
+        u.setDeptId(null);
+        u.setNickname(text);
+        u.setEmail(" a@b.c ");
+        u.setPhone(null);
+        u.setStatus(1);
+        return u;
+    }
+
+    private static Notice notice(String text) {
+        Notice n = new Notice();
+        n.setTitle(text);
+        n.setContent(text);
+        n.setPublisherId("p1");
+        n.setLevel("NORMAL");
+        n.setStatus("PUBLISHED");
+        n.setPublishTime(LocalDateTime.of(2024, 1, 1, 8, 30, 15, 123_000_000));
+        n.setExpireTime(null);
+        return n;
+    }
+
+    private static String text(Random r, int len) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) sb.append(ALPHABET.charAt(r.nextInt(ALPHABET.length())));
+        return sb.toString();
+    }
+
+    /* ======================== 改造前的 SnapshotUtil 实现（对照） ======================== */
+
+    private static final DateTimeFormatter DT_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static String legacyFingerprint(SyncEntityType type, Object row) {
+        if (row == null) return "";
+
+        return switch (type) {
+            case USER -> {
+                User u = (User) row;
+                yield "username=" + normText(u.getUsername())
+                        + "|roleId=" + nvo(u.getRoleId())
+                        + "|deptId=" + nvo(u.getDeptId())
+                        + "|nickname=" + normText(u.getNickname())
+                        + "|email=" + normText(u.getEmail())
+                        + "|phone=" + normText(u.getPhone())
+                        + "|status=" + nvo(u.getStatus());
+            }
+            case ROLE -> "name=" + normText(((Role) row).getName());
+            case DEPT -> {
+                Dept d = (Dept) row;
+                yield "name=" + normText(d.getName())
+                        + "|parentId=" + nvo(d.getParentId())
+                        + "|description=" + normText(d.getDescription())
+                        + "|sortOrder=" + nvo(d.getSortOrder())
+                        + "|status=" + nvo(d.getStatus());
+            }
+            case NOTICE -> {
+                Notice n = (Notice) row;
+                yield "title=" + normText(n.getTitle())
+                        + "|content=" + normText(n.getContent())
+                        + "|publisherId=" + nvo(n.getPublisherId())
+                        + "|level=" + normText(n.getLevel())
+                        + "|status=" + normText(n.getStatus())
+                        + "|publishTime=" + normTime(n.getPublishTime())
+                        + "|expireTime=" + normTime(n.getExpireTime());
+            }
+            case NOTICE_TARGET_DEPT -> {
+                NoticeTargetDept x = (NoticeTargetDept) row;
+                yield "noticeId=" + nvo(x.getNoticeId())
+                        + "|deptId=" + nvo(x.getDeptId());
+            }
+            case NOTICE_READ -> {
+                NoticeRead nr = (NoticeRead) row;
+                yield "noticeId=" + nvo(nr.getNoticeId())
+                        + "|userId=" + nvo(nr.getUserId())
+                        + "|readTime=" + normTime(nr.getReadTime())
+                        + "|deviceType=" + normText(nr.getDeviceType());
+            }
+            default -> "id=" + normText(extractIdGeneric(row));
+        };
+    }
+
+    private static String extractIdGeneric(Object row) {
+        try {
+            Object v = row.getClass().getMethod("getId").invoke(row);
+            return v == null ? "" : String.valueOf(v);
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private static String nvo(Object v) {
+        return v == null ? "" : String.valueOf(v).trim();
+    }
+
+    private static String normText(String s) {
+        if (s == null) return "";
+        return s.trim().replace("\r\n", "\n").replace("\r", "\n");
+    }
+
+    private static String normTime(LocalDateTime t) {
+        return t == null ? "" : DT_FMT.format(t.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private static String legacySha256Hex(String text) {
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("sha256 failed", e);
+        }
+    }
+}
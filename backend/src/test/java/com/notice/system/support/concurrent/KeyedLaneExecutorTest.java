@@ -0,0 +1,193 @@
+package com.notice.system.support.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedLaneExecutorTest {
+
+    @Test
+    void sameKeyRunsInSubmitOrderOnOneThread() {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 4, 1000, 1000);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        Map<String, String> threadByKey = new ConcurrentHashMap<>();
+        AtomicBoolean switchedThread = new AtomicBoolean();
+
+        for (int i = 0; i < 200; i++) {
+            String key = "k" + (i % 10);
+            int seq = i;
+            assertTrue(executor.submit(key, () -> {
+                seen.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(seq);
+                String prev = threadByKey.putIfAbsent(key, Thread.currentThread().getName());
+                if (prev != null && !prev.equals(Thread.currentThread().getName())) {
+                    switchedThread.set(true);
+                }
+            }));
+        }
+        executor.shutdown(5_000);
+
+        assertEquals(200, executor.completedCount());
+        assertFalse(switchedThread.get());
+        for (Map.Entry<String, List<Integer>> e : seen.entrySet()) {
+            List<Integer> seqs = e.getValue();
+            for (int i = 1; i < seqs.size(); i++) {
+                assertTrue(seqs.get(i - 1) < seqs.get(i), "out of order for " + e.getKey());
+            }
+        }
+        assertEquals(executor.laneIndex("k3"), executor.laneIndex("k3"));
+    }
+
+    @Test
+    void submitTimesOutWhenLaneFull() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 1, 1, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // 第一个任务占住工作线程，第二个占满队列
+        assertTrue(executor.submit("a", () -> {
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertTrue(executor.submit("a", () -> { }));
+
+        assertFalse(executor.submit("a", () -> { }));
+        assertEquals(1, executor.rejectedCount());
+
+        release.countDown();
+        executor.shutdown(1_000);
+        assertEquals(2, executor.completedCount());
+    }
+
+    @Test
+    void submitWithTimeoutWaitsForSpace() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 1, 1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(executor.submit("a", () -> {
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertTrue(executor.submit("a", () -> { }));
+
+        // 默认不等待；显式超时内腾出空位则入队
+        assertFalse(executor.submit("a", () -> { }));
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.setDaemon(true);
+        releaser.start();
+        assertTrue(executor.submit("a", () -> { }, 3_000));
+
+        executor.shutdown(1_000);
+        assertEquals(3, executor.completedCount());
+        assertEquals(1, executor.rejectedCount());
+    }
+
+    @Test
+    void submitBlockingWaitsForSpace()throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 1, 1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(executor.submit("a", () -> {
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertTrue(executor.submit("a", () -> { }));
+
+        AtomicBoolean queued = new AtomicBoolean();
+        Thread producer = new Thread(() -> queued.set(executor.submitBlocking("a", () -> { })));
+        producer.setDaemon(true);
+        producer.start();
+
+        // 队列满：生产者一直阻塞，不会超时返回
+        producer.join(300);
+        assertTrue(producer.isAlive());
+
+        release.countDown();
+        producer.join(2_000);
+        assertTrue(queued.get());
+        executor.shutdown(1_000);
+        assertEquals(3, executor.completedCount());
+        assertEquals(0, executor.rejectedCount());
+    }
+
+    @Test
+    void submitBlockingGivesUpAfterShutdown() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 1, 1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit("a", () -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        executor.submit("a", () -> { });
+
+        AtomicBoolean queued = new AtomicBoolean(true);
+        Thread producer = new Thread(() -> queued.set(executor.submitBlocking("a", () -> { })));
+        producer.setDaemon(true);
+        producer.start();
+        producer.join(100);
+
+        executor.shutdown(0);
+        producer.join(2_000);
+        assertFalse(producer.isAlive());
+        assertFalse(queued.get());
+        release.countDown();
+    }
+
+    @Test
+    void shutdownDrainsQueuedTasksAndRejectsNewOnes() {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 2, 100, 0);
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            int n = i;
+            executor.submit(i, () -> ran.add(n));
+        }
+        executor.shutdown(5_000);
+
+        assertEquals(20, ran.size());
+        assertFalse(executor.submit("late", () -> { }));
+        assertFalse(executor.submitBlocking("late", () -> { }));
+        assertEquals(0, executor.pendingCount());
+    }
+
+    @Test
+    void failingTaskDoesNotStopLane() {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test", 1, 10, 0);
+        AtomicBoolean after = new AtomicBoolean();
+        executor.submit("a", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.submit("a", () -> after.set(true));
+        executor.shutdown(2_000);
+
+        assertTrue(after.get());
+        assertEquals(2, executor.completedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
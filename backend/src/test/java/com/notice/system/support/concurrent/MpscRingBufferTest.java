@@ -0,0 +1,139 @@
+package com.notice.system.support.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(2, new MpscRingBuffer<>(1).capacity());
+        assertEquals(8, new MpscRingBuffer<>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8).capacity());
+    }
+
+    @Test
+    void emptyBufferPollsNull() {
+        MpscRingBuffer<String> buffer = new MpscRingBuffer<>(4);
+
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.drainTo(new ArrayList<>(), 10));
+    }
+
+    @Test
+    void fullBufferRejectsOffer() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        // 取走一个后又能写入
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    void keepsFifoOrderAcrossWraparound() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        // 写读交替多圈，槽位序号反复回绕
+        for (int round = 0; round < 10; round++) {
+            while (buffer.offer(next)) {
+                next++;
+            }
+            List<Integer> out = new ArrayList<>();
+            buffer.drainTo(out, 3);
+            for (Integer v : out) {
+                assertEquals(expected++, v);
+            }
+        }
+        Integer v;
+        while ((v = buffer.poll()) != null) {
+            assertEquals(expected++, v);
+        }
+        assertEquals(next, expected);
+    }
+
+    @Test
+    void drainToRespectsMax() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> out = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(out, 3));
+        assertEquals(List.of(0, 1, 2), out);
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThrows(NullPointerException.class, () -> new MpscRingBuffer<String>(4).offer(null));
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 5_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        int[] lastByProducer = new int[producers];
+        Arrays.fill(lastByProducer, -1);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (seen.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+            Integer v = buffer.poll();
+            if (v == null) {
+                Thread.yield();
+                continue;
+            }
+            assertTrue(seen.add(v), "duplicate element " + v);
+            // 同一生产者的元素保持写入顺序
+            int p = v / perProducer;
+            assertTrue(v % perProducer > lastByProducer[p]);
+            lastByProducer[p] = v % perProducer;
+        }
+        for (Thread t : threads) {
+            t.join(1_000);
+        }
+
+        assertEquals(producers * perProducer, seen.size());
+        assertNull(buffer.poll());
+    }
+}
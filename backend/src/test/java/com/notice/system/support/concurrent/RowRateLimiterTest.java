@@ -0,0 +1,88 @@
+package com.notice.system.support.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowRateLimiterTest {
+
+    @Test
+    void nonPositiveRateIsUnlimited() {
+        assertTrue(new RowRateLimiter(0).isUnlimited());
+        assertTrue(new RowRateLimiter(-5).isUnlimited());
+
+        long start = System.nanoTime();
+        new RowRateLimiter(0).acquire(1_000_000);
+        assertTrue(elapsedMs(start) < 500);
+    }
+
+    @Test
+    void initialBurstUpToOneSecondDoesNotWait() {
+        RowRateLimiter limiter = new RowRateLimiter(1_000);
+        assertFalse(limiter.isUnlimited());
+
+        long start = System.nanoTime();
+        limiter.acquire(600);
+        limiter.acquire(400);
+        assertTrue(elapsedMs(start) < 500);
+    }
+
+    @Test
+    void waitsWhenTokensRunOut() {
+        RowRateLimiter limiter = new RowRateLimiter(1_000);
+        limiter.acquire(1_000);
+
+        // 桶已空：200 行约需 200ms
+        long start = System.nanoTime();
+        limiter.acquire(200);
+        long waited = elapsedMs(start);
+        assertTrue(waited >= 150, "waited " + waited + "ms");
+        assertTrue(waited < 1_000, "waited " + waited + "ms");
+    }
+
+    @Test
+    void oversizedRequestOverdraftsAndNextCallerPays() {
+        RowRateLimiter limiter = new RowRateLimiter(1_000);
+
+        // 单次超过桶容量：本次只等透支部分
+        long start = System.nanoTime();
+        limiter.acquire(1_200);
+        long first = elapsedMs(start);
+        assertTrue(first >= 150 && first < 1_000, "first waited " + first + "ms");
+
+        start = System.nanoTime();
+        limiter.acquire(100);
+        long second = elapsedMs(start);
+        assertTrue(second >= 50, "second waited " + second + "ms");
+    }
+
+    @Test
+    void interruptEndsWaitEarly() {
+        RowRateLimiter limiter = new RowRateLimiter(10);
+        limiter.acquire(10);
+
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        limiter.acquire(100);
+        // 中断标记保留给调用方
+        assertTrue(Thread.interrupted());
+        assertTrue(elapsedMs(start) < 1_000);
+    }
+
+    @Test
+    void zeroOrNegativeRowsDoNotConsume() {
+        RowRateLimiter limiter = new RowRateLimiter(100);
+        limiter.acquire(0);
+        limiter.acquire(-10);
+
+        long start = System.nanoTime();
+        limiter.acquire(100);
+        assertTrue(elapsedMs(start) < 500);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
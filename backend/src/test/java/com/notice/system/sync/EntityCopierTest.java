@@ -0,0 +1,101 @@
+package com.notice.system.sync;
+
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCopierTest {
+
+    private final EntityCopier<Row> copier = EntityCopier.of(Row.class, Row::new);
+
+    @Test
+    void copiesAllPropertiesIncludingNull() {
+        Row from = row();
+        from.setName(null);
+        Row to = row();
+        to.setName("old");
+
+        copier.copy(from, to);
+
+        // 与 BeanUtils.copyProperties 一致：null 也覆盖
+        assertNull(to.getName());
+        assertEquals(from.getAmount(), to.getAmount());
+        assertEquals(from.getUpdateTime(), to.getUpdateTime());
+        assertEquals(7, to.getVersion());
+    }
+
+    @Test
+    void copyOfCreatesNewInstance() {
+        Row from = row();
+        Row copy = copier.copyOf(from);
+
+        assertNotSame(from, copy);
+        assertTrue(copier.diff(from, copy).isEmpty());
+    }
+
+    @Test
+    void diffIgnoresSubSecondAndBigDecimalScale() {
+        Row a = row();
+        Row b = row();
+        b.setUpdateTime(a.getUpdateTime().withNano(999_000_000));
+        b.setAmount(new BigDecimal("12.50"));
+
+        assertTrue(copier.diff(a, b).isEmpty());
+    }
+
+    @Test
+    void diffReportsChangedProperties() {
+        Row a = row();
+        Row b = row();
+        b.setName("other");
+        b.setUpdateTime(a.getUpdateTime().plusSeconds(1));
+
+        List<String> changed = copier.diff(a, b);
+
+        assertEquals(2, changed.size());
+        assertTrue(changed.containsAll(List.of("name", "updateTime")));
+    }
+
+    @Test
+    void diffTreatsNullAsValue() {
+        Row a = row();
+        Row b = row();
+        b.setAmount(null);
+
+        assertEquals(List.of("amount"), copier.diff(a, b));
+        assertTrue(copier.diff(new Row(), new Row()).isEmpty());
+    }
+
+    @Test
+    void readByPropertyName() {
+        Row r = row();
+
+        assertEquals("n1", copier.read(r, "name"));
+        assertEquals(7, copier.read(r, "version"));
+        assertNull(copier.read(r, "missing"));
+    }
+
+    private static Row row() {
+        Row r = new Row();
+        r.setId("id-1");
+        r.setName("n1");
+        r.setAmount(new BigDecimal("12.5"));
+        r.setVersion(7);
+        r.setUpdateTime(LocalDateTime.of(2024, 1, 1, 8, 30, 15, 123_000_000));
+        return r;
+    }
+
+    @Data
+    public static class Row {
+        private String id;
+        private String name;
+        private BigDecimal amount;
+        private int version;
+        private LocalDateTime updateTime;
+    }
+}
@@ -0,0 +1,89 @@
+package com.notice.system.bench;
+
+import com.notice.system.entity.Notice;
+import com.notice.system.entity.User;
+import com.notice.system.sync.EntityCopier;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体复制基准：同一行复制到新实体，对比
+ * <ul>
+ *   <li>beanUtils：BeanUtils.copyProperties（每次按 PropertyDescriptor 反射调用）</li>
+ *   <li>entityCopier：{@link EntityCopier#copyOf}（启动期编译好的 getter/setter）</li>
+ * </ul>
+ * 运行：java -jar benchmarks/target/benchmarks.jar EntityCopierBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityCopierBenchmark {
+
+    private Notice notice;
+    private User user;
+    private EntityCopier<Notice> noticeCopier;
+    private EntityCopier<User> userCopier;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 8, 30, 15, 123_000_000);
+
+        notice = new Notice();
+        notice.setId("b7c1f0e2a9d34c5f8e6a1b2c3d4e5f60");
+        notice.setTitle("系统维护通知");
+        notice.setContent("本周六 22:00 至次日 02:00 进行系统维护，期间暂停服务。".repeat(20));
+        notice.setPublisherId("3f2a1b0c9d8e7f6a5b4c3d2e1f0a9b8c");
+        notice.setLevel("NORMAL");
+        notice.setStatus("PUBLISHED");
+        notice.setPublishTime(now);
+        notice.setExpireTime(now.plusDays(7));
+        notice.setViewCount(42L);
+        notice.setCreateTime(now);
+        notice.setUpdateTime(now);
+
+        user = new User();
+        user.setId("0a1b2c3d4e5f60718293a4b5c6d7e8f9");
+        user.setUsername("zhangsan");
+        user.setRoleId("role-1");
+        user.setDeptId("dept-1");
+        user.setNickname("张三");
+        user.setEmail("zhangsan@example.com");
+        user.setPhone("13800000000");
+        user.setStatus(1);
+        user.setCreateTime(now);
+        user.setUpdateTime(now);
+
+        noticeCopier = EntityCopier.of(Notice.class, Notice::new);
+        userCopier = EntityCopier.of(User.class, User::new);
+    }
+
+    @Benchmark
+    public Notice beanUtilsNotice() {
+        Notice to = new Notice();
+        BeanUtils.copyProperties(notice, to);
+        return to;
+    }
+
+    @Benchmark
+    public Notice entityCopierNotice() {
+        return noticeCopier.copyOf(notice);
+    }
+
+    @Benchmark
+    public User beanUtilsUser() {
+        User to = new User();
+        BeanUtils.copyProperties(user, to);
+        return to;
+    }
+
+    @Benchmark
+    public User entityCopierUser() {
+        return userCopier.copyOf(user);
+    }
+}
@@ -0,0 +1,149 @@
+package com.notice.system.bench;
+
+import com.notice.system.common.GlobalProperties;
+import com.notice.system.entityEnum.DatabaseType;
+import com.notice.system.entityEnum.SyncAction;
+import com.notice.system.entityEnum.SyncEntityType;
+import com.notice.system.service.SyncAuditShipService;
+import com.notice.system.service.impl.SyncServiceImpl;
+import com.notice.system.support.event.SyncEventBus;
+import com.notice.system.sync.SyncExecutor;
+import com.notice.system.sync.SyncWriteStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * submitSync 扇出基准：目标库用固定延迟模拟（PG pgMs、SQL Server sqlserverMs），对比
+ * <ul>
+ *   <li>fanOut=false：逐个目标执行，耗时约为各目标之和</li>
+ *   <li>fanOut=true：并行扇出，耗时约为最慢目标</li>
+ * </ul>
+ * 用 DELETE 动作：不读源库、不做 post-check，只测扇出本身。
+ * 运行：java -jar benchmarks/target/benchmarks.jar FanOutBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FanOutBenchmark {
+
+    @Param({"false", "true"})
+    public boolean fanOut;
+
+    @Param({"20"})
+    public long pgMs;
+
+    @Param({"40"})
+    public long sqlserverMs;
+
+    private SyncServiceImpl syncService;
+    private final AtomicLong seq = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GlobalProperties gp = new GlobalProperties();
+        gp.getSync().getFanOut().setEnabled(fanOut);
+        gp.getSync().getFanOut().setTargetTimeoutMs(10_000);
+        gp.getSync().getAsync().setEnabled(false);
+        gp.getSync().getCoalesce().setEnabled(false);
+        gp.getSync().getOutbox().setEnabled(false);
+        gp.getSync().getEventBus().setEnabled(false);
+
+        List<SyncExecutor> executors = List.of(
+                new DelayExecutor(DatabaseType.MYSQL, 0),
+                new DelayExecutor(DatabaseType.PG, pgMs),
+                new DelayExecutor(DatabaseType.SQLSERVER, sqlserverMs));
+
+        syncService = new SyncServiceImpl(null, executors, event -> { },
+                new SyncEventBus(event -> { }, gp), gp,
+                null, null, null, new NoShip());
+        syncService.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        syncService.shutdown();
+    }
+
+    @Benchmark
+    public void submitSync() {
+        syncService.submitSync(SyncEntityType.NOTICE, "n" + seq.incrementAndGet(), SyncAction.DELETE, DatabaseType.MYSQL);
+    }
+
+    /** 固定延迟的目标库执行器。 */
+    static final class DelayExecutor implements SyncExecutor {
+
+        private final DatabaseType targetDb;
+        private final long delayMs;
+
+        DelayExecutor(DatabaseType targetDb, long delayMs) {
+            this.targetDb = targetDb;
+            this.delayMs = delayMs;
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public DatabaseType targetDb() {
+            return targetDb;
+        }
+
+        @Override
+        public SyncWriteStats writeStats() {
+            return new SyncWriteStats(targetDb, 0, 0, 0, 0);
+        }
+
+        @Override
+        public void applyOne(SyncEntityType entityType, SyncAction action, String entityId, DatabaseType sourceDb, boolean diff) {
+            pause();
+        }
+
+        @Override
+        public void applyEntity(SyncEntityType entityType, SyncAction action, String entityId,
+                                Object sourceEntity, DatabaseType sourceDb, boolean diff) {
+            pause();
+        }
+
+        @Override
+        public void applyBatch(SyncEntityType entityType, SyncAction action,
+                               Collection<String> entityIds, DatabaseType sourceDb, boolean diff) {
+            pause();
+        }
+
+        @Override
+        public void applyBatchEntities(SyncEntityType entityType, SyncAction action, Collection<String> entityIds,
+                                       Collection<?> sourceEntities, DatabaseType sourceDb, boolean diff) {
+            pause();
+        }
+    }
+
+    /** 不走批量搬运。 */
+    static final class NoShip implements SyncAuditShipService {
+        @Override
+        public boolean isShipped(SyncEntityType entityType, SyncAction action, DatabaseType sourceDb) {
+            return false;
+        }
+
+        @Override
+        public long ship(SyncEntityType entityType, DatabaseType targetDb) {
+            return 0;
+        }
+
+        @Override
+        public long shipAll() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.notice.system.bench;
+
+import com.notice.system.common.FingerprintSpec;
+import com.notice.system.entity.*;
+import com.notice.system.entityEnum.SyncEntityType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行指纹基准：覆盖全部实体类型，对比
+ * <ul>
+ *   <li>legacySha256：改造前的 SnapshotUtil 实现（逐字段拼规范串 + 每行 getInstance + String.format 转 hex），原样内联在 {@link Legacy}</li>
+ *   <li>streamingSha256：流式 SHA-256（结果与 legacy 一致）</li>
+ *   <li>streamingMurmur3：流式 MurmurHash3 x64 128</li>
+ * </ul>
+ * 运行：java -jar benchmarks/target/benchmarks.jar FingerprintBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FingerprintBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"USER", "ROLE", "DEPT", "NOTICE", "NOTICE_TARGET_DEPT", "NOTICE_READ",
+            "SYNC_LOG", "SYNC_CONFLICT", "SYNC_CONFLICT_ITEM"})
+    public SyncEntityType type;
+
+    /** 公告正文长度（其它实体不受影响） */
+    @Param({"200", "4000"})
+    public int contentLength;
+
+    private Object[] rows;
+    private FingerprintSpec spec;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random r = new Random(7);
+        rows = new Object[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = RowFactory.create(type, r, contentLength);
+        }
+        spec = FingerprintSpec.of(type);
+    }
+
+    private Object next() {
+        return rows[cursor++ & (ROWS - 1)];
+    }
+
+    @Benchmark
+    public void legacySha256(Blackhole bh) throws Exception {
+        bh.consume(Legacy.sha256Hex(Legacy.buildFingerprint(type, next())));
+    }
+
+    @Benchmark
+    public String streamingSha256() {
+        return spec.hash(next(), FingerprintSpec.Algorithm.SHA256);
+    }
+
+    @Benchmark
+    public String streamingMurmur3() {
+        return spec.hash(next(), FingerprintSpec.Algorithm.MURMUR3_128);
+    }
+
+    /** 改造前的 SnapshotUtil 指纹实现（对照组，不随 FingerprintSpec 变化）。 */
+    static final class Legacy {
+
+        private static final DateTimeFormatter DT_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        static String buildFingerprint(SyncEntityType type, Object row) {
+            if (row == null) return "";
+
+            return switch (type) {
+                case USER -> {
+                    User u = (User) row;
+                    yield "username=" + normText(u.getUsername())
+                            + "|roleId=" + nvo(u.getRoleId())
+                            + "|deptId=" + nvo(u.getDeptId())
+                            + "|nickname=" + normText(u.getNickname())
+                            + "|email=" + normText(u.getEmail())
+                            + "|phone=" + normText(u.getPhone())
+                            + "|status=" + nvo(u.getStatus());
+                }
+                case ROLE -> "name=" + normText(((Role) row).getName());
+                case DEPT -> {
+                    Dept d = (Dept) row;
+                    yield "name=" + normText(d.getName())
+                            + "|parentId=" + nvo(d.getParentId())
+                            + "|description=" + normText(d.getDescription())
+                            + "|sortOrder=" + nvo(d.getSortOrder())
+                            + "|status=" + nvo(d.getStatus());
+                }
+                case NOTICE -> {
+                    Notice n = (Notice) row;
+                    yield "title=" + normText(n.getTitle())
+                            + "|content=" + normText(n.getContent())
+                            + "|publisherId=" + nvo(n.getPublisherId())
+                            + "|level=" + normText(n.getLevel())
+                            + "|status=" + normText(n.getStatus())
+                            + "|publishTime=" + normTime(n.getPublishTime())
+                            + "|expireTime=" + normTime(n.getExpireTime());
+                }
+                case NOTICE_TARGET_DEPT -> {
+                    NoticeTargetDept x = (NoticeTargetDept) row;
+                    yield "noticeId=" + nvo(x.getNoticeId())
+                            + "|deptId=" + nvo(x.getDeptId());
+                }
+                case NOTICE_READ -> {
+                    NoticeRead nr = (NoticeRead) row;
+                    yield "noticeId=" + nvo(nr.getNoticeId())
+                            + "|userId=" + nvo(nr.getUserId())
+                            + "|readTime=" + normTime(nr.getReadTime())
+                            + "|deviceType=" + normText(nr.getDeviceType());
+                }
+                default -> "id=" + normText(extractIdGeneric(row));
+            };
+        }
+
+        private static String extractIdGeneric(Object row) {
+            try {
+                var m = row.getClass().getMethod("getId");
+                Object v = m.invoke(row);
+                return v == null ? "" : String.valueOf(v);
+            } catch (Exception e) {
+                return "";
+            }
+        }
+
+        private static String nvo(Object v) {
+            if (v == null) return "";
+            String s = String.valueOf(v);
+            return s == null ? "" : s.trim();
+        }
+
+        private static String normText(String s) {
+            if (s == null) return "";
+            String t = s.trim();
+            return t.replace("\r\n", "\n").replace("\r", "\n");
+        }
+
+        private static String normTime(LocalDateTime t) {
+            if (t == null) return "";
+            return DT_FMT.format(t.truncatedTo(ChronoUnit.SECONDS));
+        }
+
+        static String sha256Hex(String text) throws Exception {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = md.digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) sb.append(String.format("%02x", b));
+            return sb.toString();
+        }
+    }
+
+    /** 构造带换行、首尾空格、中文和 emoji 的随机行，贴近真实数据。 */
+    static final class RowFactory {
+
+        private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789 通知部门用户\r\n😀";
+
+        static Object create(SyncEntityType type, Random r, int contentLength) {
+            String id = Long.toHexString(r.nextLong());
+            return switch (type) {
+                case USER -> {
+                    User u = new User();
+                    u.setId(id);
+                    u.setUsername(text(r, 12));
+                    u.setRoleId(Long.toHexString(r.nextLong()));
+                    u.setDeptId(Long.toHexString(r.nextLong()));
+                    u.setNickname(text(r, 8));
+                    u.setEmail(text(r, 12) + "@example.com");
+                    u.setPhone("1" + (3000000000L + r.nextInt(1_000_000_000)));
+                    u.setStatus(r.nextInt(2));
+                    yield u;
+                }
+                case ROLE -> {
+                    Role x = new Role();
+                    x.setId(id);
+                    x.setName(text(r, 8));
+                    yield x;
+                }
+                case DEPT -> {
+                    Dept d = new Dept();
+                    d.setId(id);
+                    d.setName(text(r, 10));
+                    d.setParentId(Long.toHexString(r.nextLong()));
+                    d.setDescription(text(r, 60));
+                    d.setSortOrder(r.nextInt(100));
+                    d.setStatus(r.nextInt(2));
+                    yield d;
+                }
+                case NOTICE -> {
+                    Notice n = new Notice();
+                    n.setId(id);
+                    n.setTitle(text(r, 30));
+                    n.setContent(text(r, contentLength));
+                    n.setPublisherId(Long.toHexString(r.nextLong()));
+                    n.setLevel("NORMAL");
+                    n.setStatus("PUBLISHED");
+                    n.setPublishTime(time(r));
+                    n.setExpireTime(r.nextBoolean() ? time(r) : null);
+                    yield n;
+                }
+                case NOTICE_TARGET_DEPT -> {
+                    NoticeTargetDept x = new NoticeTargetDept();
+                    x.setId(id);
+                    x.setNoticeId(Long.toHexString(r.nextLong()));
+                    x.setDeptId(Long.toHexString(r.nextLong()));
+                    yield x;
+                }
+                case NOTICE_READ -> {
+                    NoticeRead x = new NoticeRead();
+                    x.setId(id);
+                    x.setNoticeId(Long.toHexString(r.nextLong()));
+                    x.setUserId(Long.toHexString(r.nextLong()));
+                    x.setReadTime(time(r));
+                    x.setDeviceType("PC");
+                    yield x;
+                }
+                case SYNC_LOG -> {
+                    SyncLog x = new SyncLog();
+                    x.setId(id);
+                    yield x;
+                }
+                case SYNC_CONFLICT -> {
+                    SyncConflict x = new SyncConflict();
+                    x.setId(id);
+                    yield x;
+                }
+                case SYNC_CONFLICT_ITEM -> {
+                    SyncConflictItem x = new SyncConflictItem();
+                    x.setId(id);
+                    yield x;
+                }
+            };
+        }
+
+        private static String text(Random r, int len) {
+            StringBuilder sb = new StringBuilder(len);
+            for (int i = 0; i < len; i++) sb.append(ALPHABET.charAt(r.nextInt(ALPHABET.length())));
+            return sb.toString();
+        }
+
+        private static LocalDateTime time(Random r) {
+            return LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(r.nextInt(60 * 60 * 24 * 365)).withNano(r.nextInt(1_000_000_000));
+        }
+    }
+}
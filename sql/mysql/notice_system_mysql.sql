@@ -20,6 +20,11 @@ DROP TABLE IF EXISTS users;
 DROP TABLE IF EXISTS dept;
 DROP TABLE IF EXISTS role;
 DROP TABLE IF EXISTS sync_log;
+DROP TABLE IF EXISTS sync_checkpoint;
+DROP TABLE IF EXISTS sync_pending_change;
+DROP TABLE IF EXISTS sync_outbox;
+DROP TABLE IF EXISTS sync_log_hourly;
+DROP TABLE IF EXISTS sync_lease;
 
 -- =========================
 -- role
@@ -30,6 +35,7 @@ CREATE TABLE role (
     create_time DATETIME     NOT NULL,
     update_time DATETIME     NOT NULL,
     PRIMARY KEY (id),
+    KEY idx_role_update_time (update_time, id),
     UNIQUE KEY uk_role_name (name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -46,6 +52,7 @@ CREATE TABLE dept (
     create_time DATETIME      NOT NULL,
     update_time DATETIME      NOT NULL,
     PRIMARY KEY (id),
+    KEY idx_dept_update_time (update_time, id),
     KEY idx_dept_parent (parent_id),
     CONSTRAINT fk_dept_parent
         FOREIGN KEY (parent_id) REFERENCES dept(id)
@@ -69,6 +76,7 @@ CREATE TABLE users (
     create_time      DATETIME      NOT NULL,
     update_time      DATETIME      NOT NULL,
     PRIMARY KEY (id),
+    KEY idx_user_update_time (update_time, id),
     UNIQUE KEY uk_user_username (username),
     UNIQUE KEY uk_user_email (email),
     UNIQUE KEY uk_user_phone (phone),
@@ -96,6 +104,7 @@ CREATE TABLE notice (
     create_time   DATETIME      NOT NULL,
     update_time   DATETIME      NOT NULL,
     PRIMARY KEY (id),
+    KEY idx_notice_update_time (update_time, id),
     KEY idx_notice_status_publish (`status`, publish_time),
     KEY idx_notice_publisher (publisher_id),
     CONSTRAINT fk_notice_publisher
@@ -112,6 +121,7 @@ CREATE TABLE notice_target_dept (
     create_time DATETIME    NOT NULL,
     update_time DATETIME    NOT NULL,
     PRIMARY KEY (id),
+    KEY idx_ntd_update_time (update_time, id),
     KEY idx_ntd_notice (notice_id),
     KEY idx_ntd_dept (dept_id),
     CONSTRAINT fk_ntd_notice
@@ -132,6 +142,7 @@ CREATE TABLE notice_read (
     create_time DATETIME     NOT NULL,
     update_time DATETIME     NOT NULL,
     PRIMARY KEY (id),
+    KEY idx_nr_update_time (update_time, id),
     KEY idx_nr_notice_user (notice_id, user_id),
     KEY idx_nr_user (user_id),
     CONSTRAINT fk_nr_notice
@@ -153,12 +164,17 @@ CREATE TABLE sync_log (
     status      VARCHAR(20)  NOT NULL,
     error_msg   TEXT         NULL,
     retry_count INT          NOT NULL DEFAULT 0,
+    next_retry_at DATETIME    NULL,
     create_time DATETIME     NOT NULL,
     update_time DATETIME     NOT NULL,
     PRIMARY KEY (id),
     KEY idx_sync_log_status_create (status, create_time),
     KEY idx_sync_log_entity (entity_type, entity_id),
     KEY idx_sync_log_src_tgt (source_db, target_db),
+    KEY idx_sync_log_create_time (create_time, id),
+    KEY idx_sync_log_status_update (status, update_time, id),
+    KEY idx_sync_log_update (update_time, create_time),
+    KEY idx_sync_log_retry (status, next_retry_at),
     CONSTRAINT ck_sync_log_action CHECK (action IN ('CREATE','UPDATE','DELETE')),
     CONSTRAINT ck_sync_log_db_source CHECK (source_db IN ('MYSQL','PG','SQLSERVER')),
     CONSTRAINT ck_sync_log_db_target CHECK (target_db IN ('MYSQL','PG','SQLSERVER')),
@@ -188,6 +204,7 @@ CREATE TABLE sync_conflict (
     UNIQUE KEY uk_conflict_entity (entity_type, entity_id),
     KEY idx_conflict_status_seen (status, last_seen_at),
     KEY idx_conflict_checked (last_checked_at),
+    KEY idx_conflict_create_time (create_time, id),
     CONSTRAINT ck_sync_conflict_status CHECK (status IN ('OPEN','RESOLVED','IGNORED')),
     CONSTRAINT ck_sync_conflict_type CHECK (conflict_type IS NULL OR conflict_type IN ('MISSING','MISMATCH')),
     CONSTRAINT ck_sync_conflict_resolution_db CHECK (resolution_source_db IS NULL OR resolution_source_db IN ('MYSQL','PG','SQLSERVER'))
@@ -211,12 +228,96 @@ CREATE TABLE sync_conflict_item (
     UNIQUE KEY uk_conflict_db (conflict_id, db_type),
     KEY idx_item_conflict (conflict_id),
     KEY idx_item_db_exists (db_type, exists_flag),
+    KEY idx_item_create_time (create_time, id),
     CONSTRAINT fk_conflict_item_conflict
         FOREIGN KEY (conflict_id) REFERENCES sync_conflict(id) ON DELETE CASCADE,
     CONSTRAINT ck_item_db_type CHECK (db_type IN ('MYSQL','PG','SQLSERVER')),
     CONSTRAINT ck_item_exists CHECK (exists_flag IN (0,1))
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- =========================
+-- sync_checkpoint（同步任务断点，本库私有，不参与同步）
+-- =========================
+CREATE TABLE sync_checkpoint (
+    id              CHAR(32)     NOT NULL,
+    checkpoint_key  VARCHAR(100) NOT NULL,
+    cursor_id       VARCHAR(64)  NULL,
+    cursor_time     DATETIME     NULL,
+    processed_count BIGINT       NOT NULL DEFAULT 0,
+    create_time     DATETIME     NOT NULL,
+    update_time     DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_checkpoint_key (checkpoint_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_pending_change（目标库熔断期间暂存的待同步变更，本库私有，不参与同步）
+-- id = md5(target_db|entity_type|entity_id)，同一实体只保留最后一次变更
+-- =========================
+CREATE TABLE sync_pending_change (
+    id          CHAR(32)     NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    create_time DATETIME     NOT NULL,
+    update_time DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_pending_entity (target_db, entity_type, entity_id),
+    KEY idx_pending_target_id (target_db, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_outbox（同步变更 outbox，与业务写入同一本地事务，本库私有，不参与同步）
+-- relay 用 FOR UPDATE SKIP LOCKED 并发领取（需要 MySQL 8.0+）
+-- =========================
+CREATE TABLE sync_outbox (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    claim_owner VARCHAR(100) NULL,
+    claim_until DATETIME     NULL,
+    create_time DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_outbox_claim_until (claim_until)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_log_hourly（sync_log 小时预聚合，由本库 sync_log 汇总，本库私有，不参与同步）
+-- id = md5(stat_hour|entity_type|action|source_db|target_db|status)
+-- =========================
+CREATE TABLE sync_log_hourly (
+    id          CHAR(32)     NOT NULL,
+    stat_hour   DATETIME     NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    total_count BIGINT       NOT NULL DEFAULT 0,
+    create_time DATETIME     NOT NULL,
+    update_time DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_log_hourly_hour (stat_hour)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_lease（定时任务分布式租约，只建在 notice.sync.lease.db 指定的库，不参与同步）
+-- 抢占/续期/释放都是单条带条件的 UPDATE，时间取数据库时钟；fencing_token 每次易主 +1
+-- =========================
+CREATE TABLE sync_lease (
+    lease_key     VARCHAR(100) NOT NULL,
+    owner         VARCHAR(150) NULL,
+    fencing_token BIGINT       NOT NULL DEFAULT 0,
+    lease_until   DATETIME(3)  NULL,
+    create_time   DATETIME     NOT NULL,
+    update_time   DATETIME     NOT NULL,
+    PRIMARY KEY (lease_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- =========================
 -- trigger: notice_read AFTER INSERT
 -- =========================
@@ -250,6 +351,7 @@ BEGIN
     DECLARE v_threshold   DATETIME;
     DECLARE v_total       BIGINT;
     DECLARE v_need_delete BIGINT;
+    DECLARE v_deleted     BIGINT DEFAULT 0;
 
     SET v_retain_days = IFNULL(p_retain_days, 90);
     SET v_max_count   = IFNULL(p_max_count,   100000);
@@ -258,6 +360,7 @@ BEGIN
 
     DELETE FROM sync_log
     WHERE create_time < v_threshold;
+    SET v_deleted = ROW_COUNT();
 
     SELECT COUNT(*) INTO v_total FROM sync_log;
 
@@ -267,7 +370,11 @@ BEGIN
         DELETE FROM sync_log
         ORDER BY create_time ASC
         LIMIT v_need_delete;
+        SET v_deleted = v_deleted + ROW_COUNT();
     END IF;
+
+    -- 返回删除行数（应用侧据此统计）
+    SELECT v_deleted AS deleted;
 END$$
 
 DELIMITER ;
@@ -0,0 +1,19 @@
+/* =========================
+   可选：sync_log 按月分区（配合 notice.sync.log-clean.mode=PARTITION）
+   - 分区键必须包含在主键里，主键改为 (id, create_time)；id 由应用生成（md5），仍然唯一
+   - 分区命名 pYYYYMM，上界为下月 1 号；pmax 兜底，后续月份由清理任务从 pmax 中拆出
+   - 执行前按当前日期调整下面的月份列表
+   ========================= */
+USE notice_system_mysql;
+
+ALTER TABLE sync_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, create_time);
+
+ALTER TABLE sync_log
+    PARTITION BY RANGE COLUMNS (create_time) (
+        PARTITION pold    VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION pmax    VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,197 @@
+/* =========================
+   已有库升级脚本（MySQL）：按旧版 notice_system_mysql.sql 建好的库执行本脚本，补齐同步相关的新表 / 新列 / 新索引
+   - 新建库直接执行 notice_system_mysql.sql，不需要本脚本
+   - 可重复执行：表用 IF NOT EXISTS，列和索引先查 information_schema 再加
+   ========================= */
+USE notice_system_mysql;
+
+DROP PROCEDURE IF EXISTS sync_upgrade_add_column;
+DROP PROCEDURE IF EXISTS sync_upgrade_add_index;
+
+DELIMITER $$
+
+-- 列不存在时才执行 ALTER
+CREATE PROCEDURE sync_upgrade_add_column(IN p_table VARCHAR(64), IN p_column VARCHAR(64), IN p_ddl VARCHAR(1000))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND column_name = p_column) THEN
+        SET @ddl = p_ddl;
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+-- 索引不存在时才执行 ALTER
+CREATE PROCEDURE sync_upgrade_add_index(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_ddl VARCHAR(1000))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = p_ddl;
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+-- =========================
+-- sync_checkpoint（同步任务断点，本库私有，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_checkpoint (
+    id              CHAR(32)     NOT NULL,
+    checkpoint_key  VARCHAR(100) NOT NULL,
+    cursor_id       VARCHAR(64)  NULL,
+    cursor_time     DATETIME     NULL,
+    processed_count BIGINT       NOT NULL DEFAULT 0,
+    create_time     DATETIME     NOT NULL,
+    update_time     DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_checkpoint_key (checkpoint_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_pending_change（目标库熔断期间暂存的待同步变更，本库私有，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_pending_change (
+    id          CHAR(32)     NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    create_time DATETIME     NOT NULL,
+    update_time DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_pending_entity (target_db, entity_type, entity_id),
+    KEY idx_pending_target_id (target_db, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_outbox（同步变更 outbox，本库私有，不参与同步；relay 需要 MySQL 8.0+）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_outbox (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    claim_owner VARCHAR(100) NULL,
+    claim_until DATETIME     NULL,
+    create_time DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_outbox_claim_until (claim_until)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- 业务表 (update_time, id) 索引（增量同步按水位线翻页）
+-- =========================
+CALL sync_upgrade_add_index('role', 'idx_role_update_time', 'ALTER TABLE role ADD KEY idx_role_update_time (update_time, id)');
+CALL sync_upgrade_add_index('dept', 'idx_dept_update_time', 'ALTER TABLE dept ADD KEY idx_dept_update_time (update_time, id)');
+CALL sync_upgrade_add_index('users', 'idx_user_update_time', 'ALTER TABLE users ADD KEY idx_user_update_time (update_time, id)');
+CALL sync_upgrade_add_index('notice', 'idx_notice_update_time', 'ALTER TABLE notice ADD KEY idx_notice_update_time (update_time, id)');
+CALL sync_upgrade_add_index('notice_target_dept', 'idx_ntd_update_time', 'ALTER TABLE notice_target_dept ADD KEY idx_ntd_update_time (update_time, id)');
+CALL sync_upgrade_add_index('notice_read', 'idx_nr_update_time', 'ALTER TABLE notice_read ADD KEY idx_nr_update_time (update_time, id)');
+
+-- =========================
+-- 审计表 (create_time, id) 索引（批量搬运按游标翻页）
+-- =========================
+CALL sync_upgrade_add_index('sync_log', 'idx_sync_log_create_time', 'ALTER TABLE sync_log ADD KEY idx_sync_log_create_time (create_time, id)');
+CALL sync_upgrade_add_index('sync_conflict', 'idx_conflict_create_time', 'ALTER TABLE sync_conflict ADD KEY idx_conflict_create_time (create_time, id)');
+CALL sync_upgrade_add_index('sync_conflict_item', 'idx_item_create_time', 'ALTER TABLE sync_conflict_item ADD KEY idx_item_create_time (create_time, id)');
+
+-- =========================
+-- sync_log_hourly（sync_log 小时预聚合，本库私有，不参与同步）
+-- 升级后首次运行汇总任务只会补最近 recompute-hours 小时，更早的小时桶按需手动回填
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_log_hourly (
+    id          CHAR(32)     NOT NULL,
+    stat_hour   DATETIME     NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    total_count BIGINT       NOT NULL DEFAULT 0,
+    create_time DATETIME     NOT NULL,
+    update_time DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_log_hourly_hour (stat_hour)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_log (status, update_time, id) 索引（冲突扫描游标）
+-- =========================
+CALL sync_upgrade_add_index('sync_log', 'idx_sync_log_status_update', 'ALTER TABLE sync_log ADD KEY idx_sync_log_status_update (status, update_time, id)');
+
+-- =========================
+-- sync_lease（定时任务分布式租约，只需建在 notice.sync.lease.db 指定的库，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_lease (
+    lease_key     VARCHAR(100) NOT NULL,
+    owner         VARCHAR(150) NULL,
+    fencing_token BIGINT       NOT NULL DEFAULT 0,
+    lease_until   DATETIME(3)  NULL,
+    create_time   DATETIME     NOT NULL,
+    update_time   DATETIME     NOT NULL,
+    PRIMARY KEY (lease_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =========================
+-- sync_log.next_retry_at（自动重试退避）及到期扫描索引
+-- =========================
+CALL sync_upgrade_add_column('sync_log', 'next_retry_at', 'ALTER TABLE sync_log ADD COLUMN next_retry_at DATETIME NULL AFTER retry_count');
+CALL sync_upgrade_add_index('sync_log', 'idx_sync_log_retry', 'ALTER TABLE sync_log ADD KEY idx_sync_log_retry (status, next_retry_at)');
+
+-- =========================
+-- sync_log (update_time, create_time) 索引（日志汇总的状态变化扫描）
+-- =========================
+CALL sync_upgrade_add_index('sync_log', 'idx_sync_log_update', 'ALTER TABLE sync_log ADD KEY idx_sync_log_update (update_time, create_time)');
+
+-- =========================
+-- sp_clean_sync_log：返回删除行数
+-- =========================
+DROP PROCEDURE IF EXISTS sp_clean_sync_log;
+DELIMITER $$
+
+CREATE PROCEDURE sp_clean_sync_log(
+    IN p_retain_days INT,
+    IN p_max_count   BIGINT
+)
+BEGIN
+    DECLARE v_retain_days INT;
+    DECLARE v_max_count   BIGINT;
+    DECLARE v_threshold   DATETIME;
+    DECLARE v_total       BIGINT;
+    DECLARE v_need_delete BIGINT;
+    DECLARE v_deleted     BIGINT DEFAULT 0;
+
+    SET v_retain_days = IFNULL(p_retain_days, 90);
+    SET v_max_count   = IFNULL(p_max_count,   100000);
+
+    SET v_threshold = DATE_SUB(NOW(), INTERVAL v_retain_days DAY);
+
+    DELETE FROM sync_log
+    WHERE create_time < v_threshold;
+    SET v_deleted = ROW_COUNT();
+
+    SELECT COUNT(*) INTO v_total FROM sync_log;
+
+    IF v_total > v_max_count THEN
+        SET v_need_delete = v_total - v_max_count;
+
+        DELETE FROM sync_log
+        ORDER BY create_time ASC
+        LIMIT v_need_delete;
+        SET v_deleted = v_deleted + ROW_COUNT();
+    END IF;
+
+    -- 返回删除行数（应用侧据此统计）
+    SELECT v_deleted AS deleted;
+END$$
+
+DELIMITER ;
+
+DROP PROCEDURE IF EXISTS sync_upgrade_add_column;
+DROP PROCEDURE IF EXISTS sync_upgrade_add_index;
@@ -25,6 +25,11 @@ DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS dept CASCADE;
 DROP TABLE IF EXISTS role CASCADE;
 DROP TABLE IF EXISTS sync_log CASCADE;
+DROP TABLE IF EXISTS sync_checkpoint CASCADE;
+DROP TABLE IF EXISTS sync_pending_change CASCADE;
+DROP TABLE IF EXISTS sync_outbox CASCADE;
+DROP TABLE IF EXISTS sync_log_hourly CASCADE;
+DROP TABLE IF EXISTS sync_lease CASCADE;
 
 
 
@@ -39,6 +44,7 @@ CREATE TABLE role (
     CONSTRAINT pk_role PRIMARY KEY (id),
     CONSTRAINT uk_role_name UNIQUE (name)
 );
+CREATE INDEX idx_role_update_time ON role(update_time, id);
 
 -- =========================
 -- 4) dept
@@ -55,6 +61,7 @@ CREATE TABLE dept (
     CONSTRAINT pk_dept PRIMARY KEY (id),
     CONSTRAINT fk_dept_parent FOREIGN KEY (parent_id) REFERENCES dept(id)
 );
+CREATE INDEX idx_dept_update_time ON dept(update_time, id);
 CREATE INDEX idx_dept_parent ON dept(parent_id);
 
 -- =========================
@@ -81,6 +88,7 @@ CREATE TABLE users (
     CONSTRAINT fk_user_role FOREIGN KEY (role_id) REFERENCES role(id),
     CONSTRAINT fk_user_dept FOREIGN KEY (dept_id) REFERENCES dept(id)
 );
+CREATE INDEX idx_user_update_time ON users(update_time, id);
 CREATE INDEX idx_user_role ON users(role_id);
 CREATE INDEX idx_user_dept ON users(dept_id);
 
@@ -102,6 +110,7 @@ CREATE TABLE notice (
     CONSTRAINT pk_notice PRIMARY KEY (id),
     CONSTRAINT fk_notice_publisher FOREIGN KEY (publisher_id) REFERENCES users(id)
 );
+CREATE INDEX idx_notice_update_time ON notice(update_time, id);
 CREATE INDEX idx_notice_status_publish ON notice(status, publish_time);
 CREATE INDEX idx_notice_publisher ON notice(publisher_id);
 
@@ -118,6 +127,7 @@ CREATE TABLE notice_target_dept (
     CONSTRAINT fk_ntd_notice FOREIGN KEY (notice_id) REFERENCES notice(id),
     CONSTRAINT fk_ntd_dept FOREIGN KEY (dept_id) REFERENCES dept(id)
 );
+CREATE INDEX idx_ntd_update_time ON notice_target_dept(update_time, id);
 CREATE INDEX idx_ntd_notice ON notice_target_dept(notice_id);
 CREATE INDEX idx_ntd_dept ON notice_target_dept(dept_id);
 
@@ -136,6 +146,7 @@ CREATE TABLE notice_read (
     CONSTRAINT fk_nr_notice FOREIGN KEY (notice_id) REFERENCES notice(id),
     CONSTRAINT fk_nr_user FOREIGN KEY (user_id) REFERENCES users(id)
 );
+CREATE INDEX idx_nr_update_time ON notice_read(update_time, id);
 CREATE INDEX idx_nr_notice_user ON notice_read(notice_id, user_id);
 CREATE INDEX idx_nr_user ON notice_read(user_id);
 
@@ -152,6 +163,7 @@ CREATE TABLE sync_log (
     status      VARCHAR(20)   NOT NULL,
     error_msg   TEXT,
     retry_count INTEGER       NOT NULL DEFAULT 0,
+    next_retry_at TIMESTAMP,
     create_time TIMESTAMP     NOT NULL,
     update_time TIMESTAMP     NOT NULL,
     CONSTRAINT pk_sync_log PRIMARY KEY (id),
@@ -163,6 +175,10 @@ CREATE TABLE sync_log (
 CREATE INDEX idx_sync_log_status_create ON sync_log(status, create_time);
 CREATE INDEX idx_sync_log_entity ON sync_log(entity_type, entity_id);
 CREATE INDEX idx_sync_log_src_tgt ON sync_log(source_db, target_db);
+CREATE INDEX idx_sync_log_create_time ON sync_log(create_time, id);
+CREATE INDEX idx_sync_log_status_update ON sync_log(status, update_time, id);
+CREATE INDEX idx_sync_log_update ON sync_log(update_time, create_time);
+CREATE INDEX idx_sync_log_retry ON sync_log(status, next_retry_at);
 
 -- =========================
 -- 10) sync_conflict
@@ -191,6 +207,7 @@ CREATE TABLE sync_conflict (
 );
 CREATE INDEX idx_conflict_status_seen ON sync_conflict(status, last_seen_at);
 CREATE INDEX idx_conflict_checked ON sync_conflict(last_checked_at);
+CREATE INDEX idx_conflict_create_time ON sync_conflict(create_time, id);
 
 -- =========================
 -- 11) sync_conflict_item
@@ -215,6 +232,90 @@ CREATE TABLE sync_conflict_item (
 );
 CREATE INDEX idx_item_conflict ON sync_conflict_item(conflict_id);
 CREATE INDEX idx_item_db_exists ON sync_conflict_item(db_type, exists_flag);
+CREATE INDEX idx_item_create_time ON sync_conflict_item(create_time, id);
+
+-- =========================
+-- 11.1) sync_checkpoint（同步任务断点，本库私有，不参与同步）
+-- =========================
+CREATE TABLE sync_checkpoint (
+    id              CHAR(32)     NOT NULL,
+    checkpoint_key  VARCHAR(100) NOT NULL,
+    cursor_id       VARCHAR(64),
+    cursor_time     TIMESTAMP,
+    processed_count BIGINT       NOT NULL DEFAULT 0,
+    create_time     TIMESTAMP    NOT NULL,
+    update_time     TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_checkpoint PRIMARY KEY (id),
+    CONSTRAINT uk_checkpoint_key UNIQUE (checkpoint_key)
+);
+
+-- =========================
+-- 11.2) sync_pending_change（目标库熔断期间暂存的待同步变更，本库私有，不参与同步）
+-- id = md5(target_db|entity_type|entity_id)，同一实体只保留最后一次变更
+-- =========================
+CREATE TABLE sync_pending_change (
+    id          CHAR(32)     NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    create_time TIMESTAMP    NOT NULL,
+    update_time TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_pending_change PRIMARY KEY (id),
+    CONSTRAINT uk_pending_entity UNIQUE (target_db, entity_type, entity_id)
+);
+CREATE INDEX idx_pending_target_id ON sync_pending_change (target_db, id);
+
+-- =========================
+-- 11.3) sync_outbox（同步变更 outbox，与业务写入同一本地事务，本库私有，不参与同步）
+-- relay 用 FOR UPDATE SKIP LOCKED 并发领取
+-- =========================
+CREATE TABLE sync_outbox (
+    id          BIGSERIAL    NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    claim_owner VARCHAR(100),
+    claim_until TIMESTAMP,
+    create_time TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_outbox PRIMARY KEY (id)
+);
+CREATE INDEX idx_outbox_claim_until ON sync_outbox (claim_until);
+
+-- =========================
+-- 11.4) sync_log_hourly（sync_log 小时预聚合，由本库 sync_log 汇总，本库私有，不参与同步）
+-- id = md5(stat_hour|entity_type|action|source_db|target_db|status)
+-- =========================
+CREATE TABLE sync_log_hourly (
+    id          CHAR(32)     NOT NULL,
+    stat_hour   TIMESTAMP    NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    total_count BIGINT       NOT NULL DEFAULT 0,
+    create_time TIMESTAMP    NOT NULL,
+    update_time TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_log_hourly PRIMARY KEY (id)
+);
+CREATE INDEX idx_log_hourly_hour ON sync_log_hourly (stat_hour);
+
+-- =========================
+-- 11.5) sync_lease（定时任务分布式租约，只建在 notice.sync.lease.db 指定的库，不参与同步）
+-- 抢占/续期/释放都是单条带条件的 UPDATE，时间取数据库时钟；fencing_token 每次易主 +1
+-- =========================
+CREATE TABLE sync_lease (
+    lease_key     VARCHAR(100) NOT NULL,
+    owner         VARCHAR(150),
+    fencing_token BIGINT       NOT NULL DEFAULT 0,
+    lease_until   TIMESTAMP(3),
+    create_time   TIMESTAMP    NOT NULL,
+    update_time   TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_lease PRIMARY KEY (lease_key)
+);
 
 -- =========================
 -- 12) notice_read view_count 触发器（保留）
@@ -242,9 +343,11 @@ EXECUTE FUNCTION fn_notice_read_after_insert();
 -- 13) 清理日志过程（保留）
 -- =========================
 DROP PROCEDURE IF EXISTS sp_clean_sync_log(INT, BIGINT);
+DROP PROCEDURE IF EXISTS sp_clean_sync_log(INT, BIGINT, BIGINT);
 CREATE OR REPLACE PROCEDURE sp_clean_sync_log(
-    IN p_retain_days INT,
-    IN p_max_count   BIGINT
+    IN    p_retain_days INT,
+    IN    p_max_count   BIGINT,
+    INOUT p_deleted     BIGINT DEFAULT NULL
 )
 LANGUAGE plpgsql
 AS
@@ -255,11 +358,14 @@ DECLARE
     v_threshold   TIMESTAMP;
     v_total       BIGINT;
     v_need_delete BIGINT;
+    v_rows        BIGINT;
 BEGIN
     v_threshold := NOW() - (v_retain_days || ' days')::interval;
 
     DELETE FROM sync_log
     WHERE create_time < v_threshold;
+    GET DIAGNOSTICS v_rows = ROW_COUNT;
+    p_deleted := v_rows;
 
     SELECT COUNT(*) INTO v_total FROM sync_log;
 
@@ -273,6 +379,8 @@ BEGIN
             ORDER BY create_time ASC
             LIMIT v_need_delete
         );
+        GET DIAGNOSTICS v_rows = ROW_COUNT;
+        p_deleted := p_deleted + v_rows;
     END IF;
 END;
 $$;
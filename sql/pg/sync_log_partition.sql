@@ -0,0 +1,60 @@
+/* =========================
+   可选：sync_log 按月分区（配合 notice.sync.log-clean.mode=PARTITION）
+   - 声明式分区，主键改为 (id, create_time)；id 由应用生成（md5），仍然唯一
+   - 子表命名 sync_log_pYYYYMM；sync_log_default 兜底，后续月份由清理任务预建
+   - 执行前按当前日期调整下面的月份列表
+   ========================= */
+BEGIN;
+
+ALTER TABLE sync_log RENAME TO sync_log_old;
+ALTER TABLE sync_log_old RENAME CONSTRAINT pk_sync_log TO pk_sync_log_old;
+ALTER INDEX idx_sync_log_status_create RENAME TO idx_sync_log_old_status_create;
+ALTER INDEX idx_sync_log_entity RENAME TO idx_sync_log_old_entity;
+ALTER INDEX idx_sync_log_src_tgt RENAME TO idx_sync_log_old_src_tgt;
+ALTER INDEX idx_sync_log_create_time RENAME TO idx_sync_log_old_create_time;
+ALTER INDEX IF EXISTS idx_sync_log_status_update RENAME TO idx_sync_log_old_status_update;
+ALTER INDEX IF EXISTS idx_sync_log_retry RENAME TO idx_sync_log_old_retry;
+ALTER INDEX IF EXISTS idx_sync_log_update RENAME TO idx_sync_log_old_update;
+
+CREATE TABLE sync_log (
+    id          CHAR(32)      NOT NULL,
+    entity_type VARCHAR(50)   NOT NULL,
+    entity_id   VARCHAR(64)   NOT NULL,
+    action      VARCHAR(20)   NOT NULL,
+    source_db   VARCHAR(20)   NOT NULL,
+    target_db   VARCHAR(20)   NOT NULL,
+    status      VARCHAR(20)   NOT NULL,
+    error_msg   TEXT,
+    retry_count INTEGER       NOT NULL DEFAULT 0,
+    next_retry_at TIMESTAMP,
+    create_time TIMESTAMP     NOT NULL,
+    update_time TIMESTAMP     NOT NULL,
+    CONSTRAINT pk_sync_log PRIMARY KEY (id, create_time),
+    CONSTRAINT ck_sync_log_action CHECK (action IN ('CREATE','UPDATE','DELETE')),
+    CONSTRAINT ck_sync_log_source_db CHECK (source_db IN ('MYSQL','PG','SQLSERVER')),
+    CONSTRAINT ck_sync_log_target_db CHECK (target_db IN ('MYSQL','PG','SQLSERVER')),
+    CONSTRAINT ck_sync_log_status CHECK (status IN ('SUCCESS','FAILED','CONFLICT','ERROR'))
+) PARTITION BY RANGE (create_time);
+CREATE INDEX idx_sync_log_status_create ON sync_log(status, create_time);
+CREATE INDEX idx_sync_log_entity ON sync_log(entity_type, entity_id);
+CREATE INDEX idx_sync_log_src_tgt ON sync_log(source_db, target_db);
+CREATE INDEX idx_sync_log_create_time ON sync_log(create_time, id);
+CREATE INDEX idx_sync_log_status_update ON sync_log(status, update_time, id);
+CREATE INDEX idx_sync_log_update ON sync_log(update_time, create_time);
+CREATE INDEX idx_sync_log_retry ON sync_log(status, next_retry_at);
+
+CREATE TABLE sync_log_p202608 PARTITION OF sync_log FOR VALUES FROM ('2026-08-01') TO ('2026-09-01');
+CREATE TABLE sync_log_p202609 PARTITION OF sync_log FOR VALUES FROM ('2026-09-01') TO ('2026-10-01');
+CREATE TABLE sync_log_p202610 PARTITION OF sync_log FOR VALUES FROM ('2026-10-01') TO ('2026-11-01');
+CREATE TABLE sync_log_p202611 PARTITION OF sync_log FOR VALUES FROM ('2026-11-01') TO ('2026-12-01');
+CREATE TABLE sync_log_default PARTITION OF sync_log DEFAULT;
+
+-- 列名显式列出：旧表若是后加的 next_retry_at，列顺序与新表不同
+INSERT INTO sync_log (id, entity_type, entity_id, action, source_db, target_db, status,
+                      error_msg, retry_count, next_retry_at, create_time, update_time)
+SELECT id, entity_type, entity_id, action, source_db, target_db, status,
+       error_msg, retry_count, next_retry_at, create_time, update_time
+FROM sync_log_old;
+DROP TABLE sync_log_old;
+
+COMMIT;
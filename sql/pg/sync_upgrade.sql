@@ -0,0 +1,165 @@
+/* =========================
+   已有库升级脚本（PostgreSQL）：按旧版 notice_system_pg.sql 建好的库执行本脚本，补齐同步相关的新表 / 新列 / 新索引
+   - 新建库直接执行 notice_system_pg.sql，不需要本脚本
+   - 可重复执行：全部使用 IF NOT EXISTS
+   ========================= */
+-- \connect notice_system_pg
+
+-- =========================
+-- sync_checkpoint（同步任务断点，本库私有，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_checkpoint (
+    id              CHAR(32)     NOT NULL,
+    checkpoint_key  VARCHAR(100) NOT NULL,
+    cursor_id       VARCHAR(64),
+    cursor_time     TIMESTAMP,
+    processed_count BIGINT       NOT NULL DEFAULT 0,
+    create_time     TIMESTAMP    NOT NULL,
+    update_time     TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_checkpoint PRIMARY KEY (id),
+    CONSTRAINT uk_checkpoint_key UNIQUE (checkpoint_key)
+);
+
+-- =========================
+-- sync_pending_change（目标库熔断期间暂存的待同步变更，本库私有，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_pending_change (
+    id          CHAR(32)     NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    create_time TIMESTAMP    NOT NULL,
+    update_time TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_pending_change PRIMARY KEY (id),
+    CONSTRAINT uk_pending_entity UNIQUE (target_db, entity_type, entity_id)
+);
+CREATE INDEX IF NOT EXISTS idx_pending_target_id ON sync_pending_change (target_db, id);
+
+-- =========================
+-- sync_outbox（同步变更 outbox，本库私有，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_outbox (
+    id          BIGSERIAL    NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    claim_owner VARCHAR(100),
+    claim_until TIMESTAMP,
+    create_time TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_outbox PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_outbox_claim_until ON sync_outbox (claim_until);
+
+-- =========================
+-- 业务表 (update_time, id) 索引（增量同步按水位线翻页）
+-- =========================
+CREATE INDEX IF NOT EXISTS idx_role_update_time ON role(update_time, id);
+CREATE INDEX IF NOT EXISTS idx_dept_update_time ON dept(update_time, id);
+CREATE INDEX IF NOT EXISTS idx_user_update_time ON users(update_time, id);
+CREATE INDEX IF NOT EXISTS idx_notice_update_time ON notice(update_time, id);
+CREATE INDEX IF NOT EXISTS idx_ntd_update_time ON notice_target_dept(update_time, id);
+CREATE INDEX IF NOT EXISTS idx_nr_update_time ON notice_read(update_time, id);
+
+-- =========================
+-- 审计表 (create_time, id) 索引（批量搬运按游标翻页）
+-- =========================
+CREATE INDEX IF NOT EXISTS idx_sync_log_create_time ON sync_log(create_time, id);
+CREATE INDEX IF NOT EXISTS idx_conflict_create_time ON sync_conflict(create_time, id);
+CREATE INDEX IF NOT EXISTS idx_item_create_time ON sync_conflict_item(create_time, id);
+
+-- =========================
+-- sync_log_hourly（sync_log 小时预聚合，本库私有，不参与同步）
+-- 升级后首次运行汇总任务只会补最近 recompute-hours 小时，更早的小时桶按需手动回填
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_log_hourly (
+    id          CHAR(32)     NOT NULL,
+    stat_hour   TIMESTAMP    NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    action      VARCHAR(20)  NOT NULL,
+    source_db   VARCHAR(20)  NOT NULL,
+    target_db   VARCHAR(20)  NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    total_count BIGINT       NOT NULL DEFAULT 0,
+    create_time TIMESTAMP    NOT NULL,
+    update_time TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_log_hourly PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_log_hourly_hour ON sync_log_hourly (stat_hour);
+
+-- =========================
+-- sync_log (status, update_time, id) 索引（冲突扫描游标）
+-- =========================
+CREATE INDEX IF NOT EXISTS idx_sync_log_status_update ON sync_log(status, update_time, id);
+
+-- =========================
+-- sync_lease（定时任务分布式租约，只需建在 notice.sync.lease.db 指定的库，不参与同步）
+-- =========================
+CREATE TABLE IF NOT EXISTS sync_lease (
+    lease_key     VARCHAR(100) NOT NULL,
+    owner         VARCHAR(150),
+    fencing_token BIGINT       NOT NULL DEFAULT 0,
+    lease_until   TIMESTAMP(3),
+    create_time   TIMESTAMP    NOT NULL,
+    update_time   TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_sync_lease PRIMARY KEY (lease_key)
+);
+
+-- =========================
+-- sync_log.next_retry_at（自动重试退避）及到期扫描索引
+-- =========================
+ALTER TABLE sync_log ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP;
+CREATE INDEX IF NOT EXISTS idx_sync_log_retry ON sync_log(status, next_retry_at);
+
+-- =========================
+-- sync_log (update_time, create_time) 索引（日志汇总的状态变化扫描）
+-- =========================
+CREATE INDEX IF NOT EXISTS idx_sync_log_update ON sync_log(update_time, create_time);
+
+-- =========================
+-- sp_clean_sync_log：增加 INOUT p_deleted 返回删除行数（参数表变了，先删旧签名）
+-- =========================
+DROP PROCEDURE IF EXISTS sp_clean_sync_log(INT, BIGINT);
+DROP PROCEDURE IF EXISTS sp_clean_sync_log(INT, BIGINT, BIGINT);
+CREATE OR REPLACE PROCEDURE sp_clean_sync_log(
+    IN    p_retain_days INT,
+    IN    p_max_count   BIGINT,
+    INOUT p_deleted     BIGINT DEFAULT NULL
+)
+LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_retain_days INT    := COALESCE(p_retain_days, 90);
+    v_max_count   BIGINT := COALESCE(p_max_count,   100000);
+    v_threshold   TIMESTAMP;
+    v_total       BIGINT;
+    v_need_delete BIGINT;
+    v_rows        BIGINT;
+BEGIN
+    v_threshold := NOW() - (v_retain_days || ' days')::interval;
+
+    DELETE FROM sync_log
+    WHERE create_time < v_threshold;
+    GET DIAGNOSTICS v_rows = ROW_COUNT;
+    p_deleted := v_rows;
+
+    SELECT COUNT(*) INTO v_total FROM sync_log;
+
+    IF v_total > v_max_count THEN
+        v_need_delete := v_total - v_max_count;
+
+        DELETE FROM sync_log
+        WHERE id IN (
+            SELECT id
+            FROM sync_log
+            ORDER BY create_time ASC
+            LIMIT v_need_delete
+        );
+        GET DIAGNOSTICS v_rows = ROW_COUNT;
+        p_deleted := p_deleted + v_rows;
+    END IF;
+END;
+$$;
@@ -35,6 +35,15 @@ IF OBJECT_ID(N'dbo.users', N'U') IS NOT NULL DROP TABLE dbo.users;
 IF OBJECT_ID(N'dbo.dept', N'U') IS NOT NULL DROP TABLE dbo.dept;
 IF OBJECT_ID(N'dbo.role', N'U') IS NOT NULL DROP TABLE dbo.role;
 IF OBJECT_ID(N'dbo.sync_log', N'U') IS NOT NULL DROP TABLE dbo.sync_log;
+IF OBJECT_ID(N'dbo.sync_checkpoint', N'U') IS NOT NULL DROP TABLE dbo.sync_checkpoint;
+GO
+IF OBJECT_ID(N'dbo.sync_pending_change', N'U') IS NOT NULL DROP TABLE dbo.sync_pending_change;
+GO
+IF OBJECT_ID(N'dbo.sync_outbox', N'U') IS NOT NULL DROP TABLE dbo.sync_outbox;
+GO
+IF OBJECT_ID(N'dbo.sync_log_hourly', N'U') IS NOT NULL DROP TABLE dbo.sync_log_hourly;
+GO
+IF OBJECT_ID(N'dbo.sync_lease', N'U') IS NOT NULL DROP TABLE dbo.sync_lease;
 GO
 
 /* =========================
@@ -49,6 +58,8 @@ CREATE TABLE dbo.role (
     CONSTRAINT uk_role_name UNIQUE (name)
 );
 GO
+CREATE INDEX idx_role_update_time ON dbo.role(update_time, id);
+GO
 
 /* =========================
    3) 部门表 dept
@@ -66,6 +77,8 @@ CREATE TABLE dbo.dept (
     CONSTRAINT fk_dept_parent FOREIGN KEY (parent_id) REFERENCES dbo.dept(id)
 );
 GO
+CREATE INDEX idx_dept_update_time ON dbo.dept(update_time, id);
+GO
 
 CREATE INDEX idx_dept_parent ON dbo.dept(parent_id);
 GO
@@ -94,6 +107,8 @@ CREATE TABLE dbo.users (
     CONSTRAINT fk_user_dept FOREIGN KEY (dept_id) REFERENCES dbo.dept(id)
 );
 GO
+CREATE INDEX idx_user_update_time ON dbo.users(update_time, id);
+GO
 
 CREATE INDEX idx_user_role ON dbo.users(role_id);
 CREATE INDEX idx_user_dept ON dbo.users(dept_id);
@@ -125,6 +140,8 @@ CREATE TABLE dbo.notice (
     CONSTRAINT ck_notice_status CHECK ([status] IN (N'DRAFT', N'PUBLISHED', N'RECALLED'))
 );
 GO
+CREATE INDEX idx_notice_update_time ON dbo.notice(update_time, id);
+GO
 
 CREATE INDEX idx_notice_status_publish ON dbo.notice([status], publish_time);
 CREATE INDEX idx_notice_publisher ON dbo.notice(publisher_id);
@@ -144,6 +161,8 @@ CREATE TABLE dbo.notice_target_dept (
     CONSTRAINT fk_ntd_dept FOREIGN KEY (dept_id) REFERENCES dbo.dept(id)
 );
 GO
+CREATE INDEX idx_ntd_update_time ON dbo.notice_target_dept(update_time, id);
+GO
 
 CREATE INDEX idx_ntd_notice ON dbo.notice_target_dept(notice_id);
 CREATE INDEX idx_ntd_dept ON dbo.notice_target_dept(dept_id);
@@ -166,6 +185,8 @@ CREATE TABLE dbo.notice_read (
     CONSTRAINT ck_notice_read_device CHECK (device_type IS NULL OR device_type IN (N'PC', N'MOBILE'))
 );
 GO
+CREATE INDEX idx_nr_update_time ON dbo.notice_read(update_time, id);
+GO
 
 CREATE INDEX idx_nr_notice_user ON dbo.notice_read(notice_id, user_id);
 CREATE INDEX idx_nr_user ON dbo.notice_read(user_id);
@@ -184,6 +205,7 @@ CREATE TABLE dbo.sync_log (
     status      NVARCHAR(20)  NOT NULL,
     error_msg   NVARCHAR(MAX) NULL,
     retry_count INT           NOT NULL CONSTRAINT df_sync_log_retry DEFAULT (0),
+    next_retry_at DATETIME2     NULL,
     create_time DATETIME2     NOT NULL,
     update_time DATETIME2     NOT NULL,
     CONSTRAINT pk_sync_log PRIMARY KEY (id),
@@ -197,6 +219,10 @@ GO
 CREATE INDEX idx_sync_log_status_create ON dbo.sync_log(status, create_time);
 CREATE INDEX idx_sync_log_entity ON dbo.sync_log(entity_type, entity_id);
 CREATE INDEX idx_sync_log_src_tgt ON dbo.sync_log(source_db, target_db);
+CREATE INDEX idx_sync_log_create_time ON dbo.sync_log(create_time, id);
+CREATE INDEX idx_sync_log_status_update ON dbo.sync_log(status, update_time, id);
+CREATE INDEX idx_sync_log_update ON dbo.sync_log(update_time, create_time);
+CREATE INDEX idx_sync_log_retry ON dbo.sync_log(status, next_retry_at);
 GO
 
 /* =========================
@@ -230,6 +256,7 @@ GO
 
 CREATE INDEX idx_conflict_status_seen ON dbo.sync_conflict(status, last_seen_at);
 CREATE INDEX idx_conflict_checked ON dbo.sync_conflict(last_checked_at);
+CREATE INDEX idx_conflict_create_time ON dbo.sync_conflict(create_time, id);
 GO
 
 /* =========================
@@ -257,6 +284,98 @@ GO
 
 CREATE INDEX idx_item_conflict ON dbo.sync_conflict_item(conflict_id);
 CREATE INDEX idx_item_db_exists ON dbo.sync_conflict_item(db_type, exists_flag);
+CREATE INDEX idx_item_create_time ON dbo.sync_conflict_item(create_time, id);
+GO
+
+/* =========================
+   10.1) 同步任务断点表 sync_checkpoint（本库私有，不参与同步）
+   ========================= */
+CREATE TABLE dbo.sync_checkpoint (
+    id              CHAR(32)       NOT NULL,
+    checkpoint_key  NVARCHAR(100)  NOT NULL,
+    cursor_id       NVARCHAR(64)   NULL,
+    cursor_time     DATETIME2      NULL,
+    processed_count BIGINT         NOT NULL CONSTRAINT df_checkpoint_processed DEFAULT (0),
+    create_time     DATETIME2      NOT NULL,
+    update_time     DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_checkpoint PRIMARY KEY (id),
+    CONSTRAINT uk_sync_checkpoint_key UNIQUE (checkpoint_key)
+);
+GO
+
+/* =========================
+   10.2) 熔断待同步变更表 sync_pending_change（本库私有，不参与同步）
+   id = md5(target_db|entity_type|entity_id)，同一实体只保留最后一次变更
+   ========================= */
+CREATE TABLE dbo.sync_pending_change (
+    id          CHAR(32)       NOT NULL,
+    target_db   NVARCHAR(20)   NOT NULL,
+    entity_type NVARCHAR(50)   NOT NULL,
+    entity_id   NVARCHAR(64)   NOT NULL,
+    action      NVARCHAR(20)   NOT NULL,
+    source_db   NVARCHAR(20)   NOT NULL,
+    create_time DATETIME2      NOT NULL,
+    update_time DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_pending_change PRIMARY KEY (id),
+    CONSTRAINT uk_sync_pending_entity UNIQUE (target_db, entity_type, entity_id)
+);
+GO
+CREATE INDEX idx_sync_pending_target_id ON dbo.sync_pending_change (target_db, id);
+GO
+
+/* =========================
+   10.3) 同步变更 outbox 表 sync_outbox（与业务写入同一本地事务，本库私有，不参与同步）
+   relay 用 WITH (UPDLOCK, READPAST, ROWLOCK) 并发领取
+   ========================= */
+CREATE TABLE dbo.sync_outbox (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    entity_type NVARCHAR(50)   NOT NULL,
+    entity_id   NVARCHAR(64)   NOT NULL,
+    action      NVARCHAR(20)   NOT NULL,
+    source_db   NVARCHAR(20)   NOT NULL,
+    claim_owner NVARCHAR(100)  NULL,
+    claim_until DATETIME2      NULL,
+    create_time DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_outbox PRIMARY KEY (id)
+);
+GO
+CREATE INDEX idx_sync_outbox_claim_until ON dbo.sync_outbox (claim_until);
+GO
+
+/* =========================
+   10.4) sync_log 小时预聚合表 sync_log_hourly（由本库 sync_log 汇总，本库私有，不参与同步）
+   id = md5(stat_hour|entity_type|action|source_db|target_db|status)
+   ========================= */
+CREATE TABLE dbo.sync_log_hourly (
+    id          CHAR(32)       NOT NULL,
+    stat_hour   DATETIME2      NOT NULL,
+    entity_type NVARCHAR(50)   NOT NULL,
+    action      NVARCHAR(20)   NOT NULL,
+    source_db   NVARCHAR(20)   NOT NULL,
+    target_db   NVARCHAR(20)   NOT NULL,
+    [status]    NVARCHAR(20)   NOT NULL,
+    total_count BIGINT         NOT NULL DEFAULT 0,
+    create_time DATETIME2      NOT NULL,
+    update_time DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_log_hourly PRIMARY KEY (id)
+);
+GO
+CREATE INDEX idx_sync_log_hourly_hour ON dbo.sync_log_hourly (stat_hour);
+GO
+
+/* =========================
+   10.5) sync_lease（定时任务分布式租约，只建在 notice.sync.lease.db 指定的库，不参与同步）
+   抢占/续期/释放都是单条带条件的 UPDATE，时间取数据库时钟；fencing_token 每次易主 +1
+   ========================= */
+CREATE TABLE dbo.sync_lease (
+    lease_key     NVARCHAR(100)  NOT NULL,
+    owner         NVARCHAR(150)  NULL,
+    fencing_token BIGINT         NOT NULL DEFAULT 0,
+    lease_until   DATETIME2(3)   NULL,
+    create_time   DATETIME2      NOT NULL,
+    update_time   DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_lease PRIMARY KEY (lease_key)
+);
 GO
 
 /* =========================
@@ -294,10 +413,12 @@ BEGIN
     DECLARE @max_count   BIGINT = ISNULL(@p_max_count, 100000);
 
     DECLARE @threshold DATETIME2 = DATEADD(DAY, -@retain_days, SYSDATETIME());
+    DECLARE @deleted   BIGINT = 0;
 
     -- 1) 按时间删
     DELETE FROM dbo.sync_log
     WHERE create_time < @threshold;
+    SET @deleted = @@ROWCOUNT;
 
     -- 2) 按数量限流（删最早的）
     DECLARE @total BIGINT;
@@ -314,6 +435,10 @@ BEGIN
         )
         DELETE FROM dbo.sync_log
         WHERE id IN (SELECT id FROM cte);
+        SET @deleted = @deleted + @@ROWCOUNT;
     END
+
+    -- 3) 返回删除行数（应用侧据此统计）
+    SELECT @deleted AS deleted;
 END
 GO
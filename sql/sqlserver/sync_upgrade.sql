@@ -0,0 +1,209 @@
+/* =========================
+   已有库升级脚本（SQL Server）：按旧版 notice_system_sqlserver.sql 建好的库执行本脚本，补齐同步相关的新表 / 新列 / 新索引
+   - 新建库直接执行 notice_system_sqlserver.sql，不需要本脚本
+   - 可重复执行：表 / 列 / 索引都先检查 OBJECT_ID / COL_LENGTH / sys.indexes
+   ========================= */
+USE notice_system_sqlserver;
+GO
+
+/* =========================
+   sync_checkpoint（同步任务断点，本库私有，不参与同步）
+   ========================= */
+IF OBJECT_ID(N'dbo.sync_checkpoint', N'U') IS NULL
+CREATE TABLE dbo.sync_checkpoint (
+    id              CHAR(32)       NOT NULL,
+    checkpoint_key  NVARCHAR(100)  NOT NULL,
+    cursor_id       NVARCHAR(64)   NULL,
+    cursor_time     DATETIME2      NULL,
+    processed_count BIGINT         NOT NULL CONSTRAINT df_checkpoint_processed DEFAULT (0),
+    create_time     DATETIME2      NOT NULL,
+    update_time     DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_checkpoint PRIMARY KEY (id),
+    CONSTRAINT uk_sync_checkpoint_key UNIQUE (checkpoint_key)
+);
+GO
+
+/* =========================
+   sync_pending_change（目标库熔断期间暂存的待同步变更，本库私有，不参与同步）
+   ========================= */
+IF OBJECT_ID(N'dbo.sync_pending_change', N'U') IS NULL
+CREATE TABLE dbo.sync_pending_change (
+    id          CHAR(32)       NOT NULL,
+    target_db   NVARCHAR(20)   NOT NULL,
+    entity_type NVARCHAR(50)   NOT NULL,
+    entity_id   NVARCHAR(64)   NOT NULL,
+    action      NVARCHAR(20)   NOT NULL,
+    source_db   NVARCHAR(20)   NOT NULL,
+    create_time DATETIME2      NOT NULL,
+    update_time DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_pending_change PRIMARY KEY (id),
+    CONSTRAINT uk_sync_pending_entity UNIQUE (target_db, entity_type, entity_id)
+);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_pending_target_id' AND object_id = OBJECT_ID(N'dbo.sync_pending_change'))
+    CREATE INDEX idx_sync_pending_target_id ON dbo.sync_pending_change(target_db, id);
+GO
+
+/* =========================
+   sync_outbox（同步变更 outbox，本库私有，不参与同步）
+   ========================= */
+IF OBJECT_ID(N'dbo.sync_outbox', N'U') IS NULL
+CREATE TABLE dbo.sync_outbox (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    entity_type NVARCHAR(50)   NOT NULL,
+    entity_id   NVARCHAR(64)   NOT NULL,
+    action      NVARCHAR(20)   NOT NULL,
+    source_db   NVARCHAR(20)   NOT NULL,
+    claim_owner NVARCHAR(100)  NULL,
+    claim_until DATETIME2      NULL,
+    create_time DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_outbox PRIMARY KEY (id)
+);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_outbox_claim_until' AND object_id = OBJECT_ID(N'dbo.sync_outbox'))
+    CREATE INDEX idx_sync_outbox_claim_until ON dbo.sync_outbox(claim_until);
+GO
+
+/* =========================
+   业务表 (update_time, id) 索引（增量同步按水位线翻页）
+   ========================= */
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_role_update_time' AND object_id = OBJECT_ID(N'dbo.role'))
+    CREATE INDEX idx_role_update_time ON dbo.role(update_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_dept_update_time' AND object_id = OBJECT_ID(N'dbo.dept'))
+    CREATE INDEX idx_dept_update_time ON dbo.dept(update_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_user_update_time' AND object_id = OBJECT_ID(N'dbo.users'))
+    CREATE INDEX idx_user_update_time ON dbo.users(update_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_notice_update_time' AND object_id = OBJECT_ID(N'dbo.notice'))
+    CREATE INDEX idx_notice_update_time ON dbo.notice(update_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_ntd_update_time' AND object_id = OBJECT_ID(N'dbo.notice_target_dept'))
+    CREATE INDEX idx_ntd_update_time ON dbo.notice_target_dept(update_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_nr_update_time' AND object_id = OBJECT_ID(N'dbo.notice_read'))
+    CREATE INDEX idx_nr_update_time ON dbo.notice_read(update_time, id);
+GO
+
+/* =========================
+   审计表 (create_time, id) 索引（批量搬运按游标翻页）
+   ========================= */
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_log_create_time' AND object_id = OBJECT_ID(N'dbo.sync_log'))
+    CREATE INDEX idx_sync_log_create_time ON dbo.sync_log(create_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_conflict_create_time' AND object_id = OBJECT_ID(N'dbo.sync_conflict'))
+    CREATE INDEX idx_conflict_create_time ON dbo.sync_conflict(create_time, id);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_item_create_time' AND object_id = OBJECT_ID(N'dbo.sync_conflict_item'))
+    CREATE INDEX idx_item_create_time ON dbo.sync_conflict_item(create_time, id);
+GO
+
+/* =========================
+   sync_log_hourly（sync_log 小时预聚合，本库私有，不参与同步）
+   升级后首次运行汇总任务只会补最近 recompute-hours 小时，更早的小时桶按需手动回填
+   ========================= */
+IF OBJECT_ID(N'dbo.sync_log_hourly', N'U') IS NULL
+CREATE TABLE dbo.sync_log_hourly (
+    id          CHAR(32)       NOT NULL,
+    stat_hour   DATETIME2      NOT NULL,
+    entity_type NVARCHAR(50)   NOT NULL,
+    action      NVARCHAR(20)   NOT NULL,
+    source_db   NVARCHAR(20)   NOT NULL,
+    target_db   NVARCHAR(20)   NOT NULL,
+    [status]    NVARCHAR(20)   NOT NULL,
+    total_count BIGINT         NOT NULL DEFAULT 0,
+    create_time DATETIME2      NOT NULL,
+    update_time DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_log_hourly PRIMARY KEY (id)
+);
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_log_hourly_hour' AND object_id = OBJECT_ID(N'dbo.sync_log_hourly'))
+    CREATE INDEX idx_sync_log_hourly_hour ON dbo.sync_log_hourly(stat_hour);
+GO
+
+/* =========================
+   sync_log (status, update_time, id) 索引（冲突扫描游标）
+   ========================= */
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_log_status_update' AND object_id = OBJECT_ID(N'dbo.sync_log'))
+    CREATE INDEX idx_sync_log_status_update ON dbo.sync_log(status, update_time, id);
+GO
+
+/* =========================
+   sync_lease（定时任务分布式租约，只需建在 notice.sync.lease.db 指定的库，不参与同步）
+   ========================= */
+IF OBJECT_ID(N'dbo.sync_lease', N'U') IS NULL
+CREATE TABLE dbo.sync_lease (
+    lease_key     NVARCHAR(100)  NOT NULL,
+    owner         NVARCHAR(150)  NULL,
+    fencing_token BIGINT         NOT NULL DEFAULT 0,
+    lease_until   DATETIME2(3)   NULL,
+    create_time   DATETIME2      NOT NULL,
+    update_time   DATETIME2      NOT NULL,
+    CONSTRAINT pk_sync_lease PRIMARY KEY (lease_key)
+);
+GO
+
+/* =========================
+   sync_log.next_retry_at（自动重试退避）及到期扫描索引
+   ========================= */
+IF COL_LENGTH(N'dbo.sync_log', N'next_retry_at') IS NULL
+    ALTER TABLE dbo.sync_log ADD next_retry_at DATETIME2 NULL;
+GO
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_log_retry' AND object_id = OBJECT_ID(N'dbo.sync_log'))
+    CREATE INDEX idx_sync_log_retry ON dbo.sync_log(status, next_retry_at);
+GO
+
+/* =========================
+   sync_log (update_time, create_time) 索引（日志汇总的状态变化扫描）
+   ========================= */
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_sync_log_update' AND object_id = OBJECT_ID(N'dbo.sync_log'))
+    CREATE INDEX idx_sync_log_update ON dbo.sync_log(update_time, create_time);
+GO
+
+/* =========================
+   sp_clean_sync_log：返回删除行数
+   ========================= */
+IF OBJECT_ID(N'dbo.sp_clean_sync_log', N'P') IS NOT NULL
+    DROP PROCEDURE dbo.sp_clean_sync_log;
+GO
+CREATE PROCEDURE dbo.sp_clean_sync_log
+    @p_retain_days INT = 90,
+    @p_max_count   BIGINT = 100000
+AS
+BEGIN
+    SET NOCOUNT ON;
+
+    DECLARE @retain_days INT = ISNULL(@p_retain_days, 90);
+    DECLARE @max_count   BIGINT = ISNULL(@p_max_count, 100000);
+
+    DECLARE @threshold DATETIME2 = DATEADD(DAY, -@retain_days, SYSDATETIME());
+    DECLARE @deleted   BIGINT = 0;
+
+    -- 1) 按时间删
+    DELETE FROM dbo.sync_log
+    WHERE create_time < @threshold;
+    SET @deleted = @@ROWCOUNT;
+
+    -- 2) 按数量限流（删最早的）
+    DECLARE @total BIGINT;
+    SELECT @total = COUNT(*) FROM dbo.sync_log;
+
+    IF @total > @max_count
+    BEGIN
+        DECLARE @need_delete BIGINT = @total - @max_count;
+
+        ;WITH cte AS (
+            SELECT TOP (@need_delete) id
+            FROM dbo.sync_log
+            ORDER BY create_time ASC
+        )
+        DELETE FROM dbo.sync_log
+        WHERE id IN (SELECT id FROM cte);
+        SET @deleted = @deleted + @@ROWCOUNT;
+    END
+
+    -- 3) 返回删除行数（应用侧据此统计）
+    SELECT @deleted AS deleted;
+END
+GO